@@ -12,8 +12,10 @@ import com.emc.mongoose.base.config.AliasingUtil;
 import com.emc.mongoose.base.config.CliArgUtil;
 import com.emc.mongoose.base.config.ConfigUtil;
 import com.emc.mongoose.base.config.IllegalArgumentNameException;
+import com.emc.mongoose.base.config.TimeUtil;
 import com.emc.mongoose.base.control.AddCorsHeadersRule;
 import com.emc.mongoose.base.control.ConfigServlet;
+import com.emc.mongoose.base.control.SlowestOperationsServlet;
 import com.emc.mongoose.base.control.logs.LogServlet;
 import com.emc.mongoose.base.control.run.RunImpl;
 import com.emc.mongoose.base.control.run.RunServlet;
@@ -25,9 +27,13 @@ import com.emc.mongoose.base.load.step.service.LoadStepManagerServiceImpl;
 import com.emc.mongoose.base.load.step.service.file.FileManagerServiceImpl;
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
+import com.emc.mongoose.base.logging.OperationTraceAnalyzer;
 import com.emc.mongoose.base.metrics.MetricsManager;
 import com.emc.mongoose.base.metrics.MetricsManagerImpl;
 import com.emc.mongoose.base.svc.Service;
+import com.emc.mongoose.base.svc.ServiceTransport;
+import com.github.akurilov.commons.concurrent.ThreadUtil;
+import com.github.akurilov.commons.reflection.TypeUtil;
 import com.github.akurilov.confuse.Config;
 import com.github.akurilov.confuse.SchemaProvider;
 import com.github.akurilov.confuse.exceptions.InvalidValuePathException;
@@ -42,6 +48,8 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.script.ScriptEngine;
 import javax.servlet.MultipartConfigElement;
@@ -81,6 +89,11 @@ public final class Main {
 					LogUtil.exception(Level.ERROR, e, "Failed to load the defaults");
 					throw e;
 				}
+				final List<String> traceFiles = configWithArgs.listVal("run-analyze-files");
+				if (traceFiles != null && !traceFiles.isEmpty()) {
+					analyzeTraces(traceFiles, configWithArgs.val("run-analyze-bucket"));
+					return;
+				}
 				// init the metrics manager
 				final MetricsManager metricsMgr = new MetricsManagerImpl(ServiceTaskExecutor.INSTANCE);
 				// go on
@@ -194,12 +207,15 @@ public final class Main {
 		context.addServlet(new ServletHolder(new ConfigServlet(fullDefaultConfig)), "/config/*");
 		context.addServlet(new ServletHolder(new LogServlet()), "/logs/*");
 		context.addServlet(new ServletHolder(new MetricsServlet()), "/metrics");
+		context.addServlet(new ServletHolder(new SlowestOperationsServlet(metricsMgr)), "/slowest");
 		try {
 			server.start();
 			Loggers.MSG.info("Started to serve the remote API @ port # " + port);
 			final var listenPort = fullDefaultConfig.intVal("load-step-node-port");
-			try (final Service fileMgrSvc = new FileManagerServiceImpl(listenPort);
-							final LoadStepManagerService scenarioStepSvc = new LoadStepManagerServiceImpl(listenPort, extensions, metricsMgr)) {
+			final var transport = ServiceTransport.of(fullDefaultConfig.stringVal("load-step-node-transport"));
+			try (final Service fileMgrSvc = new FileManagerServiceImpl(listenPort, transport);
+							final LoadStepManagerService scenarioStepSvc = new LoadStepManagerServiceImpl(
+											listenPort, transport, extensions, metricsMgr)) {
 				fileMgrSvc.start();
 				final var runServletHolder = new ServletHolder(
 						new RunServlet(extClsLoader, extensions, metricsMgr, fullDefaultConfig, appHomePath, scenarioStepSvc));
@@ -219,6 +235,27 @@ public final class Main {
 		}
 	}
 
+	private static void analyzeTraces(final List<String> traceFiles, final Object timeBucketRaw)
+					throws IOException {
+		final long timeBucketSecs = timeBucketRaw instanceof String
+						? TimeUtil.getTimeInSeconds((String) timeBucketRaw)
+						: TypeUtil.typeConvert(timeBucketRaw, long.class);
+		final var traceFilePaths = traceFiles.stream().map(Paths::get).collect(Collectors.toList());
+		Loggers.MSG.info("Analyzing the operation traces files: {}", traceFilePaths);
+		final var pool = new ForkJoinPool(ThreadUtil.getHardwareThreadCount());
+		try {
+			final var result = OperationTraceAnalyzer.analyze(
+							traceFilePaths, TimeUnit.SECONDS.toMicros(timeBucketSecs), pool);
+			final var strb = new StringBuilder();
+			OperationTraceAnalyzer.format(result, strb);
+			Loggers.MSG.info(strb);
+		} catch (final IOException e) {
+			LogUtil.exception(Level.ERROR, e, "Failed to analyze the operation traces files");
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
 	private static void runScenario(
 					final Config config,
 					final List<Extension> extensions,
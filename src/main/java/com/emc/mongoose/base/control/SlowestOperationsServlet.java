@@ -0,0 +1,79 @@
+package com.emc.mongoose.base.control;
+
+import static org.eclipse.jetty.http.MimeTypes.Type.APPLICATION_JSON;
+
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.item.op.Operation;
+import com.emc.mongoose.base.logging.OperationTraceRecord;
+import com.emc.mongoose.base.metrics.MetricsManager;
+import com.emc.mongoose.base.metrics.context.DistributedMetricsContext;
+import com.fasterxml.jackson.core.JsonGenerator.Feature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/** Serves the slowest operations of the load steps being executed, one entry per load step metrics context */
+public final class SlowestOperationsServlet extends HttpServlet {
+
+	private static final OpType[] OP_TYPES = OpType.values();
+	private static final Operation.Status[] STATUSES = Operation.Status.values();
+
+	private final MetricsManager metricsMgr;
+	private final ObjectMapper mapper = new ObjectMapper()
+					.configure(SerializationFeature.INDENT_OUTPUT, true)
+					.configure(Feature.AUTO_CLOSE_TARGET, false);
+
+	public SlowestOperationsServlet(final MetricsManager metricsMgr) {
+		this.metricsMgr = metricsMgr;
+	}
+
+	@Override
+	protected final void doGet(final HttpServletRequest req, final HttpServletResponse resp)
+					throws IOException {
+		final List<Map<String, Object>> steps = new ArrayList<>();
+		for (final DistributedMetricsContext<?> metricsCtx : metricsMgr.distributedMetricsContexts()) {
+			final var snapshot = metricsCtx.lastSnapshot();
+			if (null != snapshot) {
+				final var slowestOpsSnapshot = snapshot.slowestOpsSnapshot();
+				final Map<String, Object> step = new LinkedHashMap<>();
+				step.put("stepId", metricsCtx.loadStepId());
+				step.put("opType", metricsCtx.opType().name());
+				step.put("concurrency", metricsCtx.concurrencyLimit());
+				step.put("stepOps", opsToMaps(slowestOpsSnapshot.stepOps()));
+				step.put("lastIntervalOps", opsToMaps(slowestOpsSnapshot.lastIntervalOps()));
+				steps.add(step);
+			}
+		}
+		resp.setStatus(HttpServletResponse.SC_OK);
+		resp.setContentType(APPLICATION_JSON.asString());
+		final var out = resp.getOutputStream();
+		mapper.writeValue(out, steps);
+		out.write(System.lineSeparator().getBytes());
+		out.flush();
+	}
+
+	private static List<Map<String, Object>> opsToMaps(final List<OperationTraceRecord<?, ?>> ops) {
+		final List<Map<String, Object>> opMaps = new ArrayList<>(ops.size());
+		for (final var op : ops) {
+			final Map<String, Object> opMap = new LinkedHashMap<>();
+			opMap.put("storageNode", op.storageNode());
+			opMap.put("itemPath", op.itemPath());
+			opMap.put("opType", OP_TYPES[op.opTypeCode()].name());
+			opMap.put("status", STATUSES[op.statusCode()].name());
+			opMap.put("reqTimeStart", op.reqTimeStart());
+			opMap.put("duration", op.duration());
+			opMap.put("respLatency", op.respLatency());
+			opMap.put("dataLatency", op.dataLatency());
+			opMap.put("transferSize", op.transferSize());
+			opMaps.add(opMap);
+		}
+		return opMaps;
+	}
+}
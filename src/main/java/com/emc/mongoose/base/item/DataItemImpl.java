@@ -421,12 +421,28 @@ public class DataItemImpl extends ItemImpl implements DataItem {
 
 	@Override
 	public final void verify(final ByteBuffer inBuff) throws DataCorruptionException {
+		verify(dataInput, layerNum, offset + position, inBuff);
+	}
+
+	/**
+	* Verifies the content against the specified data input layer starting from the specified absolute
+	* offset. Doesn't depend on any item state so may be invoked by any thread after the item has moved
+	* forward.
+	* @param dataInput the data input to compare the content with
+	* @param layerNum the data input layer number
+	* @param absOffset the absolute offset of the content (item's offset + position in the item)
+	* @param inBuff the content to verify
+	* @throws DataCorruptionException if the content doesn't match
+	*/
+	public static void verify(
+					final DataInput dataInput, final int layerNum, final long absOffset, final ByteBuffer inBuff)
+					throws DataCorruptionException {
 		final ByteBuffer ringBuff = dataInput.getLayer(layerNum).asReadOnlyBuffer();
-		ringBuff.position((int) ((offset + position) % dataInputSize));
+		ringBuff.position((int) (absOffset % dataInput.getSize()));
 		verify(inBuff, ringBuff);
 	}
 
-	private void verify(final ByteBuffer inBuff, final ByteBuffer ringBuff)
+	private static void verify(final ByteBuffer inBuff, final ByteBuffer ringBuff)
 					throws DataCorruptionException {
 
 		final int inputSize = inBuff.remaining();
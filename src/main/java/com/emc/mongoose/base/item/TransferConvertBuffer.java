@@ -4,4 +4,10 @@ import com.github.akurilov.commons.io.Input;
 import com.github.akurilov.commons.io.Output;
 
 /** Created by kurila on 16.01.17. */
-public interface TransferConvertBuffer<I, O> extends Input<I>, Output<O> {}
+public interface TransferConvertBuffer<I, O> extends Input<I>, Output<O> {
+
+	/** @return the buffered results count to the buffer capacity ratio, 0 if not known */
+	default double fill() {
+		return 0;
+	}
+}
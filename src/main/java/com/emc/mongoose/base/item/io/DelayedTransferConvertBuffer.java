@@ -90,7 +90,8 @@ public final class DelayedTransferConvertBuffer<I extends Item, O extends Operat
 		}
 		int n;
 		O ioResult;
-		for (int i = from; i < to; i++) {
+		int i = from;
+		while (i < to) {
 			if (lock.tryLock()) {
 				try {
 					n = Math.min(to - i, ioResultsBuffLimit - ioResultsBuffSize);
@@ -100,10 +101,12 @@ public final class DelayedTransferConvertBuffer<I extends Item, O extends Operat
 							if (ioResult == null) {
 								Loggers.MSG.debug("{}: poisoned", this);
 								poisonedFlag = true;
+								ioResultsBuffSize += j;
 								return to - i - j;
 							}
 							ioResultsBuff.add(ioResult);
 						}
+						ioResultsBuffSize += n;
 						i += n;
 						// avoid blocking, there's a chance to exit the outer loop
 						continue;
@@ -162,7 +165,7 @@ public final class DelayedTransferConvertBuffer<I extends Item, O extends Operat
 								markBuffer.add(nextIoResult);
 							}
 							ioResultsIter.remove();
-							this.ioResultsBuffSize = ioResultsBuffSize + 1;
+							this.ioResultsBuffSize = ioResultsBuffSize - 1;
 							break;
 						}
 					} else {
@@ -171,7 +174,7 @@ public final class DelayedTransferConvertBuffer<I extends Item, O extends Operat
 							markBuffer.add(nextIoResult);
 						}
 						ioResultsIter.remove();
-						this.ioResultsBuffSize = ioResultsBuffSize + 1;
+						this.ioResultsBuffSize = ioResultsBuffSize - 1;
 						break;
 					}
 				}
@@ -210,7 +213,6 @@ public final class DelayedTransferConvertBuffer<I extends Item, O extends Operat
 								markBuffer.add(nextIoResult);
 							}
 							ioResultsIter.remove();
-							this.ioResultsBuffSize = ioResultsBuffSize + 1;
 							n++;
 						}
 					}
@@ -222,10 +224,10 @@ public final class DelayedTransferConvertBuffer<I extends Item, O extends Operat
 							markBuffer.add(nextIoResult);
 						}
 						ioResultsIter.remove();
-						this.ioResultsBuffSize = ioResultsBuffSize + 1;
 						n++;
 					}
 				}
+				this.ioResultsBuffSize = ioResultsBuffSize - n;
 			} finally {
 				lock.unlock();
 			}
@@ -241,9 +243,11 @@ public final class DelayedTransferConvertBuffer<I extends Item, O extends Operat
 			try {
 				final Iterator<O> ioResultsIter = ioResultsBuff.iterator();
 				while (n < count && ioResultsIter.hasNext()) {
+					ioResultsIter.next();
 					ioResultsIter.remove();
 					n++;
 				}
+				ioResultsBuffSize -= n;
 			} finally {
 				lock.unlock();
 			}
@@ -251,6 +255,11 @@ public final class DelayedTransferConvertBuffer<I extends Item, O extends Operat
 		return n;
 	}
 
+	@Override
+	public final double fill() {
+		return ((double) ioResultsBuffSize) / ioResultsBuffLimit;
+	}
+
 	@Override
 	public final void reset() {
 		throw new AssertionError("Unable to reset this input");
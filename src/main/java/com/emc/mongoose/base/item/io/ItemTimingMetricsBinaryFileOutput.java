@@ -0,0 +1,136 @@
+package com.emc.mongoose.base.item.io;
+
+import com.emc.mongoose.base.env.FsUtil;
+import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.op.Operation;
+import com.github.akurilov.commons.io.Input;
+import com.github.akurilov.commons.io.Output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static com.github.akurilov.commons.lang.Exceptions.throwUnchecked;
+
+/**
+ * Item latency and duration output to file in the binary columnar format. The values are not converted to text,
+ * they are accumulated in the direct buffers and written with a single gathering write per block.
+ *
+ * The format: the {@link #MAGIC} header followed by the blocks. Each block is the count of the values (8 bytes)
+ * followed by the count of packed latency values and the same count of packed duration values (8 bytes each, big
+ * endian). All the blocks contain {@link #BLOCK_VALUE_COUNT} values except the last one.
+ */
+public class ItemTimingMetricsBinaryFileOutput<I extends Item, O extends Operation> implements Output<O> {
+
+    public static final long MAGIC = 0x4D4E47544D420001L; // "MNGTMB" + format version
+    public static final int BLOCK_VALUE_COUNT = 0x1000;
+    public static final int BLOCK_SIZE = Long.BYTES + 2 * BLOCK_VALUE_COUNT * Long.BYTES;
+
+    private final FileChannel fileChannel;
+    private final ByteBuffer[] blockBuffs = new ByteBuffer[] {
+            ByteBuffer.allocateDirect(Long.BYTES),
+            ByteBuffer.allocateDirect(BLOCK_VALUE_COUNT * Long.BYTES),
+            ByteBuffer.allocateDirect(BLOCK_VALUE_COUNT * Long.BYTES),
+    };
+    private int count = 0;
+    private boolean closed = false;
+
+    public ItemTimingMetricsBinaryFileOutput(final Path filePath) throws IOException {
+        FsUtil.createParentDirsIfNotExist(filePath);
+        fileChannel = FileChannel.open(
+                filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        final var headerBuff = ByteBuffer.allocate(Long.BYTES).putLong(MAGIC).flip();
+        while (headerBuff.hasRemaining()) {
+            fileChannel.write(headerBuff);
+        }
+    }
+
+    @Override
+    public final synchronized boolean put(final O ioResult) {
+        if (ioResult == null) { // poison. Basically a flag that indicates finish of ingest.
+            try {
+                close();
+            } catch (final Exception e) {
+                throwUnchecked(e);
+            }
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        append(ioResult);
+        return true;
+    }
+
+    @Override
+    public final synchronized int put(final List<O> ioResults, final int from, final int to) {
+        O ioResult;
+        for (int i = from; i < to; i++) {
+            ioResult = ioResults.get(i);
+            if (ioResult == null) { // poison. Basically a flag that indicates finish of ingest.
+                try {
+                    close();
+                } catch (final Exception e) {
+                    throwUnchecked(e);
+                }
+                return i - from;
+            }
+            if (closed) {
+                return i - from;
+            }
+            append(ioResult);
+        }
+        return to - from;
+    }
+
+    @Override
+    public final int put(final List<O> ioResults) {
+        return put(ioResults, 0, ioResults.size());
+    }
+
+    private void append(final O ioResult) {
+        blockBuffs[1].putLong(ioResult.latency());
+        blockBuffs[2].putLong(ioResult.duration());
+        if (++count == BLOCK_VALUE_COUNT) {
+            try {
+                flushBlock();
+            } catch (final IOException e) {
+                throwUnchecked(e);
+            }
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        blockBuffs[0].clear().putLong(count).flip();
+        blockBuffs[1].flip();
+        blockBuffs[2].flip();
+        while (blockBuffs[2].hasRemaining()) {
+            fileChannel.write(blockBuffs);
+        }
+        blockBuffs[1].clear();
+        blockBuffs[2].clear();
+        count = 0;
+    }
+
+    @Override
+    public final Input<O> getInput() {
+        throw new AssertionError();
+    }
+
+    @Override
+    public final synchronized void close() throws Exception {
+        if (!closed) {
+            closed = true;
+            try {
+                if (count > 0) {
+                    flushBlock();
+                }
+            } finally {
+                fileChannel.close();
+            }
+        }
+    }
+}
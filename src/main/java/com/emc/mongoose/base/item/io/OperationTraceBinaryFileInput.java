@@ -0,0 +1,81 @@
+package com.emc.mongoose.base.item.io;
+
+import static com.emc.mongoose.base.item.io.OperationTraceBinaryFileOutput.MAGIC;
+import static com.emc.mongoose.base.item.io.OperationTraceBinaryFileOutput.RECORD_HEADER_SIZE;
+import static com.emc.mongoose.base.item.io.OperationTraceBinaryFileOutput.utfSize;
+
+import com.emc.mongoose.base.logging.OperationTraceRecord;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** Reads the operation trace records from the file written by the {@link OperationTraceBinaryFileOutput} */
+public final class OperationTraceBinaryFileInput implements AutoCloseable {
+
+	private static final int BUFF_SIZE = 0x10_0000;
+
+	private final DataInputStream in;
+
+	public OperationTraceBinaryFileInput(final Path filePath) throws IOException {
+		in = new DataInputStream(new BufferedInputStream(Files.newInputStream(filePath), BUFF_SIZE));
+		final long magic;
+		try {
+			magic = in.readLong();
+		} catch (final EOFException e) {
+			in.close();
+			throw new StreamCorruptedException("The file \"" + filePath + "\" is too short");
+		}
+		if (MAGIC != magic) {
+			in.close();
+			throw new StreamCorruptedException("The file \"" + filePath + "\" is not an operation traces binary file");
+		}
+	}
+
+	/** @return the next operation trace record, null if the end of the file is reached */
+	public final OperationTraceRecord<?, ?> get() throws IOException {
+		final int recordSize;
+		try {
+			recordSize = in.readInt();
+		} catch (final EOFException e) {
+			return null;
+		}
+		if (recordSize < RECORD_HEADER_SIZE + 2 * Short.BYTES) {
+			throw new StreamCorruptedException("Invalid record size: " + recordSize);
+		}
+		final int opTypeCode = in.readByte();
+		final int statusCode = in.readByte();
+		final long reqTimeStart = in.readLong();
+		final long duration = in.readLong();
+		final long respLatency = in.readLong();
+		final long dataLatency = in.readLong();
+		final long transferSize = in.readLong();
+		final var storageNode = in.readUTF();
+		final var itemPath = in.readUTF();
+		// skip the alignment padding
+		var paddingSize = recordSize - RECORD_HEADER_SIZE - 2 * Short.BYTES
+						- utfSize(storageNode, storageNode.length()) - utfSize(itemPath, itemPath.length());
+		while (paddingSize > 0) {
+			in.readByte();
+			paddingSize--;
+		}
+		return new OperationTraceRecord<>(
+						storageNode.isEmpty() ? null : storageNode,
+						itemPath.isEmpty() ? null : itemPath,
+						opTypeCode,
+						statusCode,
+						reqTimeStart,
+						duration,
+						respLatency,
+						dataLatency,
+						transferSize);
+	}
+
+	@Override
+	public final void close() throws IOException {
+		in.close();
+	}
+}
@@ -0,0 +1,390 @@
+package com.emc.mongoose.base.item.io;
+
+import static com.github.akurilov.commons.lang.Exceptions.throwUnchecked;
+
+import com.emc.mongoose.base.env.FsUtil;
+import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.op.Operation;
+import com.emc.mongoose.base.item.op.data.DataOperation;
+import com.emc.mongoose.base.load.step.file.FileManager;
+import com.emc.mongoose.base.logging.LogContextThreadFactory;
+import com.emc.mongoose.base.logging.LogUtil;
+import com.emc.mongoose.base.logging.Loggers;
+import com.emc.mongoose.base.logging.OperationTraceRecord;
+import com.github.akurilov.commons.io.Input;
+import com.github.akurilov.commons.io.Output;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.logging.log4j.Level;
+
+/**
+* The load operations traces output to file in the binary format. The operation trace fields are copied into the
+* preallocated off-heap ring buffer by the storage driver threads without any allocation, the ring buffer is drained to
+* the file by the single background thread. The producers claim the ring space with a CAS on the tail position and
+* publish the record by writing its length last, so the drainer never sees a partially written record. The producers
+* wait for the free space if the ring buffer is full, the traces are not dropped.
+*
+* <p>The format: the {@link #MAGIC} header followed by the records. Each record is aligned to 8 bytes (big endian):
+*
+* <ul>
+*   <li>record length including this field and the alignment padding (int)
+*   <li>op type code (byte)
+*   <li>status code (byte)
+*   <li>request start time, microseconds (long)
+*   <li>duration, microseconds (long)
+*   <li>response latency, microseconds, -1 if not available (long)
+*   <li>response data latency, microseconds, -1 if not available (long)
+*   <li>transfer size, bytes, -1 if not available (long)
+*   <li>storage node address, length-prefixed modified UTF-8 (as in {@link java.io.DataOutput#writeUTF(String)})
+*   <li>item path, length-prefixed modified UTF-8
+* </ul>
+*
+* The values follow the {@link com.emc.mongoose.base.logging.OperationTraceRecord} semantics, an empty string stands
+* for the absent node address or item path.
+*/
+public class OperationTraceBinaryFileOutput<I extends Item, O extends Operation<I>> implements Output<O> {
+
+	public static final long MAGIC = 0x4D4E474F50540001L; // "MNGOPT" + format version
+	public static final String FILE_NAME = "op.trace.bin";
+	public static final int RECORD_HEADER_SIZE = Integer.BYTES + 2 * Byte.BYTES + 5 * Long.BYTES;
+	public static final int RECORD_ALIGNMENT = Long.BYTES;
+	public static final int STRING_SIZE_MAX = 0xFFFF;
+	public static final int RING_SIZE_DEFAULT = 0x100_0000; // 16 MB
+	private static final int WRITE_BUFF_SIZE = 0x10_0000; // 1 MB
+	private static final long DRAIN_IDLE_NANOS = 100_000;
+	private static final long PRODUCER_WAIT_NANOS = 10_000;
+	private static final VarHandle RING_INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+	private final Path filePath;
+	private final FileChannel fileChannel;
+	private final ByteBuffer ring;
+	private final int ringMask;
+	private final AtomicLong tail = new AtomicLong(0);
+	private volatile long head = 0;
+	private volatile boolean closed = false;
+	private volatile boolean writeFailed = false;
+	private final Thread drainer;
+
+	public OperationTraceBinaryFileOutput(final Path filePath) throws IOException {
+		this(filePath, RING_SIZE_DEFAULT);
+	}
+
+	/** @param ringSize the ring buffer size in bytes, should be a power of 2 */
+	public OperationTraceBinaryFileOutput(final Path filePath, final int ringSize) throws IOException {
+		if (Integer.bitCount(ringSize) != 1 || ringSize < 4 * maxRecordSize()) {
+			throw new IllegalArgumentException("Invalid ring buffer size: " + ringSize);
+		}
+		this.filePath = filePath;
+		FsUtil.createParentDirsIfNotExist(filePath);
+		fileChannel = FileChannel.open(filePath, FileManager.WRITE_OPEN_OPTIONS);
+		final var headerBuff = ByteBuffer.allocate(Long.BYTES).putLong(MAGIC).flip();
+		while (headerBuff.hasRemaining()) {
+			fileChannel.write(headerBuff);
+		}
+		ring = ByteBuffer.allocateDirect(ringSize);
+		ringMask = ringSize - 1;
+		drainer = new LogContextThreadFactory("opTraceBinaryOutput", true).newThread(this::drain);
+		drainer.start();
+	}
+
+	/**
+	* @param stepId the load step id
+	* @return the binary traces file path for the given load step, the sibling of the operation traces log file
+	*/
+	public static Path filePath(final String stepId) throws IOException {
+		return Paths.get(FileManager.INSTANCE.logFileName(Loggers.OP_TRACES.getName(), stepId)).resolveSibling(FILE_NAME);
+	}
+
+	/** @return the max size of the record including the alignment padding, bytes */
+	public static int maxRecordSize() {
+		return align(RECORD_HEADER_SIZE + 2 * (Short.BYTES + STRING_SIZE_MAX));
+	}
+
+	static int align(final int size) {
+		return (size + RECORD_ALIGNMENT - 1) & -RECORD_ALIGNMENT;
+	}
+
+	@Override
+	public final boolean put(final O opResult) {
+		if (opResult == null) { // poison
+			try {
+				close();
+			} catch (final Exception e) {
+				throwUnchecked(e);
+			}
+			return true;
+		}
+		return append(opResult);
+	}
+
+	@Override
+	public final int put(final List<O> opResults, final int from, final int to) {
+		O opResult;
+		for (int i = from; i < to; i++) {
+			opResult = opResults.get(i);
+			if (opResult == null) { // poison
+				try {
+					close();
+				} catch (final Exception e) {
+					throwUnchecked(e);
+				}
+				return i - from;
+			}
+			if (!append(opResult)) {
+				return i - from;
+			}
+		}
+		return to - from;
+	}
+
+	@Override
+	public final int put(final List<O> opResults) {
+		return put(opResults, 0, opResults.size());
+	}
+
+	/**
+	* Output the trace record built before, e.g. by the sampler which defers the traces output
+	*
+	* @param record the operation trace record
+	* @return false if the output is closed, true otherwise
+	*/
+	public final boolean putRecord(final OperationTraceRecord<?, ?> record) {
+		return append(
+						record.storageNode(),
+						record.itemPath(),
+						record.opTypeCode(),
+						record.statusCode(),
+						record.reqTimeStart(),
+						record.duration(),
+						record.respLatency(),
+						record.dataLatency(),
+						record.transferSize());
+	}
+
+	private boolean append(final O opResult) {
+		final var item = opResult.item();
+		final long duration = opResult.duration();
+		long t = opResult.latency();
+		final long respLatency = t <= duration ? t : -1;
+		final long dataLatency;
+		final long transferSize;
+		if (opResult instanceof DataOperation) {
+			final var dataOpResult = (DataOperation) opResult;
+			t = dataOpResult.dataLatency();
+			dataLatency = t < duration && t > 0 ? t : -1;
+			transferSize = dataOpResult.countBytesDone();
+		} else {
+			dataLatency = -1;
+			transferSize = -1;
+		}
+		return append(
+						opResult.nodeAddr(),
+						item == null ? null : item.name(),
+						opResult.type().ordinal(),
+						opResult.status().ordinal(),
+						opResult.reqTimeStart(),
+						duration,
+						respLatency,
+						dataLatency,
+						transferSize);
+	}
+
+	private boolean append(
+					final String nodeAddr,
+					final String itemPath,
+					final int opTypeCode,
+					final int statusCode,
+					final long reqTimeStart,
+					final long duration,
+					final long respLatency,
+					final long dataLatency,
+					final long transferSize) {
+		final var nodeAddrLen = utfCharCount(nodeAddr);
+		final var nodeAddrSize = utfSize(nodeAddr, nodeAddrLen);
+		final var itemPathLen = utfCharCount(itemPath);
+		final var itemPathSize = utfSize(itemPath, itemPathLen);
+		final var recordSize = align(RECORD_HEADER_SIZE + 2 * Short.BYTES + nodeAddrSize + itemPathSize);
+		final var ringSize = ringMask + 1;
+		// claim the ring space
+		long pos;
+		int offset;
+		int claimSize;
+		while (true) {
+			if (closed) {
+				return false;
+			}
+			pos = tail.get();
+			offset = (int) (pos & ringMask);
+			// the record doesn't wrap around the ring end, the remaining space is padded if not enough
+			claimSize = ringSize - offset < recordSize ? ringSize - offset + recordSize : recordSize;
+			if (pos + claimSize - head > ringSize) {
+				LockSupport.parkNanos(PRODUCER_WAIT_NANOS);
+			} else if (tail.compareAndSet(pos, pos + claimSize)) {
+				break;
+			}
+		}
+		if (claimSize > recordSize) {
+			RING_INT.setRelease(ring, offset, offset - ringSize); // negative length marks the padding
+			offset = 0;
+		}
+		// fill the record
+		var i = offset + Integer.BYTES;
+		ring.put(i, (byte) opTypeCode);
+		i += Byte.BYTES;
+		ring.put(i, (byte) statusCode);
+		i += Byte.BYTES;
+		ring.putLong(i, reqTimeStart);
+		i += Long.BYTES;
+		ring.putLong(i, duration);
+		i += Long.BYTES;
+		ring.putLong(i, respLatency);
+		i += Long.BYTES;
+		ring.putLong(i, dataLatency);
+		i += Long.BYTES;
+		ring.putLong(i, transferSize);
+		i += Long.BYTES;
+		i = putUtf(ring, i, nodeAddr, nodeAddrLen, nodeAddrSize);
+		putUtf(ring, i, itemPath, itemPathLen, itemPathSize);
+		// publish
+		RING_INT.setRelease(ring, offset, recordSize);
+		return true;
+	}
+
+	/** @return the count of the leading chars which fit into {@link #STRING_SIZE_MAX} bytes when encoded */
+	private static int utfCharCount(final String s) {
+		if (s == null) {
+			return 0;
+		}
+		final var len = s.length();
+		var size = 0;
+		for (var i = 0; i < len; i++) {
+			size += utfCharSize(s.charAt(i));
+			if (size > STRING_SIZE_MAX) {
+				return i;
+			}
+		}
+		return len;
+	}
+
+	static int utfSize(final String s, final int len) {
+		var size = 0;
+		for (var i = 0; i < len; i++) {
+			size += utfCharSize(s.charAt(i));
+		}
+		return size;
+	}
+
+	private static int utfCharSize(final char c) {
+		if (c >= 0x0001 && c <= 0x007F) {
+			return 1;
+		} else if (c > 0x07FF) {
+			return 3;
+		} else {
+			return 2;
+		}
+	}
+
+	private static int putUtf(final ByteBuffer buff, int i, final String s, final int len, final int size) {
+		buff.putShort(i, (short) size);
+		i += Short.BYTES;
+		char c;
+		for (var j = 0; j < len; j++) {
+			c = s.charAt(j);
+			if (c >= 0x0001 && c <= 0x007F) {
+				buff.put(i++, (byte) c);
+			} else if (c > 0x07FF) {
+				buff.put(i++, (byte) (0xE0 | ((c >> 12) & 0x0F)));
+				buff.put(i++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+				buff.put(i++, (byte) (0x80 | (c & 0x3F)));
+			} else {
+				buff.put(i++, (byte) (0xC0 | ((c >> 6) & 0x1F)));
+				buff.put(i++, (byte) (0x80 | (c & 0x3F)));
+			}
+		}
+		return i;
+	}
+
+	private void drain() {
+		final var ringSize = ringMask + 1;
+		// the drainer's own view of the ring, the producers use the absolute access methods only
+		final var src = ring.duplicate();
+		final var writeBuff = ByteBuffer.allocateDirect(WRITE_BUFF_SIZE);
+		long pos = head;
+		int offset;
+		int recordSize;
+		while (true) {
+			offset = (int) (pos & ringMask);
+			recordSize = (int) RING_INT.getAcquire(ring, offset);
+			if (recordSize == 0) {
+				if (writeBuff.position() > 0) {
+					write(writeBuff);
+				} else if (closed && pos == tail.get()) {
+					break;
+				} else {
+					LockSupport.parkNanos(DRAIN_IDLE_NANOS);
+				}
+				continue;
+			}
+			if (recordSize < 0) { // padding till the ring end
+				recordSize = ringSize - offset;
+			} else {
+				if (writeBuff.remaining() < recordSize) {
+					write(writeBuff);
+				}
+				src.limit(offset + recordSize).position(offset);
+				writeBuff.put(src);
+			}
+			// the producers expect the zero length at the start of any record
+			for (var i = offset; i < offset + recordSize; i += Long.BYTES) {
+				ring.putLong(i, 0);
+			}
+			pos += recordSize;
+			head = pos;
+		}
+		try {
+			fileChannel.close();
+		} catch (final IOException e) {
+			LogUtil.exception(Level.WARN, e, "Failed to close the operation traces file \"{}\"", filePath);
+		}
+	}
+
+	private void write(final ByteBuffer writeBuff) {
+		writeBuff.flip();
+		try {
+			if (!writeFailed) {
+				while (writeBuff.hasRemaining()) {
+					fileChannel.write(writeBuff);
+				}
+			}
+		} catch (final IOException e) {
+			// keep draining the ring buffer to not block the producers, the traces are lost
+			writeFailed = true;
+			LogUtil.exception(Level.ERROR, e, "Failed to write the operation traces file \"{}\"", filePath);
+		} finally {
+			writeBuff.clear();
+		}
+	}
+
+	@Override
+	public final Input<O> getInput() {
+		throw new AssertionError();
+	}
+
+	/** Stop accepting the new traces and wait until the pending ones are written to the file */
+	@Override
+	public final void close() throws InterruptedException {
+		closed = true;
+		if (Thread.currentThread() != drainer) {
+			drainer.join();
+		}
+	}
+}
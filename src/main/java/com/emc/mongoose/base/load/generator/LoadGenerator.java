@@ -24,6 +24,18 @@ public interface LoadGenerator<I extends Item, O extends Operation<I>> extends F
 	/** @return true if the internal recycle queue is empty, false otherwise */
 	boolean isNothingToRecycle();
 
+	/** @return the count of the load generator invocations */
+	long invocationCount();
+
+	/** @return the count of the invocations which took more than {@link Fiber#WARN_DURATION_LIMIT_NANOS} */
+	long overrunCount();
+
+	/** @return the internal recycle queue size to capacity ratio */
+	double recycleQueueFill();
+
+	/** @return the items input buffer fill ratio if the items are the previous load step results, 0 otherwise */
+	double itemInputFill();
+
 	@Override
 	void close() throws IOException;
 }
@@ -5,6 +5,7 @@ import com.emc.mongoose.base.item.Item;
 import com.emc.mongoose.base.item.ItemFactory;
 import com.emc.mongoose.base.item.ItemType;
 import com.emc.mongoose.base.item.op.Operation;
+import com.emc.mongoose.base.load.step.lease.OpCountLease;
 import com.github.akurilov.commons.concurrent.throttle.IndexThrottle;
 import com.github.akurilov.commons.concurrent.throttle.Throttle;
 import com.github.akurilov.commons.io.Input;
@@ -35,5 +36,8 @@ public interface LoadGeneratorBuilder<I extends Item, O extends Operation<I>, T
 
 	LoadGeneratorBuilder<I, O, T> addThrottle(final IndexThrottle throttle);
 
+	/** Use the count limit leased from the coordinator instead of the configured one */
+	LoadGeneratorBuilder<I, O, T> opCountLease(final OpCountLease opCountLease);
+
 	T build() throws IllegalConfigurationException, IOException;
 }
@@ -30,6 +30,7 @@ import com.emc.mongoose.base.item.op.data.DataOperationsBuilder;
 import com.emc.mongoose.base.item.op.data.DataOperationsBuilderImpl;
 import com.emc.mongoose.base.item.op.path.PathOperationsBuilderImpl;
 import com.emc.mongoose.base.item.op.token.TokenOperationsBuilderImpl;
+import com.emc.mongoose.base.load.step.lease.OpCountLease;
 import com.emc.mongoose.base.logging.LogContextThreadFactory;
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
@@ -74,6 +75,7 @@ public class LoadGeneratorBuilderImpl<I extends Item, O extends Operation<I>, T
 	private long sizeEstimate = -1;
 	private int batchSize = -1;
 	private int originIndex = -1;
+	private OpCountLease opCountLease = null;
 	private final List<Object> throttles = new ArrayList<>();
 
 	@Override
@@ -145,6 +147,12 @@ public class LoadGeneratorBuilderImpl<I extends Item, O extends Operation<I>, T
 		return this;
 	}
 
+	@Override
+	public LoadGeneratorBuilderImpl<I, O, T> opCountLease(final OpCountLease opCountLease) {
+		this.opCountLease = opCountLease;
+		return this;
+	}
+
 	@SuppressWarnings("unchecked")
 	public T build() throws IllegalConfigurationException {
 		// prepare
@@ -324,7 +332,8 @@ public class LoadGeneratorBuilderImpl<I extends Item, O extends Operation<I>, T
 						countLimit,
 						recycleLimit,
 						(recycleFlag || retryFlag),
-						shuffleFlag);
+						shuffleFlag,
+						opCountLease);
 	}
 
 	private static long estimateTransferSize(
@@ -6,8 +6,10 @@ import static com.github.akurilov.commons.lang.Exceptions.throwUnchecked;
 
 import com.emc.mongoose.base.concurrent.ServiceTaskExecutor;
 import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.TransferConvertBuffer;
 import com.emc.mongoose.base.item.op.Operation;
 import com.emc.mongoose.base.item.op.OperationsBuilder;
+import com.emc.mongoose.base.load.step.lease.OpCountLease;
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
 import com.github.akurilov.commons.collection.CircularArrayBuffer;
@@ -46,6 +48,8 @@ public class LoadGeneratorImpl<I extends Item, O extends Operation<I>> extends F
 	private volatile boolean outputFinishFlag = false;
 
 	private final Input<I> itemInput;
+	// not null if the items are taken from the previous load step results buffer
+	private final TransferConvertBuffer<?, ?> itemInputBuff;
 	private final OperationsBuilder<I, O> opsBuilder;
 	private final int originIndex;
 	private final Object[] throttles;
@@ -53,6 +57,7 @@ public class LoadGeneratorImpl<I extends Item, O extends Operation<I>> extends F
 	private final Lock inputLock = new ReentrantLock();
 	private final int batchSize;
 	private final long countLimit;
+	private final OpCountLease opCountLease;
 	private final BlockingQueue<O> recycleQueue;
 	private final boolean recycleFlag;
 	private final boolean shuffleFlag;
@@ -62,6 +67,8 @@ public class LoadGeneratorImpl<I extends Item, O extends Operation<I>> extends F
 	private final LongAdder builtTasksCounter = new LongAdder();
 	private final LongAdder recycledOpCounter = new LongAdder();
 	private final LongAdder outputOpCounter = new LongAdder();
+	private final LongAdder invocationCounter = new LongAdder();
+	private final LongAdder overrunCounter = new LongAdder();
 	private final Lock tempBufferLock = new ReentrantLock();
 	private List<I> items;
 
@@ -76,14 +83,42 @@ public class LoadGeneratorImpl<I extends Item, O extends Operation<I>> extends F
 					final int recycleQueueSize,
 					final boolean recycleFlag,
 					final boolean shuffleFlag) {
+		this(
+						itemInput,
+						opsBuilder,
+						throttles,
+						opOutput,
+						batchSize,
+						countLimit,
+						recycleQueueSize,
+						recycleFlag,
+						shuffleFlag,
+						null);
+	}
+
+	/** @param opCountLease the leased count limit to use instead of the given count limit, may be null */
+	@SuppressWarnings("unchecked")
+	public LoadGeneratorImpl(
+					final Input<I> itemInput,
+					final OperationsBuilder<I, O> opsBuilder,
+					final List<Object> throttles,
+					final Output<O> opOutput,
+					final int batchSize,
+					final long countLimit,
+					final int recycleQueueSize,
+					final boolean recycleFlag,
+					final boolean shuffleFlag,
+					final OpCountLease opCountLease) {
 		super(ServiceTaskExecutor.INSTANCE);
 		this.itemInput = itemInput;
+		this.itemInputBuff = itemInput instanceof TransferConvertBuffer ? (TransferConvertBuffer<?, ?>) itemInput : null;
 		this.opsBuilder = opsBuilder;
 		this.originIndex = opsBuilder.originIndex();
 		this.throttles = throttles.toArray(new Object[]{});
 		this.opOutput = opOutput;
 		this.batchSize = batchSize;
 		this.countLimit = countLimit > 0 ? countLimit : Long.MAX_VALUE;
+		this.opCountLease = opCountLease;
 		this.recycleQueue = new ArrayBlockingQueue<>(recycleQueueSize, true);
 		this.recycleFlag = recycleFlag;
 		this.shuffleFlag = shuffleFlag;
@@ -123,7 +158,7 @@ public class LoadGeneratorImpl<I extends Item, O extends Operation<I>> extends F
 					if (inputLock.tryLock()) {
 						try {
 							// find the remaining count of the ops to generate
-							final var remainingOpCount = countLimit - generatedOpCount();
+							final var remainingOpCount = countLimit() - generatedOpCount();
 							if (remainingOpCount > 0) {
 								// make the limit not more than batch size
 								n = (int) Math.min(remainingOpCount, n);
@@ -164,7 +199,7 @@ public class LoadGeneratorImpl<I extends Item, O extends Operation<I>> extends F
 				}
 			}
 
-			if (outputOpCounter.sum() < countLimit) {
+			if (outputOpCounter.sum() < countLimit()) {
 
 				if (pendingOpCount > 0) {
 
@@ -224,7 +259,8 @@ public class LoadGeneratorImpl<I extends Item, O extends Operation<I>> extends F
 						}
 					}
 				}
-			} else { // operations count limit is reached
+			} else if (null == opCountLease || opCountLease.isReached(outputOpCounter.sum())) {
+				// operations count limit is reached
 				outputFinishFlag = true;
 			}
 
@@ -237,9 +273,18 @@ public class LoadGeneratorImpl<I extends Item, O extends Operation<I>> extends F
 					stop();
 				} catch (final IllegalStateException ignored) {}
 			}
+			invocationCounter.increment();
+			if (System.nanoTime() - startTimeNanos > Fiber.WARN_DURATION_LIMIT_NANOS) {
+				overrunCounter.increment();
+			}
 		}
 	}
 
+	// the leased count limit grows while the load step is running
+	private long countLimit() {
+		return null == opCountLease ? countLimit : opCountLease.limit(outputOpCounter.sum());
+	}
+
 	private List<I> getItems(final Input<I> itemInput, final int n) {
 		items.clear();
 		try {
@@ -294,6 +339,27 @@ public class LoadGeneratorImpl<I extends Item, O extends Operation<I>> extends F
 		return recycleQueue.isEmpty();
 	}
 
+	@Override
+	public final long invocationCount() {
+		return invocationCounter.sum();
+	}
+
+	@Override
+	public final long overrunCount() {
+		return overrunCounter.sum();
+	}
+
+	@Override
+	public final double recycleQueueFill() {
+		final var size = recycleQueue.size();
+		return ((double) size) / (size + recycleQueue.remainingCapacity());
+	}
+
+	@Override
+	public final double itemInputFill() {
+		return null == itemInputBuff ? 0 : itemInputBuff.fill();
+	}
+
 	private boolean isFinished() {
 		return outputFinishFlag
 						|| itemInputFinishFlag && opInputFinishFlag && generatedOpCount() == outputOpCounter.sum();
@@ -18,6 +18,7 @@ import com.emc.mongoose.base.logging.Loggers;
 import com.emc.mongoose.base.metrics.MetricsManager;
 import com.emc.mongoose.base.metrics.context.MetricsContext;
 import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshotHolder;
 import com.github.akurilov.commons.reflection.TypeUtil;
 import com.github.akurilov.commons.system.SizeInBytes;
 import com.github.akurilov.confuse.Config;
@@ -72,7 +73,8 @@ public abstract class LoadStepBase extends DaemonBase implements LoadStep, Runna
 			if (null != ctx) {
 				snapshot = ctx.lastSnapshot();
 				if (null != snapshot) {
-					metricsSnapshots.add(snapshot);
+					// the snapshot may be serialized or aggregated concurrently with the next refresh
+					metricsSnapshots.add(AllMetricsSnapshotHolder.immutableCopyOf(snapshot));
 				}
 			}
 		}
@@ -179,11 +181,18 @@ public abstract class LoadStepBase extends DaemonBase implements LoadStep, Runna
 	}
 
 	protected int avgPeriod(final Config metricsConfig) {
-		final Object metricsAvgPeriodRaw = metricsConfig.val("average-period");
-		if (metricsAvgPeriodRaw instanceof String) {
-			return (int) TimeUtil.getTimeInSeconds((String) metricsAvgPeriodRaw);
+		return periodSec(metricsConfig.val("average-period"));
+	}
+
+	protected int heatmapPeriod(final Config metricsConfig) {
+		return periodSec(metricsConfig.val("heatmap-period"));
+	}
+
+	private static int periodSec(final Object periodRaw) {
+		if (periodRaw instanceof String) {
+			return (int) TimeUtil.getTimeInSeconds((String) periodRaw);
 		} else {
-			return TypeUtil.typeConvert(metricsAvgPeriodRaw, int.class);
+			return TypeUtil.typeConvert(periodRaw, int.class);
 		}
 	}
 }
@@ -2,6 +2,7 @@ package com.emc.mongoose.base.load.step.client;
 
 import com.emc.mongoose.base.load.step.service.file.FileManagerService;
 import com.emc.mongoose.base.logging.LogUtil;
+import com.emc.mongoose.base.svc.ServiceTransport;
 import com.emc.mongoose.base.svc.ServiceUtil;
 import org.apache.logging.log4j.Level;
 
@@ -11,4 +12,10 @@ public interface FileManagerClient {
 			java.net.MalformedURLException {
 			return ServiceUtil.resolve(nodeAddrWithPort, FileManagerService.SVC_NAME);
 	}
+
+	static FileManagerService resolve(final String nodeAddrWithPort, final ServiceTransport transport)
+			throws java.rmi.NotBoundException, java.rmi.RemoteException, java.net.URISyntaxException,
+			java.net.MalformedURLException {
+			return ServiceUtil.resolve(nodeAddrWithPort, FileManagerService.SVC_NAME, transport, FileManagerService.class);
+	}
 }
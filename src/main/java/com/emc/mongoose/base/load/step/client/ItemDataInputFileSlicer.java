@@ -1,112 +1,254 @@
 package com.emc.mongoose.base.load.step.client;
 
 import com.emc.mongoose.base.load.step.file.FileManager;
+import com.emc.mongoose.base.load.step.service.file.FileManagerService;
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
+import com.github.akurilov.commons.system.SizeInBytes;
 import com.github.akurilov.confuse.Config;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.logging.log4j.Level;
 
 import static com.emc.mongoose.base.Exceptions.throwUncheckedIfInterrupted;
 
+/**
+* Distributes the item data input file among the remote nodes. The file is identified by its content digest: the node
+* which already has the file with the same digest in its cache (e.g. after the previous load step) reuses it, the file
+* is transferred to the other nodes only. The cached files are kept after the load step. If the node fails to check
+* or to update its cache, the file is transferred to a temporary file which is deleted after the load step.
+*/
 public final class ItemDataInputFileSlicer implements AutoCloseable {
 
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+	// the digests of the local files, so the same file is not read again if it's not changed between the load steps
+	private static final Map<String, String> DIGESTS = new ConcurrentHashMap<>();
+
 	private final String loadStepId;
-	private final Map<FileManager, String> itemDataInputFileSlices;
+	// the transferred files which are not cached
+	private final Map<FileManager, String> tmpFiles = new ConcurrentHashMap<>();
 
 	public ItemDataInputFileSlicer(
 					final String loadStepId,
 					final List<FileManager> fileMgrs,
 					final List<Config> configSlices,
 					final String itemDataInputFile,
-					final int batchSize) {
+					final int chunkSize) {
 		this.loadStepId = loadStepId;
-		final var sliceCount = configSlices.size();
-		itemDataInputFileSlices = new HashMap<>(sliceCount);
-		for (var i = 0; i < sliceCount; i++) {
-			try {
+		try {
+			final var itemDataInputFilePath = Paths.get(itemDataInputFile);
+			final var size = Files.size(itemDataInputFilePath);
+			final var digest = digest(itemDataInputFilePath);
+			final Map<FileManager, String> tmpFileSlices = new HashMap<>();
+			final Map<FileManager, Config> tmpFileConfigSlices = new HashMap<>();
+			final Set<FileManager> uncachedFileMgrs = new HashSet<>();
+			for (var i = 0; i < configSlices.size(); i++) {
 				final var fileMgr = fileMgrs.get(i);
-				final var itemDataInputFileName = fileMgr.newTmpFileName();
-				itemDataInputFileSlices.put(fileMgr, itemDataInputFileName);
-				final var configSlice = configSlices.get(i);
-				configSlice.val("item-data-input-file", itemDataInputFileName);
-			} catch (final Exception e) {
-				LogUtil.exception(
-								Level.ERROR, e, "Failed to get the item data input file name for the step slice #" + i);
+				// the local load step slice uses the source file
+				if (fileMgr instanceof FileManagerService) {
+					try {
+						final var cachedFileName = fileMgr.cachedFile(digest, size);
+						if (null == cachedFileName) {
+							tmpFileSlices.put(fileMgr, fileMgr.newTmpFileName());
+							tmpFileConfigSlices.put(fileMgr, configSlices.get(i));
+						} else {
+							configSlices.get(i).val("item-data-input-file", cachedFileName);
+							Loggers.MSG.debug(
+											"{}: the file manager \"{}\" has the item data input file cached: \"{}\"",
+											loadStepId,
+											fileMgr,
+											cachedFileName);
+						}
+					} catch (final Exception e) {
+						throwUncheckedIfInterrupted(e);
+						LogUtil.exception(
+										Level.WARN,
+										e,
+										"Failed to check the cached item data input file for the step slice #{}, transfer it",
+										i);
+						try {
+							tmpFileSlices.put(fileMgr, fileMgr.newTmpFileName());
+							tmpFileConfigSlices.put(fileMgr, configSlices.get(i));
+							uncachedFileMgrs.add(fileMgr);
+						} catch (final Exception ee) {
+							throwUncheckedIfInterrupted(ee);
+							LogUtil.exception(
+											Level.ERROR, ee, "Failed to get the item data input file name for the step slice #" + i);
+						}
+					}
+				}
+			}
+			if (!tmpFileSlices.isEmpty()) {
+				Loggers.MSG.info(
+								"{}: distribute the data from the input file \"{}\" to {} nodes...",
+								loadStepId,
+								itemDataInputFile,
+								tmpFileSlices.size());
+				final var failedFileMgrs = distributeData(itemDataInputFilePath, tmpFileSlices, chunkSize);
+				tmpFileSlices
+								.entrySet()
+								.parallelStream()
+								.forEach(
+												entry -> {
+													final var fileMgr = entry.getKey();
+													final var tmpFileName = entry.getValue();
+													final var configSlice = tmpFileConfigSlices.get(fileMgr);
+													if (failedFileMgrs.contains(fileMgr)) {
+														deleteFile(fileMgr, tmpFileName);
+													} else if (uncachedFileMgrs.contains(fileMgr)) {
+														useTmpFile(fileMgr, tmpFileName, configSlice);
+													} else {
+														try {
+															final var cachedFileName = fileMgr.cacheFile(tmpFileName, digest);
+															configSlice.val("item-data-input-file", cachedFileName);
+														} catch (final Exception e) {
+															throwUncheckedIfInterrupted(e);
+															LogUtil.exception(
+																			Level.WARN,
+																			e,
+																			"{}: failed to cache the item data input file \"{}\" @ file manager \"{}\"",
+																			loadStepId,
+																			tmpFileName,
+																			fileMgr);
+															useTmpFile(fileMgr, tmpFileName, configSlice);
+														}
+													}
+												});
 			}
-		}
-
-		try {
-			Loggers.MSG.info(
-							"{}: distribute the data from the input file \"{}\"...", loadStepId, itemDataInputFile);
-			distributeData(itemDataInputFile, batchSize);
 		} catch (final IOException e) {
-			LogUtil.exception(Level.WARN, e, "{}: failed to use the item input", loadStepId);
+			LogUtil.exception(Level.WARN, e, "{}: failed to use the item data input file", loadStepId);
 		} catch (final Throwable cause) {
 			throwUncheckedIfInterrupted(cause);
 			LogUtil.exception(Level.ERROR, cause, "{}: unexpected failure", loadStepId);
 		}
 	}
 
+	private void useTmpFile(final FileManager fileMgr, final String tmpFileName, final Config configSlice) {
+		tmpFiles.put(fileMgr, tmpFileName);
+		configSlice.val("item-data-input-file", tmpFileName);
+	}
+
+	/** The cached files are not deleted, they may be reused by the next load steps. The uncached files are deleted */
 	@Override
-	public final void close() throws Exception {
-		itemDataInputFileSlices
-						.entrySet()
-						.parallelStream()
-						.forEach(
-										entry -> {
-											final var fileMgr = entry.getKey();
-											final var itemDataInputFileName = entry.getValue();
-											try {
-												fileMgr.deleteFile(itemDataInputFileName);
-											} catch (final Exception e) {
-												throwUncheckedIfInterrupted(e);
-												LogUtil.exception(
-																Level.WARN,
-																e,
-																"{}: failed to delete the file \"{}\" @ file manager \"{}\"",
-																loadStepId,
-																itemDataInputFileName,
-																fileMgr);
-											}
-										});
-		itemDataInputFileSlices.clear();
+	public final void close() {
+		tmpFiles.entrySet().parallelStream().forEach(entry -> deleteFile(entry.getKey(), entry.getValue()));
+		tmpFiles.clear();
+	}
+
+	private void deleteFile(final FileManager fileMgr, final String fileName) {
+		try {
+			fileMgr.deleteFile(fileName);
+		} catch (final Exception e) {
+			throwUncheckedIfInterrupted(e);
+			LogUtil.exception(
+							Level.WARN,
+							e,
+							"{}: failed to delete the file \"{}\" @ file manager \"{}\"",
+							loadStepId,
+							fileName,
+							fileMgr);
+		}
+	}
+
+	/** @return the hex content digest of the file */
+	static String digest(final Path filePath) throws IOException {
+		final var key = filePath.toAbsolutePath()
+						+ ":"
+						+ Files.size(filePath)
+						+ ":"
+						+ Files.getLastModifiedTime(filePath).toMillis();
+		var digest = DIGESTS.get(key);
+		if (null == digest) {
+			final MessageDigest md;
+			try {
+				md = MessageDigest.getInstance(DIGEST_ALGORITHM);
+			} catch (final NoSuchAlgorithmException e) {
+				throw new AssertionError(e);
+			}
+			final var bb = ByteBuffer.allocateDirect(FileManager.CHUNK_SIZE_MAX);
+			try (final var fileChannel = FileChannel.open(filePath, FileManager.READ_OPTIONS)) {
+				while (0 <= fileChannel.read(bb)) {
+					bb.flip();
+					md.update(bb);
+					bb.clear();
+				}
+			}
+			final var strb = new StringBuilder();
+			for (final var b : md.digest()) {
+				strb.append(Character.forDigit((b >> 4) & 0xF, 0x10)).append(Character.forDigit(b & 0xF, 0x10));
+			}
+			digest = strb.toString();
+			DIGESTS.put(key, digest);
+		}
+		return digest;
 	}
 
-	private void distributeData(final String itemDataInputFile, final int batchSize)
+	/**
+	* Read the source file sequentially using the large chunks, each chunk is written to all the destination files
+	* concurrently
+	*
+	* @return the file managers failed to write
+	*/
+	private Set<FileManager> distributeData(
+					final Path itemDataInputFilePath, final Map<FileManager, String> tmpFileSlices, final int chunkSize)
 					throws IOException {
-		final ByteBuffer bBuff = ByteBuffer.allocate(batchSize);
-		int n;
-		try (final SeekableByteChannel itemDataInput = Files.newByteChannel(Paths.get(itemDataInputFile))) {
-			while (0 < (n = itemDataInput.read(bBuff))) {
-				final byte[] buff = new byte[n];
+		final Set<FileManager> failedFileMgrs = ConcurrentHashMap.newKeySet();
+		final var bBuff = ByteBuffer.allocate(chunkSize);
+		long byteCount = 0;
+		var eofFlag = false;
+		try (final var itemDataInput = FileChannel.open(itemDataInputFilePath, FileManager.READ_OPTIONS)) {
+			while (!eofFlag) {
+				// fill the whole chunk unless the end of file is reached
+				while (bBuff.hasRemaining() && !eofFlag) {
+					eofFlag = itemDataInput.read(bBuff) < 0;
+				}
+				if (bBuff.position() == 0) {
+					break;
+				}
+				final byte[] buff = new byte[bBuff.position()];
 				bBuff.flip();
 				bBuff.get(buff);
-				itemDataInputFileSlices
+				bBuff.clear();
+				tmpFileSlices
 								.entrySet()
 								.parallelStream()
+								.filter(entry -> !failedFileMgrs.contains(entry.getKey()))
 								.forEach(
 												entry -> {
 													final FileManager fileMgr = entry.getKey();
-													final String itemDataInputFileName = entry.getValue();
+													final String tmpFileName = entry.getValue();
 													try {
-														fileMgr.writeToFile(itemDataInputFileName, buff);
+														fileMgr.writeToFile(tmpFileName, buff);
 													} catch (final IOException e) {
+														failedFileMgrs.add(fileMgr);
 														LogUtil.exception(
 																		Level.ERROR,
 																		e,
-																		"Failed to write the data to the slice file \"{}\"",
-																		itemDataInputFile);
+																		"Failed to write the data to the slice file \"{}\" @ file manager \"{}\"",
+																		tmpFileName,
+																		fileMgr);
 													}
 												});
+				byteCount += buff.length;
 			}
 		}
+		Loggers.MSG.info(
+						"{}: transferred {} of the item data input to {} nodes",
+						loadStepId,
+						SizeInBytes.formatFixedSize(byteCount),
+						tmpFileSlices.size() - failedFileMgrs.size());
+		return failedFileMgrs;
 	}
 }
@@ -6,6 +6,7 @@ import static com.emc.mongoose.base.load.step.client.LoadStepClient.OUTPUT_PROGR
 import com.emc.mongoose.base.item.Item;
 import com.emc.mongoose.base.load.step.file.FileManager;
 import com.emc.mongoose.base.load.step.service.file.FileManagerService;
+import com.emc.mongoose.base.logging.LogContextThreadFactory;
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
 import com.github.akurilov.commons.io.Input;
@@ -13,38 +14,59 @@ import com.github.akurilov.confuse.Config;
 import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import org.apache.logging.log4j.Level;
 
+/**
+* Scatters the items from the input among the load step slices. The items are written as the CSV records (the same
+* format as the item output file) into the temporary ".csv" file for each slice. The records are accumulated per slice
+* up to the chunk size, the full chunks are written while the next items are being read from the input.
+*/
 public final class ItemInputFileSlicer implements AutoCloseable {
 
-	private static final int APPROX_LINE_LENGTH = 0x40;
+	/** The way to choose the load step slice for the item */
+	public enum Partitioning {
+		/** The items are distributed evenly in the order of the input */
+		ROUNDROBIN,
+		/** The item is assigned by its name hash, so the same item goes to the same slice every run */
+		HASH;
+
+		public static Partitioning of(final String value) {
+			return null == value ? ROUNDROBIN : valueOf(value.replace("-", "").toUpperCase());
+		}
+	}
+
+	private static final String FILE_EXT = ".csv";
+	// the max count of the chunks being written to the same slice file while the input is being read
+	private static final int PENDING_CHUNKS_LIMIT = 2;
 
 	private final String loadStepId;
 	private final Map<FileManager, String> itemInputFileSlices;
-	private final List<FileManager> fileMgrs;
 
 	public <I extends Item> ItemInputFileSlicer(
 					final String loadStepId,
 					final List<FileManager> fileMgrs,
 					final List<Config> configSlices,
 					final Input<I> itemInput,
-					final int batchSize) {
+					final int batchSize,
+					final Partitioning partitioning,
+					final int chunkSize) {
 		this.loadStepId = loadStepId;
 		final var sliceCount = configSlices.size();
 		itemInputFileSlices = new HashMap<>(sliceCount);
-		this.fileMgrs = fileMgrs;
 		for (var i = 0; i < sliceCount; i++) {
 			try {
 				final var fileMgr = fileMgrs.get(i);
-				final var itemInputFileName = fileMgr.newTmpFileName();
+				final var itemInputFileName = fileMgr.newTmpFileName() + FILE_EXT;
 				itemInputFileSlices.put(fileMgr, itemInputFileName);
 				final var configSlice = configSlices.get(i);
 				configSlice.val("item-input-file", itemInputFileName);
@@ -55,14 +77,28 @@ public final class ItemInputFileSlicer implements AutoCloseable {
 			}
 		}
 
+		final var executor = Executors.newFixedThreadPool(
+						sliceCount, new LogContextThreadFactory("scatterItemsWorker", true));
 		try {
-			Loggers.MSG.info("{}: scatter the items from the input \"{}\"...", loadStepId, itemInput);
-			scatterItems(itemInput, batchSize);
+			Loggers.MSG.info(
+							"{}: scatter the items from the input \"{}\" using the {} partitioning...",
+							loadStepId,
+							itemInput,
+							partitioning);
+			final var count = scatterItems(
+							itemInput, fileMgrs, itemInputFileSlices, partitioning, batchSize, chunkSize, executor);
+			Loggers.MSG.info(
+							"Items input \"{}\": {} items was distributed among the {} load step slices",
+							itemInput,
+							count,
+							sliceCount);
 		} catch (final IOException e) {
 			LogUtil.exception(Level.WARN, e, "{}: failed to use the item input", loadStepId);
 		} catch (final Throwable cause) {
 			throwUncheckedIfInterrupted(cause);
 			LogUtil.exception(Level.ERROR, cause, "{}: unexpected failure", loadStepId);
+		} finally {
+			executor.shutdownNow();
 		}
 	}
 
@@ -91,61 +127,43 @@ public final class ItemInputFileSlicer implements AutoCloseable {
 		itemInputFileSlices.clear();
 	}
 
-	private <I extends Item> void scatterItems(final Input<I> itemInput, final int batchSize)
-					throws IOException {
-
-		Loggers.MSG.info("{}: slice the item input \"{}\"...", loadStepId, itemInput);
-
-		final Map<FileManager, ByteArrayOutputStream> itemsOutByteBuffs = fileMgrs.stream()
-						.collect(
-										Collectors.toMap(
-														Function.identity(),
-														fileMgr -> new ByteArrayOutputStream(batchSize * APPROX_LINE_LENGTH)));
-
-		final Map<FileManager, ObjectOutputStream> itemsOutputs = itemsOutByteBuffs.entrySet().stream()
-						.collect(
-										Collectors.toMap(
-														Map.Entry::getKey,
-														entry -> {
-															try {
-																return new ObjectOutputStream(entry.getValue());
-															} catch (final IOException ignored) {}
-															return null;
-														}));
-
-		transferData(itemInput, itemsOutByteBuffs, itemsOutputs, batchSize);
-
-		itemsOutputs
-						.values()
-						.parallelStream()
-						.filter(Objects::nonNull)
-						.forEach(
-										outStream -> {
-											try {
-												outStream.close();
-											} catch (final IOException ignored) {}
-										});
+	/** @return the index of the slice for the item */
+	static int sliceIndex(
+					final Partitioning partitioning, final Item item, final long itemIndex, final int sliceCount) {
+		if (Partitioning.HASH.equals(partitioning)) {
+			// String.hashCode is specified so the result doesn't depend on the JVM, mix it to use all the bits
+			var h = item.name().hashCode();
+			h ^= h >>> 16;
+			h *= 0x85EB_CA6B;
+			h ^= h >>> 13;
+			return Math.floorMod(h, sliceCount);
+		} else {
+			return (int) (itemIndex % sliceCount);
+		}
 	}
 
-	private <I extends Item> void transferData(
+	/** @return the count of the items scattered */
+	static <I extends Item> long scatterItems(
 					final Input<I> itemInput,
-					final Map<FileManager, ByteArrayOutputStream> itemsOutByteBuffs,
-					final Map<FileManager, ObjectOutputStream> itemsOutputs,
-					final int batchSize)
+					final List<FileManager> fileMgrs,
+					final Map<FileManager, String> itemInputFileSlices,
+					final Partitioning partitioning,
+					final int batchSize,
+					final int chunkSize,
+					final Executor executor)
 					throws IOException {
 
-		final int sliceCount = itemsOutByteBuffs.size();
+		final var sliceCount = fileMgrs.size();
+		final List<SliceWriter> sliceWriters = new ArrayList<>(sliceCount);
+		for (final var fileMgr : fileMgrs) {
+			sliceWriters.add(new SliceWriter(fileMgr, itemInputFileSlices.get(fileMgr), chunkSize, executor));
+		}
 		final List<I> itemsBuff = new ArrayList<>(batchSize);
 
 		int n;
 		long count = 0;
 		long lastProgressOutputTimeMillis = System.currentTimeMillis();
 
-		Loggers.MSG.info(
-						"Items input \"{}\": starting to distribute the items among the {} load step slices",
-						itemInput,
-						sliceCount);
-
 		while (true) {
 
 			// get the next batch of items
@@ -162,34 +180,11 @@ public final class ItemInputFileSlicer implements AutoCloseable {
 
 			if (n > 0) {
 
-				// distribute the items using the round robin
-				for (int i = 0; i < n; i++) {
-					itemsOutputs.get(fileMgrs.get(i % sliceCount)).writeUnshared(itemsBuff.get(i));
+				for (var i = 0; i < n; i++) {
+					final var item = itemsBuff.get(i);
+					sliceWriters.get(sliceIndex(partitioning, item, count + i, sliceCount)).put(item);
 				}
-
 				itemsBuff.clear();
-
-				// write the text items data to the remote input files
-				fileMgrs
-								.parallelStream()
-								.forEach(
-												fileMgr -> {
-													final ByteArrayOutputStream buff = itemsOutByteBuffs.get(fileMgr);
-													final String itemInputFileName = itemInputFileSlices.get(fileMgr);
-													try {
-														final byte[] data = buff.toByteArray();
-														fileMgr.writeToFile(itemInputFileName, data);
-														buff.reset();
-													} catch (final IOException e) {
-														LogUtil.exception(
-																		Level.WARN,
-																		e,
-																		"Failed to write the items input data to the {} file \"{}\"",
-																		itemInputFileName,
-																		(fileMgr instanceof FileManagerService ? "remote" : "local"));
-													}
-												});
-
 				count += n;
 
 				if (System.currentTimeMillis() - lastProgressOutputTimeMillis > OUTPUT_PROGRESS_PERIOD_MILLIS) {
@@ -202,10 +197,89 @@ public final class ItemInputFileSlicer implements AutoCloseable {
 			}
 		}
 
-		Loggers.MSG.info(
-						"Items input \"{}\": {} items was distributed among the {} load step slices",
-						itemInput,
-						count,
-						sliceCount);
+		for (final var sliceWriter : sliceWriters) {
+			sliceWriter.flush();
+		}
+		for (final var sliceWriter : sliceWriters) {
+			sliceWriter.await();
+		}
+		return count;
+	}
+
+	/**
+	* Accumulates the item records for the slice and writes the full chunks asynchronously. The chunks are written
+	* sequentially in the order of the records, the count of the chunks pending is limited.
+	*/
+	private static final class SliceWriter {
+
+		private final FileManager fileMgr;
+		private final String fileName;
+		private final int chunkSize;
+		private final Executor executor;
+		private final Deque<CompletableFuture<Void>> pendingChunks = new ArrayDeque<>(PENDING_CHUNKS_LIMIT + 1);
+		private final ByteArrayOutputStream chunk;
+		private boolean emptyFlag = true;
+
+		private SliceWriter(
+						final FileManager fileMgr, final String fileName, final int chunkSize, final Executor executor) {
+			this.fileMgr = fileMgr;
+			this.fileName = fileName;
+			this.chunkSize = chunkSize;
+			this.executor = executor;
+			this.chunk = new ByteArrayOutputStream(chunkSize);
+		}
+
+		private void put(final Item item) {
+			final var record = (item.toString() + '\n').getBytes(StandardCharsets.UTF_8);
+			chunk.write(record, 0, record.length);
+			if (chunk.size() >= chunkSize) {
+				flush();
+			}
+		}
+
+		private void flush() {
+			if (chunk.size() > 0) {
+				final var data = chunk.toByteArray();
+				chunk.reset();
+				emptyFlag = false;
+				final var prevChunk = pendingChunks.peekLast();
+				final var nextChunk = null == prevChunk
+								? CompletableFuture.runAsync(() -> write(data), executor)
+								: prevChunk.thenRunAsync(() -> write(data), executor);
+				pendingChunks.add(nextChunk);
+				// backpressure: don't read the input faster than the slice file is written
+				while (pendingChunks.size() > PENDING_CHUNKS_LIMIT) {
+					pendingChunks.remove().join();
+				}
+			}
+		}
+
+		private void write(final byte[] data) {
+			try {
+				fileMgr.writeToFile(fileName, data);
+			} catch (final IOException e) {
+				LogUtil.exception(
+								Level.WARN,
+								e,
+								"Failed to write the items input data to the {} file \"{}\"",
+								(fileMgr instanceof FileManagerService ? "remote" : "local"),
+								fileName);
+			}
+		}
+
+		private void await() {
+			while (!pendingChunks.isEmpty()) {
+				pendingChunks.remove().join();
+			}
+			if (emptyFlag) {
+				// no items for this slice, but the load step slice expects the item input file to exist
+				write(FileManager.EMPTY);
+			}
+			try {
+				fileMgr.closeFile(fileName);
+			} catch (final IOException e) {
+				LogUtil.exception(Level.DEBUG, e, "Failed to close the file \"{}\"", fileName);
+			}
+		}
 	}
 }
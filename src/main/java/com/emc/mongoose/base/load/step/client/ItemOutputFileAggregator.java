@@ -8,13 +8,13 @@ import static org.apache.logging.log4j.CloseableThreadContext.put;
 
 import com.emc.mongoose.base.env.FsUtil;
 import com.emc.mongoose.base.load.step.file.FileManager;
+import com.emc.mongoose.base.load.step.file.FileTransfer;
 import com.emc.mongoose.base.load.step.service.file.FileManagerService;
 import com.emc.mongoose.base.logging.LogContextThreadFactory;
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
 import com.github.akurilov.commons.system.SizeInBytes;
 import com.github.akurilov.confuse.Config;
-import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
@@ -34,15 +35,18 @@ public final class ItemOutputFileAggregator implements AutoCloseable {
 
 	private final String loadStepId;
 	private final String itemOutputFile;
+	private final FileTransfer fileTransfer;
 	private final Map<FileManager, String> itemOutputFileSlices;
 
 	public ItemOutputFileAggregator(
 					final String loadStepId,
 					final List<FileManager> fileMgrs,
 					final List<Config> configSlices,
-					final String itemOutputFile) {
+					final String itemOutputFile,
+					final FileTransfer fileTransfer) {
 		this.loadStepId = loadStepId;
 		this.itemOutputFile = itemOutputFile;
+		this.fileTransfer = fileTransfer;
 		final var sliceCount = fileMgrs.size();
 		this.itemOutputFileSlices = new HashMap<>(sliceCount);
 		for (var i = 0; i < sliceCount; i++) {
@@ -87,6 +91,8 @@ public final class ItemOutputFileAggregator implements AutoCloseable {
 		final var byteCounter = new LongAdder();
 		final var executor = Executors.newScheduledThreadPool(
 						2, new LogContextThreadFactory("collectItemOutputFileWorker", true));
+		final var transferExecutor = Executors.newCachedThreadPool(
+						new LogContextThreadFactory("transferItemOutputFileWorker", true));
 		final var finishLatch = new CountDownLatch(1);
 		final var itemOutputPath = Paths.get(itemOutputFile);
 		FsUtil.createParentDirsIfNotExist(itemOutputPath);
@@ -104,6 +110,8 @@ public final class ItemOutputFileAggregator implements AutoCloseable {
 																	final var fileMgr = entry.getKey();
 																	final var remoteItemOutputFileName = entry.getValue();
 																	transferToLocal(
+																					fileTransfer,
+																					transferExecutor,
 																					fileMgr,
 																					remoteItemOutputFileName,
 																					localItemOutput,
@@ -148,6 +156,7 @@ public final class ItemOutputFileAggregator implements AutoCloseable {
 			throwUnchecked(e);
 		} finally {
 			executor.shutdownNow();
+			transferExecutor.shutdownNow();
 			Loggers.MSG.info(
 							"\"{}\" <- transferred {} of the output items data",
 							itemOutputFile,
@@ -156,34 +165,35 @@ public final class ItemOutputFileAggregator implements AutoCloseable {
 	}
 
 	private static void transferToLocal(
+					final FileTransfer fileTransfer,
+					final Executor transferExecutor,
 					final FileManager fileMgr,
 					final String remoteItemOutputFileName,
 					final OutputStream localItemOutput,
 					final Lock localItemOutputLock,
 					final LongAdder byteCounter) {
-		long transferredByteCount = 0;
 		try (final var logCtx = put(KEY_CLASS_NAME, ItemOutputFileAggregator.class.getSimpleName())) {
-			byte buff[];
-			while (true) {
-				buff = fileMgr.readFromFile(remoteItemOutputFileName, transferredByteCount);
-				localItemOutputLock.lock();
-				try {
-					localItemOutput.write(buff);
-				} finally {
-					localItemOutputLock.unlock();
-				}
-				transferredByteCount += buff.length;
-				byteCounter.add(buff.length);
-			}
-		} catch (final EOFException ok) {} catch (final IOException e) {
-			LogUtil.exception(Level.WARN, e, "Remote items output file transfer failure");
-		} finally {
+			final var transferredByteCount = fileTransfer.transfer(
+							fileMgr,
+							remoteItemOutputFileName,
+							transferExecutor,
+							(buff, off, len) -> {
+								localItemOutputLock.lock();
+								try {
+									localItemOutput.write(buff, off, len);
+								} finally {
+									localItemOutputLock.unlock();
+								}
+								byteCounter.add(len);
+							});
 			Loggers.MSG.debug(
 							"{} of items output data transferred from \"{}\" @ \"{}\" to \"{}\"",
 							SizeInBytes.formatFixedSize(transferredByteCount),
 							remoteItemOutputFileName,
 							fileMgr,
 							localItemOutput);
+		} catch (final IOException e) {
+			LogUtil.exception(Level.WARN, e, "Remote items output file transfer failure");
 		}
 	}
 }
@@ -2,6 +2,7 @@ package com.emc.mongoose.base.load.step.client;
 
 import com.emc.mongoose.base.env.FsUtil;
 import com.emc.mongoose.base.load.step.file.FileManager;
+import com.emc.mongoose.base.load.step.file.FileTransfer;
 import com.emc.mongoose.base.load.step.service.file.FileManagerService;
 import com.emc.mongoose.base.logging.LogContextThreadFactory;
 import com.emc.mongoose.base.logging.LogUtil;
@@ -10,7 +11,6 @@ import com.github.akurilov.commons.system.SizeInBytes;
 import com.github.akurilov.confuse.Config;
 import org.apache.logging.log4j.Level;
 
-import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
@@ -41,13 +42,16 @@ import static org.apache.logging.log4j.CloseableThreadContext.put;
 public class ItemTimingMetricOutputFileAggregator implements AutoCloseable {
 
     private final String loadStepId;
+    private final FileTransfer fileTransfer;
     private final Path itemTimingMetricsOutputFilePath;
     private final Map<FileManager, String> itemTimingMetricOutputFileSlices;
 
     public ItemTimingMetricOutputFileAggregator(
             final String loadStepId,
-            final List<FileManager> fileMgrs) {
+            final List<FileManager> fileMgrs,
+            final FileTransfer fileTransfer) {
         this.loadStepId = loadStepId;
+        this.fileTransfer = fileTransfer;
         final var sliceCount = fileMgrs.size();
         this.itemTimingMetricOutputFileSlices = new HashMap<>(sliceCount);
         this.itemTimingMetricsOutputFilePath = Paths.get(System.getProperty("java.io.tmpdir"),
@@ -86,6 +90,8 @@ public class ItemTimingMetricOutputFileAggregator implements AutoCloseable {
         final var byteCounter = new LongAdder();
         final var executor = Executors.newScheduledThreadPool(
                 2, new LogContextThreadFactory("collectItemTimingMetricsOutputFileWorker", true));
+        final var transferExecutor = Executors.newCachedThreadPool(
+                new LogContextThreadFactory("transferItemTimingMetricsOutputFileWorker", true));
         // we need as many locks as there are slices except for entry node. Because we have a separate tmp file for each slice
         final var finishLatch = new CountDownLatch(itemTimingMetricOutputFileSlices.size() - 1);
         FsUtil.createParentDirsIfNotExist(itemTimingMetricsOutputFilePath);
@@ -106,6 +112,8 @@ public class ItemTimingMetricOutputFileAggregator implements AutoCloseable {
                                                          Files.newOutputStream(localItemOutputPath,
                                                                  FileManager.APPEND_OPEN_OPTIONS)) {
                                             transferToLocal(
+                                                    fileTransfer,
+                                                    transferExecutor,
                                                     fileMgr,
                                                     remoteItemOutputFileName,
                                                     localItemOutput,
@@ -150,6 +158,7 @@ public class ItemTimingMetricOutputFileAggregator implements AutoCloseable {
             //throwUnchecked(e); //TODO: what to do? ctrl c while aggregating -> ? BASE-1447
         } finally {
             executor.shutdownNow();
+            transferExecutor.shutdownNow();
             Loggers.MSG.info(
                     "\"{}\" <- transferred {} of the output items data",
                     itemTimingMetricsOutputFilePath.toString(),
@@ -158,30 +167,30 @@ public class ItemTimingMetricOutputFileAggregator implements AutoCloseable {
     }
 
     private static void transferToLocal(
+            final FileTransfer fileTransfer,
+            final Executor transferExecutor,
             final FileManager fileMgr,
             final String remoteItemOutputFileName,
             final OutputStream localItemOutput,
             final LongAdder byteCounter) {
-        long transferredByteCount = 0;
         try (final var logCtx = put(KEY_CLASS_NAME,
                 ItemTimingMetricOutputFileAggregator.class.getSimpleName())) {
-            byte buff[];
-            while (true) {
-                buff = fileMgr.readFromFile(remoteItemOutputFileName, transferredByteCount);
-                localItemOutput.write(buff);
-                transferredByteCount += buff.length;
-                byteCounter.add(buff.length);
-            }
-        } catch (final EOFException ok) {
-        } catch (final IOException e) {
-            LogUtil.exception(Level.WARN, e, "Remote items output timing metrics file transfer failure");
-        } finally {
+            final var transferredByteCount = fileTransfer.transfer(
+                    fileMgr,
+                    remoteItemOutputFileName,
+                    transferExecutor,
+                    (buff, off, len) -> {
+                        localItemOutput.write(buff, off, len);
+                        byteCounter.add(len);
+                    });
             Loggers.MSG.debug(
                     "{} of items timing metrics output data transferred from \"{}\" @ \"{}\" to \"{}\"",
                     SizeInBytes.formatFixedSize(transferredByteCount),
                     remoteItemOutputFileName,
                     fileMgr,
                     localItemOutput);
+        } catch (final IOException e) {
+            LogUtil.exception(Level.WARN, e, "Remote items output timing metrics file transfer failure");
         }
     }
 
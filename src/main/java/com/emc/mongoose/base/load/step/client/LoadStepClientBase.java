@@ -18,7 +18,13 @@ import com.emc.mongoose.base.load.step.LoadStepBase;
 import com.emc.mongoose.base.load.step.LoadStepFactory;
 import com.emc.mongoose.base.load.step.client.metrics.MetricsAggregator;
 import com.emc.mongoose.base.load.step.client.metrics.MetricsAggregatorImpl;
+import com.emc.mongoose.base.load.step.client.metrics.MetricsAggregationTreeUtil;
 import com.emc.mongoose.base.load.step.file.FileManager;
+import com.emc.mongoose.base.load.step.file.FileTransfer;
+import com.emc.mongoose.base.load.step.lease.OpCountLease;
+import com.emc.mongoose.base.load.step.lease.OpCountLeaseCoordinatorImpl;
+import com.emc.mongoose.base.load.step.local.LoadStepLocalBase;
+import com.emc.mongoose.base.load.step.service.LoadStepService;
 import com.emc.mongoose.base.load.step.service.file.FileManagerService;
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
@@ -27,6 +33,8 @@ import com.emc.mongoose.base.metrics.context.DistributedMetricsContext;
 import com.emc.mongoose.base.metrics.context.DistributedMetricsContextImpl;
 import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
 import com.emc.mongoose.base.storage.driver.StorageDriver;
+import com.emc.mongoose.base.svc.ServiceTransport;
+import com.emc.mongoose.base.svc.nio.NioServiceUtil;
 import com.github.akurilov.commons.net.NetUtil;
 import com.github.akurilov.commons.reflection.TypeUtil;
 import com.github.akurilov.commons.system.SizeInBytes;
@@ -36,8 +44,11 @@ import com.github.akurilov.confuse.impl.BasicConfig;
 
 import java.io.IOException;
 import java.rmi.ConnectException;
+import java.rmi.NoSuchObjectException;
 import java.rmi.RemoteException;
 import java.rmi.UnknownHostException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -45,8 +56,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.apache.logging.log4j.Level;
 
@@ -64,6 +77,13 @@ implements LoadStepClient {
 	private final List<AutoCloseable> opTraceLogFileAggregators = new ArrayList<>();
 	private final List<AutoCloseable> storageAuthFileSlicers = new ArrayList<>();
 	private final static int MAX_SLEEP_TIME_MILLIS = 120_000; // 2min.
+	// distributed mode: hands out the count limit to the step slices on demand, null if the count limit is sliced
+	private OpCountLeaseCoordinatorImpl opCountLeaseCoordinator = null;
+	private boolean opCountLeaseCoordinatorExportedFlag = false;
+	// distributed mode: the remote nodes clock samples taken at the start, empty if the clock sync is disabled
+	private final Map<FileManager, NodeClockOffset.Sample> nodeClockSamples = new ConcurrentHashMap<>();
+	// the remote nodes clock offsets estimated at the stop, used to align the operation traces
+	private final Map<FileManager, NodeClockOffset> nodeClockOffsets = new ConcurrentHashMap<>();
 
 	public LoadStepClientBase(
 		final Config config, final List<Extension> extensions, final List<Config> ctxConfigs,
@@ -82,11 +102,19 @@ implements LoadStepClient {
 			config.val("load-step-id", loadStepId());
 			config.val("load-step-idAutoGenerated", false);
 			final var nodeAddrs = remoteNodeAddrs(config);
-			initFileManagers(nodeAddrs, fileMgrs);
+			initFileManagers(nodeAddrs, ServiceTransport.of(config.stringVal("load-step-node-transport")), fileMgrs);
 			final var sliceCount = 1 + nodeAddrs.size();
 			// init the base/shared config slices
 			final var configSlices = sliceConfig(config, sliceCount);
 			addFileClients(config, configSlices);
+			final var countLimit = config.longVal("load-op-limit-count");
+			final var leaseSize = config.longVal("load-step-node-lease");
+			if(sliceCount > 1 && countLimit > 0 && leaseSize > 0) {
+				opCountLeaseCoordinator = new OpCountLeaseCoordinatorImpl(countLimit);
+				Loggers.MSG.info(
+					"{}: the count limit ({}) is leased to the nodes by {}", loadStepId(), countLimit, leaseSize
+				);
+			}
 			// init the config slices for each of the load step context configs
 			final var ctxConfigsSlices = (List<List<Config>>) new ArrayList<List<Config>>(sliceCount);
 			for(var i = 0; i < sliceCount; i++) {
@@ -102,7 +130,11 @@ implements LoadStepClient {
 				}
 			}
 			initAndStartStepSlices(nodeAddrs, configSlices, ctxConfigsSlices, metricsMgr);
-			initAndStartMetricsAggregator(config.configVal("output-metrics"));
+			final var clockSampleCount = config.intVal("load-step-node-clock-samples");
+			if(clockSampleCount > 0) {
+				sampleNodeClocks(clockSampleCount, nodeClockSamples);
+			}
+			initAndStartMetricsAggregator(nodeAddrs, config.configVal("output-metrics"));
 			Loggers.MSG.info(
 				"{}: load step client started, additional nodes: {}", loadStepId(),
 				Arrays.toString(nodeAddrs.toArray())
@@ -119,19 +151,26 @@ implements LoadStepClient {
 			   nodeAddrs.stream().map(addr -> NetUtil.addPortIfMissing(addr, nodePort)).collect(Collectors.toList());
 	}
 
-	private static void initFileManagers(final List<String> nodeAddrs, final List<FileManager> fileMgrsDst) {
+	private static void initFileManagers(
+		final List<String> nodeAddrs, final ServiceTransport transport, final List<FileManager> fileMgrsDst
+	) {
 		// local file manager
 		fileMgrsDst.add(FileManager.INSTANCE);
 		// remote file managers
-		nodeAddrs.stream().map(nodeAddr -> resolveFileManagerWithRetries(nodeAddr, 10)).forEachOrdered(fileMgrsDst::add);
+		nodeAddrs
+			.stream()
+			.map(nodeAddr -> resolveFileManagerWithRetries(nodeAddr, transport, 10))
+			.forEachOrdered(fileMgrsDst::add);
 	}
 
-	private static FileManagerService resolveFileManagerWithRetries(final String nodeAddrWithPort, final int maxRetries) {
+	private static FileManagerService resolveFileManagerWithRetries(
+		final String nodeAddrWithPort, final ServiceTransport transport, final int maxRetries
+	) {
 		FileManagerService fms = null;
 		int retryCount = 0;
 		while (null == fms && retryCount < maxRetries && !Thread.currentThread().isInterrupted()) {
 			try {
-				fms = FileManagerClient.resolve(nodeAddrWithPort);
+				fms = FileManagerClient.resolve(nodeAddrWithPort, transport);
 				retryCount++;
 				final int sleepTime = 1000 * (int) Math.pow(2, retryCount);
 				Thread.sleep(Math.min(sleepTime, MAX_SLEEP_TIME_MILLIS));
@@ -163,6 +202,9 @@ implements LoadStepClient {
 	private void addFileClients(final Config config, final List<Config> configSlices) {
 		final var loadConfig = config.configVal("load");
 		final var batchSize = loadConfig.intVal("batch-size");
+		final var nodeConfig = loadConfig.configVal("step-node");
+		final var fileTransfer = FileTransfer.instance(nodeConfig.configVal("transfer"));
+		final var scatterPartitioning = ItemInputFileSlicer.Partitioning.of(nodeConfig.stringVal("scatter"));
 		final var storageConfig = config.configVal("storage");
 		final var itemConfig = config.configVal("item");
 		final var itemDataConfig = itemConfig.configVal("data");
@@ -191,13 +233,18 @@ implements LoadStepClient {
 		) {
 			if(null != itemDataInputFile && ! itemDataInputFile.isEmpty()) {
 				itemDataInputFileSlicers.add(
-					new ItemDataInputFileSlicer(loadStepId(), fileMgrs, configSlices, itemDataInputFile, batchSize)
+					new ItemDataInputFileSlicer(
+						loadStepId(), fileMgrs, configSlices, itemDataInputFile, fileTransfer.chunkSize()
+					)
 				);
 				Loggers.MSG.debug("{}: item data input file slicer initialized", loadStepId());
 			}
 			if(null != itemInput) {
 				itemInputFileSlicers.add(
-					new ItemInputFileSlicer(loadStepId(), fileMgrs, configSlices, itemInput, batchSize)
+					new ItemInputFileSlicer(
+						loadStepId(), fileMgrs, configSlices, itemInput, batchSize, scatterPartitioning,
+						fileTransfer.chunkSize()
+					)
 				);
 				Loggers.MSG.debug("{}: item input file slicer initialized", loadStepId());
 			}
@@ -211,17 +258,28 @@ implements LoadStepClient {
 		final var itemOutputFile = config.stringVal("item-output-file");
 		if(itemOutputFile != null && ! itemOutputFile.isEmpty()) {
 			itemOutputFileAggregators.add(
-				new ItemOutputFileAggregator(loadStepId(), fileMgrs, configSlices, itemOutputFile));
+				new ItemOutputFileAggregator(loadStepId(), fileMgrs, configSlices, itemOutputFile, fileTransfer));
 			Loggers.MSG.debug("{}: item output file aggregator initialized", loadStepId());
 		}
 
-		itemTimingMetricsOutputFileAggregators.add(
-				new ItemTimingMetricOutputFileAggregator(loadStepId(), fileMgrs));
-		Loggers.MSG.debug("{}: item metrics output file aggregator initialized", loadStepId());
+		if(config.boolVal("output-metrics-timing-persist")) {
+			itemTimingMetricsOutputFileAggregators.add(
+				new ItemTimingMetricOutputFileAggregator(loadStepId(), fileMgrs, fileTransfer));
+			Loggers.MSG.debug("{}: item metrics output file aggregator initialized", loadStepId());
+		}
 
 		if(config.boolVal("output-metrics-trace-persist")) {
-			opTraceLogFileAggregators.add(new OpTraceLogFileAggregator(loadStepId(), fileMgrs));
-			Loggers.MSG.debug("{}: operation traces log file aggregator initialized", loadStepId());
+			if("binary".equalsIgnoreCase(config.stringVal("output-metrics-trace-format"))) {
+				opTraceLogFileAggregators.add(
+					new OpTraceBinaryFileAggregator(loadStepId(), fileMgrs, fileTransfer, nodeClockOffsets)
+				);
+				Loggers.MSG.debug("{}: binary operation traces file aggregator initialized", loadStepId());
+			} else {
+				opTraceLogFileAggregators.add(
+					new OpTraceLogFileAggregator(loadStepId(), fileMgrs, fileTransfer, nodeClockOffsets)
+				);
+				Loggers.MSG.debug("{}: operation traces log file aggregator initialized", loadStepId());
+			}
 		}
 		final var storageAuthFile = storageConfig.stringVal("auth-file");
 		if(storageAuthFile != null && ! storageAuthFile.isEmpty()) {
@@ -234,15 +292,54 @@ implements LoadStepClient {
 		}
 	}
 
-	private void initAndStartMetricsAggregator(Config config) {
+	private void initAndStartMetricsAggregator(final List<String> nodeAddrs, final Config config) {
 		try(final var logCtx = put(KEY_STEP_ID, loadStepId()).put(KEY_CLASS_NAME, getClass().getSimpleName())) {
-			metricsAggregator = new MetricsAggregatorImpl(loadStepId(), stepSlices, config);
+			final var fanOut = config.intVal("average-aggregation-fanout");
+			final var metricsSources = fanOut > 0 && nodeAddrs.size() > fanOut ?
+				metricsAggregationTree(nodeAddrs, fanOut) : stepSlices;
+			metricsAggregator = new MetricsAggregatorImpl(loadStepId(), metricsSources, config);
 			metricsAggregator.start();
 		} catch(final Exception e) {
 			LogUtil.exception(Level.ERROR, e, "{}: failed to start the metrics aggregator", loadStepId());
 		}
 	}
 
+	// make the additional nodes to collect the metrics from each other, returns the step slices to collect the metrics
+	// from by the entry node
+	private List<LoadStep> metricsAggregationTree(final List<String> nodeAddrs, final int fanOut) {
+		final var nodeCount = nodeAddrs.size();
+		final var metricsSources = (List<LoadStep>) new ArrayList<LoadStep>(fanOut + 1);
+		metricsSources.add(stepSlices.get(0)); // local step slice
+		final var nodeIndices = new ArrayDeque<>(
+			MetricsAggregationTreeUtil.childIndices(MetricsAggregationTreeUtil.ENTRY_NODE_INDEX, nodeCount, fanOut)
+		);
+		while(!nodeIndices.isEmpty()) {
+			final int nodeIndex = nodeIndices.poll();
+			final var stepSlice = stepSlices.get(nodeIndex + 1);
+			metricsSources.add(stepSlice);
+			final var childIndices = MetricsAggregationTreeUtil.childIndices(nodeIndex, nodeCount, fanOut);
+			if(!childIndices.isEmpty()) {
+				try {
+					final var childNodeAddrs = (List<String>) new ArrayList<String>(childIndices.size());
+					final var childSvcNames = (List<String>) new ArrayList<String>(childIndices.size());
+					for(final var childIndex : childIndices) {
+						childNodeAddrs.add(nodeAddrs.get(childIndex));
+						childSvcNames.add(((LoadStepService) stepSlices.get(childIndex + 1)).name());
+					}
+					((LoadStepService) stepSlice).aggregateMetricsSnapshots(childNodeAddrs, childSvcNames);
+				} catch(final Exception e) {
+					throwUncheckedIfInterrupted(e);
+					LogUtil.exception(
+						Level.WARN, e, "{}: the node {} failed to aggregate the metrics of the other nodes, the entry " +
+							"node will collect them", loadStepId(), nodeAddrs.get(nodeIndex)
+					);
+					nodeIndices.addAll(childIndices);
+				}
+			}
+		}
+		return metricsSources;
+	}
+
 	private void initAndStartStepSlices(
 		final List<String> nodeAddrs, final List<Config> configSlices, final List<List<Config>> ctxConfigsSlices,
 		final MetricsManager metricsManager
@@ -269,6 +366,9 @@ implements LoadStepClient {
 			}
 			stepSlices.add(stepSlice);
 			if(stepSlice != null) {
+				if(null != opCountLeaseCoordinator) {
+					leaseOpCount(stepSlice, configSlice);
+				}
 				try {
 					stepSlice.start();
 				} catch(final Exception e) {
@@ -283,6 +383,68 @@ implements LoadStepClient {
 		}
 	}
 
+	private void leaseOpCount(final LoadStep stepSlice, final Config configSlice) {
+		final var leaseSize = configSlice.longVal("load-step-node-lease");
+		try {
+			if(stepSlice instanceof LoadStepService) {
+				if(!opCountLeaseCoordinatorExportedFlag && !NioServiceUtil.isProxy(stepSlice)) {
+					// the NIO transport exports the coordinator itself when it's passed to the remote side
+					UnicastRemoteObject.exportObject(opCountLeaseCoordinator, 0);
+					opCountLeaseCoordinatorExportedFlag = true;
+				}
+				((LoadStepService) stepSlice).leaseOpCount(opCountLeaseCoordinator, leaseSize);
+			} else if(stepSlice instanceof LoadStepLocalBase) {
+				((LoadStepLocalBase) stepSlice).opCountLease(new OpCountLease(opCountLeaseCoordinator, leaseSize));
+			}
+		} catch(final RemoteException e) {
+			// the step slice uses its static part of the count limit, exclude it from the leased count
+			final var staticCountLimit = opCountLeaseCoordinator.lease(configSlice.longVal("load-op-limit-count"));
+			LogUtil.exception(
+				Level.WARN, e, "{}: failed to lease the count limit to the step slice \"{}\", it's limited by {}",
+				loadStepId(), stepSlice, staticCountLimit
+			);
+		}
+	}
+
+	// sample the remote nodes clocks concurrently, the local step slice uses the same clock
+	private void sampleNodeClocks(final int sampleCount, final Map<FileManager, NodeClockOffset.Sample> samplesDst) {
+		IntStream.range(1, stepSlices.size()).parallel().forEach(i -> {
+			final var stepSlice = stepSlices.get(i);
+			final var fileMgr = fileMgrs.get(i);
+			if(stepSlice instanceof LoadStepService && null != fileMgr) {
+				try {
+					samplesDst.put(
+						fileMgr,
+						NodeClockOffset.sample(
+							NodeClockOffset.LOCAL_CLOCK, ((LoadStepService) stepSlice)::opTimeMicros, sampleCount
+						)
+					);
+				} catch(final RemoteException e) {
+					LogUtil.exception(
+						Level.WARN, e, "{}: failed to sample the clock of the step slice \"{}\"", loadStepId(), stepSlice
+					);
+				}
+			}
+		});
+	}
+
+	// estimate the remote nodes clock offsets using the samples taken at the start and now
+	private void estimateNodeClockOffsets() {
+		final var sampleCount = config.intVal("load-step-node-clock-samples");
+		final Map<FileManager, NodeClockOffset.Sample> lastSamples = new ConcurrentHashMap<>();
+		sampleNodeClocks(sampleCount, lastSamples);
+		for(var i = 1; i < fileMgrs.size(); i++) {
+			final var fileMgr = fileMgrs.get(i);
+			final var firstSample = null == fileMgr ? null : nodeClockSamples.get(fileMgr);
+			if(null != firstSample) {
+				final var clockOffset = NodeClockOffset.of(firstSample, lastSamples.get(fileMgr));
+				nodeClockOffsets.put(fileMgr, clockOffset);
+				Loggers.MSG.info("{}: the step slice #{} clock {}", loadStepId(), i, clockOffset);
+			}
+		}
+		nodeClockSamples.clear();
+	}
+
 	private List<Config> sliceConfig(final Config config, final int sliceCount) {
 		final var configSlices = (List<Config>) new ArrayList<Config>(sliceCount);
 		for(var i = 0; i < sliceCount; i++) {
@@ -297,18 +459,21 @@ implements LoadStepClient {
 			//
 			final var countLimit = config.longVal("load-op-limit-count");
 			if(countLimit > 0) {
+				// the static slices are used also if the count limit is leased but the step slice doesn't support it
 				ConfigSliceUtil.sliceLongValue(countLimit, configSlices, "load-op-limit-count");
-				configSlices
-					.stream()
-					.mapToLong(configSlice -> configSlice.longVal("load-op-limit-count"))
-					.filter(countLimitSlice -> countLimitSlice == 0)
-					.findAny()
-					.ifPresent(
-						countLimitSlice -> Loggers.MSG.fatal(
-							"{}: the count limit ({}) is too small to be sliced among the {} nodes, the load step " +
-							"won't work correctly", loadStepId(), countLimit, sliceCount
-						)
-					);
+				if(config.longVal("load-step-node-lease") <= 0) {
+					configSlices
+						.stream()
+						.mapToLong(configSlice -> configSlice.longVal("load-op-limit-count"))
+						.filter(countLimitSlice -> countLimitSlice == 0)
+						.findAny()
+						.ifPresent(
+							countLimitSlice -> Loggers.MSG.fatal(
+								"{}: the count limit ({}) is too small to be sliced among the {} nodes, the load step " +
+								"won't work correctly", loadStepId(), countLimit, sliceCount
+							)
+						);
+				}
 			}
 			//
 			final var countFailLimit = config.longVal("load-op-limit-fail-count");
@@ -373,6 +538,7 @@ implements LoadStepClient {
 		final var concurrencyThreshold = (int) (concurrencyLimit * metricsConfig.doubleVal("threshold"));
 		final var metricsAvgPersistFlag = metricsConfig.boolVal("average-persist");
 		final var metricsSumPersistFlag = metricsConfig.boolVal("summary-persist");
+		final var metricsTimingPersistFlag = metricsConfig.boolVal("timing-persist");
 		// it's not known yet how many nodes are involved, so passing the function "this::sliceCount"
 		// reference for
 		// further usage
@@ -385,9 +551,11 @@ implements LoadStepClient {
 			.concurrencyThreshold(concurrencyThreshold)
 			.itemDataSize(itemDataSize)
 			.outputPeriodSec(avgPeriod(metricsConfig))
+			.heatmapPeriodSec(heatmapPeriod(metricsConfig))
 			.stdOutColorFlag(outputColorFlag)
 			.avgPersistFlag(metricsAvgPersistFlag)
 			.sumPersistFlag(metricsSumPersistFlag)
+			.timingPersistFlag(metricsTimingPersistFlag)
 			.snapshotsSupplier(() -> metricsSnapshotsByIndex(originIndex))
 			.quantileValues(quantiles(metricsConfig))
 			.nodeAddrs(remoteNodeAddrs(config))
@@ -474,6 +642,9 @@ implements LoadStepClient {
 
 	@Override
 	protected final void doStop() {
+		if(!nodeClockSamples.isEmpty()) {
+			estimateNodeClockOffsets();
+		}
 		stepSlices.parallelStream().forEach(stepSlice -> {
 			try(
 				final var logCtx = put(KEY_STEP_ID, stepSlice.loadStepId()).put(
@@ -529,6 +700,14 @@ implements LoadStepClient {
 			});
 			Loggers.MSG.debug("{}: closed all {} step slices", loadStepId(), stepSlices.size());
 			stepSlices.clear();
+			if(opCountLeaseCoordinatorExportedFlag) {
+				try {
+					UnicastRemoteObject.unexportObject(opCountLeaseCoordinator, true);
+				} catch(final NoSuchObjectException ignored) {
+				}
+				opCountLeaseCoordinatorExportedFlag = false;
+			}
+			opCountLeaseCoordinator = null;
 			itemDataInputFileSlicers.forEach(itemDataInputFileSlicer -> {
 				try {
 					itemDataInputFileSlicer.close();
@@ -574,6 +753,7 @@ implements LoadStepClient {
 				}
 			});
 			opTraceLogFileAggregators.clear();
+			nodeClockOffsets.clear();
 			storageAuthFileSlicers.forEach(storageAuthFileSlicer -> {
 				try {
 					storageAuthFileSlicer.close();
@@ -11,6 +11,7 @@ import com.emc.mongoose.base.load.step.LoadStepManagerService;
 import com.emc.mongoose.base.load.step.service.LoadStepService;
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
+import com.emc.mongoose.base.svc.ServiceTransport;
 import com.emc.mongoose.base.svc.ServiceUtil;
 import com.github.akurilov.confuse.Config;
 import java.rmi.RemoteException;
@@ -26,9 +27,11 @@ public interface LoadStepSliceUtil {
 					final String stepTypeName,
 					final String nodeAddrWithPort) {
 
+		final var transport = ServiceTransport.of(configSlice.stringVal("load-step-node-transport"));
 		final LoadStepManagerService stepMgrSvc;
 		try {
-			stepMgrSvc = ServiceUtil.resolve(nodeAddrWithPort, LoadStepManagerService.SVC_NAME);
+			stepMgrSvc = ServiceUtil.resolve(
+							nodeAddrWithPort, LoadStepManagerService.SVC_NAME, transport, LoadStepManagerService.class);
 		} catch (final Exception e) {
 			LogUtil.exception(
 							Level.ERROR,
@@ -51,7 +54,7 @@ public interface LoadStepSliceUtil {
 
 		final LoadStepService stepSvc;
 		try {
-			stepSvc = ServiceUtil.resolve(nodeAddrWithPort, stepSvcName);
+			stepSvc = ServiceUtil.resolve(nodeAddrWithPort, stepSvcName, transport, LoadStepService.class);
 		} catch (final Exception e) {
 			LogUtil.exception(
 							Level.ERROR,
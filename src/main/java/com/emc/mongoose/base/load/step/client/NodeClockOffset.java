@@ -0,0 +1,141 @@
+package com.emc.mongoose.base.load.step.client;
+
+import static java.lang.System.nanoTime;
+
+import com.emc.mongoose.base.item.op.Operation;
+import java.rmi.RemoteException;
+import java.util.function.LongSupplier;
+
+/**
+* The clock offset of the remote node relative to the entry node, in terms of the operation timestamps (see {@link
+* Operation#START_OFFSET_MICROS}). The offset is estimated NTP-style: the remote time is requested several times, each
+* response is assumed to be taken in the middle of the round trip and the sample with the minimal round trip time is
+* used, as the least affected by the network and the scheduling delays. The offset is sampled at the load step start and
+* at the end, so the drift of the remote clock is also accounted.
+*/
+public final class NodeClockOffset {
+
+	/** The remote node clock source */
+	@FunctionalInterface
+	public interface RemoteClock {
+		/** @return the current remote time, microseconds */
+		long timeMicros() throws RemoteException;
+	}
+
+	/** The single offset measurement */
+	public static final class Sample {
+
+		private final long localTimeMicros;
+		private final long offsetMicros;
+		private final long roundTripMicros;
+
+		Sample(final long localTimeMicros, final long offsetMicros, final long roundTripMicros) {
+			this.localTimeMicros = localTimeMicros;
+			this.offsetMicros = offsetMicros;
+			this.roundTripMicros = roundTripMicros;
+		}
+
+		/** @return the local time of the measurement, microseconds */
+		public long localTimeMicros() {
+			return localTimeMicros;
+		}
+
+		/** @return the remote time minus the local time, microseconds */
+		public long offsetMicros() {
+			return offsetMicros;
+		}
+
+		/** @return the round trip time of the measurement, microseconds, the max error of the offset is a half of it */
+		public long roundTripMicros() {
+			return roundTripMicros;
+		}
+	}
+
+	public static final NodeClockOffset ZERO = new NodeClockOffset(0, 0, 0, 0);
+	public static final LongSupplier LOCAL_CLOCK = () -> Operation.START_OFFSET_MICROS + nanoTime() / 1000;
+
+	private final long refTimeMicros;
+	private final long offsetMicros;
+	private final double drift;
+	private final long errorMicros;
+
+	NodeClockOffset(final long refTimeMicros, final long offsetMicros, final double drift, final long errorMicros) {
+		this.refTimeMicros = refTimeMicros;
+		this.offsetMicros = offsetMicros;
+		this.drift = drift;
+		this.errorMicros = errorMicros;
+	}
+
+	/**
+	* @param localClock the local clock
+	* @param remoteClock the remote clock
+	* @param count the count of the round trips
+	* @return the sample with the minimal round trip time
+	* @throws RemoteException if the remote time request fails
+	*/
+	public static Sample sample(final LongSupplier localClock, final RemoteClock remoteClock, final int count)
+					throws RemoteException {
+		Sample best = null;
+		for (var i = 0; i < count; i++) {
+			final var t0 = localClock.getAsLong();
+			final var remoteTime = remoteClock.timeMicros();
+			final var t1 = localClock.getAsLong();
+			final var roundTrip = t1 - t0;
+			if (null == best || roundTrip < best.roundTripMicros) {
+				final var localTime = t0 + roundTrip / 2;
+				best = new Sample(localTime, remoteTime - localTime, roundTrip);
+			}
+		}
+		return best;
+	}
+
+	/**
+	* @param first the sample taken at the start
+	* @param last the sample taken at the end, may be null
+	* @return the clock offset estimate, constant if the last sample is not available
+	*/
+	public static NodeClockOffset of(final Sample first, final Sample last) {
+		final var errorMicros = (first.roundTripMicros + 1) / 2;
+		if (null == last || last.localTimeMicros <= first.localTimeMicros) {
+			return new NodeClockOffset(first.localTimeMicros, first.offsetMicros, 0, errorMicros);
+		}
+		final var drift = (double) (last.offsetMicros - first.offsetMicros)
+						/ (last.localTimeMicros - first.localTimeMicros);
+		return new NodeClockOffset(
+						first.localTimeMicros,
+						first.offsetMicros,
+						drift,
+						Math.max(errorMicros, (last.roundTripMicros + 1) / 2));
+	}
+
+	/**
+	* @param remoteTimeMicros the remote node timestamp, microseconds
+	* @return the corresponding entry node timestamp, microseconds
+	*/
+	public long toLocal(final long remoteTimeMicros) {
+		// the remote time differs from the local one by the offset only, so it's good enough to estimate the drift
+		final var localTimeMicros = remoteTimeMicros - offsetMicros;
+		return localTimeMicros - Math.round(drift * (localTimeMicros - refTimeMicros));
+	}
+
+	/** @return the remote time minus the local time at the start, microseconds */
+	public long offsetMicros() {
+		return offsetMicros;
+	}
+
+	/** @return the remote clock drift, microseconds per microsecond */
+	public double drift() {
+		return drift;
+	}
+
+	/** @return the max error of the estimate, microseconds */
+	public long errorMicros() {
+		return errorMicros;
+	}
+
+	@Override
+	public String toString() {
+		return "offset: " + offsetMicros + "us, drift: " + Math.round(drift * 1_000_000) + "ppm, error: +/-"
+						+ errorMicros + "us";
+	}
+}
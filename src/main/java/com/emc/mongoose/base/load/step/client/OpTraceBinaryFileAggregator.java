@@ -0,0 +1,296 @@
+package com.emc.mongoose.base.load.step.client;
+
+import static com.emc.mongoose.base.Constants.KEY_CLASS_NAME;
+import static com.emc.mongoose.base.Constants.KEY_STEP_ID;
+import static com.emc.mongoose.base.Exceptions.throwUncheckedIfInterrupted;
+import static com.emc.mongoose.base.load.step.client.LoadStepClient.OUTPUT_PROGRESS_PERIOD_MILLIS;
+import static com.github.akurilov.commons.lang.Exceptions.throwUnchecked;
+import static org.apache.logging.log4j.CloseableThreadContext.Instance;
+import static org.apache.logging.log4j.CloseableThreadContext.put;
+
+import com.emc.mongoose.base.env.FsUtil;
+import com.emc.mongoose.base.item.io.OperationTraceBinaryFileOutput;
+import com.emc.mongoose.base.load.step.file.FileManager;
+import com.emc.mongoose.base.load.step.file.FileTransfer;
+import com.emc.mongoose.base.load.step.service.file.FileManagerService;
+import com.emc.mongoose.base.logging.LogContextThreadFactory;
+import com.emc.mongoose.base.logging.LogUtil;
+import com.emc.mongoose.base.logging.Loggers;
+import com.github.akurilov.commons.system.SizeInBytes;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.Level;
+
+/**
+* Collects the remote binary operation traces files. Unlike the operation traces log, the binary files are not merged:
+* each remote file is copied into the separate local file "op.trace.&lt;slice index&gt;.bin" next to the local one, so
+* all the files may be converted or analyzed together. The request start timestamps of the remote records are converted
+* to the entry node time if the node clock offset is known.
+*/
+public class OpTraceBinaryFileAggregator implements Closeable {
+
+	private final String loadStepId;
+	private final FileTransfer fileTransfer;
+	private final Map<FileManager, String> opTraceFileSlices = new HashMap<>();
+	private final Map<FileManager, Path> localOpTraceFilePaths = new HashMap<>();
+	private final Map<FileManager, NodeClockOffset> clockOffsets;
+
+	/**
+	* @param clockOffsets the remote nodes clock offsets, may be filled later but before the close
+	*/
+	public OpTraceBinaryFileAggregator(
+					final String loadStepId,
+					final List<FileManager> fileMgrs,
+					final FileTransfer fileTransfer,
+					final Map<FileManager, NodeClockOffset> clockOffsets) {
+		this.loadStepId = loadStepId;
+		this.fileTransfer = fileTransfer;
+		this.clockOffsets = clockOffsets;
+		final Path localOpTraceFilePath;
+		try {
+			localOpTraceFilePath = OperationTraceBinaryFileOutput.filePath(loadStepId);
+		} catch (final IOException e) {
+			LogUtil.exception(Level.WARN, e, "{}: failed to get the local binary operation traces file name", loadStepId);
+			return;
+		}
+		for (var i = 0; i < fileMgrs.size(); i++) {
+			final var fileMgr = fileMgrs.get(i);
+			// exclude the local binary operation traces file
+			if (fileMgr instanceof FileManagerService) {
+				try {
+					final var remoteOpTraceFileName = Paths.get(fileMgr.logFileName(Loggers.OP_TRACES.getName(), loadStepId))
+									.resolveSibling(OperationTraceBinaryFileOutput.FILE_NAME)
+									.toString();
+					Loggers.MSG.debug(
+									"{}: the remote file manager \"{}\" returned the file name \"{}\" for the binary operation traces",
+									loadStepId,
+									fileMgr,
+									remoteOpTraceFileName);
+					opTraceFileSlices.put(fileMgr, remoteOpTraceFileName);
+					localOpTraceFilePaths.put(fileMgr, localOpTraceFilePath.resolveSibling("op.trace." + i + ".bin"));
+				} catch (final IOException e) {
+					LogUtil.exception(Level.WARN, e, "{}: failed to get the remote log file name", loadStepId);
+				}
+			}
+		}
+	}
+
+	public final void collectToLocal() {
+
+		final LongAdder byteCounter = new LongAdder();
+		final ScheduledExecutorService executor = Executors.newScheduledThreadPool(
+						2, new LogContextThreadFactory("collectOpTraceBinaryFileWorker", true));
+		final ExecutorService transferExecutor = Executors.newCachedThreadPool(
+						new LogContextThreadFactory("transferOpTraceBinaryFileWorker", true));
+		final CountDownLatch finishLatch = new CountDownLatch(1);
+
+		executor.submit(
+						() -> {
+							try {
+								opTraceFileSlices
+												.entrySet()
+												.parallelStream()
+												.forEach(
+																entry -> {
+																	final var fileMgr = entry.getKey();
+																	final var remoteOpTraceFileName = entry.getValue();
+																	final var localOpTraceFilePath = localOpTraceFilePaths.get(fileMgr);
+																	FsUtil.createParentDirsIfNotExist(localOpTraceFilePath);
+																	try (
+																		final var localOutput = Files.newOutputStream(
+																						localOpTraceFilePath, FileManager.WRITE_OPEN_OPTIONS)
+																	) {
+																		transferToLocal(
+																						fileTransfer,
+																						transferExecutor,
+																						fileMgr,
+																						remoteOpTraceFileName,
+																						localOutput,
+																						clockOffsets.get(fileMgr),
+																						byteCounter);
+																	} catch (final IOException e) {
+																		LogUtil.exception(
+																						Level.WARN,
+																						e,
+																						"{}: failed to write the local file \"{}\"",
+																						loadStepId,
+																						localOpTraceFilePath);
+																	}
+																	try {
+																		fileMgr.deleteFile(remoteOpTraceFileName);
+																	} catch (final Exception e) {
+																		throwUncheckedIfInterrupted(e);
+																		LogUtil.exception(
+																						Level.WARN,
+																						e,
+																						"{}: failed to delete the file \"{}\" @ file manager \"{}\"",
+																						loadStepId,
+																						remoteOpTraceFileName,
+																						fileMgr);
+																	}
+																});
+							} finally {
+								finishLatch.countDown();
+							}
+						});
+		executor.scheduleAtFixedRate(
+						() -> Loggers.MSG.info(
+										"\"{}\": transferred {} of the binary operation traces data...",
+										loadStepId,
+										SizeInBytes.formatFixedSize(byteCounter.longValue())),
+						0,
+						OUTPUT_PROGRESS_PERIOD_MILLIS,
+						TimeUnit.MILLISECONDS);
+
+		try {
+			finishLatch.await();
+		} catch (final InterruptedException e) {
+			throwUnchecked(e);
+		} finally {
+			executor.shutdownNow();
+			transferExecutor.shutdownNow();
+			Loggers.MSG.info(
+							"\"{}\": transferred {} of the binary operation traces data",
+							loadStepId,
+							SizeInBytes.formatFixedSize(byteCounter.longValue()));
+		}
+	}
+
+	private static void transferToLocal(
+					final FileTransfer fileTransfer,
+					final Executor transferExecutor,
+					final FileManager fileMgr,
+					final String remoteOpTraceFileName,
+					final OutputStream localOutput,
+					final NodeClockOffset clockOffset,
+					final LongAdder byteCounter)
+					throws IOException {
+		try (final Instance logCtx = put(KEY_CLASS_NAME, OpTraceBinaryFileAggregator.class.getSimpleName())) {
+			final FileTransfer.ChunkConsumer output;
+			final TimestampAligningOutput aligningOutput;
+			if (null == clockOffset || NodeClockOffset.ZERO == clockOffset) {
+				output = localOutput::write;
+				aligningOutput = null;
+			} else {
+				aligningOutput = new TimestampAligningOutput(localOutput, clockOffset);
+				output = aligningOutput;
+			}
+			final var transferredByteCount = fileTransfer.transfer(
+							fileMgr,
+							remoteOpTraceFileName,
+							transferExecutor,
+							(buff, off, len) -> {
+								output.accept(buff, off, len);
+								byteCounter.add(len);
+							});
+			if (null != aligningOutput) {
+				aligningOutput.flush();
+			}
+			Loggers.MSG.debug(
+							"Transferred {} of the binary operation traces data from the remote file \"{}\" @ \"{}\"",
+							SizeInBytes.formatFixedSize(transferredByteCount),
+							remoteOpTraceFileName,
+							fileMgr);
+		}
+	}
+
+	/**
+	* Converts the request start timestamps of the binary operation traces records to the entry node time. The file data
+	* is accepted by the arbitrary chunks, so the incomplete record is buffered until the next chunk.
+	*/
+	static final class TimestampAligningOutput implements FileTransfer.ChunkConsumer {
+
+		private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+		private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+		// the request start time offset in the record: after the record length, op type and status codes
+		private static final int REQ_TIME_START_OFFSET = Integer.BYTES + 2 * Byte.BYTES;
+
+		private final OutputStream output;
+		private final NodeClockOffset clockOffset;
+		private byte[] buff = new byte[OperationTraceBinaryFileOutput.maxRecordSize()];
+		private int size = 0;
+		private boolean headerFlag = true;
+		// the data is not recognized, write it as is
+		private boolean passThroughFlag = false;
+
+		TimestampAligningOutput(final OutputStream output, final NodeClockOffset clockOffset) {
+			this.output = output;
+			this.clockOffset = clockOffset;
+		}
+
+		@Override
+		public final void accept(final byte[] src, final int off, final int len) throws IOException {
+			if (passThroughFlag) {
+				output.write(src, off, len);
+				return;
+			}
+			if (buff.length < size + len) {
+				buff = Arrays.copyOf(buff, Math.max(size + len, 2 * buff.length));
+			}
+			System.arraycopy(src, off, buff, size, len);
+			size += len;
+			var pos = 0;
+			if (headerFlag) {
+				if (size < Long.BYTES) {
+					return;
+				}
+				passThroughFlag = OperationTraceBinaryFileOutput.MAGIC != (long) LONG.get(buff, 0);
+				headerFlag = false;
+				pos = Long.BYTES;
+			}
+			while (!passThroughFlag && size - pos >= Integer.BYTES) {
+				final var recordSize = (int) INT.get(buff, pos);
+				if (recordSize < OperationTraceBinaryFileOutput.RECORD_HEADER_SIZE) {
+					passThroughFlag = true;
+				} else if (size - pos < recordSize) {
+					break;
+				} else {
+					final var reqTimeStart = (long) LONG.get(buff, pos + REQ_TIME_START_OFFSET);
+					if (reqTimeStart > 0) {
+						LONG.set(buff, pos + REQ_TIME_START_OFFSET, clockOffset.toLocal(reqTimeStart));
+					}
+					pos += recordSize;
+				}
+			}
+			if (passThroughFlag) {
+				pos = size;
+			}
+			output.write(buff, 0, pos);
+			size -= pos;
+			System.arraycopy(buff, pos, buff, 0, size);
+		}
+
+		/** Write the remaining incomplete record data as is */
+		final void flush() throws IOException {
+			output.write(buff, 0, size);
+			size = 0;
+		}
+	}
+
+	@Override
+	public final void close() {
+		try (final Instance logCtx = put(KEY_STEP_ID, loadStepId).put(KEY_CLASS_NAME, getClass().getSimpleName())) {
+			collectToLocal();
+		}
+		opTraceFileSlices.clear();
+		localOpTraceFilePaths.clear();
+	}
+}
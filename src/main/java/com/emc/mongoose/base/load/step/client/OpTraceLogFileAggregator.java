@@ -9,18 +9,20 @@ import static org.apache.logging.log4j.CloseableThreadContext.Instance;
 import static org.apache.logging.log4j.CloseableThreadContext.put;
 
 import com.emc.mongoose.base.load.step.file.FileManager;
+import com.emc.mongoose.base.load.step.file.FileTransfer;
 import com.emc.mongoose.base.load.step.service.file.FileManagerService;
 import com.emc.mongoose.base.logging.LogContextThreadFactory;
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
 import com.github.akurilov.commons.system.SizeInBytes;
 import java.io.Closeable;
-import java.io.EOFException;
 import java.io.IOException;
 import java.rmi.RemoteException;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -31,11 +33,25 @@ import org.apache.logging.log4j.Level;
 
 public class OpTraceLogFileAggregator implements Closeable {
 
+	// the count of the operation trace record fields following the request start time
+	private static final int REQ_TIME_START_FIELDS_AFTER = 4;
+
 	private final String loadStepId;
+	private final FileTransfer fileTransfer;
 	private final Map<FileManager, String> opTraceLogFileSlices;
+	private final Map<FileManager, NodeClockOffset> clockOffsets;
 
-	public OpTraceLogFileAggregator(final String loadStepId, final List<FileManager> fileMgrs) {
+	/**
+	* @param clockOffsets the remote nodes clock offsets, may be filled later but before the close
+	*/
+	public OpTraceLogFileAggregator(
+					final String loadStepId,
+					final List<FileManager> fileMgrs,
+					final FileTransfer fileTransfer,
+					final Map<FileManager, NodeClockOffset> clockOffsets) {
 		this.loadStepId = loadStepId;
+		this.fileTransfer = fileTransfer;
+		this.clockOffsets = clockOffsets;
 		this.opTraceLogFileSlices = fileMgrs.stream()
 						// exclude local I/O trace log file
 						.filter(fileMgr -> fileMgr instanceof FileManagerService)
@@ -67,6 +83,8 @@ public class OpTraceLogFileAggregator implements Closeable {
 		final LongAdder byteCounter = new LongAdder();
 		final ScheduledExecutorService executor = Executors.newScheduledThreadPool(
 						2, new LogContextThreadFactory("collectOpTraceLogFileWorker", true));
+		final ExecutorService transferExecutor = Executors.newCachedThreadPool(
+						new LogContextThreadFactory("transferOpTraceLogFileWorker", true));
 		final CountDownLatch finishLatch = new CountDownLatch(1);
 
 		executor.submit(
@@ -81,7 +99,13 @@ public class OpTraceLogFileAggregator implements Closeable {
 																entry -> {
 																	final var fileMgr = entry.getKey();
 																	final var remoteIoTraceLogFileName = entry.getValue();
-																	transferToLocal(fileMgr, remoteIoTraceLogFileName, byteCounter);
+																	transferToLocal(
+																					fileTransfer,
+																					transferExecutor,
+																					fileMgr,
+																					remoteIoTraceLogFileName,
+																					clockOffsets.get(fileMgr),
+																					byteCounter);
 																	try {
 																		fileMgr.deleteFile(remoteIoTraceLogFileName);
 																	} catch (final Exception e) {
@@ -114,6 +138,7 @@ public class OpTraceLogFileAggregator implements Closeable {
 			throwUnchecked(e);
 		} finally {
 			executor.shutdownNow();
+			transferExecutor.shutdownNow();
 			Loggers.MSG.info(
 							"\"{}\": transferred {} of the operation traces data",
 							loadStepId,
@@ -122,29 +147,73 @@ public class OpTraceLogFileAggregator implements Closeable {
 	}
 
 	private static void transferToLocal(
+					final FileTransfer fileTransfer,
+					final Executor transferExecutor,
 					final FileManager fileMgr,
 					final String remoteIoTraceLogFileName,
+					final NodeClockOffset clockOffset,
 					final LongAdder byteCounter) {
-		long transferredByteCount = 0;
+		final var alignFlag = null != clockOffset && NodeClockOffset.ZERO != clockOffset;
 		try (final Instance logCtx = put(KEY_CLASS_NAME, OpTraceLogFileAggregator.class.getSimpleName())) {
-			byte[] data;
-			while (true) {
-				data = fileMgr.readFromFile(remoteIoTraceLogFileName, transferredByteCount);
-				Loggers.OP_TRACES.info(new String(data));
-				transferredByteCount += data.length;
-				byteCounter.add(data.length);
-			}
-		} catch (final EOFException ok) {} catch (final RemoteException e) {
-			LogUtil.exception(Level.WARN, e, "Failed to read the data from the remote file");
-		} catch (final IOException e) {
-			LogUtil.exception(Level.ERROR, e, "Unexpected I/O exception");
-		} finally {
+			// the log message should contain the complete lines only
+			final var transferredByteCount = fileTransfer.transferLines(
+							fileMgr,
+							remoteIoTraceLogFileName,
+							transferExecutor,
+							(buff, off, len) -> {
+								final var lines = new String(buff, off, len);
+								Loggers.OP_TRACES.info(alignFlag ? alignTimestamps(lines, clockOffset) : lines);
+								byteCounter.add(len);
+							});
 			Loggers.MSG.debug(
 							"Transferred {} of the remote operation traces data from the remote file \"{}\" @ \"{}\"",
 							SizeInBytes.formatFixedSize(transferredByteCount),
 							remoteIoTraceLogFileName,
 							fileMgr);
+		} catch (final RemoteException e) {
+			LogUtil.exception(Level.WARN, e, "Failed to read the data from the remote file");
+		} catch (final IOException e) {
+			LogUtil.exception(Level.ERROR, e, "Unexpected I/O exception");
+		}
+	}
+
+	/**
+	* Convert the request start timestamps of the remote operation traces records to the entry node time. The timestamp
+	* is located from the line end as the item path may contain the commas. The lines which are not recognized as the
+	* operation traces records are left as is.
+	*
+	* @param lines the operation traces records, one per line
+	* @param clockOffset the remote node clock offset
+	* @return the converted records
+	*/
+	static String alignTimestamps(final String lines, final NodeClockOffset clockOffset) {
+		final var linesLen = lines.length();
+		final var strb = new StringBuilder(linesLen + 0x40);
+		var lineStart = 0;
+		while (lineStart < linesLen) {
+			var lineEnd = lines.indexOf('\n', lineStart);
+			lineEnd = lineEnd < 0 ? linesLen : lineEnd + 1;
+			// the request start time is followed by the duration, latencies and transfer size fields
+			var fieldEnd = lineEnd;
+			for (var i = 0; i < REQ_TIME_START_FIELDS_AFTER && fieldEnd > lineStart; i++) {
+				fieldEnd = lines.lastIndexOf(',', fieldEnd - 1);
+			}
+			final var fieldStart = fieldEnd > lineStart ? lines.lastIndexOf(',', fieldEnd - 1) + 1 : 0;
+			if (fieldStart > lineStart && fieldEnd > fieldStart) {
+				try {
+					final var reqTimeStart = Long.parseLong(lines, fieldStart, fieldEnd, 10);
+					strb
+									.append(lines, lineStart, fieldStart)
+									.append(clockOffset.toLocal(reqTimeStart))
+									.append(lines, fieldEnd, lineEnd);
+					lineStart = lineEnd;
+					continue;
+				} catch (final NumberFormatException ignored) {}
+			}
+			strb.append(lines, lineStart, lineEnd);
+			lineStart = lineEnd;
 		}
+		return strb.toString();
 	}
 
 	@Override
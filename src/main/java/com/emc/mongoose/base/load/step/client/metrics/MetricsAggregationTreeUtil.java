@@ -0,0 +1,29 @@
+package com.emc.mongoose.base.load.step.client.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+* The layout of the metrics aggregation tree. The additional nodes are numbered in the order of the nodes list. The
+* entry node collects the metrics from the first nodes only, each of these nodes collects the metrics from the next
+* ones and so on, so any node collects the metrics from not more than the "fan-out" count of the nodes.
+*/
+public interface MetricsAggregationTreeUtil {
+
+	int ENTRY_NODE_INDEX = -1;
+
+	/**
+	* @param nodeIndex the index of the node, {@link #ENTRY_NODE_INDEX} for the entry node
+	* @param nodeCount the count of the additional nodes
+	* @param fanOut the max count of the child nodes, should be more than 0
+	* @return the indices of the nodes which metrics are collected by the given node
+	*/
+	static List<Integer> childIndices(final int nodeIndex, final int nodeCount, final int fanOut) {
+		final List<Integer> childIndices = new ArrayList<>(fanOut);
+		final var firstChildIndex = (long) (nodeIndex + 1) * fanOut;
+		for (var i = firstChildIndex; i < firstChildIndex + fanOut && i < nodeCount; i++) {
+			childIndices.add((int) i);
+		}
+		return childIndices;
+	}
+}
@@ -7,4 +7,7 @@ import java.util.List;
 public interface MetricsAggregator extends AsyncRunnable {
 
 	List<AllMetricsSnapshot> metricsSnapshotsByIndex(final int originIndex);
+
+	/** Fetch the metrics snapshots from all the sources synchronously */
+	void refresh();
 }
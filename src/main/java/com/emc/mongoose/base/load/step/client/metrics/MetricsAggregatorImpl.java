@@ -54,6 +54,11 @@ public final class MetricsAggregatorImpl extends AsyncRunnableBase implements Me
 		return snapshotsByIndex;
 	}
 
+	@Override
+	public final void refresh() {
+		Arrays.stream(snapshotSuppliers).parallel().forEach(MetricsSnapshotsSupplierTask::refresh);
+	}
+
 	@Override
 	protected final void doStart() {
 		Arrays.stream(snapshotSuppliers)
@@ -71,8 +76,10 @@ public final class MetricsAggregatorImpl extends AsyncRunnableBase implements Me
 										});
 	}
 
+	/** The snapshots are fetched synchronously before the stop, so the final ones are not up to a period old */
 	@Override
 	protected final void doStop() {
+		refresh();
 		Arrays.stream(snapshotSuppliers)
 						.parallel()
 						.forEach(
@@ -10,4 +10,7 @@ public interface MetricsSnapshotsSupplierTask
 
 	@Override
 	List<? extends AllMetricsSnapshot> get();
+
+	/** Fetch the metrics snapshots synchronously instead of waiting for the next period, e.g. for the final ones */
+	void refresh();
 }
@@ -2,12 +2,19 @@ package com.emc.mongoose.base.load.step.client.metrics;
 
 import com.emc.mongoose.base.concurrent.ServiceTaskExecutor;
 import com.emc.mongoose.base.load.step.LoadStep;
+import com.emc.mongoose.base.load.step.service.LoadStepService;
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.stream.MetricsSnapshotsConsumer;
+import com.emc.mongoose.base.metrics.stream.MetricsSnapshotsDecoder;
+import com.emc.mongoose.base.svc.nio.NioServiceUtil;
 import com.github.akurilov.confuse.Config;
 import com.github.akurilov.fiber4j.ExclusiveFiberBase;
 import com.github.akurilov.fiber4j.FibersExecutor;
 
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
 import java.util.List;
 
 import org.apache.logging.log4j.Level;
@@ -17,15 +24,23 @@ import static com.emc.mongoose.base.Exceptions.throwUncheckedIfInterrupted;
 public final class MetricsSnapshotsSupplierTaskImpl extends ExclusiveFiberBase
 				implements MetricsSnapshotsSupplierTask {
 
+	// fall back to polling if nothing is pushed during this count of the aggregation periods
+	private static final int PUSH_TIMEOUT_PERIODS = 10;
+
 	private final LoadStep loadStep;
 	private volatile List<? extends AllMetricsSnapshot> snapshotsByOrigin = null;
 	private volatile boolean failedBeforeFlag = false;
 	private long lastCalledMillis = 0;
 	private int AGGREGATION_PERIOD_MILLIS;
+	private boolean pushFlag = false;
+	private PushedSnapshotsConsumer pushedSnapshotsConsumer = null;
+	private volatile long lastPushedMillis = 0;
 
 	public MetricsSnapshotsSupplierTaskImpl(final LoadStep loadStep, Config metricsConfig) {
 		this(ServiceTaskExecutor.INSTANCE, loadStep);
 		AGGREGATION_PERIOD_MILLIS = metricsConfig.intVal("average-aggregation-period");
+		// the local step slice is polled w/o any serialization, push is useful for the remote ones only
+		pushFlag = metricsConfig.boolVal("average-aggregation-push") && loadStep instanceof LoadStepService;
 	}
 
 	public MetricsSnapshotsSupplierTaskImpl(final FibersExecutor executor, final LoadStep loadStep) {
@@ -41,7 +56,15 @@ public final class MetricsSnapshotsSupplierTaskImpl extends ExclusiveFiberBase
 		try {
 			final long nextSnapshotUpdateTs = System.currentTimeMillis();
 			if (nextSnapshotUpdateTs - lastCalledMillis >= AGGREGATION_PERIOD_MILLIS){
-				snapshotsByOrigin = loadStep.metricsSnapshots();
+				if (pushFlag && null == pushedSnapshotsConsumer) {
+					subscribe();
+				}
+				if (
+					null == pushedSnapshotsConsumer
+						|| nextSnapshotUpdateTs - lastPushedMillis >= PUSH_TIMEOUT_PERIODS * AGGREGATION_PERIOD_MILLIS
+				) {
+					snapshotsByOrigin = loadStep.metricsSnapshots();
+				}
 				lastCalledMillis = nextSnapshotUpdateTs;
 			}
 
@@ -58,15 +81,68 @@ public final class MetricsSnapshotsSupplierTaskImpl extends ExclusiveFiberBase
 		}
 	}
 
+	private void subscribe() {
+		pushFlag = false; // try once
+		final var consumer = new PushedSnapshotsConsumer();
+		try {
+			if (!NioServiceUtil.isProxy(loadStep)) {
+				// the NIO transport exports the callback itself when it's passed to the remote side
+				UnicastRemoteObject.exportObject(consumer, 0);
+			}
+			((LoadStepService) loadStep).subscribeMetricsSnapshots(consumer, AGGREGATION_PERIOD_MILLIS);
+			lastPushedMillis = System.currentTimeMillis();
+			pushedSnapshotsConsumer = consumer;
+		} catch (final RemoteException e) {
+			LogUtil.exception(
+							Level.INFO, e, "Failed to subscribe for the metrics snapshots from \"{}\", will poll", loadStep);
+			unexport(consumer);
+		}
+	}
+
+	private static void unexport(final MetricsSnapshotsConsumer consumer) {
+		try {
+			UnicastRemoteObject.unexportObject(consumer, true);
+		} catch (final NoSuchObjectException ignored) {}
+	}
+
 	@Override
 	public final List<? extends AllMetricsSnapshot> get() {
 		return snapshotsByOrigin;
 	}
 
+	@Override
+	public final void refresh() {
+		try {
+			snapshotsByOrigin = loadStep.metricsSnapshots();
+		} catch (final Exception e) {
+			throwUncheckedIfInterrupted(e);
+			LogUtil.exception(Level.WARN, e, "Failed to fetch the metrics snapshots from \"{}\"", loadStep);
+		}
+	}
+
 	@Override
 	protected final void doClose() {
+		if (null != pushedSnapshotsConsumer) {
+			unexport(pushedSnapshotsConsumer);
+			pushedSnapshotsConsumer = null;
+		}
 		if (null != snapshotsByOrigin) {
 			snapshotsByOrigin.clear();
 		}
 	}
+
+	private final class PushedSnapshotsConsumer implements MetricsSnapshotsConsumer {
+
+		private final MetricsSnapshotsDecoder decoder = new MetricsSnapshotsDecoder();
+
+		@Override
+		public final synchronized void accept(final byte[] frame) throws RemoteException {
+			try {
+				snapshotsByOrigin = decoder.decode(frame);
+				lastPushedMillis = System.currentTimeMillis();
+			} catch (final IllegalStateException e) {
+				throw new RemoteException("Failed to decode the metrics snapshots frame", e);
+			}
+		}
+	}
 }
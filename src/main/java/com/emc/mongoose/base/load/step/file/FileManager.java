@@ -22,6 +22,12 @@ public interface FileManager {
 			StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND
 	};
 	Path TMP_DIR = Paths.get(System.getProperty("java.io.tmpdir"), "mongoose");
+	/** The directory for the files named by the content digest, the files are kept between the load steps */
+	Path CACHE_DIR = Paths.get(TMP_DIR.toString(), "cache");
+	/** The max total size of the cached files, the least recently used files are deleted if the size is exceeded */
+	long CACHE_SIZE_MAX = 0x1_0000_0000L;
+	/** The max size of the chunk which may be requested using {@link #readChunk(String, long, int, boolean)} */
+	int CHUNK_SIZE_MAX = 0x100_0000;
 
 	/**
 	* Determine the file name for the given logger and step id pair
@@ -54,6 +60,46 @@ public interface FileManager {
 	*/
 	void writeToFile(final String fileName, final byte[] buff) throws IOException;
 
+	/**
+	* Read the chunk of the remote file. Unlike {@link #readFromFile(String, long)}, the chunk is not aligned to the
+	* line boundary, so the offset of the next chunk is known before the response and the subsequent chunks may be
+	* requested without waiting for the previous ones.
+	*
+	* @param offset the chunk offset
+	* @param size the max chunk size, limited by {@link #CHUNK_SIZE_MAX}
+	* @param compress if true, the chunk bytes are deflated before returning
+	* @return the chunk bytes, the chunk is shorter than the size requested only if the end of file is reached
+	* @throws EOFException if the offset is not less than the file size
+	*/
+	byte[] readChunk(final String fileName, final long offset, final int size, final boolean compress)
+					throws IOException;
+
+	/**
+	* Release the file handles kept open between the read/write calls. The handles are reopened on the next call.
+	*
+	* @param fileName the file name
+	*/
+	void closeFile(final String fileName) throws IOException;
+
+	/**
+	* Find the file in the cache by the content digest
+	*
+	* @param digest the hex content digest of the file
+	* @param size the expected file size
+	* @return the name of the cached file or null if there's no cached file with the given digest and size
+	*/
+	String cachedFile(final String digest, final long size) throws IOException;
+
+	/**
+	* Move the file into the cache, the least recently used cached files are deleted if the total size of the cached
+	* files exceeds {@link #CACHE_SIZE_MAX}
+	*
+	* @param fileName the file which is completely written
+	* @param digest the hex content digest of the file
+	* @return the name of the cached file
+	*/
+	String cacheFile(final String fileName, final String digest) throws IOException;
+
 	long fileSize(final String fileName) throws IOException;
 
 	void truncateFile(final String fileName, final long size) throws IOException;
@@ -4,16 +4,36 @@ import static com.emc.mongoose.base.Constants.KEY_STEP_ID;
 import static com.github.akurilov.commons.system.DirectMemUtil.REUSABLE_BUFF_SIZE_MAX;
 import static org.apache.logging.log4j.CloseableThreadContext.put;
 
+import com.emc.mongoose.base.logging.LogUtil;
+import com.github.akurilov.commons.concurrent.ThreadUtil;
+import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.ByteChannel;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.FileSystemException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.Deflater;
 import org.apache.logging.log4j.CloseableThreadContext;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.Appender;
@@ -23,6 +43,15 @@ import org.apache.logging.log4j.core.async.AsyncLogger;
 public class FileManagerImpl implements FileManager {
 
 	static final String LOG_CONFIG_STEP_ID_PTRN = "${ctx:" + KEY_STEP_ID + "}";
+	// the large direct buffers are reused by the service threads instead of the new heap buffer per call, the count of
+	// the idle buffers kept is bounded, the ones above are left to the garbage collector
+	private static final BlockingQueue<ByteBuffer> IDLE_BUFFS = new ArrayBlockingQueue<>(
+					ThreadUtil.getHardwareThreadCount());
+	private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+
+	// the file handles are kept open between the subsequent read/write calls for the same file
+	private final ConcurrentMap<String, FileChannel> readChannels = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, FileChannel> appendChannels = new ConcurrentHashMap<>();
 
 	@Override
 	public final String logFileName(final String loggerName, final String testStepId) {
@@ -46,62 +75,246 @@ public class FileManagerImpl implements FileManager {
 
 	@Override
 	public final byte[] readFromFile(final String fileName, final long offset) throws IOException {
-		try (final SeekableByteChannel fileChannel = Files.newByteChannel(Paths.get(fileName), READ_OPTIONS)) {
-			fileChannel.position(offset);
-			final long remainingSize = fileChannel.size() - offset;
-			if (remainingSize <= 0) {
-				throw new EOFException();
+		final var fileChannel = channel(readChannels, fileName, READ_OPTIONS);
+		final var remainingSize = fileChannel.size() - offset;
+		if (remainingSize <= 0) {
+			throw new EOFException();
+		}
+		final var bb = acquireBuff((int) Math.min(REUSABLE_BUFF_SIZE_MAX, remainingSize));
+		try {
+			readFully(fileChannel, bb, offset);
+			bb.flip();
+			var size = bb.limit();
+			if (size == 0) {
+				// unexpected but possible: the file is shorter than was estimated before
+				return EMPTY;
 			}
-			final int buffSize = (int) Math.min(REUSABLE_BUFF_SIZE_MAX, remainingSize);
-			if (buffSize > 0) {
-				final ByteBuffer bb = ByteBuffer.allocate(buffSize);
-				int doneSize = 0;
-				int readBytesTotal;
-				final int newLineCharacterCode = '\n';  //  == 10
-				byte[] resultingBuffer = new byte[0];
-				while (doneSize < buffSize) {
-					readBytesTotal = fileChannel.read(bb);
-					final int lastReadItemIndex = readBytesTotal - 1;
-					if (readBytesTotal < 0) {
-						// unexpected but possible: the file is shorter than was estimated before
-						final byte[] buff = new byte[bb.position()];
-						bb.rewind();
-						bb.get(buff);
-						return buff;
-					} else if (bb.get(lastReadItemIndex) != newLineCharacterCode) {
-						int lastNewLineCharacterIndex = lastReadItemIndex;
-						while (bb.get(lastNewLineCharacterIndex) != newLineCharacterCode) {
-							lastNewLineCharacterIndex--;
-						}
-						resultingBuffer = new byte[lastNewLineCharacterIndex + 1];
-						bb.rewind();
-						bb.get(resultingBuffer, 0, lastNewLineCharacterIndex + 1);
-						// we add readBytesTotal to doneSize as we consider all the read bytes handled in spite of
-						// rejecting part of the ByteBuffer. doneSize is only needed to finish the while loop. And the
-						// position for the next readFromFile() is set via offset which is determined by the size of
-						// the resultingBuffer.
-						doneSize += readBytesTotal;
-					} else {
-						resultingBuffer = bb.array();
-						doneSize += readBytesTotal;
-					}
+			final int newLineCharacterCode = '\n'; //  == 10
+			if (bb.get(size - 1) != newLineCharacterCode) {
+				var lastNewLineCharacterIndex = size - 1;
+				while (lastNewLineCharacterIndex >= 0 && bb.get(lastNewLineCharacterIndex) != newLineCharacterCode) {
+					lastNewLineCharacterIndex--;
+				}
+				// no line breaks, e.g. a binary file: return all the bytes been read
+				if (lastNewLineCharacterIndex >= 0) {
+					size = lastNewLineCharacterIndex + 1;
 				}
-				return resultingBuffer;
-			} else {
-				return EMPTY;
 			}
+			final var resultingBuffer = new byte[size];
+			bb.get(resultingBuffer);
+			return resultingBuffer;
+		} finally {
+			releaseBuff(bb);
 		}
 	}
 
 	@Override
 	public final void writeToFile(final String fileName, final byte[] buff) throws IOException {
-		try (final ByteChannel fileChannel = Files.newByteChannel(Paths.get(fileName), APPEND_OPEN_OPTIONS)) {
-			final ByteBuffer bb = ByteBuffer.wrap(buff);
-			int n = 0;
-			while (n < buff.length) {
-				n = fileChannel.write(bb);
+		final var fileChannel = channel(appendChannels, fileName, APPEND_OPEN_OPTIONS);
+		final var bb = ByteBuffer.wrap(buff);
+		while (bb.hasRemaining()) {
+			fileChannel.write(bb);
+		}
+	}
+
+	@Override
+	public final byte[] readChunk(final String fileName, final long offset, final int size, final boolean compress)
+					throws IOException {
+		if (size <= 0) {
+			throw new IllegalArgumentException("Invalid chunk size: " + size);
+		}
+		final var fileChannel = channel(readChannels, fileName, READ_OPTIONS);
+		final var remainingSize = fileChannel.size() - offset;
+		if (remainingSize <= 0) {
+			throw new EOFException();
+		}
+		final var bb = acquireBuff((int) Math.min(Math.min(size, CHUNK_SIZE_MAX), remainingSize));
+		try {
+			readFully(fileChannel, bb, offset);
+			bb.flip();
+			if (compress) {
+				return deflate(bb);
+			} else {
+				final var chunk = new byte[bb.remaining()];
+				bb.get(chunk);
+				return chunk;
+			}
+		} finally {
+			releaseBuff(bb);
+		}
+	}
+
+	@Override
+	public final void closeFile(final String fileName) throws IOException {
+		closeChannel(readChannels.remove(fileName));
+		closeChannel(appendChannels.remove(fileName));
+	}
+
+	/** Release all the file handles kept open and the idle buffers */
+	public final void closeFiles() {
+		for (final var fileName : readChannels.keySet()) {
+			closeFileQuietly(fileName);
+		}
+		for (final var fileName : appendChannels.keySet()) {
+			closeFileQuietly(fileName);
+		}
+		IDLE_BUFFS.clear();
+	}
+
+	private void closeFileQuietly(final String fileName) {
+		try {
+			closeFile(fileName);
+		} catch (final IOException ignored) {}
+	}
+
+	/**
+	* @return the open file channel for the given file name, reuses the channel opened before if it's still open (the
+	*     channel may be closed asynchronously, e.g. if the reading thread is interrupted)
+	*/
+	private static FileChannel channel(
+					final ConcurrentMap<String, FileChannel> channels, final String fileName, final OpenOption[] opts)
+					throws IOException {
+		final var channel = channels.get(fileName);
+		if (null != channel && channel.isOpen()) {
+			return channel;
+		}
+		try {
+			return channels.compute(
+							fileName,
+							(name, prevChannel) -> {
+								if (null != prevChannel && prevChannel.isOpen()) {
+									return prevChannel;
+								}
+								try {
+									return FileChannel.open(Paths.get(name), opts);
+								} catch (final IOException e) {
+									throw new UncheckedIOException(e);
+								}
+							});
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static void closeChannel(final FileChannel channel) throws IOException {
+		if (null != channel) {
+			channel.close();
+		}
+	}
+
+	/** Fills the buffer using the positional reads, so the same channel may be used by the concurrent readers */
+	private static void readFully(final FileChannel fileChannel, final ByteBuffer bb, final long offset)
+					throws IOException {
+		var position = offset;
+		int n;
+		while (bb.hasRemaining() && (n = fileChannel.read(bb, position)) >= 0) {
+			position += n;
+		}
+	}
+
+	/** @return the idle direct buffer with the given limit, the new one is allocated if there's no idle one large enough */
+	private static ByteBuffer acquireBuff(final int size) {
+		var bb = IDLE_BUFFS.poll();
+		if (null == bb || bb.capacity() < size) {
+			bb = ByteBuffer.allocateDirect(size);
+		}
+		bb.clear().limit(size);
+		return bb;
+	}
+
+	private static void releaseBuff(final ByteBuffer bb) {
+		IDLE_BUFFS.offer(bb);
+	}
+
+	private static byte[] deflate(final ByteBuffer bb) {
+		final var deflater = DEFLATER.get();
+		deflater.reset();
+		deflater.setInput(bb);
+		deflater.finish();
+		final var out = new ByteArrayOutputStream(bb.remaining() / 2 + 0x40);
+		final var buff = new byte[0x1_0000];
+		while (!deflater.finished()) {
+			out.write(buff, 0, deflater.deflate(buff));
+		}
+		return out.toByteArray();
+	}
+
+	@Override
+	public final String cachedFile(final String digest, final long size) throws IOException {
+		final var cachedFilePath = cachedFilePath(digest);
+		if (Files.isRegularFile(cachedFilePath) && Files.size(cachedFilePath) == size) {
+			// the modification time is the last use time for the cache eviction
+			Files.setLastModifiedTime(cachedFilePath, FileTime.fromMillis(System.currentTimeMillis()));
+			return cachedFilePath.toString();
+		}
+		return null;
+	}
+
+	@Override
+	public final String cacheFile(final String fileName, final String digest) throws IOException {
+		final var cachedFilePath = cachedFilePath(digest);
+		closeFile(fileName);
+		if (!Files.exists(CACHE_DIR)) {
+			Files.createDirectories(CACHE_DIR);
+		}
+		// the file may be replaced concurrently by another client having the same content
+		Files.move(Paths.get(fileName), cachedFilePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		Files.setLastModifiedTime(cachedFilePath, FileTime.fromMillis(System.currentTimeMillis()));
+		try {
+			evictCachedFiles(CACHE_DIR, cachedFilePath, CACHE_SIZE_MAX);
+		} catch (final IOException e) {
+			LogUtil.exception(Level.WARN, e, "Failed to evict the cached files from \"{}\"", CACHE_DIR);
+		}
+		return cachedFilePath.toString();
+	}
+
+	/**
+	* Delete the least recently used files from the cache directory until the total size of the remaining files fits
+	* the limit
+	*
+	* @param keptFilePath the file which is not deleted even if it doesn't fit the limit alone
+	*/
+	static void evictCachedFiles(final Path cacheDir, final Path keptFilePath, final long sizeMax) throws IOException {
+		final List<Map.Entry<Path, BasicFileAttributes>> cachedFiles = new ArrayList<>();
+		try (final var dirStream = Files.newDirectoryStream(cacheDir)) {
+			for (final var filePath : dirStream) {
+				try {
+					final var attrs = Files.readAttributes(filePath, BasicFileAttributes.class);
+					if (attrs.isRegularFile()) {
+						cachedFiles.add(Map.entry(filePath, attrs));
+					}
+				} catch (final NoSuchFileException ignored) {
+					// deleted concurrently
+				}
+			}
+		}
+		// the most recently used first
+		cachedFiles.sort(
+						Comparator.comparing(
+										(Map.Entry<Path, BasicFileAttributes> entry) -> entry.getValue().lastModifiedTime())
+										.reversed());
+		var totalSize = 0L;
+		for (final var cachedFile : cachedFiles) {
+			final var filePath = cachedFile.getKey();
+			final var fileSize = cachedFile.getValue().size();
+			if (totalSize + fileSize > sizeMax && !filePath.equals(keptFilePath)) {
+				Files.deleteIfExists(filePath);
+			} else {
+				totalSize += fileSize;
+			}
+		}
+	}
+
+	private static Path cachedFilePath(final String digest) {
+		if (digest.isEmpty()) {
+			throw new IllegalArgumentException("Empty digest");
+		}
+		for (var i = 0; i < digest.length(); i++) {
+			if (Character.digit(digest.charAt(i), 0x10) < 0) {
+				throw new IllegalArgumentException("Invalid hex digest: " + digest);
 			}
 		}
+		return CACHE_DIR.resolve(digest.toLowerCase());
 	}
 
 	@Override
@@ -111,6 +324,7 @@ public class FileManagerImpl implements FileManager {
 
 	@Override
 	public final void truncateFile(final String fileName, final long size) throws IOException {
+		closeFile(fileName);
 		try (final SeekableByteChannel fileChannel = Files.newByteChannel(Paths.get(fileName), WRITE_OPEN_OPTIONS)) {
 			fileChannel.truncate(size);
 		}
@@ -118,6 +332,7 @@ public class FileManagerImpl implements FileManager {
 
 	@Override
 	public final void deleteFile(final String fileName) throws IOException {
+		closeFile(fileName);
 		if (!new File(fileName).delete()) {
 			throw new FileSystemException(fileName, null, "Failed to delete");
 		}
@@ -0,0 +1,234 @@
+package com.emc.mongoose.base.load.step.file;
+
+import static com.github.akurilov.commons.lang.Exceptions.throwUnchecked;
+
+import com.github.akurilov.commons.reflection.TypeUtil;
+import com.github.akurilov.commons.system.SizeInBytes;
+import com.github.akurilov.confuse.Config;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+* Transfers the file contents from the (remote) file manager using the chunks of the fixed size. The next chunks are
+* requested while the current one is being consumed (up to the pipeline depth), so the network round trips and the
+* remote disk reads overlap with the local output. The chunks may be deflated by the file manager to save the network
+* bandwidth.
+*/
+public final class FileTransfer {
+
+	/** Accepts the chunks data in the order of the file offsets */
+	@FunctionalInterface
+	public interface ChunkConsumer {
+
+		/**
+		* @param buff the buffer containing the chunk data, may be reused after the method returns
+		* @param off the data offset in the buffer
+		* @param len the data length
+		*/
+		void accept(final byte[] buff, final int off, final int len) throws IOException;
+	}
+
+	private final int chunkSize;
+	private final boolean compress;
+	private final int pipelineDepth;
+
+	/**
+	* @param chunkSize the chunk size, limited by {@link FileManager#CHUNK_SIZE_MAX}
+	* @param compress request the deflated chunks if true
+	* @param pipelineDepth the max count of the chunks requested concurrently
+	*/
+	public FileTransfer(final int chunkSize, final boolean compress, final int pipelineDepth) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+		}
+		if (pipelineDepth <= 0) {
+			throw new IllegalArgumentException("Invalid pipeline depth: " + pipelineDepth);
+		}
+		this.chunkSize = Math.min(chunkSize, FileManager.CHUNK_SIZE_MAX);
+		this.compress = compress;
+		this.pipelineDepth = pipelineDepth;
+	}
+
+	/** @param transferConfig the "load-step-node-transfer" configuration subtree */
+	public static FileTransfer instance(final Config transferConfig) {
+		final SizeInBytes chunkSize;
+		final var chunkSizeRaw = transferConfig.val("chunk");
+		if (chunkSizeRaw instanceof String) {
+			chunkSize = new SizeInBytes((String) chunkSizeRaw);
+		} else {
+			chunkSize = new SizeInBytes(TypeUtil.typeConvert(chunkSizeRaw, long.class));
+		}
+		return new FileTransfer(
+						(int) Math.min(FileManager.CHUNK_SIZE_MAX, chunkSize.get()),
+						transferConfig.boolVal("compress"),
+						transferConfig.intVal("pipeline"));
+	}
+
+	public final int chunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	* Transfer the whole file
+	*
+	* @param executor the executor to request the chunks concurrently
+	* @param consumer the chunks consumer, invoked by the calling thread
+	* @return the count of the bytes transferred
+	*/
+	public final long transfer(
+					final FileManager fileMgr,
+					final String fileName,
+					final Executor executor,
+					final ChunkConsumer consumer)
+					throws IOException {
+		final Queue<CompletableFuture<byte[]>> chunks = new ArrayDeque<>(pipelineDepth);
+		final var inflater = compress ? new Inflater() : null;
+		final var buff = compress ? new byte[chunkSize] : null;
+		long nextOffset = 0;
+		long transferredByteCount = 0;
+		try {
+			while (true) {
+				while (chunks.size() < pipelineDepth) {
+					final var offset = nextOffset;
+					chunks.add(CompletableFuture.supplyAsync(() -> readChunk(fileMgr, fileName, offset), executor));
+					nextOffset += chunkSize;
+				}
+				final var chunk = await(chunks.remove());
+				if (null == chunk) {
+					break;
+				}
+				final int len;
+				if (compress) {
+					len = inflate(inflater, chunk, buff);
+					consumer.accept(buff, 0, len);
+				} else {
+					len = chunk.length;
+					consumer.accept(chunk, 0, len);
+				}
+				transferredByteCount += len;
+				if (len < chunkSize) {
+					// the end of file is reached
+					break;
+				}
+			}
+		} finally {
+			chunks.forEach(chunk -> chunk.cancel(false));
+			if (null != inflater) {
+				inflater.end();
+			}
+		}
+		return transferredByteCount;
+	}
+
+	/**
+	* Transfer the whole text file. Unlike {@link #transfer(FileManager, String, Executor, ChunkConsumer)}, the consumer
+	* is invoked for the complete lines only (except the last line if the file doesn't end with the line break).
+	*/
+	public final long transferLines(
+					final FileManager fileMgr,
+					final String fileName,
+					final Executor executor,
+					final ChunkConsumer consumer)
+					throws IOException {
+		final var linesConsumer = new LineAlignedConsumer(consumer);
+		final var transferredByteCount = transfer(fileMgr, fileName, executor, linesConsumer);
+		linesConsumer.flush();
+		return transferredByteCount;
+	}
+
+	/** @return the chunk bytes or null if the end of file is reached */
+	private byte[] readChunk(final FileManager fileMgr, final String fileName, final long offset) {
+		try {
+			return fileMgr.readChunk(fileName, offset, chunkSize, compress);
+		} catch (final EOFException e) {
+			return null;
+		} catch (final IOException e) {
+			throw new CompletionException(e);
+		}
+	}
+
+	private static byte[] await(final Future<byte[]> chunk) throws IOException {
+		try {
+			return chunk.get();
+		} catch (final InterruptedException e) {
+			throwUnchecked(e);
+		} catch (final ExecutionException e) {
+			final var cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else {
+				throw new IOException(cause);
+			}
+		}
+		return null;
+	}
+
+	private static int inflate(final Inflater inflater, final byte[] chunk, final byte[] buff) throws IOException {
+		inflater.reset();
+		inflater.setInput(chunk);
+		var len = 0;
+		try {
+			while (!inflater.finished()) {
+				final var n = inflater.inflate(buff, len, buff.length - len);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary() || len == buff.length)) {
+					throw new ZipException("Invalid compressed chunk");
+				}
+				len += n;
+			}
+		} catch (final DataFormatException e) {
+			throw new ZipException(e.getMessage());
+		}
+		return len;
+	}
+
+	/** Keeps the incomplete last line of the chunk until the next chunk */
+	private static final class LineAlignedConsumer implements ChunkConsumer {
+
+		private final ChunkConsumer consumer;
+		private final ByteArrayOutputStream tail = new ByteArrayOutputStream();
+
+		private LineAlignedConsumer(final ChunkConsumer consumer) {
+			this.consumer = consumer;
+		}
+
+		@Override
+		public final void accept(final byte[] buff, final int off, final int len) throws IOException {
+			var lastNewLineIndex = off + len - 1;
+			while (lastNewLineIndex >= off && buff[lastNewLineIndex] != '\n') {
+				lastNewLineIndex--;
+			}
+			if (lastNewLineIndex < off) {
+				tail.write(buff, off, len);
+			} else {
+				if (tail.size() > 0) {
+					tail.write(buff, off, lastNewLineIndex + 1 - off);
+					flush();
+				} else {
+					consumer.accept(buff, off, lastNewLineIndex + 1 - off);
+				}
+				tail.write(buff, lastNewLineIndex + 1, off + len - lastNewLineIndex - 1);
+			}
+		}
+
+		private void flush() throws IOException {
+			if (tail.size() > 0) {
+				final var lines = tail.toByteArray();
+				tail.reset();
+				consumer.accept(lines, 0, lines.length);
+			}
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package com.emc.mongoose.base.load.step.lease;
+
+import com.emc.mongoose.base.logging.LogContextThreadFactory;
+import com.emc.mongoose.base.logging.LogUtil;
+import java.rmi.RemoteException;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.logging.log4j.Level;
+
+/**
+* The operations count limit of the load step slice which is extended by the leases taken from the coordinator. The
+* next lease is requested in the background when less than a half of the lease size remains, so the load generator
+* doesn't wait for the coordinator. The limit is final when the coordinator has nothing to hand out anymore. The
+* failed request is retried with the increasing delay, the limit is final also if all the retries fail.
+*/
+public final class OpCountLease implements AutoCloseable {
+
+	static final int RETRY_COUNT_MAX = 5;
+	static final long RETRY_DELAY_MILLIS = 1_000;
+
+	private final OpCountLeaseCoordinator coordinator;
+	private final long leaseSize;
+	private final long retryDelayMillis;
+	private final String id = UUID.randomUUID().toString();
+	private long seqNum = 0; // the single writer thread
+	private final ExecutorService executor;
+	private final AtomicBoolean pendingFlag = new AtomicBoolean(false);
+	private volatile long limit = 0;
+	private volatile boolean exhaustedFlag = false;
+
+	/**
+	* @param coordinator the coordinator to take the leases from
+	* @param leaseSize the count of the operations to request at once
+	*/
+	public OpCountLease(final OpCountLeaseCoordinator coordinator, final long leaseSize) {
+		this(coordinator, leaseSize, RETRY_DELAY_MILLIS);
+	}
+
+	/** @param retryDelayMillis the delay before the 1st retry of the failed request, doubled for each next retry */
+	OpCountLease(final OpCountLeaseCoordinator coordinator, final long leaseSize, final long retryDelayMillis) {
+		this.coordinator = coordinator;
+		this.leaseSize = leaseSize;
+		this.retryDelayMillis = retryDelayMillis;
+		this.executor = Executors.newSingleThreadExecutor(new LogContextThreadFactory("opCountLease", true));
+	}
+
+	/**
+	* @param usedCount the count of the operations used from the current limit
+	* @return the current count limit, may be extended later
+	*/
+	public final long limit(final long usedCount) {
+		if (!exhaustedFlag && limit - usedCount <= leaseSize / 2 && pendingFlag.compareAndSet(false, true)) {
+			try {
+				executor.execute(this::leaseNext);
+			} catch (final RejectedExecutionException e) { // closed
+				exhaustedFlag = true;
+				pendingFlag.set(false);
+			}
+		}
+		return limit;
+	}
+
+	/**
+	* @param usedCount the count of the operations used
+	* @return true if the limit is final and the given count reached it, false otherwise
+	*/
+	public final boolean isReached(final long usedCount) {
+		// the limit is not changed anymore after the exhausted flag is set
+		return exhaustedFlag && usedCount >= limit;
+	}
+
+	private void leaseNext() {
+		try {
+			final var count = leaseNextRetrying();
+			if (count > 0) {
+				limit += count; // the single writer thread
+			} else {
+				exhaustedFlag = true;
+			}
+		} finally {
+			pendingFlag.set(false);
+		}
+	}
+
+	/** @return the count of the operations granted, 0 if the coordinator is exhausted or not available */
+	private long leaseNextRetrying() {
+		seqNum++;
+		var delayMillis = retryDelayMillis;
+		for (var i = 0; ; i++) {
+			try {
+				// the retried request has the same sequence number, so the coordinator doesn't grant it twice
+				return coordinator.lease(id, seqNum, leaseSize);
+			} catch (final RemoteException e) {
+				if (i == RETRY_COUNT_MAX) {
+					LogUtil.exception(
+									Level.WARN,
+									e,
+									"Failed to lease the operations count from the coordinator \"{}\", the limit is final",
+									coordinator);
+					return 0;
+				}
+				LogUtil.exception(
+								Level.DEBUG,
+								e,
+								"Failed to lease the operations count from the coordinator \"{}\", retry in {}ms",
+								coordinator,
+								delayMillis);
+			}
+			try {
+				TimeUnit.MILLISECONDS.sleep(delayMillis);
+			} catch (final InterruptedException e) { // closed
+				Thread.currentThread().interrupt();
+				return 0;
+			}
+			delayMillis *= 2;
+		}
+	}
+
+	@Override
+	public final void close() {
+		executor.shutdownNow();
+		exhaustedFlag = true;
+	}
+
+	@Override
+	public final String toString() {
+		return getClass().getSimpleName() + "(limit=" + limit + (exhaustedFlag ? ", final)" : ")");
+	}
+}
@@ -0,0 +1,18 @@
+package com.emc.mongoose.base.load.step.lease;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+
+/** Hands out the load operations count limit to the load step slices by parts (leases) on demand */
+public interface OpCountLeaseCoordinator extends Remote {
+
+	/**
+	* The request may be repeated safely if the response is lost: the repeated request gets the same grant
+	*
+	* @param leaseId the unique id of the requesting lease
+	* @param seqNum the sequence number of the request from the given lease
+	* @param count the count of the operations requested
+	* @return the count of the operations granted, not more than requested, 0 if the whole count limit is handed out
+	*/
+	long lease(final String leaseId, final long seqNum, final long count) throws RemoteException;
+}
@@ -0,0 +1,53 @@
+package com.emc.mongoose.base.load.step.lease;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class OpCountLeaseCoordinatorImpl implements OpCountLeaseCoordinator {
+
+	private final AtomicLong remainingCount;
+	// the last request sequence number and the grant for each lease id
+	private final Map<String, long[]> lastGrants = new ConcurrentHashMap<>();
+
+	/** @param countLimit the total count limit of the load step */
+	public OpCountLeaseCoordinatorImpl(final long countLimit) {
+		this.remainingCount = new AtomicLong(countLimit);
+	}
+
+	@Override
+	public final long lease(final String leaseId, final long seqNum, final long count) {
+		final var lastGrant = lastGrants.computeIfAbsent(leaseId, id -> new long[] {-1, 0});
+		synchronized (lastGrant) {
+			if (lastGrant[0] != seqNum) {
+				lastGrant[0] = seqNum;
+				lastGrant[1] = lease(count);
+			}
+			return lastGrant[1];
+		}
+	}
+
+	/**
+	* @param count the count of the operations requested
+	* @return the count of the operations granted, not more than requested, 0 if the whole count limit is handed out
+	*/
+	public final long lease(final long count) {
+		long remaining;
+		long granted;
+		do {
+			remaining = remainingCount.get();
+			granted = Math.min(remaining, count);
+		} while (granted > 0 && !remainingCount.compareAndSet(remaining, remaining - granted));
+		return Math.max(granted, 0);
+	}
+
+	/** @return the count of the operations which is not handed out yet */
+	public final long remaining() {
+		return remainingCount.get();
+	}
+
+	@Override
+	public final String toString() {
+		return getClass().getSimpleName() + "(remaining=" + remainingCount.get() + ")";
+	}
+}
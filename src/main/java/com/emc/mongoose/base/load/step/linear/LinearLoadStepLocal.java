@@ -7,7 +7,9 @@ import com.emc.mongoose.base.item.Item;
 import com.emc.mongoose.base.item.ItemFactory;
 import com.emc.mongoose.base.item.ItemType;
 import com.emc.mongoose.base.item.io.ItemInfoFileOutput;
+import com.emc.mongoose.base.item.io.ItemTimingMetricsBinaryFileOutput;
 import com.emc.mongoose.base.item.io.ItemTimingMetricsFileOutput;
+import com.emc.mongoose.base.item.io.OperationTraceBinaryFileOutput;
 import com.emc.mongoose.base.item.op.OpType;
 import com.emc.mongoose.base.load.generator.LoadGenerator;
 import com.emc.mongoose.base.load.generator.LoadGeneratorBuilder;
@@ -116,14 +118,16 @@ public class LinearLoadStepLocal
 									.itemFactory((ItemFactory) itemFactory)
 									.loadOperationsOutput(driver)
 									.authConfig(storageConfig.configVal("auth"))
-									.originIndex(0);
+									.originIndex(0)
+									.opCountLease(opCountLease);
 					if (rateLimit > 0) {
 						generatorBuilder.addThrottle(new RateThrottle(rateLimit));
 					}
 					final LoadGenerator generator = generatorBuilder.build();
 					final LoadStepContext stepCtx = new LoadStepContextImpl<>(
 									testStepId, generator, driver, metricsContexts.get(0), loadConfig,
-									outputConfig.boolVal("metrics-trace-persist"));
+									outputConfig.boolVal("metrics-trace-persist"), outputConfig.configVal("metrics-trace-sample"),
+									opCountLease);
 					stepContexts.add(stepCtx);
 
 					final String itemOutputFile = itemConfig.stringVal("output-file");
@@ -142,15 +146,37 @@ public class LinearLoadStepLocal
 						}
 					}
 
-					final Path itemTimingMetricsOutputPath = Paths.get(System.getProperty("java.io.tmpdir"),
-							"mongoose", "timingMetrics_" + config.stringVal("load-step-id"));
-					try {
-						final Output<? extends Item> itemOutput = new ItemTimingMetricsFileOutput<>(itemTimingMetricsOutputPath);
-						stepCtx.operationsMetricsOutput(itemOutput);
-					} catch (final IOException e) {
-						LogUtil.exception(
-								Level.ERROR, e,
-								"Failed to initialize the item metrics output, the processed items info won't be persisted");
+					if (outputConfig.boolVal("metrics-timing-persist")) {
+						final Path itemTimingMetricsOutputPath = Paths.get(System.getProperty("java.io.tmpdir"),
+								"mongoose", "timingMetrics_" + config.stringVal("load-step-id"));
+						try {
+							final Output<? extends Item> itemOutput;
+							if ("text".equalsIgnoreCase(outputConfig.stringVal("metrics-timing-format"))) {
+								itemOutput = new ItemTimingMetricsFileOutput<>(itemTimingMetricsOutputPath);
+							} else {
+								itemOutput = new ItemTimingMetricsBinaryFileOutput<>(itemTimingMetricsOutputPath);
+							}
+							stepCtx.operationsMetricsOutput(itemOutput);
+						} catch (final IOException e) {
+							LogUtil.exception(
+									Level.ERROR, e,
+									"Failed to initialize the item metrics output, the processed items info won't be persisted");
+						}
+					}
+
+					if (
+						outputConfig.boolVal("metrics-trace-persist")
+							&& "binary".equalsIgnoreCase(outputConfig.stringVal("metrics-trace-format"))
+					) {
+						try {
+							final Output<? extends Item> opTracesOutput = new OperationTraceBinaryFileOutput<>(
+									OperationTraceBinaryFileOutput.filePath(testStepId));
+							stepCtx.operationsTracesOutput(opTracesOutput);
+						} catch (final IOException e) {
+							LogUtil.exception(
+									Level.ERROR, e,
+									"Failed to initialize the binary operation traces output, the operation traces log is used");
+						}
 					}
 
 				} catch (final IllegalConfigurationException e) {
@@ -8,6 +8,7 @@ import static org.apache.logging.log4j.CloseableThreadContext.put;
 
 import com.emc.mongoose.base.env.Extension;
 import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.load.step.lease.OpCountLease;
 import com.emc.mongoose.base.load.step.local.context.LoadStepContext;
 import com.emc.mongoose.base.load.step.LoadStepBase;
 import com.emc.mongoose.base.logging.LogUtil;
@@ -28,6 +29,8 @@ import org.apache.logging.log4j.Level;
 public abstract class LoadStepLocalBase extends LoadStepBase {
 
 	protected final List<LoadStepContext> stepContexts = new ArrayList<>();
+	// distributed mode: the count limit leased from the entry node, null if the configured count limit is used
+	protected volatile OpCountLease opCountLease = null;
 
 	protected LoadStepLocalBase(
 					final Config baseConfig,
@@ -37,6 +40,11 @@ public abstract class LoadStepLocalBase extends LoadStepBase {
 		super(baseConfig, extensions, contextConfigs, metricsManager);
 	}
 
+	/** Use the count limit leased from the coordinator instead of the configured one, invoked before the start */
+	public final void opCountLease(final OpCountLease opCountLease) {
+		this.opCountLease = opCountLease;
+	}
+
 	@Override
 	protected void doStartWrapped() {
 		stepContexts.forEach(
@@ -68,6 +76,8 @@ public abstract class LoadStepLocalBase extends LoadStepBase {
 						.itemDataSize(itemDataSize)
 						.outputPeriodSec(avgPeriod(metricsConfig))
 						.stdOutColorFlag(outputColorFlag)
+						.storageNodeMetricsFlag(metricsConfig.boolVal("storage-nodes"))
+						.slowestOpsCount(metricsConfig.intVal("trace-slowest"))
 						.comment(config.stringVal("run-comment"))
 						.runId(runId())
 						.build();
@@ -146,5 +156,9 @@ public abstract class LoadStepLocalBase extends LoadStepBase {
 											}
 										});
 		stepContexts.clear();
+		if (null != opCountLease) {
+			opCountLease.close();
+			opCountLease = null;
+		}
 	}
 }
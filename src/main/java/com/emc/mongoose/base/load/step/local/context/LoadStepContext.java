@@ -15,6 +15,12 @@ public interface LoadStepContext<I extends Item, O extends Operation<I>> extends
 
 	void operationsMetricsOutput(final Output<O> opsMetricsOutput);
 
+	/**
+	* @param opsTracesOutput the operation traces destination used instead of the operation traces log if the traces
+	*     persisting is enabled
+	*/
+	void operationsTracesOutput(final Output<O> opsTracesOutput);
+
 	int activeOpCount();
 
 	boolean isDone();
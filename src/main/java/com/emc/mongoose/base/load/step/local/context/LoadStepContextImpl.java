@@ -11,6 +11,7 @@ import static org.apache.logging.log4j.CloseableThreadContext.Instance;
 import com.emc.mongoose.base.concurrent.DaemonBase;
 import com.emc.mongoose.base.item.DataItem;
 import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.io.OperationTraceBinaryFileOutput;
 import com.emc.mongoose.base.item.op.Operation;
 import com.emc.mongoose.base.item.op.Operation.Status;
 import com.emc.mongoose.base.item.op.composite.CompositeOperation;
@@ -18,12 +19,17 @@ import com.emc.mongoose.base.item.op.data.DataOperation;
 import com.emc.mongoose.base.item.op.partial.PartialOperation;
 import com.emc.mongoose.base.item.op.path.PathOperation;
 import com.emc.mongoose.base.load.generator.LoadGenerator;
+import com.emc.mongoose.base.load.step.lease.OpCountLease;
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
 import com.emc.mongoose.base.logging.OperationTraceCsvBatchLogMessage;
 import com.emc.mongoose.base.logging.OperationTraceCsvLogMessage;
+import com.emc.mongoose.base.logging.OperationTraceRecord;
+import com.emc.mongoose.base.logging.OperationTraceRecordsCsvLogMessage;
+import com.emc.mongoose.base.logging.OperationTraceSampler;
 import com.emc.mongoose.base.metrics.context.MetricsContext;
 import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.type.InjectorGauges;
 import com.emc.mongoose.base.storage.driver.StorageDriver;
 import com.github.akurilov.commons.io.Output;
 import com.github.akurilov.commons.reflection.TypeUtil;
@@ -44,12 +50,16 @@ import org.apache.logging.log4j.ThreadContext;
 
 /** Created by kurila on 12.07.16. */
 public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends DaemonBase
-				implements LoadStepContext<I, O> {
+				implements LoadStepContext<I, O>, InjectorGauges {
+
+	// the single operation results handling is timed for the 1 of this count only, the results batches are timed always
+	private static final int COMPLETION_SAMPLE_RATE = 0x10;
 
 	private final String id;
 	private final LoadGenerator<I, O> generator;
 	private final StorageDriver<I, O> driver;
 	private final long countLimit;
+	private final OpCountLease opCountLease;
 	private final long sizeLimit;
 	private final long failCountLimit;
 	private final boolean failRateLimitFlag;
@@ -58,10 +68,14 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 	private final boolean retryFlag;
 	private final MetricsContext metricsCtx;
 	private final LongAdder counterResults = new LongAdder();
+	private final LongAdder completionCounter = new LongAdder();
+	private final LongAdder completionTimeNanos = new LongAdder();
 	private final boolean tracePersistFlag;
+	private final OperationTraceSampler<I, O> traceSampler;
 	private final int batchSize;
 	private volatile Output<O> opsResultsOutput;
 	private volatile Output<O> opsMetricsOutput;
+	private volatile Output<O> opsTracesOutput;
 	private final boolean waitOpFinishBeforeStop;
 	private final boolean outputDuplicates;
 	private final boolean updateContents;
@@ -75,12 +89,47 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 					final MetricsContext metricsCtx,
 					final Config loadConfig,
 					final boolean tracePersistFlag) {
+		this(id, generator, driver, metricsCtx, loadConfig, tracePersistFlag, null);
+	}
+
+	/**
+	* @param id test step id
+	* @param traceSampleConfig the operation traces sampling configuration, null to persist all the traces
+	*/
+	public LoadStepContextImpl(
+					final String id,
+					final LoadGenerator<I, O> generator,
+					final StorageDriver<I, O> driver,
+					final MetricsContext metricsCtx,
+					final Config loadConfig,
+					final boolean tracePersistFlag,
+					final Config traceSampleConfig) {
+		this(id, generator, driver, metricsCtx, loadConfig, tracePersistFlag, traceSampleConfig, null);
+	}
+
+	/**
+	* @param id test step id
+	* @param traceSampleConfig the operation traces sampling configuration, null to persist all the traces
+	* @param opCountLease the leased count limit to use instead of the configured one, may be null
+	*/
+	public LoadStepContextImpl(
+					final String id,
+					final LoadGenerator<I, O> generator,
+					final StorageDriver<I, O> driver,
+					final MetricsContext metricsCtx,
+					final Config loadConfig,
+					final boolean tracePersistFlag,
+					final Config traceSampleConfig,
+					final OpCountLease opCountLease) {
 		this.id = id;
 		this.generator = generator;
 		this.driver = driver;
 		this.driver.operationResultOutput(this);
 		this.metricsCtx = metricsCtx;
 		this.tracePersistFlag = tracePersistFlag;
+		this.traceSampler = tracePersistFlag && traceSampleConfig != null
+						? OperationTraceSampler.instance(traceSampleConfig, metricsCtx, this::outputTraceRecords)
+						: null;
 		this.batchSize = loadConfig.intVal("batch-size");
 		final Config opConfig = loadConfig.configVal("op");
 		final var recycleConfig = opConfig.configVal("recycle");
@@ -96,6 +145,7 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 		}
 		final long configCountLimit = opLimitConfig.longVal("count");
 		this.countLimit = configCountLimit > 0 ? configCountLimit : Long.MAX_VALUE;
+		this.opCountLease = opCountLease;
 		final SizeInBytes configSizeLimit;
 		final Config stepLimitConfig = loadConfig.configVal("step-limit");
 		final Object configSizeLimitRaw = stepLimitConfig.val("size");
@@ -111,6 +161,7 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 		this.failRateLimitFlag = failConfig.boolVal("rate");
 		this.waitOpFinishBeforeStop = opConfig.boolVal("wait-finish");
 		this.outputDuplicates = opConfig.boolVal("output-duplicates");
+		metricsCtx.injectorGauges(this);
 	}
 
 	@Override
@@ -147,7 +198,12 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 	}
 
 	private boolean isDoneCountLimit() {
-		if (countLimit > 0) {
+		if (null != opCountLease) {
+			if (opCountLease.isReached(counterResults.sum())) {
+				Loggers.MSG.debug("{}: leased count limit reached, {} results, {}", id, counterResults.sum(), opCountLease);
+				return true;
+			}
+		} else if (countLimit > 0) {
 			if (counterResults.sum() >= countLimit) {
 				Loggers.MSG.debug(
 								"{}: count limit reached, {} results >= {} limit",
@@ -260,6 +316,11 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 		this.opsMetricsOutput = opsMetricsOutput;
 	}
 
+	@Override
+	public final void operationsTracesOutput(final Output<O> opsTracesOutput) {
+		this.opsTracesOutput = opsTracesOutput;
+	}
+
 	@Override
 	public final int activeOpCount() {
 		return driver.activeOpCount();
@@ -267,10 +328,24 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 
 	@Override
 	public final boolean put(final O opResult) {
+		if (0 != rand.get().nextInt(COMPLETION_SAMPLE_RATE)) {
+			return handleResult(opResult);
+		}
+		final var startTimeNanos = System.nanoTime();
+		try {
+			return handleResult(opResult);
+		} finally {
+			// the sampled result stands for the other ones which were not timed
+			completionTimeNanos.add(COMPLETION_SAMPLE_RATE * (System.nanoTime() - startTimeNanos));
+			completionCounter.add(COMPLETION_SAMPLE_RATE);
+		}
+	}
+
+	private boolean handleResult(final O opResult) {
 		ThreadContext.put(KEY_STEP_ID, id);
 		// I/O trace logging
-		if (tracePersistFlag) {
-			Loggers.OP_TRACES.info(new OperationTraceCsvLogMessage<>(opResult));
+		if (tracePersistFlag && (traceSampler == null || traceSampler.test(opResult))) {
+			outputTrace(opResult);
 		}
 		// account the completed composite ops only
 		if (opResult instanceof CompositeOperation
@@ -290,8 +365,11 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 				countBytesDone = 0;
 			}
 			if (opResult instanceof PartialOperation) {
-				metricsCtx.markPartSucc(countBytesDone, reqDuration, respLatency);
+				metricsCtx.markPartSucc(
+								opResult.type(), opResult.nodeAddr(), countBytesDone, reqDuration, respLatency);
 			} else {
+				// before the recycling which may change the item
+				metricsCtx.offerSlowest(opResult);
 				if (!recycleFlag) {
 					// recycled ops should only appear in output.csv only once unless
 					// outputDuplicates flag is specified
@@ -318,7 +396,8 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 				// each recycled op's lat and dur should be written to file each time
 				// just like regular op
 				outputTimingMetrics(opResult);
-				metricsCtx.markSucc(countBytesDone, reqDuration, respLatency);
+				metricsCtx.markSucc(
+								opResult.type(), opResult.nodeAddr(), countBytesDone, reqDuration, respLatency);
 				counterResults.increment();
 			}
 		} else if (Status.PENDING.equals(status)) {
@@ -339,7 +418,8 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 					generator.recycle(opResult);
 				} else {
 					Loggers.ERR.debug("{}: {}", opResult.toString(), status.toString());
-					metricsCtx.markFail();
+					metricsCtx.markFail(opResult.type(), opResult.nodeAddr());
+					metricsCtx.offerSlowest(opResult);
 					counterResults.increment();
 				}
 			}
@@ -349,10 +429,29 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 
 	@Override
 	public final int put(final List<O> opResults, final int from, final int to) {
+		final var startTimeNanos = System.nanoTime();
+		try {
+			return handleResults(opResults, from, to);
+		} finally {
+			completionTimeNanos.add(System.nanoTime() - startTimeNanos);
+			completionCounter.add(to - from);
+		}
+	}
+
+	private int handleResults(final List<O> opResults, final int from, final int to) {
 		ThreadContext.put(KEY_STEP_ID, id);
 		// I/O trace logging
 		if (tracePersistFlag) {
-			Loggers.OP_TRACES.info(new OperationTraceCsvBatchLogMessage<>(opResults, from, to));
+			if (traceSampler == null) {
+				outputTraces(opResults, from, to);
+			} else {
+				for (var i = from; i < to; i++) {
+					final var opResult = opResults.get(i);
+					if (traceSampler.test(opResult)) {
+						outputTrace(opResult);
+					}
+				}
+			}
 		}
 		O opResult;
 		Status status;
@@ -377,8 +476,11 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 			}
 			if (Status.SUCC.equals(status)) {
 				if (opResult instanceof PartialOperation) {
-					metricsCtx.markPartSucc(countBytesDone, reqDuration, respLatency);
+					metricsCtx.markPartSucc(
+									opResult.type(), opResult.nodeAddr(), countBytesDone, reqDuration, respLatency);
 				} else {
+					// before the recycling which may change the item
+					metricsCtx.offerSlowest(opResult);
 					if (!recycleFlag) {
 						// recycled ops should only appear in output.csv only once unless
 						// outputDuplicates flag is specified
@@ -405,7 +507,8 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 					// each recycled op's lat and dur should be written to file each time
 					// just like regular op
 					outputTimingMetrics(opResult);
-					metricsCtx.markSucc(countBytesDone, reqDuration, respLatency);
+					metricsCtx.markSucc(
+									opResult.type(), opResult.nodeAddr(), countBytesDone, reqDuration, respLatency);
 					counterResults.increment();
 				}
 			} else if (Status.PENDING.equals(status)) {
@@ -426,7 +529,8 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 						generator.recycle(opResult);
 					} else {
 						Loggers.ERR.debug("{}: {}", opResult.toString(), status.toString());
-						metricsCtx.markFail();
+						metricsCtx.markFail(opResult.type(), opResult.nodeAddr());
+						metricsCtx.offerSlowest(opResult);
 						counterResults.increment();
 					}
 				}
@@ -440,6 +544,52 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 		return put(opsResults, 0, opsResults.size());
 	}
 
+	@Override
+	public final long fiberInvocationCount() {
+		return generator.invocationCount();
+	}
+
+	@Override
+	public final long fiberOverrunCount() {
+		return generator.overrunCount();
+	}
+
+	@Override
+	public final double recycleQueueFill() {
+		return generator.recycleQueueFill();
+	}
+
+	@Override
+	public final double transferBufferFill() {
+		return generator.itemInputFill();
+	}
+
+	@Override
+	public final long driverQueueDepth() {
+		// the operations accepted by the driver which are neither active nor completed yet
+		return Math.max(0, driver.scheduledOpCount() - driver.completedOpCount() - driver.activeOpCount());
+	}
+
+	@Override
+	public final long completionCount() {
+		return completionCounter.sum();
+	}
+
+	@Override
+	public final long completionTimeNanos() {
+		return completionTimeNanos.sum();
+	}
+
+	@Override
+	public final long verifyCount() {
+		return driver.verifyCount();
+	}
+
+	@Override
+	public final long verifyTimeNanos() {
+		return driver.verifyTimeNanos();
+	}
+
 	@Override
 	protected void doStart() throws IllegalStateException {
 		try {
@@ -496,6 +646,39 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 		}
 	}
 
+	private void outputTrace(final O opResult) {
+		final var opsTracesOutput = this.opsTracesOutput;
+		if (opsTracesOutput == null) {
+			Loggers.OP_TRACES.info(new OperationTraceCsvLogMessage<>(opResult));
+		} else if (!opsTracesOutput.put(opResult)) {
+			Loggers.ERR.debug("{}: failed to output the operation trace", id);
+		}
+	}
+
+	private void outputTraces(final List<O> opResults, final int from, final int to) {
+		final var opsTracesOutput = this.opsTracesOutput;
+		if (opsTracesOutput == null) {
+			Loggers.OP_TRACES.info(new OperationTraceCsvBatchLogMessage<>(opResults, from, to));
+		} else if (opsTracesOutput.put(opResults, from, to) < to - from) {
+			Loggers.ERR.debug("{}: failed to output the operation traces", id);
+		}
+	}
+
+	private void outputTraceRecords(final List<OperationTraceRecord<?, ?>> records) {
+		final var opsTracesOutput = this.opsTracesOutput;
+		if (opsTracesOutput instanceof OperationTraceBinaryFileOutput) {
+			final var binOutput = (OperationTraceBinaryFileOutput<?, ?>) opsTracesOutput;
+			for (final var record : records) {
+				if (!binOutput.putRecord(record)) {
+					Loggers.ERR.debug("{}: failed to output the operation trace", id);
+					break;
+				}
+			}
+		} else {
+			Loggers.OP_TRACES.info(new OperationTraceRecordsCsvLogMessage(records));
+		}
+	}
+
 	@Override
 	protected final void doShutdown() {
 		try (final Instance ctx = CloseableThreadContext.put(KEY_STEP_ID, id)
@@ -595,6 +778,20 @@ public class LoadStepContextImpl<I extends Item, O extends Operation<I>> extends
 			}
 		}
 
+		if (traceSampler != null) {
+			traceSampler.flush();
+		}
+
+		if (opsTracesOutput != null) {
+			try {
+				opsTracesOutput.put((O) null);
+				Loggers.MSG.debug("{}: poisoned the operation traces output", id);
+			} catch (final Exception e) {
+				throwUncheckedIfInterrupted(e);
+				LogUtil.exception(Level.WARN, e, "{}: failed to poison the operation traces output", id);
+			}
+		}
+
 		Loggers.MSG.debug("{}: interrupted the load step context", id);
 	}
 
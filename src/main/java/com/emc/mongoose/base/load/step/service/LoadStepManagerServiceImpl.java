@@ -8,6 +8,7 @@ import com.emc.mongoose.base.load.step.LoadStepManagerService;
 import com.emc.mongoose.base.logging.Loggers;
 import com.emc.mongoose.base.metrics.MetricsManager;
 import com.emc.mongoose.base.svc.ServiceBase;
+import com.emc.mongoose.base.svc.ServiceTransport;
 import com.github.akurilov.confuse.Config;
 import java.rmi.RemoteException;
 import java.util.List;
@@ -22,7 +23,15 @@ public final class LoadStepManagerServiceImpl extends ServiceBase
 
 	public LoadStepManagerServiceImpl(
 					final int port, final List<Extension> extensions, final MetricsManager metricsMgr) {
-		super(port);
+		this(port, ServiceTransport.RMI, extensions, metricsMgr);
+	}
+
+	public LoadStepManagerServiceImpl(
+					final int port,
+					final ServiceTransport transport,
+					final List<Extension> extensions,
+					final MetricsManager metricsMgr) {
+		super(port, transport);
 		this.extensions = extensions;
 		this.metricsMgr = metricsMgr;
 	}
@@ -53,7 +62,7 @@ public final class LoadStepManagerServiceImpl extends ServiceBase
 	public final String newStepService(
 			final String stepType, final Config config, final List<Config> ctxConfigs)
 			throws RemoteException {
-		stepSvc = new LoadStepServiceImpl(port, extensions, stepType, config, ctxConfigs, metricsMgr);
+		stepSvc = new LoadStepServiceImpl(port, transport, extensions, stepType, config, ctxConfigs, metricsMgr);
 		Loggers.MSG.info("New step service started @ port #{}: {}", port, stepSvc.name());
 		return stepSvc.name();
 	}
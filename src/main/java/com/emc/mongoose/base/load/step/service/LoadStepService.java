@@ -1,9 +1,48 @@
 package com.emc.mongoose.base.load.step.service;
 
 import com.emc.mongoose.base.load.step.LoadStep;
+import com.emc.mongoose.base.load.step.lease.OpCountLeaseCoordinator;
+import com.emc.mongoose.base.metrics.stream.MetricsSnapshotsConsumer;
 import com.emc.mongoose.base.svc.Service;
+import java.rmi.RemoteException;
+import java.util.List;
 
 public interface LoadStepService extends Service, LoadStep {
 
 	String SVC_NAME_PREFIX = "load/step/";
+
+	/**
+	* Start pushing the metrics snapshots to the given consumer instead of being polled for them
+	*
+	* @param consumer the remote consumer to push the encoded metrics snapshots to
+	* @param periodMillis the min time period between the pushes
+	*/
+	void subscribeMetricsSnapshots(final MetricsSnapshotsConsumer consumer, final long periodMillis)
+					throws RemoteException;
+
+	/**
+	* Collect the metrics snapshots from the given child load step services and merge them with the own ones, so the
+	* merged snapshots are returned (or pushed) to the parent instead of the own ones
+	*
+	* @param childNodeAddrs the child nodes addresses with the port numbers
+	* @param childSvcNames the names of the child load step services, in the same order
+	*/
+	void aggregateMetricsSnapshots(final List<String> childNodeAddrs, final List<String> childSvcNames)
+					throws RemoteException;
+
+	/**
+	* Use the count limit leased from the given coordinator instead of the configured one, should be invoked before the
+	* start
+	*
+	* @param coordinator the remote coordinator to lease the operations count from
+	* @param leaseSize the count of the operations to lease at once
+	* @throws RemoteException if the load step type doesn't support the leased count limit
+	*/
+	void leaseOpCount(final OpCountLeaseCoordinator coordinator, final long leaseSize) throws RemoteException;
+
+	/**
+	* @return the current time in terms of the operation timestamps on this node, microseconds (see {@link
+	*     com.emc.mongoose.base.item.op.Operation#START_OFFSET_MICROS})
+	*/
+	long opTimeMicros() throws RemoteException;
 }
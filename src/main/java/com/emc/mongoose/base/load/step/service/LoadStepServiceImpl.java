@@ -8,19 +8,38 @@ import static org.apache.logging.log4j.CloseableThreadContext.put;
 import com.emc.mongoose.base.env.Extension;
 import com.emc.mongoose.base.load.step.LoadStepFactory;
 import com.emc.mongoose.base.load.step.LoadStep;
+import com.emc.mongoose.base.load.step.client.NodeClockOffset;
+import com.emc.mongoose.base.load.step.client.metrics.MetricsAggregator;
+import com.emc.mongoose.base.load.step.client.metrics.MetricsAggregatorImpl;
+import com.emc.mongoose.base.load.step.lease.OpCountLease;
+import com.emc.mongoose.base.load.step.lease.OpCountLeaseCoordinator;
+import com.emc.mongoose.base.load.step.local.LoadStepLocalBase;
 import com.emc.mongoose.base.logging.Loggers;
 import com.emc.mongoose.base.metrics.MetricsManager;
 import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.stream.MetricsSnapshotsConsumer;
+import com.emc.mongoose.base.metrics.stream.MetricsSnapshotsPublisherTask;
 import com.emc.mongoose.base.svc.ServiceBase;
+import com.emc.mongoose.base.svc.ServiceTransport;
+import com.emc.mongoose.base.svc.ServiceUtil;
 import com.github.akurilov.confuse.Config;
 import java.io.IOException;
 import java.rmi.RemoteException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 public final class LoadStepServiceImpl extends ServiceBase implements LoadStepService {
 
 	private final LoadStep localLoadStep;
+	private final List<MetricsSnapshotsPublisherTask> metricsPublishers = new CopyOnWriteArrayList<>();
+	private final Config metricsConfig;
+	// the metrics aggregation tree: collects the metrics snapshots from the child nodes, null if there are no children
+	private volatile MetricsAggregator childMetricsAggregator = null;
+	// the children metrics snapshots are fetched synchronously after the stop, so the final ones are not outdated
+	private volatile boolean stoppedFlag = false;
 
 	public LoadStepServiceImpl(
 					final int port,
@@ -29,10 +48,22 @@ public final class LoadStepServiceImpl extends ServiceBase implements LoadStepSe
 					final Config baseConfig,
 					final List<Config> ctxConfigs,
 					final MetricsManager metricsManager) {
-		super(port);
+		this(port, ServiceTransport.RMI, extensions, stepType, baseConfig, ctxConfigs, metricsManager);
+	}
+
+	public LoadStepServiceImpl(
+					final int port,
+					final ServiceTransport transport,
+					final List<Extension> extensions,
+					final String stepType,
+					final Config baseConfig,
+					final List<Config> ctxConfigs,
+					final MetricsManager metricsManager) {
+		super(port, transport);
 		baseConfig.val(
 						"load-step-idAutoGenerated",
 						false); // don't override the step-id value on the remote node again
+		metricsConfig = baseConfig.configVal("output-metrics");
 		localLoadStep = LoadStepFactory.createLocalLoadStep(
 						baseConfig, extensions, ctxConfigs, metricsManager, stepType);
 		final String stepId = baseConfig.stringVal("load-step-id");
@@ -54,6 +85,7 @@ public final class LoadStepServiceImpl extends ServiceBase implements LoadStepSe
 	protected void doStop() {
 		try (final Instance logCtx = put(KEY_CLASS_NAME, getClass().getSimpleName()).put(KEY_STEP_ID, localLoadStep.loadStepId())) {
 			localLoadStep.stop();
+			stoppedFlag = true;
 			Loggers.MSG.info("Step service for \"{}\" is stopped", localLoadStep.loadStepId());
 		} catch (final RemoteException ignored) {}
 	}
@@ -62,6 +94,14 @@ public final class LoadStepServiceImpl extends ServiceBase implements LoadStepSe
 	protected final void doClose() throws IOException {
 		try (final Instance logCtx = put(KEY_CLASS_NAME, getClass().getSimpleName()).put(KEY_STEP_ID, localLoadStep.loadStepId())) {
 			super.doStop();
+			for (final var metricsPublisher : metricsPublishers) {
+				metricsPublisher.close();
+			}
+			metricsPublishers.clear();
+			if (null != childMetricsAggregator) {
+				childMetricsAggregator.close();
+				childMetricsAggregator = null;
+			}
 			localLoadStep.close();
 			Loggers.MSG.info("Step service for \"{}\" is closed", localLoadStep.loadStepId());
 		}
@@ -90,7 +130,80 @@ public final class LoadStepServiceImpl extends ServiceBase implements LoadStepSe
 
 	@Override
 	public final List<? extends AllMetricsSnapshot> metricsSnapshots() throws RemoteException {
-		return localLoadStep.metricsSnapshots();
+		final var snapshots = localLoadStep.metricsSnapshots();
+		final var childMetricsAggregator = this.childMetricsAggregator;
+		if (null == childMetricsAggregator || null == snapshots) {
+			return snapshots;
+		}
+		// the parent node fetches the final snapshots after all the nodes are stopped, the cached children snapshots
+		// may be up to a period old, and the lag would add up on each level of the tree
+		if (stoppedFlag) {
+			childMetricsAggregator.refresh();
+		}
+		final var originCount = snapshots.size();
+		final List<AllMetricsSnapshot> mergedSnapshots = new ArrayList<>(originCount);
+		for (var i = 0; i < originCount; i++) {
+			final var originSnapshots = childMetricsAggregator.metricsSnapshotsByIndex(i);
+			final var snapshot = snapshots.get(i);
+			if (null != snapshot) {
+				originSnapshots.add(snapshot);
+			}
+			mergedSnapshots.add(originSnapshots.isEmpty() ? null : AllMetricsSnapshotImpl.aggregate(originSnapshots));
+		}
+		return mergedSnapshots;
+	}
+
+	@Override
+	public final void subscribeMetricsSnapshots(final MetricsSnapshotsConsumer consumer, final long periodMillis)
+					throws RemoteException {
+		// publish the merged snapshots if this node aggregates the metrics of the child nodes
+		final var metricsPublisher = new MetricsSnapshotsPublisherTask(this, consumer, periodMillis);
+		metricsPublishers.add(metricsPublisher);
+		metricsPublisher.start();
+		Loggers.MSG.debug("{}: started pushing the metrics snapshots", localLoadStep.loadStepId());
+	}
+
+	@Override
+	public final void aggregateMetricsSnapshots(final List<String> childNodeAddrs, final List<String> childSvcNames)
+					throws RemoteException {
+		final var childCount = childNodeAddrs.size();
+		final List<LoadStep> childSvcs = new ArrayList<>(childCount);
+		for (var i = 0; i < childCount; i++) {
+			final var childNodeAddr = childNodeAddrs.get(i);
+			try {
+				childSvcs.add(ServiceUtil.resolve(childNodeAddr, childSvcNames.get(i), transport, LoadStepService.class));
+			} catch (final RemoteException e) {
+				throw e;
+			} catch (final Exception e) {
+				throw new RemoteException("Failed to resolve the child load step service @ " + childNodeAddr, e);
+			}
+		}
+		final var stepId = localLoadStep.loadStepId();
+		final var aggregator = new MetricsAggregatorImpl(stepId, childSvcs, metricsConfig);
+		try {
+			aggregator.start();
+		} catch (final Exception e) {
+			throw new RemoteException("Failed to start the child metrics aggregator", e);
+		}
+		childMetricsAggregator = aggregator;
+		Loggers.MSG.info("{}: aggregates the metrics of the nodes {}", stepId, childNodeAddrs);
+	}
+
+	@Override
+	public final void leaseOpCount(final OpCountLeaseCoordinator coordinator, final long leaseSize)
+					throws RemoteException {
+		if (localLoadStep instanceof LoadStepLocalBase) {
+			((LoadStepLocalBase) localLoadStep).opCountLease(new OpCountLease(coordinator, leaseSize));
+			Loggers.MSG.debug("{}: the count limit is leased by {}", localLoadStep.loadStepId(), leaseSize);
+		} else {
+			throw new RemoteException(
+							"The load step type \"" + localLoadStep.getTypeName() + "\" doesn't support the leased count limit");
+		}
+	}
+
+	@Override
+	public final long opTimeMicros() {
+		return NodeClockOffset.LOCAL_CLOCK.getAsLong();
 	}
 
 	@Override
@@ -4,19 +4,23 @@ import static com.emc.mongoose.base.Constants.KEY_CLASS_NAME;
 import static org.apache.logging.log4j.CloseableThreadContext.Instance;
 import static org.apache.logging.log4j.CloseableThreadContext.put;
 
-import com.emc.mongoose.base.load.step.file.FileManager;
 import com.emc.mongoose.base.load.step.file.FileManagerImpl;
 import com.emc.mongoose.base.svc.ServiceBase;
+import com.emc.mongoose.base.svc.ServiceTransport;
 import java.io.IOException;
 
 public final class FileManagerServiceImpl extends ServiceBase implements FileManagerService {
 
-	private final FileManager localFileMgr = new FileManagerImpl();
+	private final FileManagerImpl localFileMgr = new FileManagerImpl();
 
 	public FileManagerServiceImpl(final int port) {
 		super(port);
 	}
 
+	public FileManagerServiceImpl(final int port, final ServiceTransport transport) {
+		super(port, transport);
+	}
+
 	@Override
 	public String name() {
 		return SVC_NAME;
@@ -50,6 +54,27 @@ public final class FileManagerServiceImpl extends ServiceBase implements FileMan
 		localFileMgr.writeToFile(fileName, buff);
 	}
 
+	@Override
+	public final byte[] readChunk(final String fileName, final long offset, final int size, final boolean compress)
+					throws IOException {
+		return localFileMgr.readChunk(fileName, offset, size, compress);
+	}
+
+	@Override
+	public final void closeFile(final String fileName) throws IOException {
+		localFileMgr.closeFile(fileName);
+	}
+
+	@Override
+	public final String cachedFile(final String digest, final long size) throws IOException {
+		return localFileMgr.cachedFile(digest, size);
+	}
+
+	@Override
+	public final String cacheFile(final String fileName, final String digest) throws IOException {
+		return localFileMgr.cacheFile(fileName, digest);
+	}
+
 	@Override
 	public final long fileSize(final String fileName) throws IOException {
 		return localFileMgr.fileSize(fileName);
@@ -64,4 +89,9 @@ public final class FileManagerServiceImpl extends ServiceBase implements FileMan
 	public final void deleteFile(final String fileName) throws IOException {
 		localFileMgr.deleteFile(fileName);
 	}
+
+	@Override
+	protected final void doClose() {
+		localFileMgr.closeFiles();
+	}
 }
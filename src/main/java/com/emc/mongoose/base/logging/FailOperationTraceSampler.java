@@ -0,0 +1,23 @@
+package com.emc.mongoose.base.logging;
+
+import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.op.Operation;
+
+/** Selects the failed operation results only, the same ones which are accounted as the failures by the metrics */
+public final class FailOperationTraceSampler<I extends Item, O extends Operation<I>>
+				implements OperationTraceSampler<I, O> {
+
+	@Override
+	public final boolean test(final O opResult) {
+		switch (opResult.status()) {
+			case PENDING:
+			case ACTIVE:
+			case INTERRUPTED:
+			case SUCC:
+			case OMIT:
+				return false;
+			default:
+				return true;
+		}
+	}
+}
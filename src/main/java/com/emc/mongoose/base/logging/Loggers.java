@@ -16,9 +16,12 @@ public interface Loggers {
 	Logger CONFIG = LogManager.getLogger(BASE + "Config");
 	Logger ERR = LogManager.getLogger(BASE + "Errors");
 	Logger OP_TRACES = LogManager.getLogger(BASE + "OpTraces");
+	Logger OP_TRACES_SLOWEST = LogManager.getLogger(BASE + "OpTracesSlowest");
 	Logger METRICS_FILE = LogManager.getLogger(BASE_METRICS + "File");
 	Logger METRICS_FILE_TOTAL = LogManager.getLogger(BASE_METRICS + "FileTotal");
+	Logger METRICS_HEATMAP_FILE = LogManager.getLogger(BASE_METRICS + "HeatmapFile");
 	Logger METRICS_STD_OUT = LogManager.getLogger(BASE_METRICS + "StdOut");
+	Logger METRICS_STORAGE_NODES_FILE = LogManager.getLogger(BASE_METRICS + "StorageNodesFile");
 	Logger METRICS_THRESHOLD_FILE_TOTAL = LogManager.getLogger(BASE_METRICS_THRESHOLD + "FileTotal");
 	Logger MSG = LogManager.getLogger(BASE + "Messages");
 	Logger MULTIPART = LogManager.getLogger(BASE + "Multipart");
@@ -31,8 +34,11 @@ public interface Loggers {
 			put(CONFIG.getName().substring(BASE.length()), "Base config");
 			put(ERR.getName().substring(BASE.length()), "Errors");
 			put(OP_TRACES.getName().substring(BASE.length()), "Operation Traces");
+			put(OP_TRACES_SLOWEST.getName().substring(BASE.length()), "Slowest Operation Traces");
 			put(METRICS_FILE.getName().substring(BASE.length()), "Metrics");
 			put(METRICS_FILE_TOTAL.getName().substring(BASE.length()), "Metrics Total");
+			put(METRICS_HEATMAP_FILE.getName().substring(BASE.length()), "Timing Metrics Heatmap");
+			put(METRICS_STORAGE_NODES_FILE.getName().substring(BASE.length()), "Storage Nodes Metrics");
 			put(METRICS_THRESHOLD_FILE_TOTAL.getName().substring(BASE.length()), "Threshold Metrics Total");
 			put(MSG.getName().substring(BASE.length()), "Messages");
 			put(SCENARIO.getName().substring(BASE.length()), "Scenario");
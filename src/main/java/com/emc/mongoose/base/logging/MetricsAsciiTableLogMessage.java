@@ -8,6 +8,7 @@ import static com.emc.mongoose.base.logging.LogUtil.getFailureRatioAnsiColorCode
 import com.emc.mongoose.base.item.op.OpType;
 import com.emc.mongoose.base.metrics.context.MetricsContext;
 import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshotHolder;
 import java.util.Date;
 import java.util.Set;
 import org.apache.commons.lang.text.StrBuilder;
@@ -20,16 +21,17 @@ public class MetricsAsciiTableLogMessage extends LogMessageBase {
 
 	private static final String LINE_SEPARATOR = System.lineSeparator();
 
-	public static final String TABLE_HEADER = "------------------------------------------------------------------------------------------------------------------------"
+	public static final String TABLE_HEADER = "-----------------------------------------------------------------------------------------------------------------------------------"
 					+ LINE_SEPARATOR
-					+ " Step Id  | Timestamp  |  Op  |     Concurrency     |       Count       | Step  |   Last Rate    |  Mean    |   Mean    "
+					+ " Step Id  | Timestamp  |  Op  |     Concurrency     |       Count       | Step  |   Last Rate    |  Mean    |   Mean    |  Last    "
 					+ LINE_SEPARATOR
-					+ " (last 10 |            | type |---------------------|-------------------| Time  |----------------| Latency  | Duration  "
+					+ " (last 10 |            | type |---------------------|-------------------| Time  |----------------| Latency  | Duration  |Med. Lat. "
 					+ LINE_SEPARATOR
-					+ " symbols) |yyMMddHHmmss|      | Current  |   Mean   |   Success  |Failed|  [s]  | [op/s] |[MB/s] |  [us]    |   [us]    "
+					+ " symbols) |yyMMddHHmmss|      | Current  |   Mean   |   Success  |Failed|  [s]  | [op/s] |[MB/s] |  [us]    |   [us]    |  [us]    "
 					+ LINE_SEPARATOR
-					+ "----------|------------|------|----------|----------|------------|------|-------|--------|-------|----------|-----------"
+					+ "----------|------------|------|----------|----------|------------|------|-------|--------|-------|----------|-----------|----------"
 					+ LINE_SEPARATOR;
+	private static final double LAST_INTERVAL_LATENCY_QUANTILE = 0.5;
 	public static final String TABLE_BORDER_VERTICAL = "|";
 	public static final int TABLE_HEADER_PERIOD = 20;
 	private static volatile long ROW_OUTPUT_COUNTER = 0;
@@ -50,7 +52,7 @@ public class MetricsAsciiTableLogMessage extends LogMessageBase {
 			OpType opType;
 			boolean stdOutColorFlag;
 			for (final var metricsCtx : metrics) {
-				snapshot = metricsCtx.lastSnapshot();
+				snapshot = AllMetricsSnapshotHolder.immutableCopyOf(metricsCtx.lastSnapshot());
 				if (snapshot != null) {
 					succCount = snapshot.successSnapshot().count();
 					failCount = snapshot.failsSnapshot().count();
@@ -117,6 +119,9 @@ public class MetricsAsciiTableLogMessage extends LogMessageBase {
 									.appendFixedWidthPadLeft((long) snapshot.latencySnapshot().mean(), 10, ' ')
 									.append(TABLE_BORDER_VERTICAL)
 									.appendFixedWidthPadLeft((long) snapshot.durationSnapshot().mean(), 11, ' ')
+									.append(TABLE_BORDER_VERTICAL)
+									.appendFixedWidthPadLeft(
+													snapshot.latencySnapshot().intervalQuantile(LAST_INTERVAL_LATENCY_QUANTILE), 10, ' ')
 									.appendNewLine();
 				}
 			}
@@ -7,6 +7,7 @@ import static com.emc.mongoose.base.env.DateUtil.FMT_DATE_ISO8601;
 
 import com.emc.mongoose.base.item.op.OpType;
 import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshotHolder;
 import com.emc.mongoose.base.metrics.snapshot.ConcurrencyMetricSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.DistributedAllMetricsSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshot;
@@ -18,13 +19,19 @@ import org.apache.logging.log4j.message.AsynchronouslyFormattable;
 @AsynchronouslyFormattable
 public final class MetricsCsvLogMessage extends LogMessageBase {
 
+	// the quantiles for the "LoQ", "Med" and "HiQ" columns of the header, both total and last interval ones
+	private static final double QUANTILE_LO = 0.25;
+	private static final double QUANTILE_MED = 0.5;
+	private static final double QUANTILE_HI = 0.75;
+
 	private final AllMetricsSnapshot snapshot;
 	private final OpType opType;
 	private final int concurrencyLimit;
 
 	public MetricsCsvLogMessage(
 					final AllMetricsSnapshot snapshot, final OpType opType, final int concurrencyLimit) {
-		this.snapshot = snapshot;
+		// formatted asynchronously, so the snapshot shouldn't be changed by the next refresh
+		this.snapshot = AllMetricsSnapshotHolder.immutableCopyOf(snapshot);
 		this.opType = opType;
 		this.concurrencyLimit = concurrencyLimit;
 	}
@@ -77,13 +84,37 @@ public final class MetricsCsvLogMessage extends LogMessageBase {
 						.append(',')
 						.append(durationSnapshot.min())
 						.append(',')
+						.append(durationSnapshot.quantile(QUANTILE_LO))
+						.append(',')
+						.append(durationSnapshot.quantile(QUANTILE_MED))
+						.append(',')
+						.append(durationSnapshot.quantile(QUANTILE_HI))
+						.append(',')
 						.append(durationSnapshot.max())
 						.append(',')
 						.append(latencySnapshot.mean())
 						.append(',')
 						.append(latencySnapshot.min())
 						.append(',')
+						.append(latencySnapshot.quantile(QUANTILE_LO))
+						.append(',')
+						.append(latencySnapshot.quantile(QUANTILE_MED))
+						.append(',')
+						.append(latencySnapshot.quantile(QUANTILE_HI))
+						.append(',')
 						.append(latencySnapshot.max())
+						.append(',')
+						.append(durationSnapshot.intervalQuantile(QUANTILE_LO))
+						.append(',')
+						.append(durationSnapshot.intervalQuantile(QUANTILE_MED))
+						.append(',')
+						.append(durationSnapshot.intervalQuantile(QUANTILE_HI))
+						.append(',')
+						.append(latencySnapshot.intervalQuantile(QUANTILE_LO))
+						.append(',')
+						.append(latencySnapshot.intervalQuantile(QUANTILE_MED))
+						.append(',')
+						.append(latencySnapshot.intervalQuantile(QUANTILE_HI))
 		;
 	}
 }
@@ -0,0 +1,73 @@
+package com.emc.mongoose.base.logging;
+
+import static com.emc.mongoose.base.env.DateUtil.FMT_DATE_ISO8601;
+
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.metrics.MetricsConstants;
+import java.util.Date;
+import org.apache.logging.log4j.message.AsynchronouslyFormattable;
+
+/**
+* The duration and latency lines per time slice, each line contains the timing values count per power of two bucket
+* (see {@link com.emc.mongoose.base.metrics.util.TimingHeatmap}). The bucket counts arrays are not changed after the
+* message is created.
+*/
+@AsynchronouslyFormattable
+public final class MetricsHeatmapCsvLogMessage extends LogMessageBase {
+
+	private final OpType opType;
+	private final int concurrencyLimit;
+	private final int nodeCount;
+	private final long elapsedTimeMillis;
+	private final long[] durCounts;
+	private final long[] latCounts;
+
+	public MetricsHeatmapCsvLogMessage(
+					final OpType opType,
+					final int concurrencyLimit,
+					final int nodeCount,
+					final long elapsedTimeMillis,
+					final long[] durCounts,
+					final long[] latCounts) {
+		this.opType = opType;
+		this.concurrencyLimit = concurrencyLimit;
+		this.nodeCount = nodeCount;
+		this.elapsedTimeMillis = elapsedTimeMillis;
+		this.durCounts = durCounts;
+		this.latCounts = latCounts;
+	}
+
+	@Override
+	public final void formatTo(final StringBuilder strb) {
+		final var dateTime = FMT_DATE_ISO8601.format(new Date());
+		formatLineTo(strb, dateTime, MetricsConstants.METRIC_NAME_DUR, durCounts);
+		strb.append(System.lineSeparator());
+		formatLineTo(strb, dateTime, MetricsConstants.METRIC_NAME_LAT, latCounts);
+	}
+
+	private void formatLineTo(
+					final StringBuilder strb, final String dateTime, final String metricName, final long[] counts) {
+		var countSum = 0L;
+		for (final var c : counts) {
+			countSum += c;
+		}
+		strb.append('"')
+						.append(dateTime)
+						.append('"')
+						.append(',')
+						.append(opType.name())
+						.append(',')
+						.append(concurrencyLimit)
+						.append(',')
+						.append(nodeCount)
+						.append(',')
+						.append(elapsedTimeMillis / 1000.0)
+						.append(',')
+						.append(metricName)
+						.append(',')
+						.append(countSum);
+		for (final var c : counts) {
+			strb.append(',').append(c);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.emc.mongoose.base.logging;
+
+import static com.emc.mongoose.base.env.DateUtil.FMT_DATE_ISO8601;
+
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.metrics.snapshot.StorageNodeMetricsSnapshot;
+import java.util.Date;
+import java.util.List;
+import org.apache.logging.log4j.message.AsynchronouslyFormattable;
+
+/** The line per storage node */
+@AsynchronouslyFormattable
+public final class MetricsStorageNodesCsvLogMessage extends LogMessageBase {
+
+	private static final double QUANTILE_LO = 0.25;
+	private static final double QUANTILE_MED = 0.5;
+	private static final double QUANTILE_HI = 0.75;
+
+	private final List<StorageNodeMetricsSnapshot> snapshots;
+	private final OpType opType;
+	private final int concurrencyLimit;
+
+	public MetricsStorageNodesCsvLogMessage(
+					final List<StorageNodeMetricsSnapshot> snapshots, final OpType opType, final int concurrencyLimit) {
+		// the list may be reused by the next metrics refresh
+		this.snapshots = List.copyOf(snapshots);
+		this.opType = opType;
+		this.concurrencyLimit = concurrencyLimit;
+	}
+
+	@Override
+	public final void formatTo(final StringBuilder strb) {
+		final var dateTime = FMT_DATE_ISO8601.format(new Date());
+		final var count = snapshots.size();
+		for (var i = 0; i < count; i++) {
+			final var snapshot = snapshots.get(i);
+			final var successSnapshot = snapshot.successSnapshot();
+			final var failsSnapshot = snapshot.failsSnapshot();
+			final var latencySnapshot = snapshot.latencySnapshot();
+			if (i > 0) {
+				strb.append(System.lineSeparator());
+			}
+			strb.append('"')
+							.append(dateTime)
+							.append('"')
+							.append(',')
+							.append(opType.name())
+							.append(',')
+							.append(concurrencyLimit)
+							.append(',')
+							.append(snapshot.nodeAddr())
+							.append(',')
+							.append(successSnapshot.count())
+							.append(',')
+							.append(failsSnapshot.count())
+							.append(',')
+							.append(successSnapshot.mean())
+							.append(',')
+							.append(successSnapshot.last())
+							.append(',')
+							.append(failsSnapshot.last())
+							.append(',')
+							.append(latencySnapshot.mean())
+							.append(',')
+							.append(latencySnapshot.min())
+							.append(',')
+							.append(latencySnapshot.quantile(QUANTILE_LO))
+							.append(',')
+							.append(latencySnapshot.quantile(QUANTILE_MED))
+							.append(',')
+							.append(latencySnapshot.quantile(QUANTILE_HI))
+							.append(',')
+							.append(latencySnapshot.max());
+		}
+	}
+}
@@ -2,13 +2,16 @@ package com.emc.mongoose.base.logging;
 
 import com.emc.mongoose.base.item.op.OpType;
 import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshotHolder;
 import com.emc.mongoose.base.metrics.snapshot.ConcurrencyMetricSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.DistributedAllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.OpTypeMetricsSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshot;
 import org.apache.logging.log4j.message.AsynchronouslyFormattable;
 
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static com.emc.mongoose.base.Constants.K;
@@ -30,7 +33,8 @@ public class MetricsTotalCsvLogMessage extends LogMessageBase {
     public MetricsTotalCsvLogMessage(
             final AllMetricsSnapshot snapshot, final OpType opType, final int concurrencyLimit,
             final Map<Double, Long> latencyQuantiles, final Map<Double, Long> durationQuantiles) {
-        this.snapshot = snapshot;
+        // formatted asynchronously, so the snapshot shouldn't be changed by the next refresh
+        this.snapshot = AllMetricsSnapshotHolder.immutableCopyOf(snapshot);
         this.opType = opType;
         this.concurrencyLimit = concurrencyLimit;
         this.latencies = latencyQuantiles;
@@ -63,17 +67,35 @@ public class MetricsTotalCsvLogMessage extends LogMessageBase {
         strb.append("LatencyMax[us]")
                 .append(lineSep);
 
+        final String timestamp = FMT_DATE_ISO8601.format(new Date());
+        appendRow(
+                strb, timestamp, opType, snapshot.successSnapshot(), snapshot.failsSnapshot(), snapshot.byteSnapshot(),
+                snapshot.durationSnapshot(), snapshot.latencySnapshot(), durations, latencies);
+        // the operation type breakdown rows follow the total one if the different operation types are mixed, the
+        // concurrency and the step duration are shared by all the operation types
+        for (final OpTypeMetricsSnapshot opTypeSnapshot : snapshot.opTypeSnapshots()) {
+            strb.append(lineSep);
+            appendRow(
+                    strb, timestamp, opTypeSnapshot.opType(), opTypeSnapshot.successSnapshot(),
+                    opTypeSnapshot.failsSnapshot(), opTypeSnapshot.byteSnapshot(), opTypeSnapshot.durationSnapshot(),
+                    opTypeSnapshot.latencySnapshot(), estimatedQuantiles(durations, opTypeSnapshot.durationSnapshot()),
+                    estimatedQuantiles(latencies, opTypeSnapshot.latencySnapshot()));
+        }
+    }
+
+    private void appendRow(
+            final StringBuilder strb, final String timestamp, final OpType rowOpType,
+            final RateMetricSnapshot successCountSnapshot, final RateMetricSnapshot failsSnapshot,
+            final RateMetricSnapshot byteCountSnapshot, final TimingMetricSnapshot durationSnapshot,
+            final TimingMetricSnapshot latencySnapshot, final Map<Double, Long> durationQuantiles,
+            final Map<Double, Long> latencyQuantiles) {
         final ConcurrencyMetricSnapshot concurrencySnapshot = snapshot.concurrencySnapshot();
-        final TimingMetricSnapshot durationSnapshot = snapshot.durationSnapshot();
-        final RateMetricSnapshot successCountSnapshot = snapshot.successSnapshot();
-        final RateMetricSnapshot byteCountSnapshot = snapshot.byteSnapshot();
-        final TimingMetricSnapshot latencySnapshot = snapshot.latencySnapshot();
 
         strb.append('"')
-                .append(FMT_DATE_ISO8601.format(new Date()))
+                .append(timestamp)
                 .append('"')
                 .append(',')
-                .append(opType.name())
+                .append(rowOpType.name())
                 .append(',')
                 .append(concurrencyLimit)
                 .append(',')
@@ -85,7 +107,7 @@ public class MetricsTotalCsvLogMessage extends LogMessageBase {
                 .append(',')
                 .append(successCountSnapshot.count())
                 .append(',')
-                .append(snapshot.failsSnapshot().count())
+                .append(failsSnapshot.count())
                 .append(',')
                 .append(byteCountSnapshot.count())
                 .append(',')
@@ -106,8 +128,8 @@ public class MetricsTotalCsvLogMessage extends LogMessageBase {
                 .append(durationSnapshot.min())
                 .append(',');
 
-        for (Double quantile : durations.keySet()) {
-            strb.append(durations.get(quantile))
+        for (Double quantile : durationQuantiles.keySet()) {
+            strb.append(durationQuantiles.get(quantile))
                     .append(',');
         }
 
@@ -118,12 +140,22 @@ public class MetricsTotalCsvLogMessage extends LogMessageBase {
                 .append(latencySnapshot.min())
                 .append(',');
 
-        for (Double quantile : latencies.keySet()) {
-            strb.append(latencies.get(quantile))
+        for (Double quantile : latencyQuantiles.keySet()) {
+            strb.append(latencyQuantiles.get(quantile))
                     .append(',');
         }
 
         strb.append(latencySnapshot.max())
         ;
     }
+
+    // the same quantiles as for the totals, but estimated from the operation type histogram
+    private static Map<Double, Long> estimatedQuantiles(
+            final Map<Double, Long> totalQuantiles, final TimingMetricSnapshot timingSnapshot) {
+        final Map<Double, Long> quantiles = new LinkedHashMap<>();
+        for (final Double quantile : totalQuantiles.keySet()) {
+            quantiles.put(quantile, timingSnapshot.quantile(quantile));
+        }
+        return quantiles;
+    }
 }
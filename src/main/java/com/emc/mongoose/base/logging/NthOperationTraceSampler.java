@@ -0,0 +1,28 @@
+package com.emc.mongoose.base.logging;
+
+import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.op.Operation;
+
+/**
+* Selects every Nth operation result handled by each thread. The counters are thread local to not make the storage
+* driver threads contend for a shared counter, so the overall share of the persisted traces is still 1/N.
+*/
+public final class NthOperationTraceSampler<I extends Item, O extends Operation<I>>
+				implements OperationTraceSampler<I, O> {
+
+	private final int n;
+	private final ThreadLocal<long[]> counter = ThreadLocal.withInitial(() -> new long[1]);
+
+	public NthOperationTraceSampler(final int n) {
+		if (n < 1) {
+			throw new IllegalArgumentException("The sample interval should be positive: " + n);
+		}
+		this.n = n;
+	}
+
+	@Override
+	public final boolean test(final O opResult) {
+		final var c = counter.get();
+		return 0 == c[0]++ % n;
+	}
+}
@@ -0,0 +1,506 @@
+package com.emc.mongoose.base.logging;
+
+import static com.emc.mongoose.base.Constants.MIB;
+import static com.emc.mongoose.base.item.io.OperationTraceBinaryFileOutput.MAGIC;
+
+import com.emc.mongoose.base.item.io.OperationTraceBinaryFileInput;
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.item.op.Operation;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+* Calculates the throughput and the duration/latency quantiles from the operation traces files grouped by the storage
+* node, the operation type, the status and the time bucket (by the request start time). Both the CSV (see {@link
+* OperationTraceRecord#format(StringBuilder)} for the columns layout) and the binary (see {@link
+* com.emc.mongoose.base.item.io.OperationTraceBinaryFileOutput}) files are supported. The CSV files are memory mapped
+* and parsed in the parallel chunks using the fork-join pool, each chunk is accounted into its own accumulators which
+* are merged when the chunks are joined. The binary files are read sequentially, one task per file.
+*/
+public final class OperationTraceAnalyzer {
+
+	/** The default max size of the CSV file chunk parsed by a single task */
+	public static final long CHUNK_SIZE = 0x400_0000;
+	private static final int LINE_TAIL_READ_SIZE = 0x1000;
+	private static final int FIELD_COUNT = 9;
+	private static final DateTimeFormatter FORMAT_TIME_BUCKET = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+	private OperationTraceAnalyzer() {}
+
+	/** The per group accumulators. Not thread safe. */
+	public static final class Result {
+
+		private final long timeBucketSize;
+		private final Map<String, OperationTraceStats> byNode = new HashMap<>();
+		private final Map<Integer, OperationTraceStats> byOpType = new HashMap<>();
+		private final Map<Integer, OperationTraceStats> byStatus = new HashMap<>();
+		private final Map<Long, OperationTraceStats> byTimeBucket = new HashMap<>();
+		private final OperationTraceStats total = new OperationTraceStats();
+		private long skippedCount = 0;
+		// the traces are mostly ordered by the time and by the node, so the last groups are cached
+		private String lastNode = null;
+		private OperationTraceStats lastNodeStats = null;
+		private long lastTimeBucket = Long.MIN_VALUE;
+		private OperationTraceStats lastTimeBucketStats = null;
+
+		/** @param timeBucketSize the time bucket size, microseconds */
+		public Result(final long timeBucketSize) {
+			if (timeBucketSize < 1) {
+				throw new IllegalArgumentException("The time bucket size should be positive: " + timeBucketSize);
+			}
+			this.timeBucketSize = timeBucketSize;
+		}
+
+		public final void accept(
+						final String storageNode,
+						final int opTypeCode,
+						final int statusCode,
+						final long reqTimeStart,
+						final long duration,
+						final long latency,
+						final long transferSize) {
+			total.accept(reqTimeStart, duration, latency, transferSize);
+			final var node = null == storageNode ? "" : storageNode;
+			if (!node.equals(lastNode)) {
+				lastNode = node;
+				lastNodeStats = byNode.computeIfAbsent(node, n -> new OperationTraceStats());
+			}
+			lastNodeStats.accept(reqTimeStart, duration, latency, transferSize);
+			byOpType
+							.computeIfAbsent(opTypeCode, c -> new OperationTraceStats())
+							.accept(reqTimeStart, duration, latency, transferSize);
+			byStatus
+							.computeIfAbsent(statusCode, c -> new OperationTraceStats())
+							.accept(reqTimeStart, duration, latency, transferSize);
+			if (reqTimeStart > 0) {
+				final var timeBucket = reqTimeStart / timeBucketSize;
+				if (timeBucket != lastTimeBucket) {
+					lastTimeBucket = timeBucket;
+					lastTimeBucketStats = byTimeBucket.computeIfAbsent(timeBucket, b -> new OperationTraceStats());
+				}
+				lastTimeBucketStats.accept(reqTimeStart, duration, latency, transferSize);
+			}
+		}
+
+		final void skip() {
+			skippedCount++;
+		}
+
+		public final Result merge(final Result other) {
+			total.merge(other.total);
+			skippedCount += other.skippedCount;
+			other.byNode.forEach((k, v) -> byNode.merge(k, v, OperationTraceStats::merge));
+			other.byOpType.forEach((k, v) -> byOpType.merge(k, v, OperationTraceStats::merge));
+			other.byStatus.forEach((k, v) -> byStatus.merge(k, v, OperationTraceStats::merge));
+			other.byTimeBucket.forEach((k, v) -> byTimeBucket.merge(k, v, OperationTraceStats::merge));
+			lastNode = null;
+			lastTimeBucket = Long.MIN_VALUE;
+			return this;
+		}
+
+		public final OperationTraceStats total() {
+			return total;
+		}
+
+		/** @return the count of the lines which are not the operation trace records (e.g. the header or the garbage) */
+		public final long skippedCount() {
+			return skippedCount;
+		}
+
+		public final Map<String, OperationTraceStats> byNode() {
+			return new TreeMap<>(byNode);
+		}
+
+		public final Map<String, OperationTraceStats> byOpType() {
+			final Map<String, OperationTraceStats> result = new TreeMap<>();
+			final var opTypes = OpType.values();
+			byOpType.forEach(
+							(code, stats) -> result.put(
+											code >= 0 && code < opTypes.length ? opTypes[code].name() : code.toString(), stats));
+			return result;
+		}
+
+		public final Map<String, OperationTraceStats> byStatus() {
+			final Map<String, OperationTraceStats> result = new TreeMap<>();
+			final var statuses = Operation.Status.values();
+			byStatus.forEach(
+							(code, stats) -> result.put(
+											code >= 0 && code < statuses.length ? statuses[code].name() : code.toString(), stats));
+			return result;
+		}
+
+		/** @return the accumulators by the time bucket start timestamp, microseconds */
+		public final Map<Long, OperationTraceStats> byTimeBucket() {
+			final Map<Long, OperationTraceStats> result = new TreeMap<>();
+			byTimeBucket.forEach((bucket, stats) -> result.put(bucket * timeBucketSize, stats));
+			return result;
+		}
+
+		public final long timeBucketSize() {
+			return timeBucketSize;
+		}
+	}
+
+	/**
+	* @param filePaths the operation traces files, CSV or binary
+	* @param timeBucketSize the time bucket size, microseconds
+	* @param pool the fork-join pool to execute the parsing tasks
+	* @return the merged accumulators for all the given files
+	* @throws IOException if failed to open or to read any of the files
+	*/
+	public static Result analyze(final List<Path> filePaths, final long timeBucketSize, final ForkJoinPool pool)
+					throws IOException {
+		return analyze(filePaths, timeBucketSize, CHUNK_SIZE, pool);
+	}
+
+	static Result analyze(
+					final List<Path> filePaths, final long timeBucketSize, final long chunkSize, final ForkJoinPool pool)
+					throws IOException {
+		final List<FileChannel> channels = new ArrayList<>(filePaths.size());
+		try {
+			final List<ForkJoinTask<Result>> tasks = new ArrayList<>(filePaths.size());
+			for (final var filePath : filePaths) {
+				final var channel = FileChannel.open(filePath, StandardOpenOption.READ);
+				channels.add(channel);
+				final ForkJoinTask<Result> task;
+				if (isBinary(channel)) {
+					task = new BinaryFileTask(filePath, timeBucketSize);
+				} else {
+					task = new CsvChunkTask(channel, 0, channel.size(), chunkSize, timeBucketSize);
+				}
+				tasks.add(pool.submit(task));
+			}
+			final var result = new Result(timeBucketSize);
+			for (final var task : tasks) {
+				try {
+					result.merge(task.join());
+				} catch (final UncheckedIOException e) {
+					throw e.getCause();
+				}
+			}
+			return result;
+		} finally {
+			for (final var channel : channels) {
+				channel.close();
+			}
+		}
+	}
+
+	private static boolean isBinary(final FileChannel channel) throws IOException {
+		final var buff = ByteBuffer.allocate(Long.BYTES);
+		while (buff.hasRemaining()) {
+			if (channel.read(buff, buff.position()) < 0) {
+				return false;
+			}
+		}
+		return MAGIC == buff.getLong(0);
+	}
+
+	private static final class BinaryFileTask extends RecursiveTask<Result> {
+
+		private final Path filePath;
+		private final long timeBucketSize;
+
+		private BinaryFileTask(final Path filePath, final long timeBucketSize) {
+			this.filePath = filePath;
+			this.timeBucketSize = timeBucketSize;
+		}
+
+		@Override
+		protected final Result compute() {
+			final var result = new Result(timeBucketSize);
+			try (final var in = new OperationTraceBinaryFileInput(filePath)) {
+				OperationTraceRecord<?, ?> record;
+				while (null != (record = in.get())) {
+					result.accept(
+									record.storageNode(),
+									record.opTypeCode(),
+									record.statusCode(),
+									record.reqTimeStart(),
+									record.duration(),
+									record.respLatency(),
+									record.transferSize());
+				}
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return result;
+		}
+	}
+
+	/**
+	* Parses the lines starting within the given range of the CSV file. The range is split in halves while it's larger
+	* than the chunk size. The line which starts before the range is left to the preceding chunk, the last line
+	* which ends after the range is read up to its end.
+	*/
+	private static final class CsvChunkTask extends RecursiveTask<Result> {
+
+		private final FileChannel channel;
+		private final long start;
+		private final long end;
+		private final long chunkSize;
+		private final long timeBucketSize;
+		private final long[] fieldValues = new long[FIELD_COUNT];
+		private byte[] lastNodeBytes = null;
+		private String lastNode = null;
+
+		private CsvChunkTask(
+						final FileChannel channel,
+						final long start,
+						final long end,
+						final long chunkSize,
+						final long timeBucketSize) {
+			this.channel = channel;
+			this.start = start;
+			this.end = end;
+			this.chunkSize = chunkSize;
+			this.timeBucketSize = timeBucketSize;
+		}
+
+		@Override
+		protected final Result compute() {
+			if (end - start > chunkSize) {
+				final var middle = start + (end - start) / 2;
+				final var head = new CsvChunkTask(channel, start, middle, chunkSize, timeBucketSize);
+				head.fork();
+				final var result = new CsvChunkTask(channel, middle, end, chunkSize, timeBucketSize).compute();
+				return head.join().merge(result);
+			}
+			final var result = new Result(timeBucketSize);
+			try {
+				parseChunk(result);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return result;
+		}
+
+		private void parseChunk(final Result result) throws IOException {
+			// map the preceding byte also to check if the chunk starts with the new line
+			final var mapStart = start > 0 ? start - 1 : 0;
+			final var buff = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, end - mapStart);
+			final var limit = buff.limit();
+			var pos = 0;
+			if (start > 0) {
+				while (pos < limit && '\n' != buff.get(pos)) {
+					pos++;
+				}
+				pos++;
+			}
+			var lineStart = pos;
+			for (; pos < limit; pos++) {
+				if ('\n' == buff.get(pos)) {
+					parseLine(buff, lineStart, pos, result);
+					lineStart = pos + 1;
+				}
+			}
+			if (lineStart < limit) {
+				final var tail = lineTail(buff, lineStart);
+				parseLine(tail, 0, tail.limit(), result);
+			}
+		}
+
+		/** @return the last line which starts within the chunk but ends within the next one */
+		private ByteBuffer lineTail(final ByteBuffer buff, final int lineStart) throws IOException {
+			final var lineBytes = new ByteArrayOutputStream();
+			for (var i = lineStart; i < buff.limit(); i++) {
+				lineBytes.write(buff.get(i));
+			}
+			final var readBuff = ByteBuffer.allocate(LINE_TAIL_READ_SIZE);
+			var position = end;
+			int n;
+			while (0 < (n = channel.read(readBuff, position))) {
+				for (var i = 0; i < n; i++) {
+					final var b = readBuff.get(i);
+					if ('\n' == b) {
+						return ByteBuffer.wrap(lineBytes.toByteArray());
+					}
+					lineBytes.write(b);
+				}
+				position += n;
+				readBuff.clear();
+			}
+			return ByteBuffer.wrap(lineBytes.toByteArray());
+		}
+
+		private void parseLine(final ByteBuffer buff, final int from, final int to, final Result result) {
+			var lineEnd = to;
+			if (lineEnd > from && '\r' == buff.get(lineEnd - 1)) {
+				lineEnd--;
+			}
+			if (lineEnd == from) {
+				return;
+			}
+			// the storage node field
+			var pos = from;
+			while (pos < lineEnd && ',' != buff.get(pos)) {
+				pos++;
+			}
+			if (pos == lineEnd) {
+				result.skip();
+				return;
+			}
+			final var node = storageNode(buff, from, pos);
+			// the item path field is not used
+			pos++;
+			while (pos < lineEnd && ',' != buff.get(pos)) {
+				pos++;
+			}
+			// the numeric fields
+			var fieldIndex = 2;
+			long value = -1;
+			byte b;
+			while (pos < lineEnd) {
+				pos++;
+				value = -1;
+				while (pos < lineEnd && ',' != (b = buff.get(pos))) {
+					if (b < '0' || b > '9') {
+						result.skip();
+						return;
+					}
+					value = (value < 0 ? 0 : value * 10) + (b - '0');
+					pos++;
+				}
+				if (fieldIndex == FIELD_COUNT) {
+					result.skip();
+					return;
+				}
+				fieldValues[fieldIndex] = value;
+				fieldIndex++;
+			}
+			if (fieldIndex < FIELD_COUNT) {
+				result.skip();
+				return;
+			}
+			result.accept(
+							node,
+							(int) fieldValues[2],
+							(int) fieldValues[3],
+							fieldValues[4],
+							fieldValues[5],
+							fieldValues[6],
+							fieldValues[8]);
+		}
+
+		private String storageNode(final ByteBuffer buff, final int from, final int to) {
+			final var len = to - from;
+			if (lastNodeBytes != null && lastNodeBytes.length == len) {
+				var i = 0;
+				while (i < len && lastNodeBytes[i] == buff.get(from + i)) {
+					i++;
+				}
+				if (i == len) {
+					return lastNode;
+				}
+			}
+			final var nodeBytes = new byte[len];
+			for (var i = 0; i < len; i++) {
+				nodeBytes[i] = buff.get(from + i);
+			}
+			lastNodeBytes = nodeBytes;
+			lastNode = len > 0 ? new String(nodeBytes, StandardCharsets.UTF_8) : null;
+			return lastNode;
+		}
+	}
+
+	/** Appends the text tables for all the groupings to the given destination */
+	public static void format(final Result result, final StringBuilder strb) {
+		final var total = result.total();
+		strb
+						.append("Operation traces analysis: ")
+						.append(total.count())
+						.append(" records, ")
+						.append(result.skippedCount())
+						.append(" lines skipped\n");
+		formatTable("Total", Map.of("all", total), -1, strb);
+		formatTable("Storage node", result.byNode(), -1, strb);
+		formatTable("Operation type", result.byOpType(), -1, strb);
+		formatTable("Status", result.byStatus(), -1, strb);
+		final Map<String, OperationTraceStats> byTimeBucket = new TreeMap<>();
+		result
+						.byTimeBucket()
+						.forEach(
+										(timeBucket, stats) -> byTimeBucket.put(
+														FORMAT_TIME_BUCKET.format(
+																		LocalDateTime.ofInstant(
+																						Instant.ofEpochMilli(TimeUnit.MICROSECONDS.toMillis(timeBucket)),
+																						ZoneId.systemDefault())),
+														stats));
+		formatTable("Time bucket", byTimeBucket, result.timeBucketSize(), strb);
+	}
+
+	/**
+	* @param elapsedTime the elapsed time to calculate the rates, microseconds, negative to use the time range of each
+	*     group
+	*/
+	private static void formatTable(
+					final String groupName,
+					final Map<String, OperationTraceStats> groups,
+					final long elapsedTime,
+					final StringBuilder strb) {
+		if (groups.isEmpty()) {
+			return;
+		}
+		final var groupColWidth = Math.max(
+						groupName.length(), groups.keySet().stream().mapToInt(String::length).max().orElse(0));
+		strb
+						.append('\n')
+						.append(String.format("%-" + groupColWidth + "s", groupName))
+						.append(
+										String.format(
+														"|%12s|%11s|%10s|%10s|%10s|%10s|%10s|%10s|%10s|%10s|%10s%n",
+														"Count",
+														"TP[op/s]",
+														"BW[MB/s]",
+														"DurAvg[us]",
+														"DurMed[us]",
+														"Dur99[us]",
+														"Dur999[us]",
+														"LatAvg[us]",
+														"LatMed[us]",
+														"Lat99[us]",
+														"Lat999[us]"));
+		groups.forEach(
+						(group, stats) -> {
+							final var t = elapsedTime > 0 ? elapsedTime : stats.elapsedTime();
+							final var elapsedSecs = (double) t / TimeUnit.SECONDS.toMicros(1);
+							final var durSnapshot = stats.durationSnapshot();
+							final var latSnapshot = stats.latencySnapshot();
+							strb
+											.append(String.format("%-" + groupColWidth + "s", group))
+											.append(
+															String.format(
+																			"|%12d|%11.3f|%10.3f|%10d|%10d|%10d|%10d|%10d|%10d|%10d|%10d%n",
+																			stats.count(),
+																			elapsedSecs > 0 ? stats.count() / elapsedSecs : 0.0,
+																			elapsedSecs > 0 ? stats.transferSizeSum() / elapsedSecs / MIB : 0.0,
+																			stats.durationMean(),
+																			durSnapshot.quantile(0.5),
+																			durSnapshot.quantile(0.99),
+																			durSnapshot.quantile(0.999),
+																			stats.latencyMean(),
+																			latSnapshot.quantile(0.5),
+																			latSnapshot.quantile(0.99),
+																			latSnapshot.quantile(0.999)));
+						});
+	}
+}
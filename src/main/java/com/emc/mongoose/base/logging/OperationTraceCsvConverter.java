@@ -0,0 +1,61 @@
+package com.emc.mongoose.base.logging;
+
+import com.emc.mongoose.base.item.io.OperationTraceBinaryFileInput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+* Converts the binary operation traces files (see {@link
+* com.emc.mongoose.base.item.io.OperationTraceBinaryFileOutput}) to the operation traces CSV layout. Usage:
+*
+* <pre>
+* java -cp mongoose.jar com.emc.mongoose.base.logging.OperationTraceCsvConverter op.trace.bin... > op.trace.csv
+* </pre>
+*/
+public final class OperationTraceCsvConverter {
+
+	private static final int OUTPUT_BATCH_SIZE = 0x1000;
+
+	private OperationTraceCsvConverter() {}
+
+	/**
+	* @param binFilePath the binary operation traces file
+	* @param out the destination for the CSV lines, not closed after the conversion
+	* @return the count of the converted records
+	*/
+	public static long convert(final Path binFilePath, final Writer out) throws IOException {
+		long count = 0;
+		final var strb = new StringBuilder();
+		try (final var in = new OperationTraceBinaryFileInput(binFilePath)) {
+			OperationTraceRecord<?, ?> record;
+			while (null != (record = in.get())) {
+				record.format(strb);
+				if (++count % OUTPUT_BATCH_SIZE == 0) {
+					out.append(strb);
+					strb.setLength(0);
+				}
+			}
+		}
+		out.append(strb);
+		out.flush();
+		return count;
+	}
+
+	public static void main(final String... args) throws IOException {
+		if (args.length == 0) {
+			System.err.println(
+							"Usage: java -cp mongoose.jar " + OperationTraceCsvConverter.class.getName() + " FILE...");
+			System.exit(1);
+		}
+		final var out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+		for (final var arg : args) {
+			convert(Paths.get(arg), out);
+		}
+		out.flush();
+	}
+}
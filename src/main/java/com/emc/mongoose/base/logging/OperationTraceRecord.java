@@ -3,9 +3,11 @@ package com.emc.mongoose.base.logging;
 import com.emc.mongoose.base.item.Item;
 import com.emc.mongoose.base.item.op.Operation;
 import com.emc.mongoose.base.item.op.data.DataOperation;
+import java.io.Serializable;
+import java.util.Objects;
 
 /** Created by andrey on 24.07.17. */
-public final class OperationTraceRecord<I extends Item, O extends Operation<I>> {
+public final class OperationTraceRecord<I extends Item, O extends Operation<I>> implements Serializable {
 
 	protected final String storageNode;
 	protected final String itemPath;
@@ -47,6 +49,63 @@ public final class OperationTraceRecord<I extends Item, O extends Operation<I>>
 		}
 	}
 
+	public OperationTraceRecord(
+					final String storageNode,
+					final String itemPath,
+					final int opTypeCode,
+					final int statusCode,
+					final long reqTimeStart,
+					final long duration,
+					final long respLatency,
+					final long dataLatency,
+					final long transferSize) {
+		this.storageNode = storageNode;
+		this.itemPath = itemPath;
+		this.opTypeCode = opTypeCode;
+		this.statusCode = statusCode;
+		this.reqTimeStart = reqTimeStart;
+		this.duration = duration;
+		this.respLatency = respLatency;
+		this.dataLatency = dataLatency;
+		this.transferSize = transferSize;
+	}
+
+	public final String storageNode() {
+		return storageNode;
+	}
+
+	public final String itemPath() {
+		return itemPath;
+	}
+
+	public final int opTypeCode() {
+		return opTypeCode;
+	}
+
+	public final int statusCode() {
+		return statusCode;
+	}
+
+	public final long reqTimeStart() {
+		return reqTimeStart;
+	}
+
+	public final long duration() {
+		return duration;
+	}
+
+	public final long respLatency() {
+		return respLatency;
+	}
+
+	public final long dataLatency() {
+		return dataLatency;
+	}
+
+	public final long transferSize() {
+		return transferSize;
+	}
+
 	public final void format(final StringBuilder strb) {
 		if (storageNode != null) {
 			strb.append(storageNode);
@@ -85,4 +144,29 @@ public final class OperationTraceRecord<I extends Item, O extends Operation<I>>
 		}
 		strb.append('\n');
 	}
+
+	@Override
+	public final boolean equals(final Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof OperationTraceRecord)) {
+			return false;
+		}
+		final OperationTraceRecord<?, ?> that = (OperationTraceRecord<?, ?>) other;
+		return opTypeCode == that.opTypeCode
+						&& statusCode == that.statusCode
+						&& reqTimeStart == that.reqTimeStart
+						&& duration == that.duration
+						&& respLatency == that.respLatency
+						&& dataLatency == that.dataLatency
+						&& transferSize == that.transferSize
+						&& Objects.equals(storageNode, that.storageNode)
+						&& Objects.equals(itemPath, that.itemPath);
+	}
+
+	@Override
+	public final int hashCode() {
+		return Objects.hash(storageNode, itemPath, opTypeCode, reqTimeStart, duration);
+	}
 }
@@ -0,0 +1,22 @@
+package com.emc.mongoose.base.logging;
+
+import java.util.List;
+import org.apache.logging.log4j.message.AsynchronouslyFormattable;
+
+/** The line per operation trace record in the operation traces format, the records list should not be changed */
+@AsynchronouslyFormattable
+public final class OperationTraceRecordsCsvLogMessage extends LogMessageBase {
+
+	private final List<OperationTraceRecord<?, ?>> opTraceRecords;
+
+	public OperationTraceRecordsCsvLogMessage(final List<OperationTraceRecord<?, ?>> opTraceRecords) {
+		this.opTraceRecords = opTraceRecords;
+	}
+
+	@Override
+	public final void formatTo(final StringBuilder strb) {
+		for (final var opTraceRecord : opTraceRecords) {
+			opTraceRecord.format(strb);
+		}
+	}
+}
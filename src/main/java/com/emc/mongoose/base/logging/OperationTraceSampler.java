@@ -0,0 +1,66 @@
+package com.emc.mongoose.base.logging;
+
+import com.emc.mongoose.base.config.TimeUtil;
+import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.op.Operation;
+import com.emc.mongoose.base.metrics.context.MetricsContext;
+import com.github.akurilov.commons.reflection.TypeUtil;
+import com.github.akurilov.confuse.Config;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+* Decides which operation traces should be persisted. The decision is made before any trace record is built, so the
+* rejected operation results cost nothing but the decision itself. The implementations are invoked concurrently by the
+* storage driver threads.
+*/
+public interface OperationTraceSampler<I extends Item, O extends Operation<I>> {
+
+	String MODE_ALL = "all";
+	String MODE_NTH = "nth";
+	String MODE_RESERVOIR = "reservoir";
+	String MODE_FAIL = "fail";
+	String MODE_TAIL = "tail";
+
+	/**
+	* @param opResult the operation result
+	* @return true if the operation trace should be persisted right away
+	*/
+	boolean test(final O opResult);
+
+	/** Pass the deferred traces to the destination, if any. Invoked when the load step is stopped. */
+	default void flush() {}
+
+	/**
+	* @param sampleConfig the "output-metrics-trace-sample" configuration
+	* @param metricsCtx the metrics context to get the current duration quantile from
+	* @param recordsOutput the destination for the deferred trace records (reservoir mode)
+	* @return the sampler, null if all the traces should be persisted
+	* @throws IllegalArgumentException if the configuration is invalid
+	*/
+	static <I extends Item, O extends Operation<I>> OperationTraceSampler<I, O> instance(
+					final Config sampleConfig,
+					final MetricsContext metricsCtx,
+					final Consumer<List<OperationTraceRecord<?, ?>>> recordsOutput) {
+		final var mode = sampleConfig.stringVal("mode");
+		if (null == mode || MODE_ALL.equalsIgnoreCase(mode)) {
+			return null;
+		} else if (MODE_NTH.equalsIgnoreCase(mode)) {
+			return new NthOperationTraceSampler<>(sampleConfig.intVal("nth"));
+		} else if (MODE_RESERVOIR.equalsIgnoreCase(mode)) {
+			final Object periodRaw = sampleConfig.val("period");
+			final long periodSec = periodRaw instanceof String
+							? TimeUtil.getTimeInSeconds((String) periodRaw)
+							: TypeUtil.typeConvert(periodRaw, long.class);
+			return new ReservoirOperationTraceSampler<>(
+							sampleConfig.intVal("reservoir"), TimeUnit.SECONDS.toMillis(periodSec), recordsOutput);
+		} else if (MODE_FAIL.equalsIgnoreCase(mode)) {
+			return new FailOperationTraceSampler<>();
+		} else if (MODE_TAIL.equalsIgnoreCase(mode)) {
+			return new TailOperationTraceSampler<>(sampleConfig.longVal("threshold"), metricsCtx);
+		} else {
+			throw new IllegalArgumentException("Unknown operation traces sample mode: \"" + mode + "\"");
+		}
+	}
+}
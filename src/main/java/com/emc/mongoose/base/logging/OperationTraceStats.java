@@ -0,0 +1,118 @@
+package com.emc.mongoose.base.logging;
+
+import static com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot.bucketIndex;
+
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshotImpl;
+import java.util.Arrays;
+
+/**
+* Accumulates the operation trace values of a group of the operations: the count, the transferred size, the time range
+* and the log-linear histograms of the durations and latencies. The histograms are dense and grow up to the max bucket
+* index met, so the accumulators may be merged without the precision loss. Not thread safe.
+*/
+public final class OperationTraceStats {
+
+	private static final int BUCKET_COUNT_INITIAL = 0x400;
+
+	private long count = 0;
+	private long transferSizeSum = 0;
+	private long timeStartMin = Long.MAX_VALUE;
+	private long timeEndMax = Long.MIN_VALUE;
+	private long durationCount = 0;
+	private long durationSum = 0;
+	private long[] durationCounts = new long[BUCKET_COUNT_INITIAL];
+	private long latencyCount = 0;
+	private long latencySum = 0;
+	private long[] latencyCounts = new long[BUCKET_COUNT_INITIAL];
+
+	/**
+	* @param reqTimeStart the request start timestamp, microseconds, negative if unknown
+	* @param duration the operation duration, microseconds, negative if unknown
+	* @param latency the response latency, microseconds, negative if unknown
+	* @param transferSize the transferred byte count, negative if unknown
+	*/
+	public final void accept(final long reqTimeStart, final long duration, final long latency, final long transferSize) {
+		count++;
+		if (transferSize > 0) {
+			transferSizeSum += transferSize;
+		}
+		if (reqTimeStart > 0) {
+			if (reqTimeStart < timeStartMin) {
+				timeStartMin = reqTimeStart;
+			}
+			final var timeEnd = duration > 0 ? reqTimeStart + duration : reqTimeStart;
+			if (timeEnd > timeEndMax) {
+				timeEndMax = timeEnd;
+			}
+		}
+		if (duration >= 0) {
+			durationCount++;
+			durationSum += duration;
+			durationCounts = increment(durationCounts, bucketIndex(duration));
+		}
+		if (latency >= 0) {
+			latencyCount++;
+			latencySum += latency;
+			latencyCounts = increment(latencyCounts, bucketIndex(latency));
+		}
+	}
+
+	/** Adds the other accumulator values to this one */
+	public final OperationTraceStats merge(final OperationTraceStats other) {
+		count += other.count;
+		transferSizeSum += other.transferSizeSum;
+		timeStartMin = Math.min(timeStartMin, other.timeStartMin);
+		timeEndMax = Math.max(timeEndMax, other.timeEndMax);
+		durationCount += other.durationCount;
+		durationSum += other.durationSum;
+		durationCounts = add(durationCounts, other.durationCounts);
+		latencyCount += other.latencyCount;
+		latencySum += other.latencySum;
+		latencyCounts = add(latencyCounts, other.latencyCounts);
+		return this;
+	}
+
+	private static long[] increment(final long[] counts, final int i) {
+		final var c = i < counts.length ? counts : Arrays.copyOf(counts, Math.max(i + 1, counts.length << 1));
+		c[i]++;
+		return c;
+	}
+
+	private static long[] add(final long[] dst, final long[] src) {
+		final var c = src.length > dst.length ? Arrays.copyOf(dst, src.length) : dst;
+		for (var i = 0; i < src.length; i++) {
+			c[i] += src[i];
+		}
+		return c;
+	}
+
+	public final long count() {
+		return count;
+	}
+
+	public final long transferSizeSum() {
+		return transferSizeSum;
+	}
+
+	/** @return the time between the earliest operation start and the latest operation end, microseconds */
+	public final long elapsedTime() {
+		return timeEndMax > timeStartMin ? timeEndMax - timeStartMin : 0;
+	}
+
+	public final long durationMean() {
+		return durationCount > 0 ? durationSum / durationCount : 0;
+	}
+
+	public final LogLinearHistogramSnapshot durationSnapshot() {
+		return new LogLinearHistogramSnapshotImpl(durationCounts);
+	}
+
+	public final long latencyMean() {
+		return latencyCount > 0 ? latencySum / latencyCount : 0;
+	}
+
+	public final LogLinearHistogramSnapshot latencySnapshot() {
+		return new LogLinearHistogramSnapshotImpl(latencyCounts);
+	}
+}
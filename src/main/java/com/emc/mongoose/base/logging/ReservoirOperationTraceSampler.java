@@ -0,0 +1,131 @@
+package com.emc.mongoose.base.logging;
+
+import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.op.Operation;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+* Keeps the uniform random sample of the fixed size from the operation results handled during each time period (the
+* "reservoir sampling" algorithm) and passes the sampled trace records to the destination when the period ends. The
+* trace record is built only when the operation result gets into the reservoir: the operation result instance may be
+* reused for the next operation (recycled) before the period ends. The expected count of the records built per period
+* is about size * (1 + ln(count / size)), where the count is the count of the operation results handled. The completed
+* period records are passed to the destination only after all the threads which were writing them are done.
+*/
+public final class ReservoirOperationTraceSampler<I extends Item, O extends Operation<I>>
+				implements OperationTraceSampler<I, O> {
+
+	private static final class Window {
+
+		private final long startTimeMillis;
+		private final AtomicLong count = new AtomicLong(0);
+		// the count of the threads which may still write into the records
+		private final AtomicInteger writers = new AtomicInteger(0);
+		private final AtomicReferenceArray<OperationTraceRecord<?, ?>> records;
+
+		private Window(final long startTimeMillis, final int size) {
+			this.startTimeMillis = startTimeMillis;
+			this.records = new AtomicReferenceArray<>(size);
+		}
+	}
+
+	private final int size;
+	private final long periodMillis;
+	private final Consumer<List<OperationTraceRecord<?, ?>>> recordsOutput;
+	private final AtomicReference<Window> window;
+
+	/**
+	* @param size the max count of the traces to persist per period
+	* @param periodMillis the period, milliseconds
+	* @param recordsOutput the destination for the sampled trace records, invoked by the thread which completes the period
+	*/
+	public ReservoirOperationTraceSampler(
+					final int size,
+					final long periodMillis,
+					final Consumer<List<OperationTraceRecord<?, ?>>> recordsOutput) {
+		if (size < 1) {
+			throw new IllegalArgumentException("The reservoir size should be positive: " + size);
+		}
+		if (periodMillis < 1) {
+			throw new IllegalArgumentException("The reservoir period should be positive: " + periodMillis);
+		}
+		this.size = size;
+		this.periodMillis = periodMillis;
+		this.recordsOutput = recordsOutput;
+		this.window = new AtomicReference<>(new Window(System.currentTimeMillis(), size));
+	}
+
+	@Override
+	public final boolean test(final O opResult) {
+		final var w = enterWindow();
+		try {
+			final var n = w.count.getAndIncrement();
+			if (n < size) {
+				w.records.set((int) n, new OperationTraceRecord<>(opResult));
+			} else {
+				final var i = ThreadLocalRandom.current().nextLong(n + 1);
+				if (i < size) {
+					w.records.set((int) i, new OperationTraceRecord<>(opResult));
+				}
+			}
+		} finally {
+			w.writers.decrementAndGet();
+		}
+		return false;
+	}
+
+	/**
+	* Registers the calling thread as the writer of the current window, the window is output by the thread which
+	* replaces it only after the writers count drops to zero
+	*/
+	private Window enterWindow() {
+		while (true) {
+			final var w = window.get();
+			final var currentTimeMillis = System.currentTimeMillis();
+			if (currentTimeMillis - w.startTimeMillis >= periodMillis) {
+				if (window.compareAndSet(w, new Window(currentTimeMillis, size))) {
+					output(w);
+				}
+				continue;
+			}
+			w.writers.incrementAndGet();
+			// the window may be replaced before the writer is registered
+			if (w == window.get()) {
+				return w;
+			}
+			w.writers.decrementAndGet();
+		}
+	}
+
+	@Override
+	public final void flush() {
+		output(window.getAndSet(new Window(System.currentTimeMillis(), size)));
+	}
+
+	private void output(final Window w) {
+		// no new writers may enter the replaced window, the current ones finish in a moment
+		while (w.writers.get() > 0) {
+			Thread.onSpinWait();
+		}
+		final List<OperationTraceRecord<?, ?>> records = new ArrayList<>(size);
+		OperationTraceRecord<?, ?> record;
+		for (var i = 0; i < size; i++) {
+			record = w.records.get(i);
+			if (record != null) {
+				records.add(record);
+			}
+		}
+		if (!records.isEmpty()) {
+			records.sort(Comparator.comparingLong(OperationTraceRecord::reqTimeStart));
+			recordsOutput.accept(records);
+		}
+	}
+}
@@ -6,6 +6,9 @@ import static com.emc.mongoose.base.Constants.MIB;
 
 import com.emc.mongoose.base.item.op.OpType;
 import com.emc.mongoose.base.metrics.snapshot.DistributedAllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.InjectorMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.OpTypeMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshot;
 import com.github.akurilov.commons.system.SizeInBytes;
 import org.apache.logging.log4j.message.AsynchronouslyFormattable;
 
@@ -23,6 +26,7 @@ public class StepResultsMetricsLogMessage extends LogMessageBase {
 	private final Map<Double, Long> durations;
 	// assuming 0.999999 is the most detailed quantile user would want to use
 	private final int LENGTH_OF_LONGEST_QUANTILE = 8;
+	private static final int VALUE_COLUMN = 31;
 
 	public StepResultsMetricsLogMessage(
 					final OpType opType,
@@ -153,8 +157,99 @@ public class StepResultsMetricsLogMessage extends LogMessageBase {
 
 		buff.append("    Max:                       ")
 						.append(snapshot.latencySnapshot().max())
-						.append(lineSep)
-						.append("...")
 						.append(lineSep);
+
+		final var opTypeSnapshots = snapshot.opTypeSnapshots();
+		if (!opTypeSnapshots.isEmpty()) {
+			buff.append("  Operation Types:").append(lineSep);
+			for (final var opTypeSnapshot : opTypeSnapshots) {
+				formatOpTypeTo(buff, opTypeSnapshot, lineSep);
+			}
+		}
+
+		final var injectorSnapshot = snapshot.injectorSnapshot();
+		if (injectorSnapshot.processorCount() > 0) {
+			formatInjectorTo(buff, injectorSnapshot, lineSep);
+		}
+
+		buff.append("...").append(lineSep);
+	}
+
+	private void formatOpTypeTo(
+					final StringBuilder buff, final OpTypeMetricsSnapshot opTypeSnapshot, final String lineSep) {
+		final var successSnapshot = opTypeSnapshot.successSnapshot();
+		final var bytesSnapshot = opTypeSnapshot.byteSnapshot();
+		appendLine(buff, "    - ", "Operation Type:", opTypeSnapshot.opType(), lineSep);
+		appendLine(buff, "      ", "Operations Count:", "", lineSep);
+		appendLine(buff, "        ", "Successful:", successSnapshot.count(), lineSep);
+		appendLine(buff, "        ", "Failed:", opTypeSnapshot.failsSnapshot().count(), lineSep);
+		appendLine(buff, "      ", "Transfer Size:", SizeInBytes.formatFixedSize(bytesSnapshot.count()), lineSep);
+		appendLine(buff, "      ", "Throughput [op/s]:", "", lineSep);
+		appendLine(buff, "        ", "Last:", successSnapshot.last(), lineSep);
+		appendLine(buff, "        ", "Mean:", successSnapshot.mean(), lineSep);
+		appendLine(buff, "      ", "Bandwidth [MB/s]:", "", lineSep);
+		appendLine(buff, "        ", "Last:", bytesSnapshot.last() / MIB, lineSep);
+		appendLine(buff, "        ", "Mean:", bytesSnapshot.mean() / MIB, lineSep);
+		appendLine(buff, "      ", "Operations Duration [us]:", "", lineSep);
+		formatTimingTo(buff, opTypeSnapshot.durationSnapshot(), durations, lineSep);
+		appendLine(buff, "      ", "Operations Latency [us]:", "", lineSep);
+		formatTimingTo(buff, opTypeSnapshot.latencySnapshot(), latencies, lineSep);
+	}
+
+	private static void formatInjectorTo(
+					final StringBuilder buff, final InjectorMetricsSnapshot injectorSnapshot, final String lineSep) {
+		final var saturated = injectorSnapshot.saturated();
+		appendLine(buff, "  ", "Injector:", "", lineSep);
+		appendLine(buff, "    ", "Generator Overruns [%]:", 100 * injectorSnapshot.fiberOverrunRatio(), lineSep);
+		appendLine(buff, "    ", "Recycle Queue Fill [%]:", 100 * injectorSnapshot.recycleQueueFillMean(), lineSep);
+		appendLine(buff, "    ", "Transfer Buffer Fill [%]:", 100 * injectorSnapshot.transferBufferFillMean(), lineSep);
+		appendLine(buff, "    ", "Driver Queue Depth:", injectorSnapshot.driverQueueDepthMean(), lineSep);
+		appendLine(buff, "    ", "Completion Time [us]:", injectorSnapshot.completionTimeMean(), lineSep);
+		appendLine(buff, "    ", "Completion CPU Share [%]:", 100 * injectorSnapshot.completionCpuShare(), lineSep);
+		if (injectorSnapshot.verifyCount() > 0) {
+			appendLine(buff, "    ", "Verification Time [us]:", injectorSnapshot.verifyTimeMean(), lineSep);
+			appendLine(buff, "    ", "Verification CPU Share [%]:", 100 * injectorSnapshot.verifyCpuShare(), lineSep);
+		}
+		appendLine(buff, "    ", "GC Pauses [%]:", 100 * injectorSnapshot.gcPauseShare(), lineSep);
+		appendLine(
+						buff,
+						"    ",
+						"Allocated [MB/s]:",
+						injectorSnapshot.elapsedTimeMillis() > 0
+										? K * injectorSnapshot.allocatedBytes() / injectorSnapshot.elapsedTimeMillis() / MIB
+										: 0,
+						lineSep);
+		appendLine(buff, "    ", "Bound:", !saturated.isEmpty(), lineSep);
+		if (!saturated.isEmpty()) {
+			appendLine(buff, "    ", "Saturated:", String.join(", ", saturated), lineSep);
+		}
+	}
+
+	// the quantile values are estimated from the histogram, the configured quantiles are the keys of the given map
+	private static void formatTimingTo(
+					final StringBuilder buff,
+					final TimingMetricSnapshot timingSnapshot,
+					final Map<Double, Long> quantiles,
+					final String lineSep) {
+		appendLine(buff, "        ", "Avg:", timingSnapshot.mean(), lineSep);
+		appendLine(buff, "        ", "Min:", timingSnapshot.min(), lineSep);
+		for (final Double quantile : quantiles.keySet()) {
+			appendLine(buff, "        ", "Quantile " + quantile + ":", timingSnapshot.quantile(quantile), lineSep);
+		}
+		appendLine(buff, "        ", "Max:", timingSnapshot.max(), lineSep);
+	}
+
+	private static void appendLine(
+					final StringBuilder buff,
+					final String indent,
+					final String key,
+					final Object value,
+					final String lineSep) {
+		buff.append(indent).append(key);
+		final var padding = VALUE_COLUMN - indent.length() - key.length();
+		if (padding > 0) {
+			buff.append(" ".repeat(padding));
+		}
+		buff.append(value).append(lineSep);
 	}
 }
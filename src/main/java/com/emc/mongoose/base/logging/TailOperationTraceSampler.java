@@ -0,0 +1,56 @@
+package com.emc.mongoose.base.logging;
+
+import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.op.Operation;
+import com.emc.mongoose.base.metrics.context.MetricsContext;
+
+/**
+* Selects the operation results which took longer than the fixed duration threshold either, if the threshold is not
+* set, longer than the current duration 99th percentile. The percentile is taken from the last metrics snapshot not
+* more frequently than once per second: the last complete metrics output period values are used if available, the
+* load step values otherwise. Nothing is selected until the first duration values are accounted.
+*/
+public final class TailOperationTraceSampler<I extends Item, O extends Operation<I>>
+				implements OperationTraceSampler<I, O> {
+
+	public static final double QUANTILE = 0.99;
+	private static final long REFRESH_PERIOD_MILLIS = 1_000;
+
+	private final long fixedThreshold;
+	private final MetricsContext metricsCtx;
+	private volatile long threshold;
+	private volatile long nextRefreshTimeMillis = 0;
+
+	/**
+	* @param fixedThreshold the duration threshold, microseconds, 0 to use the current duration 99th percentile
+	* @param metricsCtx the metrics context to get the current duration percentile from
+	*/
+	public TailOperationTraceSampler(final long fixedThreshold, final MetricsContext metricsCtx) {
+		if (fixedThreshold < 0) {
+			throw new IllegalArgumentException("The duration threshold should not be negative: " + fixedThreshold);
+		}
+		this.fixedThreshold = fixedThreshold;
+		this.metricsCtx = metricsCtx;
+		this.threshold = fixedThreshold;
+	}
+
+	@Override
+	public final boolean test(final O opResult) {
+		if (0 == fixedThreshold) {
+			final var currentTimeMillis = System.currentTimeMillis();
+			if (currentTimeMillis >= nextRefreshTimeMillis) {
+				// the concurrent refreshes are harmless
+				nextRefreshTimeMillis = currentTimeMillis + REFRESH_PERIOD_MILLIS;
+				threshold = currentThreshold();
+			}
+		}
+		final var threshold = this.threshold;
+		return threshold > 0 && opResult.duration() > threshold;
+	}
+
+	private long currentThreshold() {
+		final var durSnapshot = metricsCtx.lastSnapshot().durationSnapshot();
+		final var intervalQuantile = durSnapshot.intervalQuantile(QUANTILE);
+		return intervalQuantile > 0 ? intervalQuantile : durSnapshot.quantile(QUANTILE);
+	}
+}
@@ -11,6 +11,8 @@ public interface MetricsConstants {
 	String METRIC_NAME_FAIL = "failed_op";
 	String METRIC_NAME_BYTE = "byte";
 	String METRIC_NAME_TIME = "elapsed_time";
+	String METRIC_NAME_PREFIX_STORAGE_NODE = "storage_node_";
+	String METRIC_NAME_PREFIX_INJECTOR = "injector_";
 	//
 	String METADATA_STEP_ID = "load_step_id";
 	String METADATA_OP_TYPE = "load_op_type";
@@ -31,5 +33,7 @@ public interface MetricsConstants {
 			METADATA_COMMENT,
 			METADATA_RUN_ID
 	};
+	// the additional label of the storage node metrics
+	String LABEL_STORAGE_NODE = "storage_node";
 	String METRIC_FORMAT = Constants.APP_NAME + "_%s"; // appName_metricName<_aggregationType>
 }
@@ -1,11 +1,16 @@
 package com.emc.mongoose.base.metrics;
 
+import com.emc.mongoose.base.metrics.context.DistributedMetricsContext;
 import com.emc.mongoose.base.metrics.context.MetricsContext;
 import com.github.akurilov.fiber4j.Fiber;
+import java.util.Set;
 
 public interface MetricsManager extends Fiber {
 
 	void register(final MetricsContext metricsCtx);
 
 	void unregister(final MetricsContext metricsCtx);
+
+	/** @return the currently registered load step metrics contexts aggregating the metrics from all the nodes */
+	Set<DistributedMetricsContext> distributedMetricsContexts();
 }
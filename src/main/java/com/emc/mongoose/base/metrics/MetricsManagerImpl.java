@@ -14,7 +14,10 @@ import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
 import com.emc.mongoose.base.logging.MetricsAsciiTableLogMessage;
 import com.emc.mongoose.base.logging.MetricsCsvLogMessage;
+import com.emc.mongoose.base.logging.MetricsHeatmapCsvLogMessage;
+import com.emc.mongoose.base.logging.MetricsStorageNodesCsvLogMessage;
 import com.emc.mongoose.base.logging.MetricsTotalCsvLogMessage;
+import com.emc.mongoose.base.logging.OperationTraceRecordsCsvLogMessage;
 import com.emc.mongoose.base.logging.StepResultsMetricsLogMessage;
 import com.emc.mongoose.base.metrics.context.DistributedMetricsContext;
 import com.emc.mongoose.base.metrics.context.MetricsContext;
@@ -22,8 +25,10 @@ import com.emc.mongoose.base.metrics.snapshot.TimingMetricQuantileResultsImpl;
 import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.ConcurrencyMetricSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.DistributedAllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshot;
 import com.emc.mongoose.base.metrics.util.PrometheusMetricsExporter;
 import com.emc.mongoose.base.metrics.util.PrometheusMetricsExporterImpl;
+import com.emc.mongoose.base.metrics.util.TimingHeatmap;
 import com.github.akurilov.fiber4j.ExclusiveFiberBase;
 import com.github.akurilov.fiber4j.Fiber;
 import com.github.akurilov.fiber4j.FibersExecutor;
@@ -39,6 +44,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -56,6 +63,7 @@ public class MetricsManagerImpl extends ExclusiveFiberBase implements MetricsMan
 	private static final String CLS_NAME = MetricsManagerImpl.class.getSimpleName();
 	private final Set<MetricsContext> allMetrics = new ConcurrentSkipListSet<>();
 	private final Map<DistributedMetricsContext, PrometheusMetricsExporter> distributedMetrics = new ConcurrentHashMap<>();
+	private final Map<DistributedMetricsContext, TimingHeatmap> heatmaps = new ConcurrentHashMap<>();
 	private final Set<MetricsContext> selectedMetrics = new TreeSet<>();
 	private final Lock outputLock = new ReentrantLock();
 
@@ -106,8 +114,17 @@ public class MetricsManagerImpl extends ExclusiveFiberBase implements MetricsMan
 								Loggers.METRICS_FILE.info(
 												new MetricsCsvLogMessage(
 																snapshot, metricsCtx.opType(), metricsCtx.concurrencyLimit()));
+								final var storageNodeSnapshots = snapshot.storageNodeSnapshots();
+								if (!storageNodeSnapshots.isEmpty()) {
+									Loggers.METRICS_STORAGE_NODES_FILE.info(
+													new MetricsStorageNodesCsvLogMessage(
+																	storageNodeSnapshots, metricsCtx.opType(), metricsCtx.concurrencyLimit()));
+								}
 							}
 						}
+						if (metricsCtx instanceof DistributedMetricsContext) {
+							outputHeatmapSlice((DistributedMetricsContext) metricsCtx, snapshot, false);
+						}
 					}
 				}
 				// console output
@@ -124,6 +141,24 @@ public class MetricsManagerImpl extends ExclusiveFiberBase implements MetricsMan
 		}
 	}
 
+	/**
+	* @param lastFlag true to output the remaining timing values at the load step end even if the time slice is not over
+	*/
+	private void outputHeatmapSlice(
+					final DistributedMetricsContext metricsCtx, final AllMetricsSnapshot snapshot, final boolean lastFlag) {
+		final var heatmap = heatmaps.get(metricsCtx);
+		if (null != heatmap && (heatmap.sliceDone(System.currentTimeMillis()) || lastFlag)) {
+			Loggers.METRICS_HEATMAP_FILE.info(
+							new MetricsHeatmapCsvLogMessage(
+											metricsCtx.opType(),
+											metricsCtx.concurrencyLimit(),
+											metricsCtx.nodeCount(),
+											snapshot.elapsedTimeMillis(),
+											heatmap.durationSlice(snapshot.durationSnapshot().histogramSnapshot()),
+											heatmap.latencySlice(snapshot.latencySnapshot().histogramSnapshot())));
+		}
+	}
+
 	private void startIfNotStarted() {
 		if (!isStarted()) {
 			super.start();
@@ -152,8 +187,12 @@ public class MetricsManagerImpl extends ExclusiveFiberBase implements MetricsMan
 								distributedMetricsCtx,
 								new PrometheusMetricsExporterImpl(distributedMetricsCtx)
 												.labels(METRIC_LABELS, labelValues)
-												//.quantiles(distributedMetricsCtx.quantileValues())
+												.quantiles(distributedMetricsCtx.quantileValues())
 												.register());
+				final var heatmapPeriodMillis = distributedMetricsCtx.heatmapPeriodMillis();
+				if (heatmapPeriodMillis > 0) {
+					heatmaps.put(distributedMetricsCtx, new TimingHeatmap(heatmapPeriodMillis, System.currentTimeMillis()));
+				}
 			}
 			Loggers.MSG.debug("Metrics context \"{}\" registered", metricsCtx);
 		} catch (final RuntimeException e) {
@@ -166,6 +205,11 @@ public class MetricsManagerImpl extends ExclusiveFiberBase implements MetricsMan
 		}
 	}
 
+	@Override
+	public Set<DistributedMetricsContext> distributedMetricsContexts() {
+		return Collections.unmodifiableSet(distributedMetrics.keySet());
+	}
+
 	@Override
 	public void unregister(final MetricsContext metricsCtx) {
 		try (final Instance logCtx = put(KEY_STEP_ID, metricsCtx.loadStepId()).put(KEY_CLASS_NAME, getClass().getSimpleName())) {
@@ -186,14 +230,32 @@ public class MetricsManagerImpl extends ExclusiveFiberBase implements MetricsMan
 
 					if (metricsCtx instanceof DistributedMetricsContext) {
 						final DistributedMetricsContext<?> distributedMetricsCtx = (DistributedMetricsContext<?>) metricsCtx;
-						final String timingMetricsDirPath = System.getProperty("java.io.tmpdir") + "/mongoose/";
-						final String timingMetricsFilePattern = "timingMetrics_" + metricsCtx.loadStepId();
-						latencyQuantiles = new TimingMetricQuantileResultsImpl(distributedMetricsCtx.quantileValues(),
-								LATENCY, distributedMetricsCtx.nodeCount(), timingMetricsDirPath,
-								timingMetricsFilePattern);
-						durationQuantiles = new TimingMetricQuantileResultsImpl(distributedMetricsCtx.quantileValues(),
-								DURATION, distributedMetricsCtx.nodeCount(), timingMetricsDirPath,
-								timingMetricsFilePattern);
+						Map<Double, Long> latencyQuantileValues = null;
+						Map<Double, Long> durationQuantileValues = null;
+						if (distributedMetricsCtx.timingPersistEnabled()) {
+							// exact quantiles from the persisted per-operation timing metrics
+							final String timingMetricsDirPath = System.getProperty("java.io.tmpdir") + "/mongoose/";
+							final String timingMetricsFilePattern = "timingMetrics_" + metricsCtx.loadStepId();
+							latencyQuantiles = new TimingMetricQuantileResultsImpl(distributedMetricsCtx.quantileValues(),
+									LATENCY, distributedMetricsCtx.nodeCount(), timingMetricsDirPath,
+									timingMetricsFilePattern);
+							durationQuantiles = new TimingMetricQuantileResultsImpl(distributedMetricsCtx.quantileValues(),
+									DURATION, distributedMetricsCtx.nodeCount(), timingMetricsDirPath,
+									timingMetricsFilePattern);
+							latencyQuantileValues = latencyQuantiles.getMetricsValues();
+							durationQuantileValues = durationQuantiles.getMetricsValues();
+						}
+						// estimated quantiles from the histograms merged from all the nodes if there are no exact ones
+						if (null == latencyQuantileValues) {
+							latencyQuantileValues = null == snapshot
+											? Collections.emptyMap()
+											: quantileValues(distributedMetricsCtx.quantileValues(), snapshot.latencySnapshot());
+						}
+						if (null == durationQuantileValues) {
+							durationQuantileValues = null == snapshot
+											? Collections.emptyMap()
+											: quantileValues(distributedMetricsCtx.quantileValues(), snapshot.durationSnapshot());
+						}
 
 					if (null != snapshot) {
 						// file output
@@ -202,8 +264,20 @@ public class MetricsManagerImpl extends ExclusiveFiberBase implements MetricsMan
 						if (metricsCtx.sumPersistEnabled()) {
 							Loggers.METRICS_FILE_TOTAL.info(
 											new MetricsTotalCsvLogMessage(snapshot, metricsCtx.opType(),
-													metricsCtx.concurrencyLimit(), latencyQuantiles.getMetricsValues(),
-													durationQuantiles.getMetricsValues()));
+													metricsCtx.concurrencyLimit(), latencyQuantileValues,
+													durationQuantileValues));
+						}
+						outputHeatmapSlice(distributedMetricsCtx, snapshot, true);
+						final var injectorSaturated = snapshot.injectorSnapshot().saturated();
+						if (!injectorSaturated.isEmpty()) {
+							Loggers.ERR.warn(
+											"{}: the load injector is saturated ({}), the results may not reflect the storage performance",
+											metricsCtx.loadStepId(),
+											String.join(", ", injectorSaturated));
+						}
+						final var slowestOps = snapshot.slowestOpsSnapshot().stepOps();
+						if (!slowestOps.isEmpty()) {
+							Loggers.OP_TRACES_SLOWEST.info(new OperationTraceRecordsCsvLogMessage(slowestOps));
 						}
 					}
 					// console output
@@ -217,12 +291,13 @@ public class MetricsManagerImpl extends ExclusiveFiberBase implements MetricsMan
 															metricsCtx.loadStepId(),
 															metricsCtx.concurrencyLimit(),
 															aggregSnapshot,
-															latencyQuantiles.getMetricsValues(),
-															durationQuantiles.getMetricsValues()));
+															latencyQuantileValues,
+															durationQuantileValues));
 						} else {
 							Loggers.ERR.warn("Metrics snapshot is empty. No metrics were recorded apparently.");
 						}
 
+						heatmaps.remove(distributedMetricsCtx);
 						final PrometheusMetricsExporter exporter = distributedMetrics.remove(distributedMetricsCtx);
 						if (null != exporter) {
 							CollectorRegistry.defaultRegistry.unregister((Collector) exporter);
@@ -255,6 +330,16 @@ public class MetricsManagerImpl extends ExclusiveFiberBase implements MetricsMan
 		}
 	}
 
+	/** @return the quantile values estimated from the log-linear histogram of the timing metric snapshot */
+	static Map<Double, Long> quantileValues(
+					final List<Double> quantiles, final TimingMetricSnapshot snapshot) {
+		final Map<Double, Long> values = new LinkedHashMap<>();
+		for (final var quantile : quantiles) {
+			values.put(quantile, snapshot.quantile(quantile));
+		}
+		return values;
+	}
+
 	private static void exitMetricsThresholdState(final MetricsContext<?> metricsCtx) {
 		Loggers.MSG.info(
 						"{}: the active load operations count is below the threshold of {}, stopping the additional metrics "
@@ -28,4 +28,6 @@ public interface ContextBuilder<B extends ContextBuilder, C extends MetricsConte
 	B actualConcurrencyGauge(final IntSupplier actualConcurrencyGauge);
 
 	B runId(final long id);
+
+	B slowestOpsCount(final int slowestOpsCount);
 }
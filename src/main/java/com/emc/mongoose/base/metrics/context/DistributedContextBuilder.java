@@ -22,4 +22,8 @@ public interface DistributedContextBuilder
 	DistributedContextBuilder avgPersistFlag(final boolean avgPersistFlag);
 
 	DistributedContextBuilder sumPersistFlag(final boolean sumPersistFlag);
+
+	DistributedContextBuilder timingPersistFlag(final boolean timingPersistFlag);
+
+	DistributedContextBuilder heatmapPeriodSec(final int heatmapPeriodSec);
 }
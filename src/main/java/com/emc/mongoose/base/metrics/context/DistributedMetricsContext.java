@@ -13,5 +13,14 @@ public interface DistributedMetricsContext<S extends DistributedAllMetricsSnapsh
 
 	List<Double> quantileValues();
 
+	/**
+	* @return true if the per-operation timing metrics are persisted to compute the exact quantiles,
+	*     false if the quantiles are estimated from the aggregated histograms
+	*/
+	boolean timingPersistEnabled();
+
+	/** @return the timing heatmap time slice duration, 0 if the heatmap output is disabled */
+	long heatmapPeriodMillis();
+
 	S lastSnapshot();
 }
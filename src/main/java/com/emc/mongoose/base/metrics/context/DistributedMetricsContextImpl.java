@@ -1,17 +1,13 @@
 package com.emc.mongoose.base.metrics.context;
 
 import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.item.op.Operation;
 import com.emc.mongoose.base.metrics.DistributedMetricsListener;
 import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
-import com.emc.mongoose.base.metrics.snapshot.ConcurrencyMetricSnapshot;
-import com.emc.mongoose.base.metrics.snapshot.ConcurrencyMetricSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshotImpl;
 import com.emc.mongoose.base.metrics.snapshot.DistributedAllMetricsSnapshotImpl;
-import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshot;
-import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshotImpl;
-import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshot;
-import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshotImpl;
+import com.emc.mongoose.base.metrics.type.InjectorGauges;
 import com.github.akurilov.commons.system.SizeInBytes;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +30,8 @@ public class DistributedMetricsContextImpl<S extends DistributedAllMetricsSnapsh
 	private final Supplier<List<AllMetricsSnapshot>> snapshotsSupplier;
 	private final boolean avgPersistFlag;
 	private final boolean sumPersistFlag;
+	private final boolean timingPersistFlag;
+	private final long heatmapPeriodMillis;
 	private volatile DistributedMetricsListener metricsListener = null;
 	private final List<Double> quantileValues;
 
@@ -45,8 +43,35 @@ public class DistributedMetricsContextImpl<S extends DistributedAllMetricsSnapsh
 					final boolean stdOutColorFlag,
 					final boolean avgPersistFlag,
 					final boolean sumPersistFlag,
+					final boolean timingPersistFlag,
 					final Supplier<List<AllMetricsSnapshot>> snapshotsSupplier,
 					final List<Double> quantileValues) {
+		this(
+						metaData,
+						nodeCountSupplier,
+						concurrencyThreshold,
+						updateIntervalSec,
+						stdOutColorFlag,
+						avgPersistFlag,
+						sumPersistFlag,
+						timingPersistFlag,
+						snapshotsSupplier,
+						quantileValues,
+						0);
+	}
+
+	public DistributedMetricsContextImpl(
+					final Map metaData,
+					final IntSupplier nodeCountSupplier,
+					final int concurrencyThreshold,
+					final int updateIntervalSec,
+					final boolean stdOutColorFlag,
+					final boolean avgPersistFlag,
+					final boolean sumPersistFlag,
+					final boolean timingPersistFlag,
+					final Supplier<List<AllMetricsSnapshot>> snapshotsSupplier,
+					final List<Double> quantileValues,
+					final int heatmapPeriodSec) {
 		super(
 						metaData,
 						concurrencyThreshold,
@@ -56,7 +81,9 @@ public class DistributedMetricsContextImpl<S extends DistributedAllMetricsSnapsh
 		this.snapshotsSupplier = snapshotsSupplier;
 		this.avgPersistFlag = avgPersistFlag;
 		this.sumPersistFlag = sumPersistFlag;
+		this.timingPersistFlag = timingPersistFlag;
 		this.quantileValues = quantileValues;
+		this.heatmapPeriodMillis = TimeUnit.SECONDS.toMillis(heatmapPeriodSec);
 	}
 
 	@Override
@@ -82,6 +109,31 @@ public class DistributedMetricsContextImpl<S extends DistributedAllMetricsSnapsh
 	@Override
 	public void markFail(final long count) {}
 
+	@Override
+	public void markSucc(
+					final OpType opType,
+					final String nodeAddr,
+					final long bytes,
+					final long duration,
+					final long latency) {}
+
+	@Override
+	public void markPartSucc(
+					final OpType opType,
+					final String nodeAddr,
+					final long bytes,
+					final long duration,
+					final long latency) {}
+
+	@Override
+	public void markFail(final OpType opType, final String nodeAddr) {}
+
+	@Override
+	public void offerSlowest(final Operation<?> op) {}
+
+	@Override
+	public void injectorGauges(final InjectorGauges gauges) {}
+
 	@Override
 	public List<String> nodeAddrs() {
 		return (List<String>) metadata.get(METADATA_NODE_LIST);
@@ -107,6 +159,16 @@ public class DistributedMetricsContextImpl<S extends DistributedAllMetricsSnapsh
 		return sumPersistFlag;
 	}
 
+	@Override
+	public boolean timingPersistEnabled() {
+		return timingPersistFlag;
+	}
+
+	@Override
+	public long heatmapPeriodMillis() {
+		return heatmapPeriodMillis;
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public void refreshLastSnapshot() {
@@ -116,57 +178,21 @@ public class DistributedMetricsContextImpl<S extends DistributedAllMetricsSnapsh
 
 		if (snapshotsCount > 0) { // do nothing otherwise
 
-			final RateMetricSnapshot successSnapshot;
-			final RateMetricSnapshot failsSnapshot;
-			final RateMetricSnapshot bytesSnapshot;
-			final ConcurrencyMetricSnapshot actualConcurrencySnapshot;
-			final TimingMetricSnapshot durSnapshot;
-			final TimingMetricSnapshot latSnapshot;
-
-			if (snapshotsCount == 1) { // single
-
-				final var snapshot = snapshots.get(0);
-				successSnapshot = snapshot.successSnapshot();
-				failsSnapshot = snapshot.failsSnapshot();
-				bytesSnapshot = snapshot.byteSnapshot();
-				actualConcurrencySnapshot = snapshot.concurrencySnapshot();
-				durSnapshot = snapshot.durationSnapshot();
-				latSnapshot = snapshot.latencySnapshot();
-
-			} else { // many
-
-				final List<TimingMetricSnapshot> durSnapshots = new ArrayList<>();
-				final List<TimingMetricSnapshot> latSnapshots = new ArrayList<>();
-				final List<ConcurrencyMetricSnapshot> conSnapshots = new ArrayList<>();
-				final List<RateMetricSnapshot> succSnapshots = new ArrayList<>();
-				final List<RateMetricSnapshot> failSnapshots = new ArrayList<>();
-				final List<RateMetricSnapshot> byteSnapshots = new ArrayList<>();
-				for (var i = 0; i < snapshotsCount; i++) {
-					final var snapshot = snapshots.get(i);
-					durSnapshots.add(snapshot.durationSnapshot());
-					latSnapshots.add(snapshot.latencySnapshot());
-					succSnapshots.add(snapshot.successSnapshot());
-					failSnapshots.add(snapshot.failsSnapshot());
-					byteSnapshots.add(snapshot.byteSnapshot());
-					conSnapshots.add(snapshot.concurrencySnapshot());
-				}
-				successSnapshot = RateMetricSnapshotImpl.aggregate(succSnapshots);
-				failsSnapshot = RateMetricSnapshotImpl.aggregate(failSnapshots);
-				bytesSnapshot = RateMetricSnapshotImpl.aggregate(byteSnapshots);
-				actualConcurrencySnapshot = ConcurrencyMetricSnapshotImpl.aggregate(conSnapshots);
-				durSnapshot = TimingMetricSnapshotImpl.aggregate(durSnapshots);
-				latSnapshot = TimingMetricSnapshotImpl.aggregate(latSnapshots);
-			}
+			final var snapshot = AllMetricsSnapshotImpl.aggregate(snapshots);
 
 			lastSnapshot = (S) new DistributedAllMetricsSnapshotImpl(
-							durSnapshot,
-							latSnapshot,
-							actualConcurrencySnapshot,
-							failsSnapshot,
-							successSnapshot,
-							bytesSnapshot,
+							snapshot.durationSnapshot(),
+							snapshot.latencySnapshot(),
+							snapshot.concurrencySnapshot(),
+							snapshot.failsSnapshot(),
+							snapshot.successSnapshot(),
+							snapshot.byteSnapshot(),
 							nodeCountSupplier.getAsInt(),
-							elapsedTimeMillis());
+							elapsedTimeMillis(),
+							snapshot.storageNodeSnapshots(),
+							snapshot.opTypeSnapshots(),
+							snapshot.slowestOpsSnapshot(),
+							snapshot.injectorSnapshot());
 			if (metricsListener != null) {
 				metricsListener.notify(lastSnapshot);
 			}
@@ -189,6 +215,7 @@ public class DistributedMetricsContextImpl<S extends DistributedAllMetricsSnapsh
 						.stdOutColorFlag(stdOutColorFlag)
 						.avgPersistFlag(avgPersistFlag)
 						.sumPersistFlag(sumPersistFlag)
+						.timingPersistFlag(timingPersistFlag)
 						.snapshotsSupplier(snapshotsSupplier)
 						.quantileValues(quantileValues)
 						.nodeAddrs(nodeAddrs())
@@ -238,6 +265,8 @@ public class DistributedMetricsContextImpl<S extends DistributedAllMetricsSnapsh
 		private Supplier<List<AllMetricsSnapshot>> snapshotsSupplier;
 		private boolean avgPersistFlag;
 		private boolean sumPersistFlag;
+		private boolean timingPersistFlag;
+		private int heatmapPeriodSec;
 		private List<Double> quantileValues;
 		private int concurrencyThreshold;
 		private boolean stdOutColorFlag;
@@ -253,8 +282,10 @@ public class DistributedMetricsContextImpl<S extends DistributedAllMetricsSnapsh
 							stdOutColorFlag,
 							avgPersistFlag,
 							sumPersistFlag,
+							timingPersistFlag,
 							snapshotsSupplier,
-							quantileValues
+							quantileValues,
+							heatmapPeriodSec
 			);
 		}
 
@@ -319,6 +350,12 @@ public class DistributedMetricsContextImpl<S extends DistributedAllMetricsSnapsh
 			return this;
 		}
 
+		@Override
+		public DistributedContextBuilder slowestOpsCount(final int slowestOpsCount) {
+			// the slowest operations are aggregated from the snapshots
+			return this;
+		}
+
 		@Override
 		public DistributedContextBuilder avgPersistFlag(final boolean avgPersistFlag) {
 			this.avgPersistFlag = avgPersistFlag;
@@ -331,6 +368,18 @@ public class DistributedMetricsContextImpl<S extends DistributedAllMetricsSnapsh
 			return this;
 		}
 
+		@Override
+		public DistributedContextBuilder timingPersistFlag(final boolean timingPersistFlag) {
+			this.timingPersistFlag = timingPersistFlag;
+			return this;
+		}
+
+		@Override
+		public DistributedContextBuilder heatmapPeriodSec(final int heatmapPeriodSec) {
+			this.heatmapPeriodSec = heatmapPeriodSec;
+			return this;
+		}
+
 		@Override
 		public DistributedContextBuilder quantileValues(final List<Double> quantileValues) {
 			this.quantileValues = quantileValues;
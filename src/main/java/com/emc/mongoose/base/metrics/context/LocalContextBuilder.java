@@ -0,0 +1,7 @@
+package com.emc.mongoose.base.metrics.context;
+
+/** The builder of the metrics context which accounts the operations executed by the local storage driver */
+public interface LocalContextBuilder extends ContextBuilder<LocalContextBuilder, MetricsContextImpl> {
+
+	LocalContextBuilder storageNodeMetricsFlag(final boolean storageNodeMetricsFlag);
+}
@@ -1,7 +1,9 @@
 package com.emc.mongoose.base.metrics.context;
 
 import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.item.op.Operation;
 import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.type.InjectorGauges;
 import com.github.akurilov.commons.system.SizeInBytes;
 
 import java.util.Map;
@@ -40,6 +42,35 @@ public interface MetricsContext<S extends AllMetricsSnapshot>
 
 	void markFail(final long count);
 
+	// the operation type metrics are accounted always but reported only if the different operation types are mixed,
+	// the storage node metrics are accounted only if the storage node metrics breakdown is enabled
+
+	void markSucc(
+					final OpType opType,
+					final String nodeAddr,
+					final long bytes,
+					final long duration,
+					final long latency);
+
+	void markPartSucc(
+					final OpType opType,
+					final String nodeAddr,
+					final long bytes,
+					final long duration,
+					final long latency);
+
+	void markFail(final OpType opType, final String nodeAddr);
+
+	/**
+	* Track the completed operation if it's among the slowest ones. Should be cheap enough to invoke for each operation.
+	*
+	* @param op the completed operation, the necessary values are copied before return
+	*/
+	void offerSlowest(final Operation<?> op);
+
+	/** @param gauges the load injector internals to sample along with the metrics snapshot refresh */
+	void injectorGauges(final InjectorGauges gauges);
+
 	void start();
 
 	boolean isStarted();
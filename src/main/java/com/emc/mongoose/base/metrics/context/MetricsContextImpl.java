@@ -1,21 +1,37 @@
 package com.emc.mongoose.base.metrics.context;
 
 import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.item.op.Operation;
 import com.emc.mongoose.base.metrics.MetricsConstants;
-import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshotHolder;
 import com.emc.mongoose.base.metrics.snapshot.ConcurrencyMetricSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.InjectorMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.InjectorMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.OpTypeMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.OpTypeMetricsSnapshotImpl;
 import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.StorageNodeMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshotImpl;
 import com.emc.mongoose.base.metrics.type.ConcurrencyMeterImpl;
+import com.emc.mongoose.base.metrics.type.InjectorGauges;
+import com.emc.mongoose.base.metrics.type.InjectorMeter;
 import com.emc.mongoose.base.metrics.type.LongMeter;
 import com.emc.mongoose.base.metrics.type.RateMeter;
 import com.emc.mongoose.base.metrics.type.RateMeterImpl;
+import com.emc.mongoose.base.metrics.type.SlowestOperationsTracker;
 import com.emc.mongoose.base.metrics.type.TimingMeterImpl;
 import com.github.akurilov.commons.system.SizeInBytes;
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -28,7 +44,7 @@ import static com.emc.mongoose.base.metrics.MetricsConstants.METADATA_OP_TYPE;
 import static com.emc.mongoose.base.metrics.MetricsConstants.METADATA_RUN_ID;
 import static com.emc.mongoose.base.metrics.MetricsConstants.METADATA_STEP_ID;
 
-public class MetricsContextImpl<S extends AllMetricsSnapshotImpl> extends MetricsContextBase<S>
+public class MetricsContextImpl<S extends AllMetricsSnapshot> extends MetricsContextBase<S>
 				implements MetricsContext<S> {
 
 	private final LongMeter<TimingMetricSnapshot> reqDuration, respLatency;
@@ -38,6 +54,38 @@ public class MetricsContextImpl<S extends AllMetricsSnapshotImpl> extends Metric
 	private volatile ConcurrencyMetricSnapshot actualConcurrencySnapshot;
 	private volatile long lastSnapshotsUpdateTs = 0;
 	private final IntSupplier actualConcurrencyGauge;
+	// refreshed in turn, so the last published one is not changed by the next refresh
+	private final AllMetricsSnapshotHolder[] snapshotHolders = new AllMetricsSnapshotHolder[2];
+	private int nextSnapshotHolderIndex = 0;
+	private final Clock clock = Clock.systemUTC();
+	private final boolean storageNodeMetricsFlag;
+	// copy-on-write, the storage nodes are added rarely and only during the warm-up
+	private volatile StorageNodeMetrics[] storageNodeMetrics = new StorageNodeMetrics[0];
+	// refreshed in place, copied into the snapshot holder's own list
+	private StorageNodeMetricsSnapshot[] storageNodeSnapshots = new StorageNodeMetricsSnapshot[0];
+	// the type of the 1st operation, its metrics are the total metrics minus the metrics of the other types
+	private volatile OpType firstOpType = null;
+	// indexed by the operation type ordinal, the meters are created on the 1st operation of the given type except
+	// the 1st operation type, so a step with the single operation type doesn't allocate them at all
+	private final OpTypeMetrics[] opTypeMetrics = new OpTypeMetrics[OpType.values().length];
+	private int opTypeCount = 0; // guarded by this
+	// the exact extremes of the 1st operation type timings, the derived histogram gives the estimates only. Updated
+	// w/o any write while the extreme doesn't change, so these are cheap for the step with the single operation type
+	private final LongAccumulator firstOpTypeDurMin = new LongAccumulator(Math::min, Long.MAX_VALUE);
+	private final LongAccumulator firstOpTypeDurMax = new LongAccumulator(Math::max, Long.MIN_VALUE);
+	private final LongAccumulator firstOpTypeLatMin = new LongAccumulator(Math::min, Long.MAX_VALUE);
+	private final LongAccumulator firstOpTypeLatMax = new LongAccumulator(Math::max, Long.MIN_VALUE);
+	// refreshed in place, copied into the snapshot holder's own list, the containers below are reused too
+	private OpTypeMetricsSnapshot[] opTypeSnapshots = new OpTypeMetricsSnapshot[0];
+	private final List<RateMetricSnapshot> otherSuccSnapshots = new ArrayList<>();
+	private final List<RateMetricSnapshot> otherFailSnapshots = new ArrayList<>();
+	private final List<RateMetricSnapshot> otherByteSnapshots = new ArrayList<>();
+	private final List<TimingMetricSnapshot> otherDurSnapshots = new ArrayList<>();
+	private final List<TimingMetricSnapshot> otherLatSnapshots = new ArrayList<>();
+	// null if the slowest operations tracking is disabled
+	private final SlowestOperationsTracker slowestOpsTracker;
+	private final InjectorMeter injectorMeter = new InjectorMeter();
+	private volatile InjectorMetricsSnapshot injectorSnapshot = InjectorMetricsSnapshotImpl.EMPTY;
 
 	public MetricsContextImpl(
 					final Map<String, Object> metadata,
@@ -45,29 +93,46 @@ public class MetricsContextImpl<S extends AllMetricsSnapshotImpl> extends Metric
 					final int concurrencyThreshold,
 					final int updateIntervalSec,
 					final boolean stdOutColorFlag) {
+		this(metadata, actualConcurrencyGauge, concurrencyThreshold, updateIntervalSec, stdOutColorFlag, false, 0);
+	}
+
+	public MetricsContextImpl(
+					final Map<String, Object> metadata,
+					final IntSupplier actualConcurrencyGauge,
+					final int concurrencyThreshold,
+					final int updateIntervalSec,
+					final boolean stdOutColorFlag,
+					final boolean storageNodeMetricsFlag,
+					final int slowestOpsCount) {
 		super(
 						metadata,
 						concurrencyThreshold,
 						stdOutColorFlag,
 						TimeUnit.SECONDS.toMillis(updateIntervalSec));
 		//
-		respLatency = new TimingMeterImpl(MetricsConstants.METRIC_NAME_LAT);
+		respLatency = new TimingMeterImpl(MetricsConstants.METRIC_NAME_LAT, outputPeriodMillis);
 		respLatSnapshot = respLatency.snapshot();
 		//
-		reqDuration = new TimingMeterImpl(MetricsConstants.METRIC_NAME_DUR);
+		reqDuration = new TimingMeterImpl(MetricsConstants.METRIC_NAME_DUR, outputPeriodMillis);
 		reqDurSnapshot = reqDuration.snapshot();
 		//
 		this.actualConcurrencyGauge = actualConcurrencyGauge;
 		actualConcurrency = new ConcurrencyMeterImpl(MetricsConstants.METRIC_NAME_CONC);
 		actualConcurrencySnapshot = actualConcurrency.snapshot();
 		//
-		final var clock = Clock.systemUTC();
-		//
 		throughputSuccess = new RateMeterImpl(clock, MetricsConstants.METRIC_NAME_SUCC);
 		//
 		throughputFail = new RateMeterImpl(clock, MetricsConstants.METRIC_NAME_FAIL);
 		//
 		reqBytes = new RateMeterImpl(clock, MetricsConstants.METRIC_NAME_BYTE);
+		//
+		this.storageNodeMetricsFlag = storageNodeMetricsFlag;
+		slowestOpsTracker = slowestOpsCount > 0 ? new SlowestOperationsTracker(slowestOpsCount, outputPeriodMillis) : null;
+		//
+		for (var i = 0; i < snapshotHolders.length; i++) {
+			snapshotHolders[i] = new AllMetricsSnapshotHolder(
+							MetricsConstants.METRIC_NAME_FAIL, MetricsConstants.METRIC_NAME_SUCC, MetricsConstants.METRIC_NAME_BYTE);
+		}
 	}
 
 	@Override
@@ -76,6 +141,17 @@ public class MetricsContextImpl<S extends AllMetricsSnapshotImpl> extends Metric
 		throughputSuccess.resetStartTime();
 		throughputFail.resetStartTime();
 		reqBytes.resetStartTime();
+		injectorMeter.resetStartTime();
+		for (final var nodeMetrics : storageNodeMetrics) {
+			nodeMetrics.resetStartTime();
+		}
+		synchronized (this) {
+			for (final var opMetrics : opTypeMetrics) {
+				if (null != opMetrics) {
+					opMetrics.resetStartTime();
+				}
+			}
+		}
 	}
 
 	@Override
@@ -153,6 +229,147 @@ public class MetricsContextImpl<S extends AllMetricsSnapshotImpl> extends Metric
 		}
 	}
 
+	@Override
+	public final void markSucc(
+					final OpType opType,
+					final String nodeAddr,
+					final long bytes,
+					final long duration,
+					final long latency) {
+		markSucc(bytes, duration, latency);
+		final var opMetrics = opTypeMetrics(opType);
+		if (null != opMetrics) {
+			opMetrics.markSucc(1);
+			opMetrics.markBytes(bytes);
+			if (latency > 0 && duration > latency) {
+				opMetrics.markTimings(latency, duration);
+			}
+		} else if (latency > 0 && duration > latency) {
+			markFirstOpTypeTimings(latency, duration);
+		}
+		if (storageNodeMetricsFlag && null != nodeAddr) {
+			final var nodeMetrics = storageNodeMetrics(nodeAddr);
+			nodeMetrics.markSucc(1);
+			if (latency > 0 && duration > latency) {
+				nodeMetrics.markLatency(latency);
+			}
+		}
+	}
+
+	@Override
+	public final void markPartSucc(
+					final OpType opType,
+					final String nodeAddr,
+					final long bytes,
+					final long duration,
+					final long latency) {
+		markPartSucc(bytes, duration, latency);
+		final var opMetrics = opTypeMetrics(opType);
+		if (null != opMetrics) {
+			opMetrics.markBytes(bytes);
+			if (latency > 0 && duration > latency) {
+				opMetrics.markTimings(latency, duration);
+			}
+		} else if (latency > 0 && duration > latency) {
+			markFirstOpTypeTimings(latency, duration);
+		}
+		if (storageNodeMetricsFlag && null != nodeAddr && latency > 0 && duration > latency) {
+			storageNodeMetrics(nodeAddr).markLatency(latency);
+		}
+	}
+
+	@Override
+	public final void markFail(final OpType opType, final String nodeAddr) {
+		markFail();
+		final var opMetrics = opTypeMetrics(opType);
+		if (null != opMetrics) {
+			opMetrics.markFail(1);
+		}
+		if (storageNodeMetricsFlag && null != nodeAddr) {
+			storageNodeMetrics(nodeAddr).markFail(1);
+		}
+	}
+
+	@Override
+	public final void offerSlowest(final Operation<?> op) {
+		if (null != slowestOpsTracker) {
+			slowestOpsTracker.offer(op);
+		}
+	}
+
+	@Override
+	public final void injectorGauges(final InjectorGauges gauges) {
+		injectorMeter.gauges(gauges);
+	}
+
+	private void markFirstOpTypeTimings(final long latency, final long duration) {
+		firstOpTypeDurMin.accumulate(duration);
+		firstOpTypeDurMax.accumulate(duration);
+		firstOpTypeLatMin.accumulate(latency);
+		firstOpTypeLatMax.accumulate(latency);
+	}
+
+	/**
+	* The null checks are always predicted well after the 1st operation of the given type
+	* @return the meters of the given operation type, null for the 1st operation type
+	*/
+	private OpTypeMetrics opTypeMetrics(final OpType opType) {
+		final var opMetrics = opTypeMetrics[opType.ordinal()];
+		return null == opMetrics && opType != firstOpType ? addOpTypeMetrics(opType) : opMetrics;
+	}
+
+	private synchronized OpTypeMetrics addOpTypeMetrics(final OpType opType) {
+		if (null == firstOpType) {
+			firstOpType = opType;
+			opTypeCount++;
+			return null;
+		} else if (opType == firstOpType) {
+			return null;
+		}
+		final var i = opType.ordinal();
+		var opMetrics = opTypeMetrics[i];
+		if (null == opMetrics) {
+			// the meters are published safely because all their fields are final
+			opMetrics = new OpTypeMetrics(opType, clock);
+			opTypeMetrics[i] = opMetrics;
+			opTypeCount++;
+		}
+		return opMetrics;
+	}
+
+	/**
+	* The storage drivers usually take the node address from the same configured list, so the reference comparison
+	* finds the storage node meters w/o any hashing in the most cases.
+	*/
+	private StorageNodeMetrics storageNodeMetrics(final String nodeAddr) {
+		final var nodeMetricsArray = storageNodeMetrics;
+		for (final var nodeMetrics : nodeMetricsArray) {
+			if (nodeAddr == nodeMetrics.nodeAddr()) {
+				return nodeMetrics;
+			}
+		}
+		for (final var nodeMetrics : nodeMetricsArray) {
+			if (nodeAddr.equals(nodeMetrics.nodeAddr())) {
+				return nodeMetrics;
+			}
+		}
+		return addStorageNodeMetrics(nodeAddr);
+	}
+
+	private synchronized StorageNodeMetrics addStorageNodeMetrics(final String nodeAddr) {
+		final var nodeMetricsArray = storageNodeMetrics;
+		for (final var nodeMetrics : nodeMetricsArray) {
+			if (nodeAddr.equals(nodeMetrics.nodeAddr())) {
+				return nodeMetrics;
+			}
+		}
+		final var nodeMetrics = new StorageNodeMetrics(nodeAddr, clock);
+		final var newNodeMetricsArray = Arrays.copyOf(nodeMetricsArray, nodeMetricsArray.length + 1);
+		newNodeMetricsArray[nodeMetricsArray.length] = nodeMetrics;
+		storageNodeMetrics = newNodeMetricsArray;
+		return nodeMetrics;
+	}
+
 	@Override
 	public final boolean avgPersistEnabled() {
 		return false;
@@ -165,22 +382,38 @@ public class MetricsContextImpl<S extends AllMetricsSnapshotImpl> extends Metric
 
 	@Override
 	@SuppressWarnings("unchecked")
-	public void refreshLastSnapshot() {
+	public synchronized void refreshLastSnapshot() {
 		final var currentTimeMillis = System.currentTimeMillis();
-		if (currentTimeMillis - lastSnapshotsUpdateTs > DEFAULT_SNAPSHOT_UPDATE_PERIOD_MILLIS) {
+		final var updateFlag = currentTimeMillis - lastSnapshotsUpdateTs > DEFAULT_SNAPSHOT_UPDATE_PERIOD_MILLIS;
+		if (updateFlag) {
 			lastSnapshotsUpdateTs = currentTimeMillis;
 			updateTimingSnapshots();
 			actualConcurrency.update(actualConcurrencyGauge.getAsInt());
 			actualConcurrencySnapshot = actualConcurrency.snapshot();
+			if (storageNodeMetricsFlag) {
+				updateStorageNodeSnapshots();
+			}
+			injectorSnapshot = injectorMeter.snapshot();
+		}
+		final var snapshotHolder = snapshotHolders[nextSnapshotHolderIndex];
+		nextSnapshotHolderIndex ^= 1;
+		snapshotHolder.beginRefresh();
+		snapshotHolder.set(reqDurSnapshot, respLatSnapshot, actualConcurrencySnapshot, elapsedTimeMillis());
+		throughputFail.snapshot(snapshotHolder.failsSnapshot());
+		throughputSuccess.snapshot(snapshotHolder.successSnapshot());
+		reqBytes.snapshot(snapshotHolder.byteSnapshot());
+		if (updateFlag && opTypeCount > 1) {
+			// the 1st operation type metrics are derived from the total snapshots taken above
+			updateOpTypeSnapshots(snapshotHolder);
 		}
-		lastSnapshot = (S) new AllMetricsSnapshotImpl(
-						reqDurSnapshot,
-						respLatSnapshot,
-						actualConcurrencySnapshot,
-						throughputFail.snapshot(),
-						throughputSuccess.snapshot(),
-						reqBytes.snapshot(),
-						elapsedTimeMillis());
+		snapshotHolder.storageNodeSnapshots(storageNodeSnapshots);
+		snapshotHolder.opTypeSnapshots(opTypeSnapshots);
+		snapshotHolder.injectorSnapshot(injectorSnapshot);
+		if (null != slowestOpsTracker) {
+			snapshotHolder.slowestOpsSnapshot(slowestOpsTracker.snapshot());
+		}
+		snapshotHolder.endRefresh();
+		lastSnapshot = (S) snapshotHolder; // volatile write publishes the refreshed values
 		super.refreshLastSnapshot();
 	}
 
@@ -189,6 +422,59 @@ public class MetricsContextImpl<S extends AllMetricsSnapshotImpl> extends Metric
 		respLatSnapshot = respLatency.snapshot();
 	}
 
+	private void updateStorageNodeSnapshots() {
+		final var nodeMetricsArray = storageNodeMetrics;
+		if (storageNodeSnapshots.length != nodeMetricsArray.length) {
+			storageNodeSnapshots = new StorageNodeMetricsSnapshot[nodeMetricsArray.length];
+		}
+		for (var i = 0; i < nodeMetricsArray.length; i++) {
+			storageNodeSnapshots[i] = nodeMetricsArray[i].snapshot();
+		}
+	}
+
+	/**
+	* The breakdown is reported only if the operations of the different types are mixed within the step. The
+	* operation type snapshots don't track the interval quantiles.
+	*/
+	private void updateOpTypeSnapshots(final AllMetricsSnapshot totalSnapshot) {
+		if (opTypeSnapshots.length != opTypeCount) {
+			opTypeSnapshots = new OpTypeMetricsSnapshot[opTypeCount];
+		}
+		otherSuccSnapshots.clear();
+		otherFailSnapshots.clear();
+		otherByteSnapshots.clear();
+		otherDurSnapshots.clear();
+		otherLatSnapshots.clear();
+		final var firstOpType = this.firstOpType;
+		var firstOpTypeIndex = 0;
+		var j = 0;
+		for (var i = 0; i < opTypeMetrics.length; i++) {
+			final var opMetrics = opTypeMetrics[i];
+			if (null != opMetrics) {
+				final var opSnapshot = opMetrics.snapshot();
+				otherSuccSnapshots.add(opSnapshot.successSnapshot());
+				otherFailSnapshots.add(opSnapshot.failsSnapshot());
+				otherByteSnapshots.add(opSnapshot.byteSnapshot());
+				otherDurSnapshots.add(opSnapshot.durationSnapshot());
+				otherLatSnapshots.add(opSnapshot.latencySnapshot());
+				opTypeSnapshots[j++] = opSnapshot;
+			} else if (i == firstOpType.ordinal()) {
+				firstOpTypeIndex = j++;
+			}
+		}
+		opTypeSnapshots[firstOpTypeIndex] = new OpTypeMetricsSnapshotImpl(
+						firstOpType,
+						RateMetricSnapshotImpl.subtract(totalSnapshot.successSnapshot(), otherSuccSnapshots),
+						RateMetricSnapshotImpl.subtract(totalSnapshot.failsSnapshot(), otherFailSnapshots),
+						RateMetricSnapshotImpl.subtract(totalSnapshot.byteSnapshot(), otherByteSnapshots),
+						TimingMetricSnapshotImpl.subtract(
+										totalSnapshot.durationSnapshot(), otherDurSnapshots, firstOpTypeDurMin.get(),
+										firstOpTypeDurMax.get()),
+						TimingMetricSnapshotImpl.subtract(
+										totalSnapshot.latencySnapshot(), otherLatSnapshots, firstOpTypeLatMin.get(),
+										firstOpTypeLatMax.get()));
+	}
+
 	@Override
 	protected MetricsContextImpl<S> newThresholdMetricsContext() {
 		return new ContextBuilderImpl()
@@ -234,16 +520,17 @@ public class MetricsContextImpl<S extends AllMetricsSnapshotImpl> extends Metric
 		super.close();
 	}
 
-	public static ContextBuilder builder() {
+	public static LocalContextBuilder builder() {
 		return new ContextBuilderImpl();
 	}
 
-	private static class ContextBuilderImpl
-					implements ContextBuilder<ContextBuilder, MetricsContextImpl> {
+	private static class ContextBuilderImpl implements LocalContextBuilder {
 
 		private IntSupplier actualConcurrencyGauge;
 		private int concurrencyThreshold;
 		private boolean stdOutColorFlag;
+		private boolean storageNodeMetricsFlag;
+		private int slowestOpsCount;
 		private int outputPeriodSec;
 		private Map<String, Object> metadata = new HashMap();
 
@@ -253,7 +540,9 @@ public class MetricsContextImpl<S extends AllMetricsSnapshotImpl> extends Metric
 							actualConcurrencyGauge,
 							concurrencyThreshold,
 							outputPeriodSec,
-							stdOutColorFlag);
+							stdOutColorFlag,
+							storageNodeMetricsFlag,
+							slowestOpsCount);
 		}
 
 		@Override
@@ -269,7 +558,7 @@ public class MetricsContextImpl<S extends AllMetricsSnapshotImpl> extends Metric
 		}
 
 		@Override
-		public ContextBuilder comment(final String comment) {
+		public ContextBuilderImpl comment(final String comment) {
 			this.metadata.put(METADATA_COMMENT, comment);
 			return this;
 		}
@@ -304,6 +593,18 @@ public class MetricsContextImpl<S extends AllMetricsSnapshotImpl> extends Metric
 			return this;
 		}
 
+		@Override
+		public ContextBuilderImpl storageNodeMetricsFlag(final boolean storageNodeMetricsFlag) {
+			this.storageNodeMetricsFlag = storageNodeMetricsFlag;
+			return this;
+		}
+
+		@Override
+		public ContextBuilderImpl slowestOpsCount(final int slowestOpsCount) {
+			this.slowestOpsCount = slowestOpsCount;
+			return this;
+		}
+
 		@Override
 		public ContextBuilderImpl outputPeriodSec(final int outputPeriodSec) {
 			this.outputPeriodSec = outputPeriodSec;
@@ -0,0 +1,66 @@
+package com.emc.mongoose.base.metrics.context;
+
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.metrics.MetricsConstants;
+import com.emc.mongoose.base.metrics.snapshot.OpTypeMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.OpTypeMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.type.RateMeterImpl;
+import com.emc.mongoose.base.metrics.type.TimingMeterImpl;
+import java.time.Clock;
+
+/** The meters of the operations of the particular type */
+final class OpTypeMetrics {
+
+	private final OpType opType;
+	private final RateMeterImpl throughputSuccess;
+	private final RateMeterImpl throughputFail;
+	private final RateMeterImpl reqBytes;
+	private final TimingMeterImpl reqDuration;
+	private final TimingMeterImpl respLatency;
+
+	OpTypeMetrics(final OpType opType, final Clock clock) {
+		this.opType = opType;
+		throughputSuccess = new RateMeterImpl(clock, MetricsConstants.METRIC_NAME_SUCC);
+		throughputFail = new RateMeterImpl(clock, MetricsConstants.METRIC_NAME_FAIL);
+		reqBytes = new RateMeterImpl(clock, MetricsConstants.METRIC_NAME_BYTE);
+		reqDuration = new TimingMeterImpl(MetricsConstants.METRIC_NAME_DUR);
+		respLatency = new TimingMeterImpl(MetricsConstants.METRIC_NAME_LAT);
+	}
+
+	OpType opType() {
+		return opType;
+	}
+
+	void resetStartTime() {
+		throughputSuccess.resetStartTime();
+		throughputFail.resetStartTime();
+		reqBytes.resetStartTime();
+	}
+
+	void markSucc(final long count) {
+		throughputSuccess.update(count);
+	}
+
+	void markBytes(final long bytes) {
+		reqBytes.update(bytes);
+	}
+
+	void markTimings(final long latencyMicros, final long durationMicros) {
+		reqDuration.update(durationMicros);
+		respLatency.update(latencyMicros);
+	}
+
+	void markFail(final long count) {
+		throughputFail.update(count);
+	}
+
+	OpTypeMetricsSnapshot snapshot() {
+		return new OpTypeMetricsSnapshotImpl(
+						opType,
+						throughputSuccess.snapshot(),
+						throughputFail.snapshot(),
+						reqBytes.snapshot(),
+						reqDuration.snapshot(),
+						respLatency.snapshot());
+	}
+}
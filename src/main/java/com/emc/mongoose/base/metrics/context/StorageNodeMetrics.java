@@ -0,0 +1,53 @@
+package com.emc.mongoose.base.metrics.context;
+
+import com.emc.mongoose.base.metrics.MetricsConstants;
+import com.emc.mongoose.base.metrics.snapshot.StorageNodeMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.StorageNodeMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.type.RateMeterImpl;
+import com.emc.mongoose.base.metrics.type.TimingMeterImpl;
+import java.time.Clock;
+
+/**
+* The meters of the operations executed on the particular storage node. The latency histogram is not striped: it's
+* updated only by the fraction of the operations and there may be many storage nodes.
+*/
+final class StorageNodeMetrics {
+
+	private final String nodeAddr;
+	private final RateMeterImpl throughputSuccess;
+	private final RateMeterImpl throughputFail;
+	private final TimingMeterImpl respLatency;
+
+	StorageNodeMetrics(final String nodeAddr, final Clock clock) {
+		this.nodeAddr = nodeAddr;
+		throughputSuccess = new RateMeterImpl(clock, MetricsConstants.METRIC_NAME_SUCC);
+		throughputFail = new RateMeterImpl(clock, MetricsConstants.METRIC_NAME_FAIL);
+		respLatency = new TimingMeterImpl(MetricsConstants.METRIC_NAME_LAT, 0, 1);
+	}
+
+	String nodeAddr() {
+		return nodeAddr;
+	}
+
+	void resetStartTime() {
+		throughputSuccess.resetStartTime();
+		throughputFail.resetStartTime();
+	}
+
+	void markSucc(final long count) {
+		throughputSuccess.update(count);
+	}
+
+	void markLatency(final long latencyMicros) {
+		respLatency.update(latencyMicros);
+	}
+
+	void markFail(final long count) {
+		throughputFail.update(count);
+	}
+
+	StorageNodeMetricsSnapshot snapshot() {
+		return new StorageNodeMetricsSnapshotImpl(
+						nodeAddr, throughputSuccess.snapshot(), throughputFail.snapshot(), respLatency.snapshot());
+	}
+}
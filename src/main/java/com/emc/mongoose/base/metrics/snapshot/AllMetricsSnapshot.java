@@ -1,6 +1,7 @@
 package com.emc.mongoose.base.metrics.snapshot;
 
 import java.io.Serializable;
+import java.util.List;
 
 public interface AllMetricsSnapshot extends Serializable {
 
@@ -18,4 +19,16 @@ public interface AllMetricsSnapshot extends Serializable {
 
 	/** @return value in milliseconds */
 	long elapsedTimeMillis();
+
+	/** @return the per storage node metrics, empty list if the storage node metrics breakdown is disabled */
+	List<StorageNodeMetricsSnapshot> storageNodeSnapshots();
+
+	/** @return the per operation type metrics, empty list if all the operations are of the same type */
+	List<OpTypeMetricsSnapshot> opTypeSnapshots();
+
+	/** @return the slowest operations, empty if the slowest operations tracking is disabled */
+	SlowestOperationsSnapshot slowestOpsSnapshot();
+
+	/** @return the load injector own metrics, empty if not sampled */
+	InjectorMetricsSnapshot injectorSnapshot();
 }
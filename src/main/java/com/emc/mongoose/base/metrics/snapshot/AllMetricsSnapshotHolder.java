@@ -0,0 +1,185 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+* The mutable metrics snapshot which is refreshed in place instead of being allocated again. The timing and
+* concurrency snapshots are immutable and just replaced by the references, the rate snapshots are updated in place.
+* The refresh is wrapped by {@link #beginRefresh()} and {@link #endRefresh()} calls which make the version odd during
+* the refresh. The getters return the valid recent values each, but the values taken from the different getters may
+* belong to the different refreshes: use {@link #copy()} to get the consistent snapshot, to pass it to another node
+* or to the asynchronous logging.
+*/
+public final class AllMetricsSnapshotHolder implements AllMetricsSnapshot {
+
+	private TimingMetricSnapshot durSnapshot;
+	private TimingMetricSnapshot latSnapshot;
+	private ConcurrencyMetricSnapshot concurrencySnapshot;
+	private final RateMetricSnapshotHolder failsSnapshot;
+	private final RateMetricSnapshotHolder successSnapshot;
+	private final RateMetricSnapshotHolder bytesSnapshot;
+	private long elapsedTimeMillis;
+	private StorageNodeMetricsSnapshot[] storageNodeSnapshotsArray = new StorageNodeMetricsSnapshot[0];
+	// the unmodifiable view of the array above, changed only if the storage nodes count changes
+	private List<StorageNodeMetricsSnapshot> storageNodeSnapshots = Collections.emptyList();
+	private OpTypeMetricsSnapshot[] opTypeSnapshotsArray = new OpTypeMetricsSnapshot[0];
+	// backed by the array above
+	private List<OpTypeMetricsSnapshot> opTypeSnapshots = Collections.emptyList();
+	private SlowestOperationsSnapshot slowestOpsSnapshot = SlowestOperationsSnapshotImpl.EMPTY;
+	private InjectorMetricsSnapshot injectorSnapshot = InjectorMetricsSnapshotImpl.EMPTY;
+	// odd while the holder is being refreshed, written by the single refreshing thread
+	private volatile long version = 0;
+
+	public AllMetricsSnapshotHolder(
+					final String failsMetricName, final String successMetricName, final String bytesMetricName) {
+		failsSnapshot = new RateMetricSnapshotHolder(failsMetricName);
+		successSnapshot = new RateMetricSnapshotHolder(successMetricName);
+		bytesSnapshot = new RateMetricSnapshotHolder(bytesMetricName);
+	}
+
+	/** Should be invoked by the refreshing thread before changing any value */
+	public void beginRefresh() {
+		version++;
+		// don't let the following values changes be visible before the version change
+		VarHandle.storeStoreFence();
+	}
+
+	/** Should be invoked by the refreshing thread after all values are changed */
+	public void endRefresh() {
+		version++;
+	}
+
+	public void set(
+					final TimingMetricSnapshot durSnapshot,
+					final TimingMetricSnapshot latSnapshot,
+					final ConcurrencyMetricSnapshot concurrencySnapshot,
+					final long elapsedTimeMillis) {
+		this.durSnapshot = durSnapshot;
+		this.latSnapshot = latSnapshot;
+		this.concurrencySnapshot = concurrencySnapshot;
+		this.elapsedTimeMillis = elapsedTimeMillis;
+	}
+
+	/** @param storageNodeSnapshots the immutable storage node metrics snapshots to copy into the holder's list */
+	public void storageNodeSnapshots(final StorageNodeMetricsSnapshot[] storageNodeSnapshots) {
+		final var count = storageNodeSnapshots.length;
+		if (storageNodeSnapshotsArray.length != count) {
+			storageNodeSnapshotsArray = new StorageNodeMetricsSnapshot[count];
+			this.storageNodeSnapshots = Collections.unmodifiableList(Arrays.asList(storageNodeSnapshotsArray));
+		}
+		System.arraycopy(storageNodeSnapshots, 0, storageNodeSnapshotsArray, 0, count);
+	}
+
+	/** @param opTypeSnapshots the immutable operation type metrics snapshots to copy into the holder's list */
+	public void opTypeSnapshots(final OpTypeMetricsSnapshot[] opTypeSnapshots) {
+		final var count = opTypeSnapshots.length;
+		if (opTypeSnapshotsArray.length != count) {
+			opTypeSnapshotsArray = new OpTypeMetricsSnapshot[count];
+			this.opTypeSnapshots = Collections.unmodifiableList(Arrays.asList(opTypeSnapshotsArray));
+		}
+		System.arraycopy(opTypeSnapshots, 0, opTypeSnapshotsArray, 0, count);
+	}
+
+	/** @param slowestOpsSnapshot the immutable slowest operations snapshot */
+	public void slowestOpsSnapshot(final SlowestOperationsSnapshot slowestOpsSnapshot) {
+		this.slowestOpsSnapshot = slowestOpsSnapshot;
+	}
+
+	/** @param injectorSnapshot the immutable load injector metrics snapshot */
+	public void injectorSnapshot(final InjectorMetricsSnapshot injectorSnapshot) {
+		this.injectorSnapshot = injectorSnapshot;
+	}
+
+	@Override
+	public TimingMetricSnapshot durationSnapshot() {
+		return durSnapshot;
+	}
+
+	@Override
+	public TimingMetricSnapshot latencySnapshot() {
+		return latSnapshot;
+	}
+
+	@Override
+	public ConcurrencyMetricSnapshot concurrencySnapshot() {
+		return concurrencySnapshot;
+	}
+
+	@Override
+	public RateMetricSnapshotHolder byteSnapshot() {
+		return bytesSnapshot;
+	}
+
+	@Override
+	public RateMetricSnapshotHolder successSnapshot() {
+		return successSnapshot;
+	}
+
+	@Override
+	public RateMetricSnapshotHolder failsSnapshot() {
+		return failsSnapshot;
+	}
+
+	@Override
+	public long elapsedTimeMillis() {
+		return elapsedTimeMillis;
+	}
+
+	@Override
+	public List<StorageNodeMetricsSnapshot> storageNodeSnapshots() {
+		return storageNodeSnapshots;
+	}
+
+	@Override
+	public List<OpTypeMetricsSnapshot> opTypeSnapshots() {
+		return opTypeSnapshots;
+	}
+
+	@Override
+	public SlowestOperationsSnapshot slowestOpsSnapshot() {
+		return slowestOpsSnapshot;
+	}
+
+	@Override
+	public InjectorMetricsSnapshot injectorSnapshot() {
+		return injectorSnapshot;
+	}
+
+	/** @return the immutable copy of the values from the same refresh, retried if the refresh happens meanwhile */
+	public AllMetricsSnapshot copy() {
+		while (true) {
+			final var v = version;
+			if (0 == (v & 1)) {
+				final var snapshot = new AllMetricsSnapshotImpl(
+								durSnapshot,
+								latSnapshot,
+								concurrencySnapshot,
+								failsSnapshot.copy(),
+								successSnapshot.copy(),
+								bytesSnapshot.copy(),
+								elapsedTimeMillis,
+								List.copyOf(storageNodeSnapshots),
+								List.copyOf(opTypeSnapshots),
+								slowestOpsSnapshot,
+								injectorSnapshot);
+				// don't let the values reads above be reordered with the version check
+				VarHandle.loadLoadFence();
+				if (v == version) {
+					return snapshot;
+				}
+			}
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	* @param snapshot the snapshot which may be mutable
+	* @return the immutable copy if the given snapshot is a holder, the same snapshot otherwise
+	*/
+	public static AllMetricsSnapshot immutableCopyOf(final AllMetricsSnapshot snapshot) {
+		return snapshot instanceof AllMetricsSnapshotHolder ? ((AllMetricsSnapshotHolder) snapshot).copy() : snapshot;
+	}
+}
@@ -1,5 +1,9 @@
 package com.emc.mongoose.base.metrics.snapshot;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class AllMetricsSnapshotImpl implements AllMetricsSnapshot {
 
 	private final TimingMetricSnapshot durSnapshot;
@@ -9,6 +13,10 @@ public class AllMetricsSnapshotImpl implements AllMetricsSnapshot {
 	private final RateMetricSnapshot successSnapshot;
 	private final RateMetricSnapshot bytesSnapshot;
 	protected final long elapsedTimeMillis;
+	private final List<StorageNodeMetricsSnapshot> storageNodeSnapshots;
+	private final List<OpTypeMetricsSnapshot> opTypeSnapshots;
+	private final SlowestOperationsSnapshot slowestOpsSnapshot;
+	private final InjectorMetricsSnapshot injectorSnapshot;
 
 	public AllMetricsSnapshotImpl(
 					final TimingMetricSnapshot durSnapshot,
@@ -18,6 +26,98 @@ public class AllMetricsSnapshotImpl implements AllMetricsSnapshot {
 					final RateMetricSnapshot successSnapshot,
 					final RateMetricSnapshot bytesSnapshot,
 					final long elapsedTimeMillis) {
+		this(
+						durSnapshot,
+						latSnapshot,
+						actualConcurrencySnapshot,
+						failsSnapshot,
+						successSnapshot,
+						bytesSnapshot,
+						elapsedTimeMillis,
+						Collections.emptyList());
+	}
+
+	public AllMetricsSnapshotImpl(
+					final TimingMetricSnapshot durSnapshot,
+					final TimingMetricSnapshot latSnapshot,
+					final ConcurrencyMetricSnapshot actualConcurrencySnapshot,
+					final RateMetricSnapshot failsSnapshot,
+					final RateMetricSnapshot successSnapshot,
+					final RateMetricSnapshot bytesSnapshot,
+					final long elapsedTimeMillis,
+					final List<StorageNodeMetricsSnapshot> storageNodeSnapshots) {
+		this(
+						durSnapshot,
+						latSnapshot,
+						actualConcurrencySnapshot,
+						failsSnapshot,
+						successSnapshot,
+						bytesSnapshot,
+						elapsedTimeMillis,
+						storageNodeSnapshots,
+						Collections.emptyList());
+	}
+
+	public AllMetricsSnapshotImpl(
+					final TimingMetricSnapshot durSnapshot,
+					final TimingMetricSnapshot latSnapshot,
+					final ConcurrencyMetricSnapshot actualConcurrencySnapshot,
+					final RateMetricSnapshot failsSnapshot,
+					final RateMetricSnapshot successSnapshot,
+					final RateMetricSnapshot bytesSnapshot,
+					final long elapsedTimeMillis,
+					final List<StorageNodeMetricsSnapshot> storageNodeSnapshots,
+					final List<OpTypeMetricsSnapshot> opTypeSnapshots) {
+		this(
+						durSnapshot,
+						latSnapshot,
+						actualConcurrencySnapshot,
+						failsSnapshot,
+						successSnapshot,
+						bytesSnapshot,
+						elapsedTimeMillis,
+						storageNodeSnapshots,
+						opTypeSnapshots,
+						SlowestOperationsSnapshotImpl.EMPTY);
+	}
+
+	public AllMetricsSnapshotImpl(
+					final TimingMetricSnapshot durSnapshot,
+					final TimingMetricSnapshot latSnapshot,
+					final ConcurrencyMetricSnapshot actualConcurrencySnapshot,
+					final RateMetricSnapshot failsSnapshot,
+					final RateMetricSnapshot successSnapshot,
+					final RateMetricSnapshot bytesSnapshot,
+					final long elapsedTimeMillis,
+					final List<StorageNodeMetricsSnapshot> storageNodeSnapshots,
+					final List<OpTypeMetricsSnapshot> opTypeSnapshots,
+					final SlowestOperationsSnapshot slowestOpsSnapshot) {
+		this(
+						durSnapshot,
+						latSnapshot,
+						actualConcurrencySnapshot,
+						failsSnapshot,
+						successSnapshot,
+						bytesSnapshot,
+						elapsedTimeMillis,
+						storageNodeSnapshots,
+						opTypeSnapshots,
+						slowestOpsSnapshot,
+						InjectorMetricsSnapshotImpl.EMPTY);
+	}
+
+	public AllMetricsSnapshotImpl(
+					final TimingMetricSnapshot durSnapshot,
+					final TimingMetricSnapshot latSnapshot,
+					final ConcurrencyMetricSnapshot actualConcurrencySnapshot,
+					final RateMetricSnapshot failsSnapshot,
+					final RateMetricSnapshot successSnapshot,
+					final RateMetricSnapshot bytesSnapshot,
+					final long elapsedTimeMillis,
+					final List<StorageNodeMetricsSnapshot> storageNodeSnapshots,
+					final List<OpTypeMetricsSnapshot> opTypeSnapshots,
+					final SlowestOperationsSnapshot slowestOpsSnapshot,
+					final InjectorMetricsSnapshot injectorSnapshot) {
 		this.durSnapshot = durSnapshot;
 		this.latSnapshot = latSnapshot;
 		this.actualConcurrencySnapshot = actualConcurrencySnapshot;
@@ -25,6 +125,73 @@ public class AllMetricsSnapshotImpl implements AllMetricsSnapshot {
 		this.successSnapshot = successSnapshot;
 		this.bytesSnapshot = bytesSnapshot;
 		this.elapsedTimeMillis = elapsedTimeMillis;
+		this.storageNodeSnapshots = storageNodeSnapshots;
+		this.opTypeSnapshots = opTypeSnapshots;
+		this.slowestOpsSnapshot = slowestOpsSnapshot;
+		this.injectorSnapshot = injectorSnapshot;
+	}
+
+	/**
+	* Merges the snapshots of the different load step slices. The merge is associative (the counts and the histograms
+	* are summed, the elapsed time is the max), so the merged snapshots may be merged again.
+	*
+	* @param snapshots the snapshots to merge, not empty
+	* @return the merged snapshot
+	*/
+	public static AllMetricsSnapshot aggregate(final List<? extends AllMetricsSnapshot> snapshots) {
+		final var snapshotsCount = snapshots.size();
+		if (snapshotsCount == 1) {
+			return snapshots.get(0);
+		}
+		final List<TimingMetricSnapshot> durSnapshots = new ArrayList<>(snapshotsCount);
+		final List<TimingMetricSnapshot> latSnapshots = new ArrayList<>(snapshotsCount);
+		final List<ConcurrencyMetricSnapshot> conSnapshots = new ArrayList<>(snapshotsCount);
+		final List<RateMetricSnapshot> succSnapshots = new ArrayList<>(snapshotsCount);
+		final List<RateMetricSnapshot> failSnapshots = new ArrayList<>(snapshotsCount);
+		final List<RateMetricSnapshot> byteSnapshots = new ArrayList<>(snapshotsCount);
+		final List<List<StorageNodeMetricsSnapshot>> storageNodeSnapshotLists = new ArrayList<>();
+		final List<List<OpTypeMetricsSnapshot>> opTypeSnapshotLists = new ArrayList<>();
+		final List<SlowestOperationsSnapshot> slowestOpsSnapshots = new ArrayList<>();
+		final List<InjectorMetricsSnapshot> injectorSnapshots = new ArrayList<>();
+		long elapsedTimeMillis = 0;
+		for (var i = 0; i < snapshotsCount; i++) {
+			final var snapshot = snapshots.get(i);
+			durSnapshots.add(snapshot.durationSnapshot());
+			latSnapshots.add(snapshot.latencySnapshot());
+			succSnapshots.add(snapshot.successSnapshot());
+			failSnapshots.add(snapshot.failsSnapshot());
+			byteSnapshots.add(snapshot.byteSnapshot());
+			conSnapshots.add(snapshot.concurrencySnapshot());
+			final var nodeSnapshots = snapshot.storageNodeSnapshots();
+			if (!nodeSnapshots.isEmpty()) {
+				storageNodeSnapshotLists.add(nodeSnapshots);
+			}
+			final var opSnapshots = snapshot.opTypeSnapshots();
+			if (!opSnapshots.isEmpty()) {
+				opTypeSnapshotLists.add(opSnapshots);
+			}
+			final var slowestSnapshot = snapshot.slowestOpsSnapshot();
+			if (!slowestSnapshot.stepOps().isEmpty()) {
+				slowestOpsSnapshots.add(slowestSnapshot);
+			}
+			final var sliceInjectorSnapshot = snapshot.injectorSnapshot();
+			if (sliceInjectorSnapshot.processorCount() > 0) {
+				injectorSnapshots.add(sliceInjectorSnapshot);
+			}
+			elapsedTimeMillis = Math.max(elapsedTimeMillis, snapshot.elapsedTimeMillis());
+		}
+		return new AllMetricsSnapshotImpl(
+						TimingMetricSnapshotImpl.aggregate(durSnapshots),
+						TimingMetricSnapshotImpl.aggregate(latSnapshots),
+						ConcurrencyMetricSnapshotImpl.aggregate(conSnapshots),
+						RateMetricSnapshotImpl.aggregate(failSnapshots),
+						RateMetricSnapshotImpl.aggregate(succSnapshots),
+						RateMetricSnapshotImpl.aggregate(byteSnapshots),
+						elapsedTimeMillis,
+						StorageNodeMetricsSnapshotImpl.aggregate(storageNodeSnapshotLists),
+						OpTypeMetricsSnapshotImpl.aggregate(opTypeSnapshotLists),
+						SlowestOperationsSnapshotImpl.aggregate(slowestOpsSnapshots),
+						InjectorMetricsSnapshotImpl.aggregate(injectorSnapshots));
 	}
 
 	@Override
@@ -61,4 +228,24 @@ public class AllMetricsSnapshotImpl implements AllMetricsSnapshot {
 	public long elapsedTimeMillis() {
 		return elapsedTimeMillis;
 	}
+
+	@Override
+	public List<StorageNodeMetricsSnapshot> storageNodeSnapshots() {
+		return storageNodeSnapshots;
+	}
+
+	@Override
+	public List<OpTypeMetricsSnapshot> opTypeSnapshots() {
+		return opTypeSnapshots;
+	}
+
+	@Override
+	public SlowestOperationsSnapshot slowestOpsSnapshot() {
+		return slowestOpsSnapshot;
+	}
+
+	@Override
+	public InjectorMetricsSnapshot injectorSnapshot() {
+		return injectorSnapshot;
+	}
 }
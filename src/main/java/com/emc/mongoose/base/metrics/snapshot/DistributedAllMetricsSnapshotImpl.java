@@ -1,5 +1,8 @@
 package com.emc.mongoose.base.metrics.snapshot;
 
+import java.util.Collections;
+import java.util.List;
+
 /** @author veronika K. */
 public final class DistributedAllMetricsSnapshotImpl extends AllMetricsSnapshotImpl
 				implements DistributedAllMetricsSnapshot {
@@ -15,6 +18,106 @@ public final class DistributedAllMetricsSnapshotImpl extends AllMetricsSnapshotI
 					final RateMetricSnapshot bytesSnapshot,
 					final int nodeCount,
 					final long elapsedTimeMillis) {
+		this(
+						durSnapshot,
+						latSnapshot,
+						actualConcurrencySnapshot,
+						failsSnapshot,
+						successSnapshot,
+						bytesSnapshot,
+						nodeCount,
+						elapsedTimeMillis,
+						Collections.emptyList());
+	}
+
+	public DistributedAllMetricsSnapshotImpl(
+					final TimingMetricSnapshot durSnapshot,
+					final TimingMetricSnapshot latSnapshot,
+					final ConcurrencyMetricSnapshot actualConcurrencySnapshot,
+					final RateMetricSnapshot failsSnapshot,
+					final RateMetricSnapshot successSnapshot,
+					final RateMetricSnapshot bytesSnapshot,
+					final int nodeCount,
+					final long elapsedTimeMillis,
+					final List<StorageNodeMetricsSnapshot> storageNodeSnapshots) {
+		this(
+						durSnapshot,
+						latSnapshot,
+						actualConcurrencySnapshot,
+						failsSnapshot,
+						successSnapshot,
+						bytesSnapshot,
+						nodeCount,
+						elapsedTimeMillis,
+						storageNodeSnapshots,
+						Collections.emptyList());
+	}
+
+	public DistributedAllMetricsSnapshotImpl(
+					final TimingMetricSnapshot durSnapshot,
+					final TimingMetricSnapshot latSnapshot,
+					final ConcurrencyMetricSnapshot actualConcurrencySnapshot,
+					final RateMetricSnapshot failsSnapshot,
+					final RateMetricSnapshot successSnapshot,
+					final RateMetricSnapshot bytesSnapshot,
+					final int nodeCount,
+					final long elapsedTimeMillis,
+					final List<StorageNodeMetricsSnapshot> storageNodeSnapshots,
+					final List<OpTypeMetricsSnapshot> opTypeSnapshots) {
+		this(
+						durSnapshot,
+						latSnapshot,
+						actualConcurrencySnapshot,
+						failsSnapshot,
+						successSnapshot,
+						bytesSnapshot,
+						nodeCount,
+						elapsedTimeMillis,
+						storageNodeSnapshots,
+						opTypeSnapshots,
+						SlowestOperationsSnapshotImpl.EMPTY);
+	}
+
+	public DistributedAllMetricsSnapshotImpl(
+					final TimingMetricSnapshot durSnapshot,
+					final TimingMetricSnapshot latSnapshot,
+					final ConcurrencyMetricSnapshot actualConcurrencySnapshot,
+					final RateMetricSnapshot failsSnapshot,
+					final RateMetricSnapshot successSnapshot,
+					final RateMetricSnapshot bytesSnapshot,
+					final int nodeCount,
+					final long elapsedTimeMillis,
+					final List<StorageNodeMetricsSnapshot> storageNodeSnapshots,
+					final List<OpTypeMetricsSnapshot> opTypeSnapshots,
+					final SlowestOperationsSnapshot slowestOpsSnapshot) {
+		this(
+						durSnapshot,
+						latSnapshot,
+						actualConcurrencySnapshot,
+						failsSnapshot,
+						successSnapshot,
+						bytesSnapshot,
+						nodeCount,
+						elapsedTimeMillis,
+						storageNodeSnapshots,
+						opTypeSnapshots,
+						slowestOpsSnapshot,
+						InjectorMetricsSnapshotImpl.EMPTY);
+	}
+
+	public DistributedAllMetricsSnapshotImpl(
+					final TimingMetricSnapshot durSnapshot,
+					final TimingMetricSnapshot latSnapshot,
+					final ConcurrencyMetricSnapshot actualConcurrencySnapshot,
+					final RateMetricSnapshot failsSnapshot,
+					final RateMetricSnapshot successSnapshot,
+					final RateMetricSnapshot bytesSnapshot,
+					final int nodeCount,
+					final long elapsedTimeMillis,
+					final List<StorageNodeMetricsSnapshot> storageNodeSnapshots,
+					final List<OpTypeMetricsSnapshot> opTypeSnapshots,
+					final SlowestOperationsSnapshot slowestOpsSnapshot,
+					final InjectorMetricsSnapshot injectorSnapshot) {
 		super(
 						durSnapshot,
 						latSnapshot,
@@ -22,7 +125,11 @@ public final class DistributedAllMetricsSnapshotImpl extends AllMetricsSnapshotI
 						failsSnapshot,
 						successSnapshot,
 						bytesSnapshot,
-						elapsedTimeMillis);
+						elapsedTimeMillis,
+						storageNodeSnapshots,
+						opTypeSnapshots,
+						slowestOpsSnapshot,
+						injectorSnapshot);
 		this.nodeCount = nodeCount;
 	}
 
@@ -0,0 +1,143 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+* The load injector's own metrics: the load generator lag, the internal queues fill, the operation results completion
+* time and the JVM memory management costs. These help to determine whether the storage or the injector limits the
+* load rate.
+*/
+public interface InjectorMetricsSnapshot extends Serializable {
+
+	/** The overrun load generator invocations share above which the load generator is considered lagging */
+	double FIBER_OVERRUN_RATIO_LIMIT = 0.01;
+	/** The mean queue fill ratio above which the queue is considered saturated */
+	double QUEUE_FILL_LIMIT = 0.9;
+	/** The available processors time share spent for the operation results handling considered as saturation */
+	double COMPLETION_CPU_SHARE_LIMIT = 0.5;
+	/** The elapsed time share spent in the GC pauses considered as saturation */
+	double GC_PAUSE_SHARE_LIMIT = 0.1;
+
+	/** @return the load generator invocations count */
+	long fiberInvocationCount();
+
+	/** @return the count of the load generator invocations which took more than the fiber's warning duration limit */
+	long fiberOverrunCount();
+
+	/** @return the recycle queue size to capacity ratio at the moment */
+	double recycleQueueFillLast();
+
+	/** @return the recycle queue size to capacity ratio mean value since the start */
+	double recycleQueueFillMean();
+
+	/** @return the previous load step results buffer fill ratio at the moment, 0 if not used */
+	double transferBufferFillLast();
+
+	/** @return the previous load step results buffer fill ratio mean value since the start, 0 if not used */
+	double transferBufferFillMean();
+
+	/** @return the count of the operations accepted by the storage driver but not started yet at the moment */
+	double driverQueueDepthLast();
+
+	/** @return the count of the operations accepted by the storage driver but not started yet, mean since the start */
+	double driverQueueDepthMean();
+
+	/** @return the count of the handled operation results */
+	long completionCount();
+
+	/** @return the total time spent by the storage driver threads handling the operation results, microseconds */
+	long completionTimeMicros();
+
+	/** @return the count of the content chunks verified by the storage driver's verification pool */
+	long verifyCount();
+
+	/** @return the total time spent by the storage driver's verification pool verifying the content, microseconds */
+	long verifyTimeMicros();
+
+	/** @return the total GC pauses time since the start, milliseconds */
+	long gcPauseMillis();
+
+	/** @return the count of the bytes allocated by the live threads since the start */
+	long allocatedBytes();
+
+	/** @return the last allocation rate, bytes per second */
+	double allocRateLast();
+
+	/** @return the available processors count, summed for the aggregated snapshot */
+	int processorCount();
+
+	/** @return value in milliseconds */
+	long elapsedTimeMillis();
+
+	default double fiberOverrunRatio() {
+		final var invocationCount = fiberInvocationCount();
+		return invocationCount > 0 ? ((double) fiberOverrunCount()) / invocationCount : 0;
+	}
+
+	/** @return the mean operation result handling time, microseconds */
+	default double completionTimeMean() {
+		final var completionCount = completionCount();
+		return completionCount > 0 ? ((double) completionTimeMicros()) / completionCount : 0;
+	}
+
+	/** @return the share of the available processors time spent handling the operation results */
+	default double completionCpuShare() {
+		final var elapsedTimeMillis = elapsedTimeMillis();
+		final var processorCount = processorCount();
+		return elapsedTimeMillis > 0 && processorCount > 0
+						? completionTimeMicros() / (1000.0 * elapsedTimeMillis * processorCount)
+						: 0;
+	}
+
+	/** @return the mean content chunk verification time, microseconds */
+	default double verifyTimeMean() {
+		final var verifyCount = verifyCount();
+		return verifyCount > 0 ? ((double) verifyTimeMicros()) / verifyCount : 0;
+	}
+
+	/** @return the share of the available processors time spent verifying the content */
+	default double verifyCpuShare() {
+		final var elapsedTimeMillis = elapsedTimeMillis();
+		final var processorCount = processorCount();
+		return elapsedTimeMillis > 0 && processorCount > 0
+						? verifyTimeMicros() / (1000.0 * elapsedTimeMillis * processorCount)
+						: 0;
+	}
+
+	/** @return the share of the elapsed time spent in the GC pauses */
+	default double gcPauseShare() {
+		final var elapsedTimeMillis = elapsedTimeMillis();
+		return elapsedTimeMillis > 0 ? ((double) gcPauseMillis()) / elapsedTimeMillis : 0;
+	}
+
+	/** @return the names of the saturated injector resources, empty list if none */
+	default List<String> saturated() {
+		final List<String> saturated = new ArrayList<>();
+		if (fiberOverrunRatio() > FIBER_OVERRUN_RATIO_LIMIT) {
+			saturated.add("load generator");
+		}
+		if (recycleQueueFillMean() > QUEUE_FILL_LIMIT) {
+			saturated.add("recycle queue");
+		}
+		if (transferBufferFillMean() > QUEUE_FILL_LIMIT) {
+			saturated.add("transfer buffer");
+		}
+		if (completionCpuShare() > COMPLETION_CPU_SHARE_LIMIT) {
+			saturated.add("results completion");
+		}
+		if (verifyCpuShare() > COMPLETION_CPU_SHARE_LIMIT) {
+			saturated.add("content verification");
+		}
+		if (gcPauseShare() > GC_PAUSE_SHARE_LIMIT) {
+			saturated.add("GC");
+		}
+		return saturated;
+	}
+
+	/** @return true if any of the injector resources is saturated, so the storage is probably not the bottleneck */
+	default boolean injectorBound() {
+		return !saturated().isEmpty();
+	}
+}
@@ -0,0 +1,220 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+import java.util.List;
+
+public class InjectorMetricsSnapshotImpl implements InjectorMetricsSnapshot {
+
+	public static final InjectorMetricsSnapshot EMPTY = new InjectorMetricsSnapshotImpl(
+					0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+	private final long fiberInvocationCount;
+	private final long fiberOverrunCount;
+	private final double recycleQueueFillLast;
+	private final double recycleQueueFillMean;
+	private final double transferBufferFillLast;
+	private final double transferBufferFillMean;
+	private final double driverQueueDepthLast;
+	private final double driverQueueDepthMean;
+	private final long completionCount;
+	private final long completionTimeMicros;
+	private final long verifyCount;
+	private final long verifyTimeMicros;
+	private final long gcPauseMillis;
+	private final long allocatedBytes;
+	private final double allocRateLast;
+	private final int processorCount;
+	private final long elapsedTimeMillis;
+
+	public InjectorMetricsSnapshotImpl(
+					final long fiberInvocationCount,
+					final long fiberOverrunCount,
+					final double recycleQueueFillLast,
+					final double recycleQueueFillMean,
+					final double transferBufferFillLast,
+					final double transferBufferFillMean,
+					final double driverQueueDepthLast,
+					final double driverQueueDepthMean,
+					final long completionCount,
+					final long completionTimeMicros,
+					final long verifyCount,
+					final long verifyTimeMicros,
+					final long gcPauseMillis,
+					final long allocatedBytes,
+					final double allocRateLast,
+					final int processorCount,
+					final long elapsedTimeMillis) {
+		this.fiberInvocationCount = fiberInvocationCount;
+		this.fiberOverrunCount = fiberOverrunCount;
+		this.recycleQueueFillLast = recycleQueueFillLast;
+		this.recycleQueueFillMean = recycleQueueFillMean;
+		this.transferBufferFillLast = transferBufferFillLast;
+		this.transferBufferFillMean = transferBufferFillMean;
+		this.driverQueueDepthLast = driverQueueDepthLast;
+		this.driverQueueDepthMean = driverQueueDepthMean;
+		this.completionCount = completionCount;
+		this.completionTimeMicros = completionTimeMicros;
+		this.verifyCount = verifyCount;
+		this.verifyTimeMicros = verifyTimeMicros;
+		this.gcPauseMillis = gcPauseMillis;
+		this.allocatedBytes = allocatedBytes;
+		this.allocRateLast = allocRateLast;
+		this.processorCount = processorCount;
+		this.elapsedTimeMillis = elapsedTimeMillis;
+	}
+
+	/**
+	* Merge the injector metrics reported by the different load step slices. The counts and the rates are summed. The
+	* queue fill ratios and the GC pauses time are taken from the most saturated slice, because a single saturated
+	* injector is enough to limit the whole distributed load step.
+	*
+	* @param snapshots the injector metrics snapshots, one per the load step slice
+	* @return the merged injector metrics snapshot
+	*/
+	public static InjectorMetricsSnapshot aggregate(final List<InjectorMetricsSnapshot> snapshots) {
+		final var snapshotCount = snapshots.size();
+		if (0 == snapshotCount) {
+			return EMPTY;
+		} else if (1 == snapshotCount) {
+			return snapshots.get(0);
+		}
+		long fiberInvocationCount = 0;
+		long fiberOverrunCount = 0;
+		double recycleQueueFillLast = 0;
+		double recycleQueueFillMean = 0;
+		double transferBufferFillLast = 0;
+		double transferBufferFillMean = 0;
+		double driverQueueDepthLast = 0;
+		double driverQueueDepthMean = 0;
+		long completionCount = 0;
+		long completionTimeMicros = 0;
+		long verifyCount = 0;
+		long verifyTimeMicros = 0;
+		long gcPauseMillis = 0;
+		long allocatedBytes = 0;
+		double allocRateLast = 0;
+		int processorCount = 0;
+		long elapsedTimeMillis = 0;
+		for (final var snapshot : snapshots) {
+			fiberInvocationCount += snapshot.fiberInvocationCount();
+			fiberOverrunCount += snapshot.fiberOverrunCount();
+			recycleQueueFillLast = Math.max(recycleQueueFillLast, snapshot.recycleQueueFillLast());
+			recycleQueueFillMean = Math.max(recycleQueueFillMean, snapshot.recycleQueueFillMean());
+			transferBufferFillLast = Math.max(transferBufferFillLast, snapshot.transferBufferFillLast());
+			transferBufferFillMean = Math.max(transferBufferFillMean, snapshot.transferBufferFillMean());
+			driverQueueDepthLast += snapshot.driverQueueDepthLast();
+			driverQueueDepthMean += snapshot.driverQueueDepthMean();
+			completionCount += snapshot.completionCount();
+			completionTimeMicros += snapshot.completionTimeMicros();
+			verifyCount += snapshot.verifyCount();
+			verifyTimeMicros += snapshot.verifyTimeMicros();
+			gcPauseMillis = Math.max(gcPauseMillis, snapshot.gcPauseMillis());
+			allocatedBytes += snapshot.allocatedBytes();
+			allocRateLast += snapshot.allocRateLast();
+			processorCount += snapshot.processorCount();
+			elapsedTimeMillis = Math.max(elapsedTimeMillis, snapshot.elapsedTimeMillis());
+		}
+		return new InjectorMetricsSnapshotImpl(
+						fiberInvocationCount,
+						fiberOverrunCount,
+						recycleQueueFillLast,
+						recycleQueueFillMean,
+						transferBufferFillLast,
+						transferBufferFillMean,
+						driverQueueDepthLast,
+						driverQueueDepthMean,
+						completionCount,
+						completionTimeMicros,
+						verifyCount,
+						verifyTimeMicros,
+						gcPauseMillis,
+						allocatedBytes,
+						allocRateLast,
+						processorCount,
+						elapsedTimeMillis);
+	}
+
+	@Override
+	public final long fiberInvocationCount() {
+		return fiberInvocationCount;
+	}
+
+	@Override
+	public final long fiberOverrunCount() {
+		return fiberOverrunCount;
+	}
+
+	@Override
+	public final double recycleQueueFillLast() {
+		return recycleQueueFillLast;
+	}
+
+	@Override
+	public final double recycleQueueFillMean() {
+		return recycleQueueFillMean;
+	}
+
+	@Override
+	public final double transferBufferFillLast() {
+		return transferBufferFillLast;
+	}
+
+	@Override
+	public final double transferBufferFillMean() {
+		return transferBufferFillMean;
+	}
+
+	@Override
+	public final double driverQueueDepthLast() {
+		return driverQueueDepthLast;
+	}
+
+	@Override
+	public final double driverQueueDepthMean() {
+		return driverQueueDepthMean;
+	}
+
+	@Override
+	public final long completionCount() {
+		return completionCount;
+	}
+
+	@Override
+	public final long completionTimeMicros() {
+		return completionTimeMicros;
+	}
+
+	@Override
+	public final long verifyCount() {
+		return verifyCount;
+	}
+
+	@Override
+	public final long verifyTimeMicros() {
+		return verifyTimeMicros;
+	}
+
+	@Override
+	public final long gcPauseMillis() {
+		return gcPauseMillis;
+	}
+
+	@Override
+	public final long allocatedBytes() {
+		return allocatedBytes;
+	}
+
+	@Override
+	public final double allocRateLast() {
+		return allocRateLast;
+	}
+
+	@Override
+	public final int processorCount() {
+		return processorCount;
+	}
+
+	@Override
+	public final long elapsedTimeMillis() {
+		return elapsedTimeMillis;
+	}
+}
@@ -0,0 +1,48 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+/**
+* The snapshot of the log-linear histogram. The values less than {@link #SUB_BUCKET_COUNT} are
+* counted exactly, each next power of two range is split into {@link #SUB_BUCKET_COUNT} linear
+* buckets, so the relative error of any quantile value is less than 1 / {@link #SUB_BUCKET_COUNT}.
+* Only the non-empty buckets are stored, so the snapshot is compact enough to be passed between the
+* nodes and the snapshots may be merged without the precision loss.
+*/
+public interface LogLinearHistogramSnapshot extends CountMetricSnapshot {
+
+	int SUB_BUCKET_BITS = 7;
+	int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	/** The max value which may be distinguished, the greater values are counted as this one */
+	long VALUE_MAX = (1L << 40) - 1;
+	int BUCKET_COUNT = bucketIndex(VALUE_MAX) + 1;
+
+	/** @return the indices of the non-empty buckets in the ascending order */
+	int[] bucketIndices();
+
+	/** @return the counts of the non-empty buckets, in the same order as the indices */
+	long[] bucketCounts();
+
+	/**
+	* @param quantile the quantile in the range [0..1]
+	* @return the approximate value for the quantile, 0 if the histogram is empty
+	*/
+	long quantile(final double quantile);
+
+	static int bucketIndex(final long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return value < 0 ? 0 : (int) value;
+		}
+		final var v = value > VALUE_MAX ? VALUE_MAX : value;
+		final var shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(v) - SUB_BUCKET_BITS;
+		return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((v >>> shift) - SUB_BUCKET_COUNT);
+	}
+
+	/** @return the value in the middle of the given bucket's range */
+	static long bucketValue(final int bucketIndex) {
+		if (bucketIndex < SUB_BUCKET_COUNT) {
+			return bucketIndex;
+		}
+		final var shift = (bucketIndex >>> SUB_BUCKET_BITS) - 1;
+		final var lowerBound = (long) (SUB_BUCKET_COUNT + (bucketIndex & (SUB_BUCKET_COUNT - 1))) << shift;
+		return lowerBound + (((1L << shift) - 1) >> 1);
+	}
+}
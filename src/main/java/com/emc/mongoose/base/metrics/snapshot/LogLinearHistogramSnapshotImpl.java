@@ -0,0 +1,147 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+import java.util.List;
+
+public class LogLinearHistogramSnapshotImpl implements LogLinearHistogramSnapshot {
+
+	public static final LogLinearHistogramSnapshotImpl EMPTY = new LogLinearHistogramSnapshotImpl(new long[0]);
+
+	private final int[] bucketIndices;
+	private final long[] bucketCounts;
+	private final long count;
+
+	/** @param denseCounts the bucket counts indexed by the bucket index */
+	public LogLinearHistogramSnapshotImpl(final long[] denseCounts) {
+		var nonEmptyCount = 0;
+		for (final var c : denseCounts) {
+			if (c > 0) {
+				nonEmptyCount++;
+			}
+		}
+		bucketIndices = new int[nonEmptyCount];
+		bucketCounts = new long[nonEmptyCount];
+		long count = 0;
+		for (int i = 0, j = 0; i < denseCounts.length; i++) {
+			if (denseCounts[i] > 0) {
+				bucketIndices[j] = i;
+				bucketCounts[j] = denseCounts[i];
+				count += denseCounts[i];
+				j++;
+			}
+		}
+		this.count = count;
+	}
+
+	/**
+	* @param bucketIndices the indices of the non-empty buckets in the ascending order
+	* @param bucketCounts the counts of the non-empty buckets, in the same order as the indices
+	*/
+	public LogLinearHistogramSnapshotImpl(final int[] bucketIndices, final long[] bucketCounts) {
+		this.bucketIndices = bucketIndices;
+		this.bucketCounts = bucketCounts;
+		long count = 0;
+		for (final var c : bucketCounts) {
+			count += c;
+		}
+		this.count = count;
+	}
+
+	public static LogLinearHistogramSnapshot aggregate(final List<LogLinearHistogramSnapshot> snapshots) {
+		final var snapshotCount = snapshots.size();
+		if (0 == snapshotCount) {
+			return EMPTY;
+		} else if (1 == snapshotCount) {
+			return snapshots.get(0);
+		}
+		final var denseCounts = new long[BUCKET_COUNT];
+		LogLinearHistogramSnapshot snapshot;
+		int[] indices;
+		long[] counts;
+		for (var i = 0; i < snapshotCount; i++) {
+			snapshot = snapshots.get(i);
+			indices = snapshot.bucketIndices();
+			counts = snapshot.bucketCounts();
+			for (var j = 0; j < indices.length; j++) {
+				denseCounts[indices[j]] += counts[j];
+			}
+		}
+		return new LogLinearHistogramSnapshotImpl(denseCounts);
+	}
+
+	/**
+	* @param total the histogram of all the values
+	* @param parts the histograms of some values subsets
+	* @return the histogram of the remaining values
+	*/
+	public static LogLinearHistogramSnapshot subtract(
+					final LogLinearHistogramSnapshot total, final List<LogLinearHistogramSnapshot> parts) {
+		final var indices = total.bucketIndices();
+		final var counts = total.bucketCounts().clone();
+		for (final var part : parts) {
+			final var partIndices = part.bucketIndices();
+			final var partCounts = part.bucketCounts();
+			// both index arrays are sorted
+			for (int i = 0, j = 0; i < indices.length && j < partIndices.length; ) {
+				if (indices[i] < partIndices[j]) {
+					i++;
+				} else if (indices[i] > partIndices[j]) {
+					j++;
+				} else {
+					counts[i] -= partCounts[j];
+					i++;
+					j++;
+				}
+			}
+		}
+		var nonEmptyCount = 0;
+		for (final var c : counts) {
+			if (c > 0) {
+				nonEmptyCount++;
+			}
+		}
+		final var remainingIndices = new int[nonEmptyCount];
+		final var remainingCounts = new long[nonEmptyCount];
+		for (int i = 0, j = 0; i < counts.length; i++) {
+			if (counts[i] > 0) {
+				remainingIndices[j] = indices[i];
+				remainingCounts[j] = counts[i];
+				j++;
+			}
+		}
+		return new LogLinearHistogramSnapshotImpl(remainingIndices, remainingCounts);
+	}
+
+	@Override
+	public final int[] bucketIndices() {
+		return bucketIndices;
+	}
+
+	@Override
+	public final long[] bucketCounts() {
+		return bucketCounts;
+	}
+
+	@Override
+	public final long count() {
+		return count;
+	}
+
+	@Override
+	public final long quantile(final double quantile) {
+		if (quantile < 0 || quantile > 1) {
+			throw new IllegalArgumentException(quantile + " is not in range [0..1]");
+		}
+		if (0 == count) {
+			return 0;
+		}
+		final var rank = Math.max(1, (long) Math.ceil(quantile * count));
+		long cumulativeCount = 0;
+		for (var i = 0; i < bucketIndices.length; i++) {
+			cumulativeCount += bucketCounts[i];
+			if (cumulativeCount >= rank) {
+				return LogLinearHistogramSnapshot.bucketValue(bucketIndices[i]);
+			}
+		}
+		return LogLinearHistogramSnapshot.bucketValue(bucketIndices[bucketIndices.length - 1]);
+	}
+}
@@ -0,0 +1,20 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+import com.emc.mongoose.base.item.op.OpType;
+import java.io.Serializable;
+
+/** The metrics of the operations of the particular type executed within the load step */
+public interface OpTypeMetricsSnapshot extends Serializable {
+
+	OpType opType();
+
+	RateMetricSnapshot successSnapshot();
+
+	RateMetricSnapshot failsSnapshot();
+
+	RateMetricSnapshot byteSnapshot();
+
+	TimingMetricSnapshot durationSnapshot();
+
+	TimingMetricSnapshot latencySnapshot();
+}
@@ -0,0 +1,120 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+import com.emc.mongoose.base.item.op.OpType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class OpTypeMetricsSnapshotImpl implements OpTypeMetricsSnapshot {
+
+	private final OpType opType;
+	private final RateMetricSnapshot successSnapshot;
+	private final RateMetricSnapshot failsSnapshot;
+	private final RateMetricSnapshot bytesSnapshot;
+	private final TimingMetricSnapshot durSnapshot;
+	private final TimingMetricSnapshot latSnapshot;
+
+	public OpTypeMetricsSnapshotImpl(
+					final OpType opType,
+					final RateMetricSnapshot successSnapshot,
+					final RateMetricSnapshot failsSnapshot,
+					final RateMetricSnapshot bytesSnapshot,
+					final TimingMetricSnapshot durSnapshot,
+					final TimingMetricSnapshot latSnapshot) {
+		this.opType = opType;
+		this.successSnapshot = successSnapshot;
+		this.failsSnapshot = failsSnapshot;
+		this.bytesSnapshot = bytesSnapshot;
+		this.durSnapshot = durSnapshot;
+		this.latSnapshot = latSnapshot;
+	}
+
+	/**
+	* Merge the operation type metrics reported by the different load step slices by the operation type.
+	*
+	* @param snapshotLists the operation type metrics snapshots lists, one per the load step slice
+	* @return the merged operation type metrics snapshots in the operation type order
+	*/
+	public static List<OpTypeMetricsSnapshot> aggregate(final List<List<OpTypeMetricsSnapshot>> snapshotLists) {
+		final var listCount = snapshotLists.size();
+		if (0 == listCount) {
+			return Collections.emptyList();
+		} else if (1 == listCount) {
+			return snapshotLists.get(0);
+		}
+		final var opTypes = OpType.values();
+		@SuppressWarnings("unchecked")
+		final List<OpTypeMetricsSnapshot>[] snapshotsByOpType = new List[opTypes.length];
+		for (final var snapshots : snapshotLists) {
+			for (final var snapshot : snapshots) {
+				final var i = snapshot.opType().ordinal();
+				if (null == snapshotsByOpType[i]) {
+					snapshotsByOpType[i] = new ArrayList<>(listCount);
+				}
+				snapshotsByOpType[i].add(snapshot);
+			}
+		}
+		final List<OpTypeMetricsSnapshot> result = new ArrayList<>(opTypes.length);
+		for (var i = 0; i < opTypes.length; i++) {
+			final var snapshots = snapshotsByOpType[i];
+			if (null == snapshots) {
+				continue;
+			}
+			if (1 == snapshots.size()) {
+				result.add(snapshots.get(0));
+			} else {
+				final var successSnapshots = new ArrayList<RateMetricSnapshot>(snapshots.size());
+				final var failsSnapshots = new ArrayList<RateMetricSnapshot>(snapshots.size());
+				final var bytesSnapshots = new ArrayList<RateMetricSnapshot>(snapshots.size());
+				final var durSnapshots = new ArrayList<TimingMetricSnapshot>(snapshots.size());
+				final var latSnapshots = new ArrayList<TimingMetricSnapshot>(snapshots.size());
+				for (final var snapshot : snapshots) {
+					successSnapshots.add(snapshot.successSnapshot());
+					failsSnapshots.add(snapshot.failsSnapshot());
+					bytesSnapshots.add(snapshot.byteSnapshot());
+					durSnapshots.add(snapshot.durationSnapshot());
+					latSnapshots.add(snapshot.latencySnapshot());
+				}
+				result.add(
+								new OpTypeMetricsSnapshotImpl(
+												opTypes[i],
+												RateMetricSnapshotImpl.aggregate(successSnapshots),
+												RateMetricSnapshotImpl.aggregate(failsSnapshots),
+												RateMetricSnapshotImpl.aggregate(bytesSnapshots),
+												TimingMetricSnapshotImpl.aggregate(durSnapshots),
+												TimingMetricSnapshotImpl.aggregate(latSnapshots)));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public final OpType opType() {
+		return opType;
+	}
+
+	@Override
+	public final RateMetricSnapshot successSnapshot() {
+		return successSnapshot;
+	}
+
+	@Override
+	public final RateMetricSnapshot failsSnapshot() {
+		return failsSnapshot;
+	}
+
+	@Override
+	public final RateMetricSnapshot byteSnapshot() {
+		return bytesSnapshot;
+	}
+
+	@Override
+	public final TimingMetricSnapshot durationSnapshot() {
+		return durSnapshot;
+	}
+
+	@Override
+	public final TimingMetricSnapshot latencySnapshot() {
+		return latSnapshot;
+	}
+}
@@ -0,0 +1,50 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+/**
+* The mutable rate metric snapshot which is refreshed in place instead of being allocated again. The values are not
+* updated atomically, so the holder should be read only by the refreshing thread or after the safe publication,
+* use {@link #copy()} to pass it further.
+*/
+public final class RateMetricSnapshotHolder extends NamedMetricSnapshotBase implements RateMetricSnapshot {
+
+	private long count;
+	private double last;
+	private double mean;
+	private long elapsedTimeMillis;
+
+	public RateMetricSnapshotHolder(final String name) {
+		super(name);
+	}
+
+	public void set(final long count, final double last, final double mean, final long elapsedTimeMillis) {
+		this.count = count;
+		this.last = last;
+		this.mean = mean;
+		this.elapsedTimeMillis = elapsedTimeMillis;
+	}
+
+	@Override
+	public long count() {
+		return count;
+	}
+
+	@Override
+	public double last() {
+		return last;
+	}
+
+	@Override
+	public double mean() {
+		return mean;
+	}
+
+	@Override
+	public long elapsedTimeMillis() {
+		return elapsedTimeMillis;
+	}
+
+	/** @return the immutable copy of the current values */
+	public RateMetricSnapshot copy() {
+		return new RateMetricSnapshotImpl(last, mean, name(), count, elapsedTimeMillis);
+	}
+}
@@ -45,6 +45,25 @@ public class RateMetricSnapshotImpl extends NamedCountMetricSnapshotImpl
 						lastRateSum, meanRateSum, snapshots.get(0).name(), countSum, maxElapsedTimeMillis);
 	}
 
+	/**
+	* @param total the snapshot of the rate of all the values
+	* @param parts the snapshots of the rates of some values subsets
+	* @return the snapshot of the rate of the remaining values
+	*/
+	public static RateMetricSnapshot subtract(final RateMetricSnapshot total, final List<RateMetricSnapshot> parts) {
+		double last = total.last();
+		double mean = total.mean();
+		long count = total.count();
+		for (final var part : parts) {
+			last -= part.last();
+			mean -= part.mean();
+			count -= part.count();
+		}
+		// the parts may be sampled a bit later than the total
+		return new RateMetricSnapshotImpl(
+						Math.max(0, last), Math.max(0, mean), total.name(), Math.max(0, count), total.elapsedTimeMillis());
+	}
+
 	@Override
 	public final double last() {
 		return last;
@@ -0,0 +1,15 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+import com.emc.mongoose.base.logging.OperationTraceRecord;
+import java.io.Serializable;
+import java.util.List;
+
+/** The slowest load operations, the slowest one goes first */
+public interface SlowestOperationsSnapshot extends Serializable {
+
+	/** @return the slowest operations since the load step start */
+	List<OperationTraceRecord<?, ?>> stepOps();
+
+	/** @return the slowest operations during the last complete metrics output period */
+	List<OperationTraceRecord<?, ?>> lastIntervalOps();
+}
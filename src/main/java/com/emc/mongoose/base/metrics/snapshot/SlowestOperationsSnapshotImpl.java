@@ -0,0 +1,68 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+import com.emc.mongoose.base.logging.OperationTraceRecord;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+public class SlowestOperationsSnapshotImpl implements SlowestOperationsSnapshot {
+
+	public static final SlowestOperationsSnapshot EMPTY = new SlowestOperationsSnapshotImpl(
+					Collections.emptyList(), Collections.emptyList());
+	public static final Comparator<OperationTraceRecord<?, ?>> SLOWEST_FIRST = Comparator.comparingLong(
+					(OperationTraceRecord<?, ?> rec) -> rec.duration()).reversed();
+
+	private final List<OperationTraceRecord<?, ?>> stepOps;
+	private final List<OperationTraceRecord<?, ?>> lastIntervalOps;
+
+	public SlowestOperationsSnapshotImpl(
+					final List<OperationTraceRecord<?, ?>> stepOps, final List<OperationTraceRecord<?, ?>> lastIntervalOps) {
+		this.stepOps = stepOps;
+		this.lastIntervalOps = lastIntervalOps;
+	}
+
+	/**
+	* Merge the slowest operations reported by the different load step slices. All the slices track the same count of
+	* the slowest operations, so the longest list length is used as the merged list length limit.
+	*
+	* @param snapshots the slowest operations snapshots, one per the load step slice
+	* @return the slowest operations among all the given snapshots
+	*/
+	public static SlowestOperationsSnapshot aggregate(final List<SlowestOperationsSnapshot> snapshots) {
+		final var snapshotCount = snapshots.size();
+		if (0 == snapshotCount) {
+			return EMPTY;
+		} else if (1 == snapshotCount) {
+			return snapshots.get(0);
+		}
+		return new SlowestOperationsSnapshotImpl(
+						merge(snapshots, SlowestOperationsSnapshot::stepOps),
+						merge(snapshots, SlowestOperationsSnapshot::lastIntervalOps));
+	}
+
+	private static List<OperationTraceRecord<?, ?>> merge(
+					final List<SlowestOperationsSnapshot> snapshots,
+					final Function<SlowestOperationsSnapshot, List<OperationTraceRecord<?, ?>>> opsGetter) {
+		final List<OperationTraceRecord<?, ?>> mergedOps = new ArrayList<>();
+		var limit = 0;
+		for (final var snapshot : snapshots) {
+			final var ops = opsGetter.apply(snapshot);
+			mergedOps.addAll(ops);
+			limit = Math.max(limit, ops.size());
+		}
+		mergedOps.sort(SLOWEST_FIRST);
+		return List.copyOf(mergedOps.subList(0, limit));
+	}
+
+	@Override
+	public final List<OperationTraceRecord<?, ?>> stepOps() {
+		return stepOps;
+	}
+
+	@Override
+	public final List<OperationTraceRecord<?, ?>> lastIntervalOps() {
+		return lastIntervalOps;
+	}
+}
@@ -0,0 +1,16 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+import java.io.Serializable;
+
+/** The metrics of the operations executed on the particular storage node */
+public interface StorageNodeMetricsSnapshot extends Serializable {
+
+	/** @return the storage node address as it's set to the operations by the storage driver */
+	String nodeAddr();
+
+	RateMetricSnapshot successSnapshot();
+
+	RateMetricSnapshot failsSnapshot();
+
+	TimingMetricSnapshot latencySnapshot();
+}
@@ -0,0 +1,91 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+public class StorageNodeMetricsSnapshotImpl implements StorageNodeMetricsSnapshot {
+
+	private final String nodeAddr;
+	private final RateMetricSnapshot successSnapshot;
+	private final RateMetricSnapshot failsSnapshot;
+	private final TimingMetricSnapshot latencySnapshot;
+
+	public StorageNodeMetricsSnapshotImpl(
+					final String nodeAddr,
+					final RateMetricSnapshot successSnapshot,
+					final RateMetricSnapshot failsSnapshot,
+					final TimingMetricSnapshot latencySnapshot) {
+		this.nodeAddr = nodeAddr;
+		this.successSnapshot = successSnapshot;
+		this.failsSnapshot = failsSnapshot;
+		this.latencySnapshot = latencySnapshot;
+	}
+
+	/**
+	* Merge the storage node metrics reported by the different load step slices. The different slices may use the same
+	* storage nodes, so the snapshots are merged by the storage node address.
+	*
+	* @param snapshotLists the storage node metrics snapshots lists, one per the load step slice
+	* @return the merged storage node metrics snapshots in the order of the storage node first appearance
+	*/
+	public static List<StorageNodeMetricsSnapshot> aggregate(
+					final List<List<StorageNodeMetricsSnapshot>> snapshotLists) {
+		final var listCount = snapshotLists.size();
+		if (0 == listCount) {
+			return Collections.emptyList();
+		} else if (1 == listCount) {
+			return snapshotLists.get(0);
+		}
+		final var snapshotsByNode = new LinkedHashMap<String, List<StorageNodeMetricsSnapshot>>();
+		for (final var snapshots : snapshotLists) {
+			for (final var snapshot : snapshots) {
+				snapshotsByNode.computeIfAbsent(snapshot.nodeAddr(), addr -> new ArrayList<>()).add(snapshot);
+			}
+		}
+		final List<StorageNodeMetricsSnapshot> result = new ArrayList<>(snapshotsByNode.size());
+		snapshotsByNode.forEach(
+						(nodeAddr, snapshots) -> {
+							if (1 == snapshots.size()) {
+								result.add(snapshots.get(0));
+							} else {
+								final var successSnapshots = new ArrayList<RateMetricSnapshot>(snapshots.size());
+								final var failsSnapshots = new ArrayList<RateMetricSnapshot>(snapshots.size());
+								final var latencySnapshots = new ArrayList<TimingMetricSnapshot>(snapshots.size());
+								for (final var snapshot : snapshots) {
+									successSnapshots.add(snapshot.successSnapshot());
+									failsSnapshots.add(snapshot.failsSnapshot());
+									latencySnapshots.add(snapshot.latencySnapshot());
+								}
+								result.add(
+												new StorageNodeMetricsSnapshotImpl(
+																nodeAddr,
+																RateMetricSnapshotImpl.aggregate(successSnapshots),
+																RateMetricSnapshotImpl.aggregate(failsSnapshots),
+																TimingMetricSnapshotImpl.aggregate(latencySnapshots)));
+							}
+						});
+		return result;
+	}
+
+	@Override
+	public final String nodeAddr() {
+		return nodeAddr;
+	}
+
+	@Override
+	public final RateMetricSnapshot successSnapshot() {
+		return successSnapshot;
+	}
+
+	@Override
+	public final RateMetricSnapshot failsSnapshot() {
+		return failsSnapshot;
+	}
+
+	@Override
+	public final TimingMetricSnapshot latencySnapshot() {
+		return latencySnapshot;
+	}
+}
@@ -1,21 +1,32 @@
 package com.emc.mongoose.base.metrics.snapshot;
 
+import com.emc.mongoose.base.item.io.ItemTimingMetricsBinaryFileOutput;
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
 import com.emc.mongoose.base.metrics.TimingMetricType;
 import org.apache.logging.log4j.Level;
 
+import static com.emc.mongoose.base.item.io.ItemTimingMetricsBinaryFileOutput.BLOCK_SIZE;
+import static com.emc.mongoose.base.item.io.ItemTimingMetricsBinaryFileOutput.BLOCK_VALUE_COUNT;
+import static com.emc.mongoose.base.metrics.TimingMetricType.LATENCY;
+
 import java.io.BufferedReader;
 import java.io.Closeable;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileSystemException;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,9 +38,14 @@ import java.util.stream.Stream;
 // ItemTimingMetricsOutputAggregator retrieves the data from worker to entry node tmp files. Then this class reads
 // local files and creates a histogram for latency or duration and saves the results for specific quantiles.
 
-// we list all the files according to the filepath regex and get either first or second column to get either latency or duration
+// we list all the files according to the filepath regex and get either first or second column to get either latency or duration.
+// The files may be either in the text format (see ItemTimingMetricsFileOutput) or in the binary columnar one
+// (see ItemTimingMetricsBinaryFileOutput), the format is detected by the binary file header.
 
 public class TimingMetricQuantileResultsImpl implements Closeable {
+    private static final long MAPPED_WINDOW_SIZE_MAX = Integer.MAX_VALUE;
+    // the max primitive array length supported by the JVMs
+    private static final long VALUE_COUNT_MAX = Integer.MAX_VALUE - 8;
     private final Map<Double, Long> metricsValues;
     private final TimingMetricType metricType;
     private final String metricsFilesDirPath; // e.g. /tmp/mongoose/
@@ -52,19 +68,23 @@ public class TimingMetricQuantileResultsImpl implements Closeable {
             return;
         }
 
-        final List<List<Long>> tmpMetrics = Stream.of(listOfMetricsFiles)
+        // each file is read in parallel into the primitive array of the chosen column
+        final List<long[]> tmpMetrics = Stream.of(listOfMetricsFiles)
+                .parallel()
                 .map(file -> {
-                    List<Long> metricsFromFile = null;
+                    long[] metricsFromFile = new long[0];
                     try {
-                        metricsFromFile = readArrayFromInputStream(new FileInputStream(file));
-                        Collections.sort(metricsFromFile);
-                        if (metricsFromFile.isEmpty()) {
+                        metricsFromFile = isBinaryFormat(file) ? readArrayFromBinaryFile(file) : readArrayFromTextFile(file);
+                        if (0 == metricsFromFile.length) {
                             Loggers.ERR.warn("One of the aggregated timing metrics local files is empty: {}", file);
                         }
                     } catch (final FileNotFoundException e) {
                         LogUtil.exception(
                                 Level.WARN, e, "Failed to find one of the timing metrics files: {}",
                                 file.toString());
+                    } catch (final IOException e) {
+                        LogUtil.exception(
+                                Level.WARN, e, "Failed to read one of the timing metrics files: {}", file.toString());
                     }
                     return metricsFromFile;
                 })
@@ -75,11 +95,22 @@ public class TimingMetricQuantileResultsImpl implements Closeable {
                     nodeAmount, tmpMetrics.size(), metricsFilePattern);
         }
 
-        // merge sorted metrics arrays from each aggregated local tmp file and take the quantile values from it
-        // we do not want to store the whole values list in the class as we can eventually reach a few Gb size array of
-        // latency/duration values.
+        // select the quantile values from the concatenated values instead of sorting them all.
+        // we do not want to store the whole values array in the class as we can eventually reach a few Gb size array
+        // of latency/duration values.
         // So we only store a few values of specified quantiles
-        metricsValues = retrieveQuantileValues(quantileValues, mergeSort(tmpMetrics));
+        long totalValueCount = 0;
+        for (final long[] values : tmpMetrics) {
+            totalValueCount += values.length;
+        }
+        if (totalValueCount > VALUE_COUNT_MAX) {
+            Loggers.ERR.warn(
+                    "Too many {} values ({}) to select the exact quantiles, falling back to the histogram estimates",
+                    metricType, totalValueCount);
+            metricsValues = null;
+            return;
+        }
+        metricsValues = retrieveQuantileValues(quantileValues, concat(tmpMetrics, (int) totalValueCount));
     }
 
     private File[] findAllWorkersMetricsFiles() {
@@ -87,80 +118,159 @@ public class TimingMetricQuantileResultsImpl implements Closeable {
         return dir.listFiles((ignored, name) -> name.startsWith(metricsFilePattern));
     }
 
+    private static boolean isBinaryFormat(final File file) throws IOException {
+        if (file.length() < Long.BYTES) {
+            return false;
+        }
+        try (final DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return ItemTimingMetricsBinaryFileOutput.MAGIC == in.readLong();
+        }
+    }
+
+    // the binary file is mapped into the memory and the chosen column of each block is copied in bulk
+    private long[] readArrayFromBinaryFile(final File file) throws IOException {
+        try (final FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long fileSize = fileChannel.size();
+            final long blocksSize = fileSize - Long.BYTES;
+            final long fullBlockCount = blocksSize / BLOCK_SIZE;
+            final long lastBlockOffset = Long.BYTES + fullBlockCount * BLOCK_SIZE;
+            long valueCount = fullBlockCount * BLOCK_VALUE_COUNT;
+            if (lastBlockOffset < fileSize) {
+                final ByteBuffer countBuff = ByteBuffer.allocate(Long.BYTES);
+                while (countBuff.hasRemaining() && fileChannel.read(countBuff, lastBlockOffset + countBuff.position()) > 0);
+                valueCount += countBuff.flip().getLong();
+            }
+            if (valueCount > VALUE_COUNT_MAX) {
+                throw new IOException("Too many values in the timing metrics file " + file + ": " + valueCount);
+            }
+            final long[] values = new long[(int) valueCount];
+            // map the file by windows of the whole blocks count, the mapped region size is limited by 2GB
+            final long windowBlockCount = MAPPED_WINDOW_SIZE_MAX / BLOCK_SIZE;
+            int valuesPos = 0;
+            for (long blockIdx = 0; blockIdx * BLOCK_SIZE < blocksSize; blockIdx += windowBlockCount) {
+                final long windowOffset = Long.BYTES + blockIdx * BLOCK_SIZE;
+                final long windowSize = Math.min(windowBlockCount * BLOCK_SIZE, fileSize - windowOffset);
+                final MappedByteBuffer window = fileChannel.map(FileChannel.MapMode.READ_ONLY, windowOffset, windowSize);
+                while (window.remaining() >= Long.BYTES) {
+                    final int blockPos = window.position();
+                    final int blockValueCount = (int) window.getLong();
+                    final int columnPos = blockPos + Long.BYTES + metricType.ordinal() * blockValueCount * Long.BYTES;
+                    window.position(columnPos);
+                    window.asLongBuffer().get(values, valuesPos, blockValueCount);
+                    valuesPos += blockValueCount;
+                    window.position(blockPos + Long.BYTES + 2 * blockValueCount * Long.BYTES);
+                }
+            }
+            return values;
+        }
+    }
+
     // FileManagerImpl already has a method to get raw bytes but converting that to List<long> can be cumbersome and wasteful
     // For several reasons: we don't want to keep in memory the whole files, but only the half of it needed for
     // chosen metric
-    private List<Long> readArrayFromInputStream(InputStream inputStream) {
-        List<Long> tmpArray = new ArrayList<>();
-        try (BufferedReader br
-                     = new BufferedReader(new InputStreamReader(inputStream))) {
+    private long[] readArrayFromTextFile(final File file) throws IOException {
+        long[] tmpArray = new long[0x10000];
+        int size = 0;
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file)))) {
             String line;
             while ((line = br.readLine()) != null) {
-                String[] values = line.split(" ");
                 // e.g. 100 200. we only take one of the columns based on the metric type
-                tmpArray.add(Long.valueOf(values[metricType.ordinal()]));
+                final int sepPos = line.indexOf(' ');
+                final long value = LATENCY.equals(metricType) ?
+                        Long.parseLong(line, 0, sepPos, 10) :
+                        Long.parseLong(line, sepPos + 1, line.length(), 10);
+                if (size == tmpArray.length) {
+                    tmpArray = Arrays.copyOf(tmpArray, size * 2);
+                }
+                tmpArray[size++] = value;
             }
-        } catch (IOException e) {
-            LogUtil.exception(
-                    Level.WARN, e, "Failed to read one of the timing metrics files: {}", inputStream.toString());
-        }
-        return tmpArray;
-    }
-
-    private List<Long> mergeSort(final List<List<Long>> listOfMetricsArrays) {
-
-        List<Long> finalSortedMetrics = listOfMetricsArrays.get(0);
-        for (int i = 1; i < listOfMetricsArrays.size(); i++) {
-            finalSortedMetrics = mergeSortTwoArrays(finalSortedMetrics, listOfMetricsArrays.get(i));
         }
-        return finalSortedMetrics;
+        return Arrays.copyOf(tmpArray, size);
     }
 
-    private List<Long> mergeSortTwoArrays(final List<Long> arr1, final List<Long> arr2) {
-        int i = 0;
-        int j = 0;
-        int n1 = arr1.size();
-        int n2 = arr2.size();
-        List<Long> mergeSortedAray = new ArrayList<>(arr1.size() + arr2.size());
-
-        // mergeSort until we reached the end of shorter array
-        while (i < n1 && j < n2) {
-            if (arr1.get(i) < arr2.get(j))
-                mergeSortedAray.add(arr1.get(i++));
-            else
-                mergeSortedAray.add(arr2.get(j++));
+    // the source arrays are released as soon as copied to reduce the peak memory usage
+    private static long[] concat(final List<long[]> arrays, final int totalSize) {
+        if (1 == arrays.size()) {
+            return arrays.get(0);
         }
-
-        // if one of the arrays reached the end we can store the leftovers of the bigger array
-        if (n1 > n2) {
-            while (i < n1) {
-                mergeSortedAray.add(arr1.get(i++));
-            }
-        } else {
-            while (j < n2) {
-                mergeSortedAray.add(arr2.get(j++));
-            }
+        final long[] result = new long[totalSize];
+        int pos = 0;
+        for (int i = 0; i < arrays.size(); i++) {
+            final long[] array = arrays.get(i);
+            System.arraycopy(array, 0, result, pos, array.length);
+            pos += array.length;
+            arrays.set(i, null);
         }
-        return mergeSortedAray;
+        return result;
     }
 
     // when quantile values are parsed at the start of the test we check that values are in [0,1).
-    private Map<Double, Long> retrieveQuantileValues(final List<Double> quantiles, final List<Long> metricsArray) {
+    private static Map<Double, Long> retrieveQuantileValues(final List<Double> quantiles, final long[] metricsArray) {
         // for the metrics csv output it's important we iterate in the order passed by user to avoid things like:
         // Quantile 0.7:              4542
         // Quantile 0.95:             13961
         // Quantile 0.9:              6521
         // Quantile 0.1:              1679
         // so linkedHashMap is used over HashMap
-        final Map<Double, Long> arrayQuantileValues = new LinkedHashMap<>(metricsArray.size());
-        final int metricsArrayLength = metricsArray.size();
+        final Map<Double, Long> arrayQuantileValues = new LinkedHashMap<>(quantiles.size());
+        final int metricsArrayLength = metricsArray.length;
+        if (0 == metricsArrayLength) {
+            return arrayQuantileValues;
+        }
+        // select in the ascending quantiles order, so each next selection is done in the remaining right part only
+        final List<Double> sortedQuantiles = new ArrayList<>(quantiles);
+        Collections.sort(sortedQuantiles);
+        final Map<Double, Long> selectedValues = new HashMap<>(quantiles.size());
+        int from = 0;
+        for (final Double quantile: sortedQuantiles) {
+            final int k = (int) (quantile * metricsArrayLength);
+            selectedValues.put(quantile, select(metricsArray, from, metricsArrayLength - 1, k));
+            from = k;
+        }
         for (final Double quantile: quantiles) {
-            arrayQuantileValues.put(quantile, metricsArray.get((int) (quantile * metricsArrayLength)));
-
+            arrayQuantileValues.put(quantile, selectedValues.get(quantile));
         }
         return arrayQuantileValues;
     }
 
+    // iterative quickselect: after the return all the values before k are not more than the k-th one and all the
+    // values after k are not less
+    static long select(final long[] values, int lo, int hi, final int k) {
+        while (hi > lo) {
+            final long pivot = medianOfThree(values[lo], values[(lo + hi) >>> 1], values[hi]);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    final long tmp = values[i];
+                    values[i] = values[j];
+                    values[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return values[k];
+            }
+        }
+        return values[k];
+    }
+
+    private static long medianOfThree(final long a, final long b, final long c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    /** @return the exact quantile values, or null if there are too many values to fit a single array */
     public Map<Double, Long> getMetricsValues() {
         return metricsValues;
     }
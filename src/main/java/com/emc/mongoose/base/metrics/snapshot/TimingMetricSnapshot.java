@@ -10,4 +10,20 @@ public interface TimingMetricSnapshot
 
 	long max();
 
+	/**
+	* @param quantile the quantile in the range [0..1]
+	* @return the approximate value for the quantile, 0 if there were no values
+	*/
+	long quantile(final double quantile);
+
+	LogLinearHistogramSnapshot histogramSnapshot();
+
+	/**
+	* @param quantile the quantile in the range [0..1]
+	* @return the approximate value for the quantile of the values recorded during the last complete
+	*     output interval only, 0 if there were no such values
+	*/
+	long intervalQuantile(final double quantile);
+
+	LogLinearHistogramSnapshot intervalHistogramSnapshot();
 }
@@ -11,6 +11,8 @@ public class TimingMetricSnapshotImpl extends NamedCountMetricSnapshotImpl
 	private final long min;
 	private final long max;
 	private final double mean;
+	private final LogLinearHistogramSnapshot histogramSnapshot;
+	private final LogLinearHistogramSnapshot intervalHistogramSnapshot;
 
 	public TimingMetricSnapshotImpl(
 					final long sum,
@@ -19,11 +21,36 @@ public class TimingMetricSnapshotImpl extends NamedCountMetricSnapshotImpl
 					final long max,
 					final double mean,
 					final String metricName) {
+		this(sum, count, min, max, mean, LogLinearHistogramSnapshotImpl.EMPTY, metricName);
+	}
+
+	public TimingMetricSnapshotImpl(
+					final long sum,
+					final long count,
+					final long min,
+					final long max,
+					final double mean,
+					final LogLinearHistogramSnapshot histogramSnapshot,
+					final String metricName) {
+		this(sum, count, min, max, mean, histogramSnapshot, LogLinearHistogramSnapshotImpl.EMPTY, metricName);
+	}
+
+	public TimingMetricSnapshotImpl(
+					final long sum,
+					final long count,
+					final long min,
+					final long max,
+					final double mean,
+					final LogLinearHistogramSnapshot histogramSnapshot,
+					final LogLinearHistogramSnapshot intervalHistogramSnapshot,
+					final String metricName) {
 		super(metricName, count);
 		this.sum = sum;
 		this.min = min;
 		this.max = max;
 		this.mean = mean;
+		this.histogramSnapshot = histogramSnapshot;
+		this.intervalHistogramSnapshot = intervalHistogramSnapshot;
 	}
 
 	public static TimingMetricSnapshot aggregate(final List<TimingMetricSnapshot> snapshots) {
@@ -35,9 +62,13 @@ public class TimingMetricSnapshotImpl extends NamedCountMetricSnapshotImpl
 		long sumOfSums = 0;
 		long newMax = Long.MIN_VALUE;
 		long newMin = Long.MAX_VALUE;
+		final List<LogLinearHistogramSnapshot> histogramSnapshots = new ArrayList<>(snapshotCount);
+		final List<LogLinearHistogramSnapshot> intervalHistogramSnapshots = new ArrayList<>(snapshotCount);
 		TimingMetricSnapshot nextSnapshot;
 		for (int i = 0; i < snapshotCount; ++i) {
 			nextSnapshot = snapshots.get(i);
+			histogramSnapshots.add(nextSnapshot.histogramSnapshot());
+			intervalHistogramSnapshots.add(nextSnapshot.intervalHistogramSnapshot());
 			countSum += nextSnapshot.count();
 			sumOfSums += nextSnapshot.sum();
 			newMax = Math.max(newMax, nextSnapshot.max());
@@ -54,9 +85,63 @@ public class TimingMetricSnapshotImpl extends NamedCountMetricSnapshotImpl
 						newMin,
 						newMax,
 						newMean,
+						LogLinearHistogramSnapshotImpl.aggregate(histogramSnapshots),
+						LogLinearHistogramSnapshotImpl.aggregate(intervalHistogramSnapshots),
 						snapshots.get(0).name());
 	}
 
+	/**
+	* @param total the snapshot of all the values
+	* @param parts the snapshots of some values subsets
+	* @param min the min of the remaining values tracked separately, Long.MAX_VALUE if not known
+	* @param max the max of the remaining values tracked separately, Long.MIN_VALUE if not known
+	* @return the snapshot of the remaining values w/o the interval histogram, the unknown min and max are estimated
+	*     from the histogram if the total ones don't belong to the remaining values range
+	*/
+	public static TimingMetricSnapshot subtract(
+					final TimingMetricSnapshot total, final List<TimingMetricSnapshot> parts, final long min, final long max) {
+		long count = total.count();
+		long sum = total.sum();
+		final List<LogLinearHistogramSnapshot> histogramSnapshots = new ArrayList<>(parts.size());
+		for (final var part : parts) {
+			count -= part.count();
+			sum -= part.sum();
+			histogramSnapshots.add(part.histogramSnapshot());
+		}
+		final var histogramSnapshot = LogLinearHistogramSnapshotImpl.subtract(total.histogramSnapshot(), histogramSnapshots);
+		if (count <= 0 || sum <= 0 || 0 == histogramSnapshot.count()) {
+			return new TimingMetricSnapshotImpl(0, 0, 0, 0, 0, total.name());
+		}
+		final var bucketIndices = histogramSnapshot.bucketIndices();
+		final var minBucketIndex = bucketIndices[0];
+		final var maxBucketIndex = bucketIndices[bucketIndices.length - 1];
+		final long remainingMin;
+		if (Long.MAX_VALUE != min) {
+			remainingMin = min;
+		} else if (LogLinearHistogramSnapshot.bucketIndex(total.min()) == minBucketIndex) {
+			remainingMin = total.min();
+		} else {
+			remainingMin = LogLinearHistogramSnapshot.bucketValue(minBucketIndex);
+		}
+		final long remainingMax;
+		if (Long.MIN_VALUE != max) {
+			remainingMax = max;
+		} else if (LogLinearHistogramSnapshot.bucketIndex(total.max()) == maxBucketIndex) {
+			remainingMax = total.max();
+		} else {
+			remainingMax = LogLinearHistogramSnapshot.bucketValue(maxBucketIndex);
+		}
+		return new TimingMetricSnapshotImpl(
+						sum,
+						count,
+						remainingMin,
+						remainingMax,
+						((double) sum) / count,
+						histogramSnapshot,
+						LogLinearHistogramSnapshotImpl.EMPTY,
+						total.name());
+	}
+
 	@Override
 	public final long sum() {
 		return sum;
@@ -76,4 +161,31 @@ public class TimingMetricSnapshotImpl extends NamedCountMetricSnapshotImpl
 	public final double mean() {
 		return mean;
 	}
+
+	@Override
+	public final long quantile(final double quantile) {
+		if (0 == histogramSnapshot.count()) {
+			return 0;
+		}
+		// the exact min and max are known, don't exceed them because of the bucket width
+		return Math.max(min, Math.min(max, histogramSnapshot.quantile(quantile)));
+	}
+
+	@Override
+	public final LogLinearHistogramSnapshot histogramSnapshot() {
+		return histogramSnapshot;
+	}
+
+	@Override
+	public final long intervalQuantile(final double quantile) {
+		if (0 == intervalHistogramSnapshot.count()) {
+			return 0;
+		}
+		return Math.max(min, Math.min(max, intervalHistogramSnapshot.quantile(quantile)));
+	}
+
+	@Override
+	public final LogLinearHistogramSnapshot intervalHistogramSnapshot() {
+		return intervalHistogramSnapshot;
+	}
 }
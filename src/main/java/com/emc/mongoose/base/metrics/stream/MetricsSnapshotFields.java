@@ -0,0 +1,317 @@
+package com.emc.mongoose.base.metrics.stream;
+
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.metrics.MetricsConstants;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.ConcurrencyMetricSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.InjectorMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.InjectorMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.OpTypeMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.OpTypeMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.SlowestOperationsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.SlowestOperationsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.StorageNodeMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.StorageNodeMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshotImpl;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/** The flat representation of the {@link AllMetricsSnapshot} used to encode/decode the changed values only */
+final class MetricsSnapshotFields {
+
+	static final int NAME_COUNT = 6;
+	static final int LONG_FIELD_COUNT = 16;
+	static final int DOUBLE_FIELD_COUNT = 9;
+	static final int HISTOGRAM_COUNT = 4;
+	// the storage node metric names are constant so they are not transferred
+	static final int NODE_LONG_FIELD_COUNT = 8;
+	static final int NODE_DOUBLE_FIELD_COUNT = 5;
+	static final int NODE_HISTOGRAM_COUNT = 1;
+	static final long[] EMPTY_NODE_LONGS = new long[NODE_LONG_FIELD_COUNT];
+	static final double[] EMPTY_NODE_DOUBLES = new double[NODE_DOUBLE_FIELD_COUNT];
+	static final LogLinearHistogramSnapshot[] EMPTY_NODE_HISTOGRAMS = { LogLinearHistogramSnapshotImpl.EMPTY };
+	// the operation type metric names are constant too
+	static final int OP_LONG_FIELD_COUNT = 14;
+	static final int OP_DOUBLE_FIELD_COUNT = 8;
+	static final int OP_HISTOGRAM_COUNT = 2;
+	static final long[] EMPTY_OP_LONGS = new long[OP_LONG_FIELD_COUNT];
+	static final double[] EMPTY_OP_DOUBLES = new double[OP_DOUBLE_FIELD_COUNT];
+	static final LogLinearHistogramSnapshot[] EMPTY_OP_HISTOGRAMS = {
+		LogLinearHistogramSnapshotImpl.EMPTY, LogLinearHistogramSnapshotImpl.EMPTY
+	};
+	static final OpType[] OP_TYPES = OpType.values();
+	// the injector metrics have no histograms
+	static final int INJECTOR_LONG_FIELD_COUNT = 10;
+	static final int INJECTOR_DOUBLE_FIELD_COUNT = 7;
+	static final LogLinearHistogramSnapshot[] NO_HISTOGRAMS = new LogLinearHistogramSnapshot[0];
+
+	final String[] names = new String[NAME_COUNT];
+	final long[] longs = new long[LONG_FIELD_COUNT];
+	final double[] doubles = new double[DOUBLE_FIELD_COUNT];
+	final LogLinearHistogramSnapshot[] histograms = new LogLinearHistogramSnapshot[HISTOGRAM_COUNT];
+	// reallocated only if the storage nodes count changes
+	String[] nodeAddrs = new String[0];
+	long[][] nodeLongs = new long[0][];
+	double[][] nodeDoubles = new double[0][];
+	LogLinearHistogramSnapshot[][] nodeHistograms = new LogLinearHistogramSnapshot[0][];
+	// reallocated only if the operation types count changes
+	int[] opTypeOrdinals = new int[0];
+	long[][] opLongs = new long[0][];
+	double[][] opDoubles = new double[0][];
+	LogLinearHistogramSnapshot[][] opHistograms = new LogLinearHistogramSnapshot[0][];
+	final long[] injectorLongs = new long[INJECTOR_LONG_FIELD_COUNT];
+	final double[] injectorDoubles = new double[INJECTOR_DOUBLE_FIELD_COUNT];
+	// immutable and replaced by the tracker only if changed, so the reference comparison is enough
+	SlowestOperationsSnapshot slowestOps;
+
+	MetricsSnapshotFields() {
+		clear();
+	}
+
+	void clear() {
+		Arrays.fill(names, null);
+		Arrays.fill(longs, 0);
+		Arrays.fill(doubles, 0);
+		Arrays.fill(histograms, LogLinearHistogramSnapshotImpl.EMPTY);
+		nodeCount(0);
+		opTypeCount(0);
+		Arrays.fill(injectorLongs, 0);
+		Arrays.fill(injectorDoubles, 0);
+		slowestOps = SlowestOperationsSnapshotImpl.EMPTY;
+	}
+
+	void nodeCount(final int nodeCount) {
+		if (nodeCount != nodeAddrs.length) {
+			nodeAddrs = new String[nodeCount];
+			nodeLongs = new long[nodeCount][NODE_LONG_FIELD_COUNT];
+			nodeDoubles = new double[nodeCount][NODE_DOUBLE_FIELD_COUNT];
+			nodeHistograms = new LogLinearHistogramSnapshot[nodeCount][NODE_HISTOGRAM_COUNT];
+			for (final var h : nodeHistograms) {
+				Arrays.fill(h, LogLinearHistogramSnapshotImpl.EMPTY);
+			}
+		}
+	}
+
+	void opTypeCount(final int opTypeCount) {
+		if (opTypeCount != opTypeOrdinals.length) {
+			opTypeOrdinals = new int[opTypeCount];
+			opLongs = new long[opTypeCount][OP_LONG_FIELD_COUNT];
+			opDoubles = new double[opTypeCount][OP_DOUBLE_FIELD_COUNT];
+			opHistograms = new LogLinearHistogramSnapshot[opTypeCount][OP_HISTOGRAM_COUNT];
+			for (final var h : opHistograms) {
+				Arrays.fill(h, LogLinearHistogramSnapshotImpl.EMPTY);
+			}
+		}
+	}
+
+	void extract(final AllMetricsSnapshot snapshot) {
+		final var durSnapshot = snapshot.durationSnapshot();
+		final var latSnapshot = snapshot.latencySnapshot();
+		final var concurrencySnapshot = snapshot.concurrencySnapshot();
+		final var failsSnapshot = snapshot.failsSnapshot();
+		final var successSnapshot = snapshot.successSnapshot();
+		final var bytesSnapshot = snapshot.byteSnapshot();
+		names[0] = durSnapshot.name();
+		names[1] = latSnapshot.name();
+		names[2] = concurrencySnapshot.name();
+		names[3] = failsSnapshot.name();
+		names[4] = successSnapshot.name();
+		names[5] = bytesSnapshot.name();
+		longs[0] = snapshot.elapsedTimeMillis();
+		longs[1] = durSnapshot.count();
+		longs[2] = durSnapshot.sum();
+		longs[3] = durSnapshot.min();
+		longs[4] = durSnapshot.max();
+		longs[5] = latSnapshot.count();
+		longs[6] = latSnapshot.sum();
+		longs[7] = latSnapshot.min();
+		longs[8] = latSnapshot.max();
+		longs[9] = concurrencySnapshot.last();
+		longs[10] = failsSnapshot.count();
+		longs[11] = failsSnapshot.elapsedTimeMillis();
+		longs[12] = successSnapshot.count();
+		longs[13] = successSnapshot.elapsedTimeMillis();
+		longs[14] = bytesSnapshot.count();
+		longs[15] = bytesSnapshot.elapsedTimeMillis();
+		doubles[0] = durSnapshot.mean();
+		doubles[1] = latSnapshot.mean();
+		doubles[2] = concurrencySnapshot.mean();
+		doubles[3] = failsSnapshot.last();
+		doubles[4] = failsSnapshot.mean();
+		doubles[5] = successSnapshot.last();
+		doubles[6] = successSnapshot.mean();
+		doubles[7] = bytesSnapshot.last();
+		doubles[8] = bytesSnapshot.mean();
+		histograms[0] = durSnapshot.histogramSnapshot();
+		histograms[1] = durSnapshot.intervalHistogramSnapshot();
+		histograms[2] = latSnapshot.histogramSnapshot();
+		histograms[3] = latSnapshot.intervalHistogramSnapshot();
+		final var nodeSnapshots = snapshot.storageNodeSnapshots();
+		final var nodeCount = nodeSnapshots.size();
+		nodeCount(nodeCount);
+		for (var i = 0; i < nodeCount; i++) {
+			final var nodeSnapshot = nodeSnapshots.get(i);
+			final var nodeSuccSnapshot = nodeSnapshot.successSnapshot();
+			final var nodeFailsSnapshot = nodeSnapshot.failsSnapshot();
+			final var nodeLatSnapshot = nodeSnapshot.latencySnapshot();
+			final var l = nodeLongs[i];
+			final var d = nodeDoubles[i];
+			nodeAddrs[i] = nodeSnapshot.nodeAddr();
+			l[0] = nodeSuccSnapshot.count();
+			l[1] = nodeSuccSnapshot.elapsedTimeMillis();
+			l[2] = nodeFailsSnapshot.count();
+			l[3] = nodeFailsSnapshot.elapsedTimeMillis();
+			l[4] = nodeLatSnapshot.count();
+			l[5] = nodeLatSnapshot.sum();
+			l[6] = nodeLatSnapshot.min();
+			l[7] = nodeLatSnapshot.max();
+			d[0] = nodeSuccSnapshot.last();
+			d[1] = nodeSuccSnapshot.mean();
+			d[2] = nodeFailsSnapshot.last();
+			d[3] = nodeFailsSnapshot.mean();
+			d[4] = nodeLatSnapshot.mean();
+			nodeHistograms[i][0] = nodeLatSnapshot.histogramSnapshot();
+		}
+		final var opSnapshots = snapshot.opTypeSnapshots();
+		final var opTypeCount = opSnapshots.size();
+		opTypeCount(opTypeCount);
+		for (var i = 0; i < opTypeCount; i++) {
+			final var opSnapshot = opSnapshots.get(i);
+			final var opSuccSnapshot = opSnapshot.successSnapshot();
+			final var opFailsSnapshot = opSnapshot.failsSnapshot();
+			final var opBytesSnapshot = opSnapshot.byteSnapshot();
+			final var opDurSnapshot = opSnapshot.durationSnapshot();
+			final var opLatSnapshot = opSnapshot.latencySnapshot();
+			final var l = opLongs[i];
+			final var d = opDoubles[i];
+			opTypeOrdinals[i] = opSnapshot.opType().ordinal();
+			l[0] = opSuccSnapshot.count();
+			l[1] = opSuccSnapshot.elapsedTimeMillis();
+			l[2] = opFailsSnapshot.count();
+			l[3] = opFailsSnapshot.elapsedTimeMillis();
+			l[4] = opBytesSnapshot.count();
+			l[5] = opBytesSnapshot.elapsedTimeMillis();
+			l[6] = opDurSnapshot.count();
+			l[7] = opDurSnapshot.sum();
+			l[8] = opDurSnapshot.min();
+			l[9] = opDurSnapshot.max();
+			l[10] = opLatSnapshot.count();
+			l[11] = opLatSnapshot.sum();
+			l[12] = opLatSnapshot.min();
+			l[13] = opLatSnapshot.max();
+			d[0] = opSuccSnapshot.last();
+			d[1] = opSuccSnapshot.mean();
+			d[2] = opFailsSnapshot.last();
+			d[3] = opFailsSnapshot.mean();
+			d[4] = opBytesSnapshot.last();
+			d[5] = opBytesSnapshot.mean();
+			d[6] = opDurSnapshot.mean();
+			d[7] = opLatSnapshot.mean();
+			opHistograms[i][0] = opDurSnapshot.histogramSnapshot();
+			opHistograms[i][1] = opLatSnapshot.histogramSnapshot();
+		}
+		final var injectorSnapshot = snapshot.injectorSnapshot();
+		injectorLongs[0] = injectorSnapshot.fiberInvocationCount();
+		injectorLongs[1] = injectorSnapshot.fiberOverrunCount();
+		injectorLongs[2] = injectorSnapshot.completionCount();
+		injectorLongs[3] = injectorSnapshot.completionTimeMicros();
+		injectorLongs[4] = injectorSnapshot.gcPauseMillis();
+		injectorLongs[5] = injectorSnapshot.allocatedBytes();
+		injectorLongs[6] = injectorSnapshot.processorCount();
+		injectorLongs[7] = injectorSnapshot.elapsedTimeMillis();
+		injectorLongs[8] = injectorSnapshot.verifyCount();
+		injectorLongs[9] = injectorSnapshot.verifyTimeMicros();
+		injectorDoubles[0] = injectorSnapshot.recycleQueueFillLast();
+		injectorDoubles[1] = injectorSnapshot.recycleQueueFillMean();
+		injectorDoubles[2] = injectorSnapshot.transferBufferFillLast();
+		injectorDoubles[3] = injectorSnapshot.transferBufferFillMean();
+		injectorDoubles[4] = injectorSnapshot.driverQueueDepthLast();
+		injectorDoubles[5] = injectorSnapshot.driverQueueDepthMean();
+		injectorDoubles[6] = injectorSnapshot.allocRateLast();
+		slowestOps = snapshot.slowestOpsSnapshot();
+	}
+
+	AllMetricsSnapshot snapshot() {
+		return new AllMetricsSnapshotImpl(
+						new TimingMetricSnapshotImpl(
+										longs[2], longs[1], longs[3], longs[4], doubles[0], histograms[0], histograms[1], names[0]),
+						new TimingMetricSnapshotImpl(
+										longs[6], longs[5], longs[7], longs[8], doubles[1], histograms[2], histograms[3], names[1]),
+						new ConcurrencyMetricSnapshotImpl(names[2], longs[9], doubles[2]),
+						new RateMetricSnapshotImpl(doubles[3], doubles[4], names[3], longs[10], longs[11]),
+						new RateMetricSnapshotImpl(doubles[5], doubles[6], names[4], longs[12], longs[13]),
+						new RateMetricSnapshotImpl(doubles[7], doubles[8], names[5], longs[14], longs[15]),
+						longs[0],
+						storageNodeSnapshots(),
+						opTypeSnapshots(),
+						slowestOps,
+						injectorSnapshot());
+	}
+
+	private InjectorMetricsSnapshot injectorSnapshot() {
+		return new InjectorMetricsSnapshotImpl(
+						injectorLongs[0],
+						injectorLongs[1],
+						injectorDoubles[0],
+						injectorDoubles[1],
+						injectorDoubles[2],
+						injectorDoubles[3],
+						injectorDoubles[4],
+						injectorDoubles[5],
+						injectorLongs[2],
+						injectorLongs[3],
+						injectorLongs[8],
+						injectorLongs[9],
+						injectorLongs[4],
+						injectorLongs[5],
+						injectorDoubles[6],
+						(int) injectorLongs[6],
+						injectorLongs[7]);
+	}
+
+	private List<StorageNodeMetricsSnapshot> storageNodeSnapshots() {
+		final var nodeCount = nodeAddrs.length;
+		if (0 == nodeCount) {
+			return Collections.emptyList();
+		}
+		final var nodeSnapshots = new StorageNodeMetricsSnapshot[nodeCount];
+		for (var i = 0; i < nodeCount; i++) {
+			final var l = nodeLongs[i];
+			final var d = nodeDoubles[i];
+			nodeSnapshots[i] = new StorageNodeMetricsSnapshotImpl(
+							nodeAddrs[i],
+							new RateMetricSnapshotImpl(d[0], d[1], MetricsConstants.METRIC_NAME_SUCC, l[0], l[1]),
+							new RateMetricSnapshotImpl(d[2], d[3], MetricsConstants.METRIC_NAME_FAIL, l[2], l[3]),
+							new TimingMetricSnapshotImpl(
+											l[5], l[4], l[6], l[7], d[4], nodeHistograms[i][0], MetricsConstants.METRIC_NAME_LAT));
+		}
+		return List.of(nodeSnapshots);
+	}
+
+	private List<OpTypeMetricsSnapshot> opTypeSnapshots() {
+		final var opTypeCount = opTypeOrdinals.length;
+		if (0 == opTypeCount) {
+			return Collections.emptyList();
+		}
+		final var opSnapshots = new OpTypeMetricsSnapshot[opTypeCount];
+		for (var i = 0; i < opTypeCount; i++) {
+			final var l = opLongs[i];
+			final var d = opDoubles[i];
+			opSnapshots[i] = new OpTypeMetricsSnapshotImpl(
+							OP_TYPES[opTypeOrdinals[i]],
+							new RateMetricSnapshotImpl(d[0], d[1], MetricsConstants.METRIC_NAME_SUCC, l[0], l[1]),
+							new RateMetricSnapshotImpl(d[2], d[3], MetricsConstants.METRIC_NAME_FAIL, l[2], l[3]),
+							new RateMetricSnapshotImpl(d[4], d[5], MetricsConstants.METRIC_NAME_BYTE, l[4], l[5]),
+							new TimingMetricSnapshotImpl(
+											l[7], l[6], l[8], l[9], d[6], opHistograms[i][0], MetricsConstants.METRIC_NAME_DUR),
+							new TimingMetricSnapshotImpl(
+											l[11], l[10], l[12], l[13], d[7], opHistograms[i][1], MetricsConstants.METRIC_NAME_LAT));
+		}
+		return List.of(opSnapshots);
+	}
+}
@@ -0,0 +1,14 @@
+package com.emc.mongoose.base.metrics.stream;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+
+/** The remote callback accepting the metrics snapshots frames pushed by the load step service */
+public interface MetricsSnapshotsConsumer extends Remote {
+
+	/**
+	* @param frame the frame encoded by {@link MetricsSnapshotsEncoder}
+	* @throws RemoteException if the frame can not be decoded, the publisher should send the full frame next
+	*/
+	void accept(final byte[] frame) throws RemoteException;
+}
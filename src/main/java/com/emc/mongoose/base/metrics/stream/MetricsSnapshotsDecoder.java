@@ -0,0 +1,226 @@
+package com.emc.mongoose.base.metrics.stream;
+
+import static com.emc.mongoose.base.metrics.stream.MetricsSnapshotFields.NAME_COUNT;
+import static com.emc.mongoose.base.metrics.stream.MetricsSnapshotFields.NO_HISTOGRAMS;
+import static com.emc.mongoose.base.metrics.stream.MetricsSnapshotFields.OP_TYPES;
+import static com.emc.mongoose.base.metrics.stream.MetricsSnapshotsEncoder.FRAME_TYPE_DELTA;
+import static com.emc.mongoose.base.metrics.stream.MetricsSnapshotsEncoder.FRAME_TYPE_FULL;
+
+import com.emc.mongoose.base.logging.OperationTraceRecord;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.SlowestOperationsSnapshotImpl;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+* Restores the metrics snapshots from the frames produced by {@link MetricsSnapshotsEncoder}. The frames should be
+* decoded in the same order as they were encoded. Not thread safe.
+*/
+public final class MetricsSnapshotsDecoder {
+
+	private MetricsSnapshotFields[] fields = null;
+
+	/**
+	* @param frame the encoded frame
+	* @return the restored snapshots
+	* @throws IllegalStateException if the frame is malformed or it's the delta frame while the decoder has no base
+	*     state, the caller should request the full frame then
+	*/
+	public List<AllMetricsSnapshot> decode(final byte[] frame) throws IllegalStateException {
+		try {
+			final var in = ByteBuffer.wrap(frame);
+			final var frameType = in.get();
+			final var count = (int) readVarLong(in);
+			if (FRAME_TYPE_FULL == frameType) {
+				fields = new MetricsSnapshotFields[count];
+				for (var i = 0; i < count; i++) {
+					fields[i] = new MetricsSnapshotFields();
+					for (var j = 0; j < NAME_COUNT; j++) {
+						fields[i].names[j] = readName(in);
+					}
+					fields[i].nodeCount((int) readVarLong(in));
+					for (var k = 0; k < fields[i].nodeAddrs.length; k++) {
+						fields[i].nodeAddrs[k] = readName(in);
+					}
+					fields[i].opTypeCount((int) readVarLong(in));
+					for (var k = 0; k < fields[i].opTypeOrdinals.length; k++) {
+						final var opTypeOrdinal = readVarLong(in);
+						if (opTypeOrdinal < 0 || opTypeOrdinal >= OP_TYPES.length) {
+							throw new IllegalStateException("Invalid operation type ordinal: " + opTypeOrdinal);
+						}
+						fields[i].opTypeOrdinals[k] = (int) opTypeOrdinal;
+					}
+					readDelta(in, fields[i]);
+				}
+			} else if (FRAME_TYPE_DELTA == frameType) {
+				if (null == fields || fields.length != count) {
+					throw new IllegalStateException("The delta frame doesn't match the decoder state");
+				}
+				for (var i = 0; i < count; i++) {
+					readDelta(in, fields[i]);
+				}
+			} else {
+				throw new IllegalStateException("Invalid frame type: " + frameType);
+			}
+		} catch (final IllegalStateException e) {
+			fields = null;
+			throw e;
+		} catch (final BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+			fields = null;
+			throw new IllegalStateException("Malformed frame", e);
+		}
+		final List<AllMetricsSnapshot> snapshots = new ArrayList<>(fields.length);
+		for (final var f : fields) {
+			snapshots.add(f.snapshot());
+		}
+		return snapshots;
+	}
+
+	private static void readDelta(final ByteBuffer in, final MetricsSnapshotFields f) {
+		readDelta(in, f.longs, f.doubles, f.histograms);
+		for (var k = 0; k < f.nodeAddrs.length; k++) {
+			readDelta(in, f.nodeLongs[k], f.nodeDoubles[k], f.nodeHistograms[k]);
+		}
+		for (var k = 0; k < f.opTypeOrdinals.length; k++) {
+			readDelta(in, f.opLongs[k], f.opDoubles[k], f.opHistograms[k]);
+		}
+		readDelta(in, f.injectorLongs, f.injectorDoubles, NO_HISTOGRAMS);
+		if (0 != readVarLong(in)) {
+			final var stepOps = readOps(in);
+			final var lastIntervalOps = readOps(in);
+			f.slowestOps = new SlowestOperationsSnapshotImpl(stepOps, lastIntervalOps);
+		}
+	}
+
+	private static List<OperationTraceRecord<?, ?>> readOps(final ByteBuffer in) {
+		final var count = (int) readVarLong(in);
+		final OperationTraceRecord<?, ?>[] ops = new OperationTraceRecord<?, ?>[count];
+		for (var i = 0; i < count; i++) {
+			ops[i] = new OperationTraceRecord<>(
+							readNullableName(in),
+							readNullableName(in),
+							(int) readVarLong(in),
+							(int) readVarLong(in),
+							unZigZag(readVarLong(in)),
+							unZigZag(readVarLong(in)),
+							unZigZag(readVarLong(in)),
+							unZigZag(readVarLong(in)),
+							unZigZag(readVarLong(in)));
+		}
+		return List.of(ops);
+	}
+
+	private static void readDelta(
+					final ByteBuffer in,
+					final long[] longs,
+					final double[] doubles,
+					final LogLinearHistogramSnapshot[] histograms) {
+		final var mask = readVarLong(in);
+		if (0 == mask) {
+			return;
+		}
+		var bit = 0;
+		for (var j = 0; j < longs.length; j++, bit++) {
+			if (0 != (mask & (1L << bit))) {
+				longs[j] += unZigZag(readVarLong(in));
+			}
+		}
+		for (var j = 0; j < doubles.length; j++, bit++) {
+			if (0 != (mask & (1L << bit))) {
+				doubles[j] = Double.longBitsToDouble(in.getLong());
+			}
+		}
+		for (var j = 0; j < histograms.length; j++, bit++) {
+			if (0 != (mask & (1L << bit))) {
+				histograms[j] = readHistogram(in, histograms[j]);
+			}
+		}
+	}
+
+	private static LogLinearHistogramSnapshot readHistogram(final ByteBuffer in, final LogLinearHistogramSnapshot base) {
+		final var deltaCount = (int) readVarLong(in);
+		final var deltaIndices = new int[deltaCount];
+		final var countDeltas = new long[deltaCount];
+		var idx = 0;
+		for (var k = 0; k < deltaCount; k++) {
+			idx += (int) readVarLong(in);
+			deltaIndices[k] = idx;
+			countDeltas[k] = unZigZag(readVarLong(in));
+		}
+		final var baseIndices = base.bucketIndices();
+		final var baseCounts = base.bucketCounts();
+		final var maxCount = baseIndices.length + deltaCount;
+		final var indices = new int[maxCount];
+		final var counts = new long[maxCount];
+		var n = 0;
+		int i = 0, j = 0;
+		long c;
+		while (i < baseIndices.length || j < deltaCount) {
+			if (j == deltaCount || (i < baseIndices.length && baseIndices[i] < deltaIndices[j])) {
+				idx = baseIndices[i];
+				c = baseCounts[i];
+				i++;
+			} else if (i == baseIndices.length || deltaIndices[j] < baseIndices[i]) {
+				idx = deltaIndices[j];
+				c = countDeltas[j];
+				j++;
+			} else {
+				idx = baseIndices[i];
+				c = baseCounts[i] + countDeltas[j];
+				i++;
+				j++;
+			}
+			if (0 != c) {
+				indices[n] = idx;
+				counts[n] = c;
+				n++;
+			}
+		}
+		if (0 == n) {
+			return LogLinearHistogramSnapshotImpl.EMPTY;
+		}
+		return n == maxCount
+						? new LogLinearHistogramSnapshotImpl(indices, counts)
+						: new LogLinearHistogramSnapshotImpl(Arrays.copyOf(indices, n), Arrays.copyOf(counts, n));
+	}
+
+	private static String readNullableName(final ByteBuffer in) {
+		final var len = (int) readVarLong(in) - 1;
+		if (len < 0) {
+			return null;
+		}
+		final var bytes = new byte[len];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static String readName(final ByteBuffer in) {
+		final var len = (int) readVarLong(in);
+		final var bytes = new byte[len];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static long readVarLong(final ByteBuffer in) {
+		long v = 0;
+		byte b;
+		for (var shift = 0; shift < Long.SIZE; shift += 7) {
+			b = in.get();
+			v |= (long) (b & 0x7F) << shift;
+			if (0 == (b & 0x80)) {
+				return v;
+			}
+		}
+		throw new IllegalStateException("Malformed var int");
+	}
+
+	private static long unZigZag(final long v) {
+		return (v >>> 1) ^ -(v & 1);
+	}
+}
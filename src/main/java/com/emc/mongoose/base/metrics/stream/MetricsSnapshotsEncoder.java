@@ -0,0 +1,319 @@
+package com.emc.mongoose.base.metrics.stream;
+
+import static com.emc.mongoose.base.metrics.stream.MetricsSnapshotFields.EMPTY_NODE_DOUBLES;
+import static com.emc.mongoose.base.metrics.stream.MetricsSnapshotFields.EMPTY_NODE_HISTOGRAMS;
+import static com.emc.mongoose.base.metrics.stream.MetricsSnapshotFields.EMPTY_NODE_LONGS;
+import static com.emc.mongoose.base.metrics.stream.MetricsSnapshotFields.EMPTY_OP_DOUBLES;
+import static com.emc.mongoose.base.metrics.stream.MetricsSnapshotFields.EMPTY_OP_HISTOGRAMS;
+import static com.emc.mongoose.base.metrics.stream.MetricsSnapshotFields.EMPTY_OP_LONGS;
+import static com.emc.mongoose.base.metrics.stream.MetricsSnapshotFields.NAME_COUNT;
+import static com.emc.mongoose.base.metrics.stream.MetricsSnapshotFields.NO_HISTOGRAMS;
+
+import com.emc.mongoose.base.logging.OperationTraceRecord;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+* Encodes the list of the metrics snapshots into the compact frame containing only the values changed since the
+* previous frame. The frame layout is:
+* <ol>
+* <li>frame type byte: {@link #FRAME_TYPE_FULL} or {@link #FRAME_TYPE_DELTA}</li>
+* <li>snapshots count (var int)</li>
+* <li>for each snapshot:
+* <ol>
+* <li>the metric names, the storage nodes count (var int), the storage node addresses, the operation types count
+* (var int) and the operation type ordinals (var ints) - full frame only</li>
+* <li>the changed fields bit mask (var int)</li>
+* <li>the long fields deltas (zig-zag var ints), the double fields (raw bits) and the histograms deltas
+* (the changed buckets count, then the bucket index increment and the zig-zag count delta for each one)</li>
+* <li>the changed fields bit mask and the changed fields for each storage node, then for each operation type</li>
+* <li>the changed fields bit mask and the changed fields of the load injector metrics</li>
+* <li>the slowest operations changed flag (var int), the load step slowest operations and the last interval slowest
+* operations lists if changed (the count, then the fields of each operation)</li>
+* </ol>
+* </li>
+* </ol>
+* The full frame is the delta against the empty snapshot. It is produced first, after {@link #reset()} and when the
+* snapshots count, the metric names, the storage nodes or the operation types change. Not thread safe.
+*/
+public final class MetricsSnapshotsEncoder {
+
+	static final byte FRAME_TYPE_FULL = 0;
+	static final byte FRAME_TYPE_DELTA = 1;
+
+	private static final MetricsSnapshotFields EMPTY_FIELDS = new MetricsSnapshotFields();
+
+	private final ByteArrayOutputStream out = new ByteArrayOutputStream(0x400);
+	private MetricsSnapshotFields[] prevFields = new MetricsSnapshotFields[0];
+	private MetricsSnapshotFields[] currFields = new MetricsSnapshotFields[0];
+	private boolean fullFrameRequired = true;
+	private int[] bucketIndicesBuff = new int[0x100];
+	private long[] bucketCountDeltasBuff = new long[0x100];
+
+	/** Make the next frame the full one, should be invoked if the previous frame was not delivered */
+	public void reset() {
+		fullFrameRequired = true;
+	}
+
+	/**
+	* @param snapshots the current metrics snapshots
+	* @return the encoded frame or null if nothing is changed since the previous frame
+	*/
+	public byte[] encode(final List<? extends AllMetricsSnapshot> snapshots) {
+		final var count = snapshots.size();
+		if (count != currFields.length) {
+			prevFields = newFields(count);
+			currFields = newFields(count);
+			fullFrameRequired = true;
+		}
+		for (var i = 0; i < count; i++) {
+			currFields[i].extract(snapshots.get(i));
+			if (
+				!fullFrameRequired
+					&& !(Arrays.equals(currFields[i].names, prevFields[i].names)
+									&& Arrays.equals(currFields[i].nodeAddrs, prevFields[i].nodeAddrs)
+									&& Arrays.equals(currFields[i].opTypeOrdinals, prevFields[i].opTypeOrdinals))
+			) {
+				fullFrameRequired = true;
+			}
+		}
+		final var full = fullFrameRequired;
+		out.reset();
+		out.write(full ? FRAME_TYPE_FULL : FRAME_TYPE_DELTA);
+		writeVarLong(count);
+		var changed = full;
+		MetricsSnapshotFields base;
+		MetricsSnapshotFields curr;
+		for (var i = 0; i < count; i++) {
+			base = full ? EMPTY_FIELDS : prevFields[i];
+			curr = currFields[i];
+			if (full) {
+				for (var j = 0; j < NAME_COUNT; j++) {
+					writeName(curr.names[j]);
+				}
+				writeVarLong(curr.nodeAddrs.length);
+				for (final var nodeAddr : curr.nodeAddrs) {
+					writeName(nodeAddr);
+				}
+				writeVarLong(curr.opTypeOrdinals.length);
+				for (final var opTypeOrdinal : curr.opTypeOrdinals) {
+					writeVarLong(opTypeOrdinal);
+				}
+			}
+			changed |= writeDelta(
+							base.longs, base.doubles, base.histograms, curr.longs, curr.doubles, curr.histograms);
+			for (var k = 0; k < curr.nodeAddrs.length; k++) {
+				changed |= full
+								? writeDelta(
+												EMPTY_NODE_LONGS,
+												EMPTY_NODE_DOUBLES,
+												EMPTY_NODE_HISTOGRAMS,
+												curr.nodeLongs[k],
+												curr.nodeDoubles[k],
+												curr.nodeHistograms[k])
+								: writeDelta(
+												base.nodeLongs[k],
+												base.nodeDoubles[k],
+												base.nodeHistograms[k],
+												curr.nodeLongs[k],
+												curr.nodeDoubles[k],
+												curr.nodeHistograms[k]);
+			}
+			for (var k = 0; k < curr.opTypeOrdinals.length; k++) {
+				changed |= full
+								? writeDelta(
+												EMPTY_OP_LONGS,
+												EMPTY_OP_DOUBLES,
+												EMPTY_OP_HISTOGRAMS,
+												curr.opLongs[k],
+												curr.opDoubles[k],
+												curr.opHistograms[k])
+								: writeDelta(
+												base.opLongs[k],
+												base.opDoubles[k],
+												base.opHistograms[k],
+												curr.opLongs[k],
+												curr.opDoubles[k],
+												curr.opHistograms[k]);
+			}
+			changed |= writeDelta(
+							base.injectorLongs,
+							base.injectorDoubles,
+							NO_HISTOGRAMS,
+							curr.injectorLongs,
+							curr.injectorDoubles,
+							NO_HISTOGRAMS);
+			if (curr.slowestOps != base.slowestOps) {
+				writeVarLong(1);
+				writeOps(curr.slowestOps.stepOps());
+				writeOps(curr.slowestOps.lastIntervalOps());
+				changed = true;
+			} else {
+				writeVarLong(0);
+			}
+		}
+		final var tmp = prevFields;
+		prevFields = currFields;
+		currFields = tmp;
+		fullFrameRequired = false;
+		return changed ? out.toByteArray() : null;
+	}
+
+	private static MetricsSnapshotFields[] newFields(final int count) {
+		final var fields = new MetricsSnapshotFields[count];
+		for (var i = 0; i < count; i++) {
+			fields[i] = new MetricsSnapshotFields();
+		}
+		return fields;
+	}
+
+	private boolean writeDelta(
+					final long[] baseLongs,
+					final double[] baseDoubles,
+					final LogLinearHistogramSnapshot[] baseHistograms,
+					final long[] currLongs,
+					final double[] currDoubles,
+					final LogLinearHistogramSnapshot[] currHistograms) {
+		var mask = 0L;
+		var bit = 0;
+		for (var j = 0; j < currLongs.length; j++, bit++) {
+			if (baseLongs[j] != currLongs[j]) {
+				mask |= 1L << bit;
+			}
+		}
+		for (var j = 0; j < currDoubles.length; j++, bit++) {
+			if (Double.doubleToLongBits(baseDoubles[j]) != Double.doubleToLongBits(currDoubles[j])) {
+				mask |= 1L << bit;
+			}
+		}
+		for (var j = 0; j < currHistograms.length; j++, bit++) {
+			if (!sameHistogram(baseHistograms[j], currHistograms[j])) {
+				mask |= 1L << bit;
+			}
+		}
+		writeVarLong(mask);
+		if (0 == mask) {
+			return false;
+		}
+		bit = 0;
+		for (var j = 0; j < currLongs.length; j++, bit++) {
+			if (0 != (mask & (1L << bit))) {
+				writeVarLong(zigZag(currLongs[j] - baseLongs[j]));
+			}
+		}
+		for (var j = 0; j < currDoubles.length; j++, bit++) {
+			if (0 != (mask & (1L << bit))) {
+				writeLong(Double.doubleToLongBits(currDoubles[j]));
+			}
+		}
+		for (var j = 0; j < currHistograms.length; j++, bit++) {
+			if (0 != (mask & (1L << bit))) {
+				writeHistogramDelta(baseHistograms[j], currHistograms[j]);
+			}
+		}
+		return true;
+	}
+
+	private static boolean sameHistogram(final LogLinearHistogramSnapshot h1, final LogLinearHistogramSnapshot h2) {
+		return h1 == h2
+						|| (h1.count() == h2.count()
+										&& Arrays.equals(h1.bucketIndices(), h2.bucketIndices())
+										&& Arrays.equals(h1.bucketCounts(), h2.bucketCounts()));
+	}
+
+	private void writeHistogramDelta(final LogLinearHistogramSnapshot base, final LogLinearHistogramSnapshot curr) {
+		final var baseIndices = base.bucketIndices();
+		final var baseCounts = base.bucketCounts();
+		final var currIndices = curr.bucketIndices();
+		final var currCounts = curr.bucketCounts();
+		final var maxDeltaCount = baseIndices.length + currIndices.length;
+		if (bucketIndicesBuff.length < maxDeltaCount) {
+			bucketIndicesBuff = new int[maxDeltaCount];
+			bucketCountDeltasBuff = new long[maxDeltaCount];
+		}
+		var deltaCount = 0;
+		int i = 0, j = 0, idx;
+		long countDelta;
+		while (i < baseIndices.length || j < currIndices.length) {
+			if (j == currIndices.length || (i < baseIndices.length && baseIndices[i] < currIndices[j])) {
+				idx = baseIndices[i];
+				countDelta = -baseCounts[i];
+				i++;
+			} else if (i == baseIndices.length || currIndices[j] < baseIndices[i]) {
+				idx = currIndices[j];
+				countDelta = currCounts[j];
+				j++;
+			} else {
+				idx = currIndices[j];
+				countDelta = currCounts[j] - baseCounts[i];
+				i++;
+				j++;
+			}
+			if (0 != countDelta) {
+				bucketIndicesBuff[deltaCount] = idx;
+				bucketCountDeltasBuff[deltaCount] = countDelta;
+				deltaCount++;
+			}
+		}
+		writeVarLong(deltaCount);
+		var prevIdx = 0;
+		for (var k = 0; k < deltaCount; k++) {
+			writeVarLong(bucketIndicesBuff[k] - prevIdx);
+			writeVarLong(zigZag(bucketCountDeltasBuff[k]));
+			prevIdx = bucketIndicesBuff[k];
+		}
+	}
+
+	private void writeOps(final List<OperationTraceRecord<?, ?>> ops) {
+		writeVarLong(ops.size());
+		for (final var op : ops) {
+			writeNullableName(op.storageNode());
+			writeNullableName(op.itemPath());
+			writeVarLong(op.opTypeCode());
+			writeVarLong(op.statusCode());
+			writeVarLong(zigZag(op.reqTimeStart()));
+			writeVarLong(zigZag(op.duration()));
+			writeVarLong(zigZag(op.respLatency()));
+			writeVarLong(zigZag(op.dataLatency()));
+			writeVarLong(zigZag(op.transferSize()));
+		}
+	}
+
+	private void writeNullableName(final String name) {
+		if (null == name) {
+			writeVarLong(0);
+		} else {
+			final var bytes = name.getBytes(StandardCharsets.UTF_8);
+			writeVarLong(bytes.length + 1);
+			out.write(bytes, 0, bytes.length);
+		}
+	}
+
+	private void writeName(final String name) {
+		final var bytes = name.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(bytes.length);
+		out.write(bytes, 0, bytes.length);
+	}
+
+	private void writeLong(final long v) {
+		for (var shift = 56; shift >= 0; shift -= 8) {
+			out.write((int) (v >>> shift));
+		}
+	}
+
+	private void writeVarLong(long v) {
+		while (0 != (v & ~0x7FL)) {
+			out.write((int) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		out.write((int) v);
+	}
+
+	private static long zigZag(final long v) {
+		return (v << 1) ^ (v >> 63);
+	}
+}
@@ -0,0 +1,59 @@
+package com.emc.mongoose.base.metrics.stream;
+
+import static com.emc.mongoose.base.Exceptions.throwUncheckedIfInterrupted;
+
+import com.emc.mongoose.base.concurrent.ServiceTaskExecutor;
+import com.emc.mongoose.base.load.step.LoadStep;
+import com.emc.mongoose.base.logging.LogUtil;
+import com.github.akurilov.fiber4j.ExclusiveFiberBase;
+import org.apache.logging.log4j.Level;
+
+/**
+* Pushes the load step's metrics snapshots to the remote consumer. The snapshots are encoded as the deltas against the
+* previously pushed ones and nothing is pushed if no value is changed.
+*/
+public final class MetricsSnapshotsPublisherTask extends ExclusiveFiberBase {
+
+	private final LoadStep loadStep;
+	private final MetricsSnapshotsConsumer consumer;
+	private final long periodMillis;
+	private final MetricsSnapshotsEncoder encoder = new MetricsSnapshotsEncoder();
+	private long lastPublishedMillis = 0;
+	private boolean failedBeforeFlag = false;
+
+	public MetricsSnapshotsPublisherTask(
+					final LoadStep loadStep, final MetricsSnapshotsConsumer consumer, final long periodMillis) {
+		super(ServiceTaskExecutor.INSTANCE);
+		this.loadStep = loadStep;
+		this.consumer = consumer;
+		this.periodMillis = periodMillis;
+	}
+
+	@Override
+	protected final void invokeTimedExclusively(final long startTimeNanos) {
+		final var now = System.currentTimeMillis();
+		if (now - lastPublishedMillis < periodMillis) {
+			return;
+		}
+		lastPublishedMillis = now;
+		try {
+			final var frame = encoder.encode(loadStep.metricsSnapshots());
+			if (null != frame) {
+				consumer.accept(frame);
+			}
+			failedBeforeFlag = false;
+		} catch (final Exception e) {
+			throwUncheckedIfInterrupted(e);
+			// the consumer state is unknown now, start again from the full frame
+			encoder.reset();
+			if (failedBeforeFlag) {
+				LogUtil.exception(
+								Level.WARN, e, "Failed to push the metrics snapshots of \"{}\" twice, stopping", loadStep);
+				stop();
+			} else {
+				LogUtil.exception(Level.INFO, e, "Failed to push the metrics snapshots of \"{}\"", loadStep);
+				failedBeforeFlag = true;
+			}
+		}
+	}
+}
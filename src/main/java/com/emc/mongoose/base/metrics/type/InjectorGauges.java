@@ -0,0 +1,35 @@
+package com.emc.mongoose.base.metrics.type;
+
+/**
+* The load injector internals sampled by the {@link InjectorMeter} on each metrics snapshot refresh. The
+* implementations should be thread safe and cheap enough to be invoked several times per second.
+*/
+public interface InjectorGauges {
+
+	/** @return the load generator invocations count */
+	long fiberInvocationCount();
+
+	/** @return the count of the load generator invocations which took more than the fiber's warning duration limit */
+	long fiberOverrunCount();
+
+	/** @return the recycle queue size to capacity ratio */
+	double recycleQueueFill();
+
+	/** @return the previous load step results buffer fill ratio if the items are taken from there, 0 otherwise */
+	double transferBufferFill();
+
+	/** @return the count of the operations accepted by the storage driver but not started yet */
+	long driverQueueDepth();
+
+	/** @return the count of the handled operation results, may be estimated by sampling */
+	long completionCount();
+
+	/** @return the total time spent handling the operation results, nanoseconds, may be estimated by sampling */
+	long completionTimeNanos();
+
+	/** @return the count of the content chunks verified by the storage driver's verification pool */
+	long verifyCount();
+
+	/** @return the total time spent by the storage driver's verification pool, nanoseconds */
+	long verifyTimeNanos();
+}
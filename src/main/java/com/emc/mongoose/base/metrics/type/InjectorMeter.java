@@ -0,0 +1,140 @@
+package com.emc.mongoose.base.metrics.type;
+
+import com.emc.mongoose.base.metrics.snapshot.InjectorMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.InjectorMetricsSnapshotImpl;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+* Samples the load injector internals exposed by the {@link InjectorGauges} and the JVM memory management costs. Nothing
+* is accounted per operation here: the gauges are read on each snapshot, the JVM-wide values (GC pauses time, threads
+* allocated bytes) are read not more frequently than once per second. The GC time is reported by the JVM collectors
+* beans, so it may include the concurrent phases time for the concurrent collectors.
+*/
+public final class InjectorMeter {
+
+	private static final long JVM_SAMPLE_PERIOD_MILLIS = 1_000;
+
+	private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+	// null if the thread allocated memory accounting is not supported by the JVM
+	private final com.sun.management.ThreadMXBean threadBean;
+	private final int processorCount = Runtime.getRuntime().availableProcessors();
+	private volatile InjectorGauges gauges = null;
+	private long startTimeMillis;
+	private long startGcTimeMillis;
+	private long gcPauseMillis;
+	private long lastJvmSampleMillis;
+	private long lastAllocatedBytesSum;
+	private long allocatedBytes;
+	private double allocRateLast;
+	private long sampleCount;
+	private double recycleQueueFillSum;
+	private double transferBufferFillSum;
+	private double driverQueueDepthSum;
+
+	public InjectorMeter() {
+		final var threadBean = ManagementFactory.getThreadMXBean();
+		if (
+			threadBean instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()
+				&& ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemoryEnabled()
+		) {
+			this.threadBean = (com.sun.management.ThreadMXBean) threadBean;
+		} else {
+			this.threadBean = null;
+		}
+		resetStartTime();
+	}
+
+	/** @param gauges the load injector internals to sample, the snapshot is empty until these are set */
+	public void gauges(final InjectorGauges gauges) {
+		this.gauges = gauges;
+	}
+
+	public synchronized void resetStartTime() {
+		startTimeMillis = System.currentTimeMillis();
+		startGcTimeMillis = gcTimeMillis();
+		gcPauseMillis = 0;
+		lastJvmSampleMillis = startTimeMillis;
+		lastAllocatedBytesSum = allocatedBytesSum();
+		allocatedBytes = 0;
+		allocRateLast = 0;
+		sampleCount = 0;
+		recycleQueueFillSum = 0;
+		transferBufferFillSum = 0;
+		driverQueueDepthSum = 0;
+	}
+
+	public synchronized InjectorMetricsSnapshot snapshot() {
+		final var gauges = this.gauges;
+		if (null == gauges) {
+			return InjectorMetricsSnapshotImpl.EMPTY;
+		}
+		final var currentTimeMillis = System.currentTimeMillis();
+		if (currentTimeMillis - lastJvmSampleMillis >= JVM_SAMPLE_PERIOD_MILLIS) {
+			sampleJvm(currentTimeMillis);
+		}
+		final var recycleQueueFill = gauges.recycleQueueFill();
+		final var transferBufferFill = gauges.transferBufferFill();
+		final var driverQueueDepth = gauges.driverQueueDepth();
+		sampleCount++;
+		recycleQueueFillSum += recycleQueueFill;
+		transferBufferFillSum += transferBufferFill;
+		driverQueueDepthSum += driverQueueDepth;
+		return new InjectorMetricsSnapshotImpl(
+						gauges.fiberInvocationCount(),
+						gauges.fiberOverrunCount(),
+						recycleQueueFill,
+						recycleQueueFillSum / sampleCount,
+						transferBufferFill,
+						transferBufferFillSum / sampleCount,
+						driverQueueDepth,
+						driverQueueDepthSum / sampleCount,
+						gauges.completionCount(),
+						TimeUnit.NANOSECONDS.toMicros(gauges.completionTimeNanos()),
+						gauges.verifyCount(),
+						TimeUnit.NANOSECONDS.toMicros(gauges.verifyTimeNanos()),
+						gcPauseMillis,
+						allocatedBytes,
+						allocRateLast,
+						processorCount,
+						currentTimeMillis - startTimeMillis);
+	}
+
+	private void sampleJvm(final long currentTimeMillis) {
+		gcPauseMillis = gcTimeMillis() - startGcTimeMillis;
+		final var allocatedBytesSum = allocatedBytesSum();
+		// the bytes allocated by the threads which have died since the last sample are lost
+		final var allocatedBytesDelta = Math.max(0, allocatedBytesSum - lastAllocatedBytesSum);
+		allocatedBytes += allocatedBytesDelta;
+		allocRateLast = allocatedBytesDelta * 1000.0 / (currentTimeMillis - lastJvmSampleMillis);
+		lastAllocatedBytesSum = allocatedBytesSum;
+		lastJvmSampleMillis = currentTimeMillis;
+	}
+
+	private long gcTimeMillis() {
+		long gcTimeMillis = 0;
+		for (final var gcBean : gcBeans) {
+			final var collectionTimeMillis = gcBean.getCollectionTime();
+			if (collectionTimeMillis > 0) {
+				gcTimeMillis += collectionTimeMillis;
+			}
+		}
+		return gcTimeMillis;
+	}
+
+	private long allocatedBytesSum() {
+		if (null == threadBean) {
+			return 0;
+		}
+		long allocatedBytesSum = 0;
+		for (final var threadAllocatedBytes : threadBean.getThreadAllocatedBytes(threadBean.getAllThreadIds())) {
+			if (threadAllocatedBytes > 0) {
+				allocatedBytesSum += threadAllocatedBytes;
+			}
+		}
+		return allocatedBytesSum;
+	}
+}
@@ -0,0 +1,77 @@
+package com.emc.mongoose.base.metrics.type;
+
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshotImpl;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+* The histogram of the values recorded during the last complete time interval. Uses two recorders:
+* the active one is updated and the inactive one is drained. The recorders are swapped when the
+* snapshot is requested and the interval is elapsed. The updates don't lock: each recorder has its
+* in-flight updates counter, so the drain waits for the updates started before the swap only.
+*/
+public class IntervalHistogramImpl implements LongMeter<LogLinearHistogramSnapshot> {
+
+	private static final class Recorder {
+
+		private final LogLinearHistogramImpl histogram = new LogLinearHistogramImpl();
+		private final LongAdder inFlightUpdates = new LongAdder();
+	}
+
+	private final long intervalMillis;
+	private final LongSupplier clock;
+	private volatile Recorder activeRecorder = new Recorder();
+	private Recorder inactiveRecorder = new Recorder();
+	private volatile long intervalStartMillis;
+	private volatile LogLinearHistogramSnapshot lastIntervalSnapshot = LogLinearHistogramSnapshotImpl.EMPTY;
+
+	public IntervalHistogramImpl(final long intervalMillis) {
+		this(intervalMillis, System::currentTimeMillis);
+	}
+
+	public IntervalHistogramImpl(final long intervalMillis, final LongSupplier clock) {
+		this.intervalMillis = intervalMillis;
+		this.clock = clock;
+		this.intervalStartMillis = clock.getAsLong();
+	}
+
+	@Override
+	public void update(final long value) {
+		Recorder recorder;
+		while (true) {
+			recorder = activeRecorder;
+			recorder.inFlightUpdates.increment();
+			if (recorder == activeRecorder) {
+				break;
+			}
+			// swapped concurrently, retry with the new active recorder
+			recorder.inFlightUpdates.decrement();
+		}
+		try {
+			recorder.histogram.update(value);
+		} finally {
+			recorder.inFlightUpdates.decrement();
+		}
+	}
+
+	/**
+	* @return the snapshot of the last complete interval, empty if no interval is complete yet
+	*/
+	@Override
+	public synchronized LogLinearHistogramSnapshot snapshot() {
+		final var now = clock.getAsLong();
+		if (now - intervalStartMillis >= intervalMillis) {
+			final var drainedRecorder = activeRecorder;
+			activeRecorder = inactiveRecorder;
+			intervalStartMillis = now;
+			while (drainedRecorder.inFlightUpdates.sum() > 0) {
+				Thread.onSpinWait();
+			}
+			lastIntervalSnapshot = drainedRecorder.histogram.snapshot();
+			drainedRecorder.histogram.reset();
+			inactiveRecorder = drainedRecorder;
+		}
+		return lastIntervalSnapshot;
+	}
+}
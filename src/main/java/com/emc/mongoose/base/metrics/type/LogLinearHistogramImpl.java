@@ -0,0 +1,66 @@
+package com.emc.mongoose.base.metrics.type;
+
+import static com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot.BUCKET_COUNT;
+import static com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot.bucketIndex;
+
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshotImpl;
+import com.github.akurilov.commons.concurrent.ThreadUtil;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+* Lock-free log-linear histogram. The bucket counters are striped by the updating thread to reduce
+* the contention, the stripes are summed up when the snapshot is taken.
+*/
+public class LogLinearHistogramImpl implements LongMeter<LogLinearHistogramSnapshot> {
+
+	static final int STRIPE_COUNT_MAX = 8;
+	// the snapshots are taken by the few metrics refreshing threads, the buffer is not referenced by the snapshot
+	private static final ThreadLocal<long[]> DENSE_COUNTS = ThreadLocal.withInitial(() -> new long[BUCKET_COUNT]);
+
+	private final AtomicLongArray[] stripes;
+	private final int stripeMask;
+
+	public LogLinearHistogramImpl() {
+		this(STRIPE_COUNT_MAX);
+	}
+
+	/** @param stripeCountMax the max count of the stripes, 1 for the least memory footprint */
+	public LogLinearHistogramImpl(final int stripeCountMax) {
+		final var threadCount = Math.min(stripeCountMax, ThreadUtil.getHardwareThreadCount());
+		final var stripeCount = Integer.highestOneBit(Math.max(1, threadCount));
+		stripes = new AtomicLongArray[stripeCount];
+		for (var i = 0; i < stripeCount; i++) {
+			stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+		}
+		stripeMask = stripeCount - 1;
+	}
+
+	@Override
+	public void update(final long value) {
+		stripes[(int) Thread.currentThread().getId() & stripeMask].incrementAndGet(bucketIndex(value));
+	}
+
+	/** @return the sparse snapshot, the stripes are summed up into the reused buffer of the calling thread */
+	@Override
+	public LogLinearHistogramSnapshot snapshot() {
+		final var denseCounts = DENSE_COUNTS.get();
+		Arrays.fill(denseCounts, 0);
+		for (final var stripe : stripes) {
+			for (var i = 0; i < BUCKET_COUNT; i++) {
+				denseCounts[i] += stripe.get(i);
+			}
+		}
+		return new LogLinearHistogramSnapshotImpl(denseCounts);
+	}
+
+	/** Not thread safe, should be invoked only when there are no concurrent updates */
+	void reset() {
+		for (final var stripe : stripes) {
+			for (var i = 0; i < BUCKET_COUNT; i++) {
+				stripe.lazySet(i, 0);
+			}
+		}
+	}
+}
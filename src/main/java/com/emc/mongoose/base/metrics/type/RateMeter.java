@@ -1,6 +1,7 @@
 package com.emc.mongoose.base.metrics.type;
 
 import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshotHolder;
 
 /** @author veronika K. on 03.10.18 */
 public interface RateMeter<S extends RateMetricSnapshot> extends LongMeter<S> {
@@ -8,4 +9,7 @@ public interface RateMeter<S extends RateMetricSnapshot> extends LongMeter<S> {
 	int DEFAULT_PERIOD_SECONDS = 1;
 
 	void resetStartTime();
+
+	/** @param holder the snapshot holder to refresh in place w/o allocating a new snapshot */
+	void snapshot(final RateMetricSnapshotHolder holder);
 }
@@ -3,13 +3,17 @@ package com.emc.mongoose.base.metrics.type;
 import static java.lang.Math.exp;
 
 import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshotHolder;
 import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshotImpl;
 
 import java.time.Clock;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 
+/**
+* The update is the only striped counter increment. The moving average is ticked by the snapshot invocations (done by
+* the metrics manager fiber) using the counter deltas sampled since the previous tick.
+*/
 public class RateMeterImpl implements RateMeter<RateMetricSnapshot> {
 
 	private static final long TICK_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
@@ -18,8 +22,9 @@ public class RateMeterImpl implements RateMeter<RateMetricSnapshot> {
 	private final LoadAverage rateAvg;
 	private final LongAdder count = new LongAdder();
 	private final Clock clock;
-	private final AtomicLong lastTick = new AtomicLong();
-	private long startTimeMillis;
+	private volatile long startTimeMillis;
+	private long lastTickMillis;
+	private long lastTickCount;
 
 	public RateMeterImpl(final Clock clock, final String name) {
 		this(clock, DEFAULT_PERIOD_SECONDS, name);
@@ -38,31 +43,31 @@ public class RateMeterImpl implements RateMeter<RateMetricSnapshot> {
 	}
 
 	@Override
-	public void resetStartTime() {
+	public synchronized void resetStartTime() {
 		startTimeMillis = clock.millis();
-		lastTick.set(startTimeMillis);
+		lastTickMillis = startTimeMillis;
+		lastTickCount = count.sum();
 	}
 
-	private void tickIfNecessary() {
-		final long oldTick = lastTick.get();
+	private synchronized void tickIfNecessary() {
 		final long newTick = clock.millis();
-		final long ageMillis = newTick - oldTick;
+		final long ageMillis = newTick - lastTickMillis;
 		if (ageMillis > TICK_INTERVAL_MILLIS) {
-			final long newIntervalStartTick = newTick - ageMillis % TICK_INTERVAL_MILLIS;
-			if (lastTick.compareAndSet(oldTick, newIntervalStartTick)) {
-				final long requiredTicks = ageMillis / TICK_INTERVAL_MILLIS;
-				for (long i = 0; i < requiredTicks; ++i) {
-					rateAvg.tick();
-				}
+			lastTickMillis = newTick - ageMillis % TICK_INTERVAL_MILLIS;
+			final long countSum = count.sum();
+			// all the values counted since the last tick are accounted in the 1st elapsed interval
+			rateAvg.update(countSum - lastTickCount);
+			lastTickCount = countSum;
+			final long requiredTicks = ageMillis / TICK_INTERVAL_MILLIS;
+			for (long i = 0; i < requiredTicks; ++i) {
+				rateAvg.tick();
 			}
 		}
 	}
 
 	@Override
 	public void update(final long v) {
-		tickIfNecessary();
 		count.add(v);
-		rateAvg.update(v);
 	}
 
 	@Override
@@ -71,16 +76,22 @@ public class RateMeterImpl implements RateMeter<RateMetricSnapshot> {
 						lastRate(), meanRate(), metricName, count.sum(), elapsedTimeMillis());
 	}
 
+	@Override
+	public void snapshot(final RateMetricSnapshotHolder holder) {
+		holder.set(count.sum(), lastRate(), meanRate(), elapsedTimeMillis());
+	}
+
 	long elapsedTimeMillis() {
 		return (clock.millis() - startTimeMillis);
 	}
 
 	double meanRate() {
-		if (count.sum() == 0) {
+		final long countSum = count.sum();
+		if (countSum == 0) {
 			return 0.0;
 		} else {
 			final double elapsed = TimeUnit.MILLISECONDS.toSeconds(clock.millis() - startTimeMillis);
-			return (elapsed == 0) ? 0 : count.sum() / elapsed;
+			return (elapsed == 0) ? 0 : countSum / elapsed;
 		}
 	}
 
@@ -0,0 +1,99 @@
+package com.emc.mongoose.base.metrics.type;
+
+import static com.emc.mongoose.base.metrics.snapshot.SlowestOperationsSnapshotImpl.SLOWEST_FIRST;
+
+import com.emc.mongoose.base.item.op.Operation;
+import com.emc.mongoose.base.logging.OperationTraceRecord;
+import com.emc.mongoose.base.metrics.snapshot.SlowestOperationsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.SlowestOperationsSnapshotImpl;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+* Keeps the given count of the slowest (by the duration) load operations since the load step start and during the
+* current interval. The operation which is not slower than the current threshold is rejected by the single volatile
+* read, only the slower ones are recorded under the lock. The threshold is the fastest operation duration among the
+* current interval's slowest operations, it's reset when the interval ends.
+*/
+public final class SlowestOperationsTracker {
+
+	private final int limit;
+	private final long intervalMillis;
+	// the fastest operation is on the top
+	private final PriorityQueue<OperationTraceRecord<?, ?>> stepOps;
+	private final PriorityQueue<OperationTraceRecord<?, ?>> intervalOps;
+	private volatile long thresholdDuration = Long.MIN_VALUE;
+	private long intervalStartMillis = System.currentTimeMillis();
+	private List<OperationTraceRecord<?, ?>> lastIntervalOps = Collections.emptyList();
+	private SlowestOperationsSnapshot lastSnapshot = SlowestOperationsSnapshotImpl.EMPTY;
+	private boolean changedFlag = false;
+
+	/**
+	* @param limit the count of the slowest operations to keep, should be more than 0
+	* @param intervalMillis the interval duration, 0 to track the load step slowest operations only
+	*/
+	public SlowestOperationsTracker(final int limit, final long intervalMillis) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("The slowest operations count should be more than 0");
+		}
+		this.limit = limit;
+		this.intervalMillis = intervalMillis;
+		stepOps = new PriorityQueue<>(limit, SLOWEST_FIRST.reversed());
+		intervalOps = new PriorityQueue<>(limit, SLOWEST_FIRST.reversed());
+	}
+
+	public void offer(final Operation<?> op) {
+		if (op.duration() > thresholdDuration) {
+			record(op);
+		}
+	}
+
+	private synchronized void record(final Operation<?> op) {
+		if (op.duration() > thresholdDuration) {
+			// copy the values immediately because the operation instance may be recycled
+			final OperationTraceRecord<?, ?> rec = new OperationTraceRecord<>(op);
+			addBounded(stepOps, rec);
+			addBounded(intervalOps, rec);
+			if (intervalOps.size() == limit) {
+				thresholdDuration = intervalOps.peek().duration();
+			}
+			changedFlag = true;
+		}
+	}
+
+	private void addBounded(final PriorityQueue<OperationTraceRecord<?, ?>> ops, final OperationTraceRecord<?, ?> rec) {
+		if (ops.size() < limit) {
+			ops.add(rec);
+		} else if (rec.duration() > ops.peek().duration()) {
+			ops.poll();
+			ops.add(rec);
+		}
+	}
+
+	/** @return the same snapshot instance if nothing changed since the previous invocation */
+	public synchronized SlowestOperationsSnapshot snapshot() {
+		if (intervalMillis > 0) {
+			final var currentTimeMillis = System.currentTimeMillis();
+			if (currentTimeMillis - intervalStartMillis >= intervalMillis) {
+				intervalStartMillis = currentTimeMillis;
+				lastIntervalOps = slowestFirst(intervalOps);
+				intervalOps.clear();
+				thresholdDuration = Long.MIN_VALUE;
+				changedFlag = true;
+			}
+		}
+		if (changedFlag) {
+			changedFlag = false;
+			lastSnapshot = new SlowestOperationsSnapshotImpl(slowestFirst(stepOps), lastIntervalOps);
+		}
+		return lastSnapshot;
+	}
+
+	private static List<OperationTraceRecord<?, ?>> slowestFirst(final PriorityQueue<OperationTraceRecord<?, ?>> ops) {
+		final OperationTraceRecord<?, ?>[] opsArray = ops.toArray(new OperationTraceRecord<?, ?>[0]);
+		Arrays.sort(opsArray, SLOWEST_FIRST);
+		return List.of(opsArray);
+	}
+}
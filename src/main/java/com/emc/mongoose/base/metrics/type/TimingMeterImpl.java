@@ -1,9 +1,10 @@
 package com.emc.mongoose.base.metrics.type;
 
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshotImpl;
 import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshotImpl;
-import com.emc.mongoose.base.metrics.snapshot.HistogramSnapshot;
 
+import java.util.concurrent.atomic.LongAccumulator;
 import java.util.concurrent.atomic.LongAdder;
 
 /** @author veronika K. on 10.10.18 */
@@ -11,37 +12,78 @@ public class TimingMeterImpl implements LongMeter<TimingMetricSnapshot> {
 
 	private final LongAdder count = new LongAdder();
 	private final LongAdder sum = new LongAdder();
-	private volatile long min = Long.MAX_VALUE;
-	private volatile long max = Long.MIN_VALUE;
+	private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+	private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+	private final LogLinearHistogramImpl histogram;
+	private final IntervalHistogramImpl intervalHistogram;
 	private final String metricName;
+	private TimingMetricSnapshotImpl lastSnapshot = null;
 
 	public TimingMeterImpl(final String metricName) {
+		this(metricName, 0);
+	}
+
+	/**
+	* @param metricName the metric name
+	* @param intervalMillis the time interval to track the quantiles for the last interval only, 0 to
+	*     disable
+	*/
+	public TimingMeterImpl(final String metricName, final long intervalMillis) {
+		this(metricName, intervalMillis, LogLinearHistogramImpl.STRIPE_COUNT_MAX);
+	}
+
+	/**
+	* @param metricName the metric name
+	* @param intervalMillis the time interval to track the quantiles for the last interval only, 0 to
+	*     disable
+	* @param histogramStripeCountMax the max count of the histogram stripes, the less the lighter
+	*/
+	public TimingMeterImpl(final String metricName, final long intervalMillis, final int histogramStripeCountMax) {
 		this.metricName = metricName;
+		this.histogram = new LogLinearHistogramImpl(histogramStripeCountMax);
+		this.intervalHistogram = intervalMillis > 0 ? new IntervalHistogramImpl(intervalMillis) : null;
 	}
 
 	@Override
 	public void update(final long value) {
 		count.increment();
 		sum.add(value);
-		if (value < min) {
-			min = value;
-		}
-		if (value > max) {
-			max = value;
+		min.accumulate(value);
+		max.accumulate(value);
+		histogram.update(value);
+		if (intervalHistogram != null) {
+			intervalHistogram.update(value);
 		}
 	}
 
+	/** @return the same snapshot instance as before if there were no updates and the interval is not elapsed since */
 	@Override
-	public TimingMetricSnapshotImpl snapshot() {
-		if (count.sum() == 0) {
-			return new TimingMetricSnapshotImpl(0, 0, 0, 0, 0, metricName);
+	public synchronized TimingMetricSnapshotImpl snapshot() {
+		final long count = this.count.sum();
+		final var intervalSnapshot =
+						intervalHistogram == null ? LogLinearHistogramSnapshotImpl.EMPTY : intervalHistogram.snapshot();
+		final var lastSnapshot = this.lastSnapshot;
+		if (lastSnapshot != null
+						&& lastSnapshot.count() == count
+						&& lastSnapshot.intervalHistogramSnapshot() == intervalSnapshot) {
+			return lastSnapshot;
+		}
+		final TimingMetricSnapshotImpl snapshot;
+		if (count == 0) {
+			snapshot = new TimingMetricSnapshotImpl(0, 0, 0, 0, 0, metricName);
+		} else {
+			final long sum = this.sum.sum();
+			snapshot = new TimingMetricSnapshotImpl(
+							sum,
+							count,
+							min.get(),
+							max.get(),
+							((double) sum) / count,
+							histogram.snapshot(),
+							intervalSnapshot,
+							metricName);
 		}
-		return new TimingMetricSnapshotImpl(
-						sum.sum(),
-						count.sum(),
-						min,
-						max,
-						((double) sum.sum()) / count.sum(),
-						metricName);
+		this.lastSnapshot = snapshot;
+		return snapshot;
 	}
 }
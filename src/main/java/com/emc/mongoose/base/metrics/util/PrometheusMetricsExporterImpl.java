@@ -9,23 +9,51 @@ import com.emc.mongoose.base.metrics.context.DistributedMetricsContext;
 import com.emc.mongoose.base.metrics.snapshot.ConcurrencyMetricSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.DistributedAllMetricsSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.HistogramSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.InjectorMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.NamedMetricSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.StorageNodeMetricsSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshot;
 import io.prometheus.client.Collector;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /** @author veronika K. on 10.10.18 */
 public class PrometheusMetricsExporterImpl extends Collector implements PrometheusMetricsExporter {
 
+	// the upper bounds of the exported histogram buckets, the log-linear histogram buckets are merged into these
+	private static final long[] HISTOGRAM_BUCKET_BOUNDS_MICROS = {
+		100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000, 2_500_000,
+		5_000_000, 10_000_000, 30_000_000
+	};
+	private static final int[] HISTOGRAM_BUCKET_BOUND_INDICES = new int[HISTOGRAM_BUCKET_BOUNDS_MICROS.length];
+	private static final String[] HISTOGRAM_BUCKET_LE_VALUES = new String[HISTOGRAM_BUCKET_BOUNDS_MICROS.length + 1];
+	private static final String LABEL_LE = "le";
+
+	static {
+		for (var i = 0; i < HISTOGRAM_BUCKET_BOUNDS_MICROS.length; i++) {
+			HISTOGRAM_BUCKET_BOUND_INDICES[i] = LogLinearHistogramSnapshot.bucketIndex(HISTOGRAM_BUCKET_BOUNDS_MICROS[i]);
+			HISTOGRAM_BUCKET_LE_VALUES[i] = doubleToGoString(HISTOGRAM_BUCKET_BOUNDS_MICROS[i] / Constants.M);
+		}
+		HISTOGRAM_BUCKET_LE_VALUES[HISTOGRAM_BUCKET_BOUNDS_MICROS.length] = doubleToGoString(Double.POSITIVE_INFINITY);
+	}
+
 	private final List<String> labelValues = new ArrayList<>();
 	private final List<String> labelNames = new ArrayList<>();
 	private final DistributedMetricsContext metricsContext;
 	private final List<Double> quantileValues = new ArrayList<>();
+	private final List<String> quantileSuffixes = new ArrayList<>();
 	private String help = "";
+	// the samples are rebuilt only if the metrics snapshot is refreshed since the previous scrape
+	private DistributedAllMetricsSnapshot lastCollectedSnapshot = null;
+	private List<MetricFamilySamples> lastCollectedMfsList = Collections.emptyList();
+	// the histogram bucket label values for each storage node, "" key is for the load step totals
+	private final Map<String, List<List<String>>> bucketLabelValuesByNode = new HashMap<>();
 
 	public PrometheusMetricsExporterImpl(final DistributedMetricsContext context) {
 		this.metricsContext = context;
@@ -35,6 +63,7 @@ public class PrometheusMetricsExporterImpl extends Collector implements Promethe
 	public PrometheusMetricsExporterImpl quantile(final double value) {
 		if (value < 1.0 && value >= 0.0) {
 			quantileValues.add(value);
+			quantileSuffixes.add(Double.toString(value).replace('.', '_'));
 		} else {
 			throw new IllegalArgumentException("Invalid quantiele value : " + value);
 		}
@@ -86,19 +115,98 @@ public class PrometheusMetricsExporterImpl extends Collector implements Promethe
 	}
 
 	@Override
-	public List<MetricFamilySamples> collect() {
-		final List<MetricFamilySamples> mfsList = new ArrayList<>();
+	public synchronized List<MetricFamilySamples> collect() {
 		final DistributedAllMetricsSnapshot snapshot = metricsContext.lastSnapshot();
-		if (snapshot != null) {
+		if (snapshot != null && snapshot != lastCollectedSnapshot) {
+			final List<MetricFamilySamples> mfsList = new ArrayList<>();
 			collectSnapshot(snapshot.durationSnapshot(), mfsList);
+			collectHistogram(snapshot.durationSnapshot(), "", mfsList);
 			collectSnapshot(snapshot.latencySnapshot(), mfsList);
+			collectHistogram(snapshot.latencySnapshot(), "", mfsList);
 			collectSnapshot(snapshot.concurrencySnapshot(), mfsList);
 			collectSnapshot(snapshot.byteSnapshot(), mfsList);
 			collectSnapshot(snapshot.successSnapshot(), mfsList);
 			collectSnapshot(snapshot.failsSnapshot(), mfsList);
 			collectElapsedTime(snapshot.elapsedTimeMillis(), mfsList);
+			for (final var storageNodeSnapshot : snapshot.storageNodeSnapshots()) {
+				collectSnapshot(storageNodeSnapshot, mfsList);
+				collectHistogram(storageNodeSnapshot.latencySnapshot(), storageNodeSnapshot.nodeAddr(), mfsList);
+			}
+			final var injectorSnapshot = snapshot.injectorSnapshot();
+			if (injectorSnapshot.processorCount() > 0) {
+				collectSnapshot(injectorSnapshot, mfsList);
+			}
+			lastCollectedSnapshot = snapshot;
+			lastCollectedMfsList = mfsList;
+		}
+		return lastCollectedMfsList;
+	}
+
+	/**
+	* Export the timing metric as the Prometheus histogram so the quantiles may be calculated by the Prometheus server
+	* and aggregated across the load steps. The bucket counts are cumulative, the bucket bound matches the log-linear
+	* histogram bucket with the relative error less than 1 / {@link LogLinearHistogramSnapshot#SUB_BUCKET_COUNT}.
+	*
+	* @param nodeAddr the storage node address to label the samples with, empty string for the load step totals
+	*/
+	private void collectHistogram(
+					final TimingMetricSnapshot snapshot, final String nodeAddr, final List<MetricFamilySamples> mfsList) {
+		final var familyName = String.format(
+						METRIC_FORMAT,
+						(nodeAddr.isEmpty() ? "" : METRIC_NAME_PREFIX_STORAGE_NODE) + snapshot.name() + "_histogram");
+		final var histogramSnapshot = snapshot.histogramSnapshot();
+		final var bucketIndices = histogramSnapshot.bucketIndices();
+		final var bucketCounts = histogramSnapshot.bucketCounts();
+		final var bucketLabelValues = bucketLabelValues(nodeAddr);
+		final List<String> sampleLabelNames;
+		final List<String> sampleLabelValues;
+		if (nodeAddr.isEmpty()) {
+			sampleLabelNames = labelNames;
+			sampleLabelValues = labelValues;
+		} else {
+			sampleLabelNames = withLabel(labelNames, LABEL_STORAGE_NODE);
+			sampleLabelValues = withLabel(labelValues, nodeAddr);
 		}
-		return mfsList;
+		final var bucketLabelNames = withLabel(sampleLabelNames, LABEL_LE);
+		final List<Sample> samples = new ArrayList<>(HISTOGRAM_BUCKET_LE_VALUES.length + 2);
+		long cumulativeCount = 0;
+		var j = 0;
+		for (var i = 0; i < HISTOGRAM_BUCKET_BOUND_INDICES.length; i++) {
+			for (; j < bucketIndices.length && bucketIndices[j] <= HISTOGRAM_BUCKET_BOUND_INDICES[i]; j++) {
+				cumulativeCount += bucketCounts[j];
+			}
+			samples.add(new Sample(familyName + "_bucket", bucketLabelNames, bucketLabelValues.get(i), cumulativeCount));
+		}
+		final var count = histogramSnapshot.count();
+		samples.add(
+						new Sample(
+										familyName + "_bucket",
+										bucketLabelNames,
+										bucketLabelValues.get(HISTOGRAM_BUCKET_BOUND_INDICES.length),
+										count));
+		samples.add(new Sample(familyName + "_count", sampleLabelNames, sampleLabelValues, count));
+		samples.add(new Sample(familyName + "_sum", sampleLabelNames, sampleLabelValues, snapshot.sum() / Constants.M));
+		mfsList.add(new MetricFamilySamples(familyName, Type.HISTOGRAM, help, samples));
+	}
+
+	private List<List<String>> bucketLabelValues(final String nodeAddr) {
+		return bucketLabelValuesByNode.computeIfAbsent(
+						nodeAddr,
+						addr -> {
+							final var nodeLabelValues = addr.isEmpty() ? labelValues : withLabel(labelValues, addr);
+							final List<List<String>> result = new ArrayList<>(HISTOGRAM_BUCKET_LE_VALUES.length);
+							for (final var le : HISTOGRAM_BUCKET_LE_VALUES) {
+								result.add(withLabel(nodeLabelValues, le));
+							}
+							return result;
+						});
+	}
+
+	private static List<String> withLabel(final List<String> labels, final String label) {
+		final List<String> result = new ArrayList<>(labels.size() + 1);
+		result.addAll(labels);
+		result.add(label);
+		return result;
 	}
 
 	private void collectElapsedTime(
@@ -128,6 +236,69 @@ public class PrometheusMetricsExporterImpl extends Collector implements Promethe
 		mfsList.add(mfs);
 	}
 
+	private void collectSnapshot(
+					final StorageNodeMetricsSnapshot snapshot, final List<MetricFamilySamples> mfsList) {
+		final List<String> nodeLabelNames = withLabel(labelNames, LABEL_STORAGE_NODE);
+		final List<String> nodeLabelValues = withLabel(labelValues, snapshot.nodeAddr());
+		final List<Sample> samples = new ArrayList<>();
+		for (final var rateSnapshot : Arrays.asList(snapshot.successSnapshot(), snapshot.failsSnapshot())) {
+			final String metricName = METRIC_NAME_PREFIX_STORAGE_NODE + rateSnapshot.name();
+			samples.add(newSample(metricName, "count", rateSnapshot.count(), nodeLabelNames, nodeLabelValues));
+			samples.add(newSample(metricName, "rate_mean", rateSnapshot.mean(), nodeLabelNames, nodeLabelValues));
+			samples.add(newSample(metricName, "rate_last", rateSnapshot.last(), nodeLabelNames, nodeLabelValues));
+		}
+		final TimingMetricSnapshot latSnapshot = snapshot.latencySnapshot();
+		final String metricName = METRIC_NAME_PREFIX_STORAGE_NODE + latSnapshot.name();
+		samples.add(newSample(metricName, "count", latSnapshot.count(), nodeLabelNames, nodeLabelValues));
+		samples.add(newSample(metricName, "mean", latSnapshot.mean() / Constants.M, nodeLabelNames, nodeLabelValues));
+		samples.add(newSample(metricName, "min", latSnapshot.min() / Constants.M, nodeLabelNames, nodeLabelValues));
+		for (int i = 0; i < quantileValues.size(); ++i) {
+			samples.add(
+							newSample(
+											metricName,
+											"quantile_" + quantileSuffixes.get(i),
+											latSnapshot.quantile(quantileValues.get(i)) / Constants.M,
+											nodeLabelNames,
+											nodeLabelValues));
+		}
+		samples.add(newSample(metricName, "max", latSnapshot.max() / Constants.M, nodeLabelNames, nodeLabelValues));
+		mfsList.add(
+						new MetricFamilySamples(
+										String.format(METRIC_FORMAT, LABEL_STORAGE_NODE + snapshot.nodeAddr().hashCode()),
+										Type.GAUGE,
+										help,
+										samples));
+	}
+
+	private void collectSnapshot(final InjectorMetricsSnapshot snapshot, final List<MetricFamilySamples> mfsList) {
+		final List<Sample> samples = new ArrayList<>();
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "fiber_invocation", "count", snapshot.fiberInvocationCount()));
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "fiber_overrun", "count", snapshot.fiberOverrunCount()));
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "recycle_queue_fill", "last", snapshot.recycleQueueFillLast()));
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "recycle_queue_fill", "mean", snapshot.recycleQueueFillMean()));
+		samples.add(
+						newSample(METRIC_NAME_PREFIX_INJECTOR + "transfer_buffer_fill", "last", snapshot.transferBufferFillLast()));
+		samples.add(
+						newSample(METRIC_NAME_PREFIX_INJECTOR + "transfer_buffer_fill", "mean", snapshot.transferBufferFillMean()));
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "driver_queue_depth", "last", snapshot.driverQueueDepthLast()));
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "driver_queue_depth", "mean", snapshot.driverQueueDepthMean()));
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "completion", "count", snapshot.completionCount()));
+		samples.add(
+						newSample(METRIC_NAME_PREFIX_INJECTOR + "completion_time", "sum", snapshot.completionTimeMicros() / Constants.M));
+		samples.add(
+						newSample(METRIC_NAME_PREFIX_INJECTOR + "completion_time", "mean", snapshot.completionTimeMean() / Constants.M));
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "verify", "count", snapshot.verifyCount()));
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "verify_time", "sum", snapshot.verifyTimeMicros() / Constants.M));
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "verify_time", "mean", snapshot.verifyTimeMean() / Constants.M));
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "gc_pause_time", "sum", snapshot.gcPauseMillis() / Constants.K));
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "allocated_byte", "count", snapshot.allocatedBytes()));
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "allocated_byte", "rate_last", snapshot.allocRateLast()));
+		samples.add(newSample(METRIC_NAME_PREFIX_INJECTOR + "bound", "value", snapshot.injectorBound() ? 1 : 0));
+		mfsList.add(
+						new MetricFamilySamples(
+										String.format(METRIC_FORMAT, METRIC_NAME_PREFIX_INJECTOR + "metrics"), Type.GAUGE, help, samples));
+	}
+
 	private List<Sample> collect(final RateMetricSnapshot metric) {
 		final String metricName = metric.name();
 		final List<Sample> samples = new ArrayList<>();
@@ -139,20 +310,27 @@ public class PrometheusMetricsExporterImpl extends Collector implements Promethe
 
 	private List<Sample> collect(final TimingMetricSnapshot metric) {
 		final List<Sample> samples = new ArrayList<>();
-		//final HistogramSnapshot snapshot = metric.histogramSnapshot(); // for quantiles
 		final String metricName = metric.name();
 		samples.add(newSample(metricName, "count", metric.count()));
 		samples.add(newSample(metricName, "sum", metric.sum() / Constants.M));
 		samples.add(newSample(metricName, "mean", metric.mean() / Constants.M));
 		samples.add(newSample(metricName, "min", metric.min() / Constants.M));
-		/*for (int i = 0; i < quantileValues.size(); ++i) {
+		for (int i = 0; i < quantileValues.size(); ++i) {
 			samples.add(
 							newSample(
 											metricName,
-											"quantile_" + quantileValues.get(i).toString().replaceAll("\\.", "_"),
-											snapshot.quantile(quantileValues.get(i)) / Constants.M));
-		}*/
+											"quantile_" + quantileSuffixes.get(i),
+											metric.quantile(quantileValues.get(i)) / Constants.M));
+		}
 		samples.add(newSample(metricName, "max", metric.max() / Constants.M));
+		// the quantiles of the values recorded during the last output period only
+		for (int i = 0; i < quantileValues.size(); ++i) {
+			samples.add(
+							newSample(
+											metricName,
+											"last_quantile_" + quantileSuffixes.get(i),
+											metric.intervalQuantile(quantileValues.get(i)) / Constants.M));
+		}
 		return samples;
 	}
 
@@ -166,6 +344,15 @@ public class PrometheusMetricsExporterImpl extends Collector implements Promethe
 
 	private Sample newSample(
 					final String metricName, final String aggregationType, final double value) {
+		return newSample(metricName, aggregationType, value, labelNames, labelValues);
+	}
+
+	private static Sample newSample(
+					final String metricName,
+					final String aggregationType,
+					final double value,
+					final List<String> labelNames,
+					final List<String> labelValues) {
 		return new Sample(
 						String.format(METRIC_FORMAT, metricName) + "_" + aggregationType, labelNames, labelValues, value);
 	}
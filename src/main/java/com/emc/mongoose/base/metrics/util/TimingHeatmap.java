@@ -0,0 +1,86 @@
+package com.emc.mongoose.base.metrics.util;
+
+import static com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot.VALUE_MAX;
+import static com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot.bucketValue;
+
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot;
+
+/**
+* Slices the cumulative duration and latency histograms of the load step into the consecutive time slices. The
+* log-linear histogram buckets are merged into the power of two buckets, so each slice is the short fixed size row
+* which is suitable for the heatmap plotting. The slices are computed from the histograms which are accounted anyway,
+* nothing is done per load operation. Not thread safe.
+*/
+public final class TimingHeatmap {
+
+	/** The bucket #0 counts the zero values, the bucket #i counts the values in the range [2^(i-1); 2^i) */
+	public static final int BUCKET_COUNT = Long.SIZE - Long.numberOfLeadingZeros(VALUE_MAX) + 1;
+
+	private final long periodMillis;
+	private long lastSliceMillis;
+	private final long[] prevDurCounts = new long[BUCKET_COUNT];
+	private final long[] prevLatCounts = new long[BUCKET_COUNT];
+
+	/**
+	* @param periodMillis the time slice duration
+	* @param startMillis the 1st time slice start timestamp
+	*/
+	public TimingHeatmap(final long periodMillis, final long startMillis) {
+		this.periodMillis = periodMillis;
+		this.lastSliceMillis = startMillis;
+	}
+
+	public static int bucketIndex(final long value) {
+		return value <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value > VALUE_MAX ? VALUE_MAX : value);
+	}
+
+	/** @return the min value counted by the given bucket */
+	public static long bucketLowerBound(final int bucketIndex) {
+		return 0 == bucketIndex ? 0 : 1L << (bucketIndex - 1);
+	}
+
+	/**
+	* @param currentTimeMillis the current timestamp
+	* @return true if the current time slice is over, the slice is started again then
+	*/
+	public boolean sliceDone(final long currentTimeMillis) {
+		if (currentTimeMillis - lastSliceMillis >= periodMillis) {
+			lastSliceMillis = currentTimeMillis;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	* @param histogram the cumulative duration histogram
+	* @return the durations count per bucket since the previous invocation
+	*/
+	public long[] durationSlice(final LogLinearHistogramSnapshot histogram) {
+		return slice(histogram, prevDurCounts);
+	}
+
+	/**
+	* @param histogram the cumulative latency histogram
+	* @return the latencies count per bucket since the previous invocation
+	*/
+	public long[] latencySlice(final LogLinearHistogramSnapshot histogram) {
+		return slice(histogram, prevLatCounts);
+	}
+
+	private static long[] slice(final LogLinearHistogramSnapshot histogram, final long[] prevCounts) {
+		final var counts = new long[BUCKET_COUNT];
+		final var bucketIndices = histogram.bucketIndices();
+		final var bucketCounts = histogram.bucketCounts();
+		// each log-linear bucket is within the single power of two range, so any its value gives the same index
+		for (var i = 0; i < bucketIndices.length; i++) {
+			counts[bucketIndex(bucketValue(bucketIndices[i]))] += bucketCounts[i];
+		}
+		long c;
+		for (var i = 0; i < BUCKET_COUNT; i++) {
+			c = counts[i];
+			counts[i] = c - prevCounts[i];
+			prevCounts[i] = c;
+		}
+		return counts;
+	}
+}
@@ -0,0 +1,50 @@
+package com.emc.mongoose.base.storage.driver;
+
+import com.emc.mongoose.base.item.op.Operation;
+import java.nio.ByteBuffer;
+import java.util.function.Predicate;
+
+/**
+* Verifies the received data content out of the storage driver I/O threads. The verification results
+* are merged back into the operation before the operation result is passed further.
+*/
+public interface DataVerifier<O extends Operation<?>> extends AutoCloseable {
+
+	/**
+	* Enqueue the received content chunk for the verification
+	* @param op the operation which the content belongs to
+	* @param layerNum the item's data input layer number to compare the content with
+	* @param absOffset the absolute offset of the chunk (item's offset + position in the item)
+	* @param buff the content chunk, the verifier takes the ownership so the caller should not reuse it. The chunk is
+	*     released by the verifier when verified (see {@link DataVerifierImpl})
+	*/
+	void submit(final O op, final int layerNum, final long absOffset, final ByteBuffer buff);
+
+	/**
+	* Mark the operation as completed by the storage driver. The completion handler is invoked when all
+	* the pending verifications of the operation are done. It may be invoked synchronously by the
+	* calling thread or later by a verifier's worker thread.
+	* @param op the completed operation
+	* @param completionHandler the handler to invoke when the verification results are merged into the
+	*     operation
+	* @return the handler's result if invoked synchronously, true otherwise. The deferred handler's failures are counted
+	*     and reported by the verifier
+	*/
+	boolean complete(final O op, final Predicate<O> completionHandler);
+
+	/** @return the count of the content chunks verified */
+	long verifyCount();
+
+	/** @return the total time spent verifying the content chunks, nanoseconds */
+	long verifyTimeNanos();
+
+	/** @return the count of the verified operations which were rejected by the deferred completion handler */
+	long droppedCount();
+
+	/**
+	* Verify the content chunks submitted before, the operations which are not verified in time are completed with the
+	* {@link Operation.Status#INTERRUPTED} status
+	*/
+	@Override
+	void close();
+}
@@ -0,0 +1,232 @@
+package com.emc.mongoose.base.storage.driver;
+
+import com.emc.mongoose.base.data.DataCorruptionException;
+import com.emc.mongoose.base.data.DataInput;
+import com.emc.mongoose.base.item.DataItemImpl;
+import com.emc.mongoose.base.item.op.Operation;
+import com.emc.mongoose.base.logging.LogContextThreadFactory;
+import com.emc.mongoose.base.logging.LogUtil;
+import com.emc.mongoose.base.logging.Loggers;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.apache.logging.log4j.Level;
+
+/**
+* The verifier backed by the fixed thread pool. Each operation has a pending tasks counter which is
+* initially set to 1 representing the in-flight I/O itself. Every submitted chunk increments it and
+* decrements when verified. The operation completion by the storage driver also decrements the
+* counter. The thread which brings the counter to zero merges the verification result into the
+* operation and invokes the completion handler. Each chunk is passed to the chunk release callback
+* after it's verified (or dropped), so the storage driver may reuse the chunk buffers.
+*/
+public final class DataVerifierImpl<O extends Operation<?>> implements DataVerifier<O> {
+
+	// the max time to wait for the submitted chunks verification on close
+	private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+	private final DataInput dataInput;
+	private final Consumer<ByteBuffer> chunkRelease;
+	private final ExecutorService executor;
+	private final ConcurrentMap<O, PendingVerification> pendingVerifications = new ConcurrentHashMap<>();
+	private final LongAdder verifyCount = new LongAdder();
+	private final LongAdder verifyTimeNanos = new LongAdder();
+	private final LongAdder droppedCount = new LongAdder();
+
+	private static final class PendingVerification {
+
+		private final AtomicInteger pendingCount = new AtomicInteger(1);
+		private volatile DataCorruptionException corruption = null;
+		// not null if the content was not verified for any other reason than the content mismatch
+		private volatile Operation.Status failStatus = null;
+		private volatile Predicate completionHandler = null;
+
+		private boolean isFailed() {
+			return corruption != null || failStatus != null;
+		}
+	}
+
+	private final class VerifyTask implements Runnable {
+
+		private final O op;
+		private final PendingVerification pending;
+		private final int layerNum;
+		private final long absOffset;
+		private final ByteBuffer buff;
+
+		private VerifyTask(
+						final O op,
+						final PendingVerification pending,
+						final int layerNum,
+						final long absOffset,
+						final ByteBuffer buff) {
+			this.op = op;
+			this.pending = pending;
+			this.layerNum = layerNum;
+			this.absOffset = absOffset;
+			this.buff = buff;
+		}
+
+		@Override
+		public final void run() {
+			verify(op, pending, layerNum, absOffset, buff);
+		}
+
+		// the task was not executed
+		private void drop(final Operation.Status status) {
+			pending.failStatus = status;
+			releaseChunk(buff);
+			release(op, pending);
+		}
+	}
+
+	public DataVerifierImpl(final String stepId, final DataInput dataInput, final int threadCount) {
+		this(stepId, dataInput, threadCount, chunk -> {});
+	}
+
+	/** @param chunkRelease the callback to release the chunk buffer when it's not needed anymore */
+	public DataVerifierImpl(
+					final String stepId,
+					final DataInput dataInput,
+					final int threadCount,
+					final Consumer<ByteBuffer> chunkRelease) {
+		this.dataInput = dataInput;
+		this.chunkRelease = chunkRelease;
+		this.executor = Executors.newFixedThreadPool(
+						threadCount, new LogContextThreadFactory("dataVerifier_" + stepId + "_", true));
+	}
+
+	@Override
+	public final void submit(final O op, final int layerNum, final long absOffset, final ByteBuffer buff) {
+		final var pending = pendingVerifications.computeIfAbsent(op, o -> new PendingVerification());
+		pending.pendingCount.incrementAndGet();
+		final var task = new VerifyTask(op, pending, layerNum, absOffset, buff);
+		try {
+			executor.execute(task);
+		} catch (final RejectedExecutionException e) {
+			// the verifier is closed, the content can't be verified
+			task.drop(Operation.Status.INTERRUPTED);
+		}
+	}
+
+	private void verify(
+					final O op,
+					final PendingVerification pending,
+					final int layerNum,
+					final long absOffset,
+					final ByteBuffer buff) {
+		final var startNanos = System.nanoTime();
+		try {
+			if (!pending.isFailed()) {
+				DataItemImpl.verify(dataInput, layerNum, absOffset, buff);
+			}
+		} catch (final DataCorruptionException e) {
+			pending.corruption = e;
+		} catch (final Throwable cause) {
+			LogUtil.exception(Level.WARN, cause, "{}: failed to verify the content", op);
+			pending.failStatus = Operation.Status.FAIL_UNKNOWN;
+		} finally {
+			verifyTimeNanos.add(System.nanoTime() - startNanos);
+			verifyCount.increment();
+			releaseChunk(buff);
+			release(op, pending);
+		}
+	}
+
+	private void releaseChunk(final ByteBuffer buff) {
+		if (buff != null) {
+			chunkRelease.accept(buff);
+		}
+	}
+
+	private void release(final O op, final PendingVerification pending) {
+		if (0 == pending.pendingCount.decrementAndGet() && !finish(op, pending)) {
+			// the storage driver has returned already, nobody else may handle the failure
+			droppedCount.increment();
+		}
+	}
+
+	@Override
+	public final boolean complete(final O op, final Predicate<O> completionHandler) {
+		final var pending = pendingVerifications.get(op);
+		if (pending == null) {
+			// nothing was submitted for the operation
+			return completionHandler.test(op);
+		}
+		pending.completionHandler = completionHandler;
+		if (0 == pending.pendingCount.decrementAndGet()) {
+			return finish(op, pending);
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private boolean finish(final O op, final PendingVerification pending) {
+		pendingVerifications.remove(op);
+		final var corruption = pending.corruption;
+		final var failStatus = pending.failStatus;
+		if (corruption != null) {
+			Loggers.MSG.debug(
+							"{}: invalid content at offset {}, expected: {}, actual: {}",
+							op.item(),
+							corruption.getOffset(),
+							corruption.expected,
+							corruption.actual);
+			op.status(Operation.Status.RESP_FAIL_CORRUPT);
+		} else if (failStatus != null) {
+			op.status(failStatus);
+		}
+		return pending.completionHandler.test(op);
+	}
+
+	@Override
+	public final long verifyCount() {
+		return verifyCount.sum();
+	}
+
+	@Override
+	public final long verifyTimeNanos() {
+		return verifyTimeNanos.sum();
+	}
+
+	@Override
+	public final long droppedCount() {
+		return droppedCount.sum();
+	}
+
+	@Override
+	public final void close() {
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+				dropTasks(executor.shutdownNow());
+			}
+		} catch (final InterruptedException e) {
+			dropTasks(executor.shutdownNow());
+			Thread.currentThread().interrupt();
+		}
+		pendingVerifications.clear();
+		final var n = droppedCount.sum();
+		if (n > 0) {
+			Loggers.ERR.warn("{} verified operation results were dropped", n);
+		}
+	}
+
+	private void dropTasks(final List<Runnable> tasks) {
+		if (!tasks.isEmpty()) {
+			Loggers.ERR.warn("{} content chunks were not verified in time", tasks.size());
+			for (final var task : tasks) {
+				((VerifyTask) task).drop(Operation.Status.INTERRUPTED);
+			}
+		}
+	}
+}
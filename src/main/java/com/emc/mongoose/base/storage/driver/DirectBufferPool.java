@@ -0,0 +1,73 @@
+package com.emc.mongoose.base.storage.driver;
+
+import java.nio.ByteBuffer;
+
+/**
+* The direct I/O buffers pool shared by the storage drivers. The buffers are organized in the
+* power-of-two size classes from {@link StorageDriver#BUFF_SIZE_MIN} to {@link
+* StorageDriver#BUFF_SIZE_MAX}. The total size of the direct memory allocated by the pool is limited,
+* a heap buffer is returned when the limit is reached.
+*/
+public interface DirectBufferPool {
+
+	/**
+	* @param size the minimum buffer size
+	* @return the buffer of the size class which fits the requested size. The buffer's limit is set to
+	*     the requested size (or to the max size class capacity if the requested size is more)
+	*/
+	ByteBuffer acquire(final int size);
+
+	/** @return the buffer of the preferred size class (see {@link #adjust(long)}) */
+	ByteBuffer acquire();
+
+	/**
+	* Return the buffer to the pool. The heap buffers and the buffers of the capacity not matching any
+	* size class are ignored. The buffer shouldn't be used by the caller after the release.
+	*/
+	void release(final ByteBuffer buff);
+
+	/**
+	* Tune the pool for the estimated transfer size: set the preferred size class and release the idle
+	* buffers of the larger size classes.
+	* @param avgTransferSize the average transfer size estimate
+	* @return the preferred buffer size
+	*/
+	int adjust(final long avgTransferSize);
+
+	/** @return the total size of the direct buffers allocated by the pool */
+	long allocatedSize();
+
+	/** @return the limit of the total size of the direct buffers allocated by the pool */
+	long sizeLimit();
+
+	/**
+	* @param sizeLimit the direct memory limit for the process-wide pool
+	* @return the process-wide pool instance, the largest of the limits given by the storage drivers is used
+	*/
+	static DirectBufferPool instance(final long sizeLimit) {
+		return DirectBufferPoolImpl.instance(sizeLimit);
+	}
+
+	/** @return the size class index for the given size */
+	static int sizeClass(final int size) {
+		if (size <= StorageDriver.BUFF_SIZE_MIN) {
+			return 0;
+		} else if (size >= StorageDriver.BUFF_SIZE_MAX) {
+			return sizeClassCount() - 1;
+		} else {
+			return Integer.SIZE - Integer.numberOfLeadingZeros(size - 1)
+							- Integer.numberOfTrailingZeros(StorageDriver.BUFF_SIZE_MIN);
+		}
+	}
+
+	/** @return the buffer capacity of the given size class */
+	static int sizeClassCapacity(final int sizeClass) {
+		return StorageDriver.BUFF_SIZE_MIN << sizeClass;
+	}
+
+	static int sizeClassCount() {
+		return Integer.numberOfTrailingZeros(StorageDriver.BUFF_SIZE_MAX)
+						- Integer.numberOfTrailingZeros(StorageDriver.BUFF_SIZE_MIN)
+						+ 1;
+	}
+}
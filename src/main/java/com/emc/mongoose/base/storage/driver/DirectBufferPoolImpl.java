@@ -0,0 +1,261 @@
+package com.emc.mongoose.base.storage.driver;
+
+import static com.emc.mongoose.base.storage.driver.DirectBufferPool.sizeClass;
+import static com.emc.mongoose.base.storage.driver.DirectBufferPool.sizeClassCapacity;
+import static com.emc.mongoose.base.storage.driver.DirectBufferPool.sizeClassCount;
+
+import com.emc.mongoose.base.logging.Loggers;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+* Each thread has its own magazine of the free buffers per size class, so the most of the acquire and
+* release calls don't contend. The magazine overflow goes to the shared depot of the size class and
+* the magazine underflow is refilled from the depot. New direct buffer is allocated only if the
+* depot is empty also and the total size limit is not reached yet. The released buffer is accepted
+* only if it's direct and its capacity matches a size class, so the heap fallback buffers and the
+* most of the foreign buffers are ignored. The lent buffers are tracked only if the {@link
+* #TRACK_PROPERTY} system property is true, so the foreign buffers of the matching capacity and the
+* repeatedly released buffers are ignored also (for the debugging, as the tracking is contended).
+* The magazines are trimmed lazily by their owner threads after the adjustment, the magazines of the
+* terminated threads are drained to the depots on the next adjustment.
+*/
+public final class DirectBufferPoolImpl implements DirectBufferPool {
+
+	public static final String TRACK_PROPERTY = "mongoose.storage.driver.buffer.pool.track";
+	private static final int MAGAZINE_SIZE_MAX = 0x100_000;
+	private static final int MAGAZINE_COUNT_MAX = 0x40;
+	private static final Object INSTANCE_LOCK = new Object();
+	private static DirectBufferPoolImpl INSTANCE = null; // guarded by INSTANCE_LOCK
+
+	static DirectBufferPool instance(final long sizeLimit) {
+		// invoked once per storage driver instance, not on the I/O path
+		synchronized (INSTANCE_LOCK) {
+			var pool = INSTANCE;
+			if (pool == null) {
+				pool = new DirectBufferPoolImpl(sizeLimit, Boolean.getBoolean(TRACK_PROPERTY));
+				INSTANCE = pool;
+			} else {
+				pool.extendSizeLimit(sizeLimit);
+			}
+			return pool;
+		}
+	}
+
+	/** The pool is shared by all the storage drivers, so the largest of their limits is used */
+	private void extendSizeLimit(final long sizeLimit) {
+		if (sizeLimit != this.sizeLimit) {
+			Loggers.MSG.warn(
+							"The storage drivers have the different direct memory limits ({} and {}), the larger one is used",
+							this.sizeLimit,
+							sizeLimit);
+			if (sizeLimit > this.sizeLimit) {
+				this.sizeLimit = sizeLimit;
+			}
+		}
+	}
+
+	private static final class Magazine {
+
+		private final WeakReference<Thread> owner = new WeakReference<>(Thread.currentThread());
+		private final ByteBuffer[][] buffs = new ByteBuffer[sizeClassCount()][];
+		private final int[] counts = new int[sizeClassCount()];
+		private int adjustCount = 0;
+
+		private Magazine() {
+			for (var i = 0; i < buffs.length; i++) {
+				buffs[i] = new ByteBuffer[
+								Math.max(1, Math.min(MAGAZINE_COUNT_MAX, MAGAZINE_SIZE_MAX / sizeClassCapacity(i)))];
+			}
+		}
+
+		private boolean isOwnerAlive() {
+			final var thread = owner.get();
+			return thread != null && thread.isAlive();
+		}
+	}
+
+	/** The identity key for the lent buffers tracking, {@link ByteBuffer#equals(Object)} compares the content */
+	private static final class BuffRef {
+
+		private final ByteBuffer buff;
+
+		private BuffRef(final ByteBuffer buff) {
+			this.buff = buff;
+		}
+
+		@Override
+		public final boolean equals(final Object o) {
+			return o instanceof BuffRef && ((BuffRef) o).buff == buff;
+		}
+
+		@Override
+		public final int hashCode() {
+			return System.identityHashCode(buff);
+		}
+	}
+
+	private final Set<Magazine> allMagazines = ConcurrentHashMap.newKeySet();
+	private final ThreadLocal<Magazine> magazines = ThreadLocal.withInitial(this::newMagazine);
+	// null if the lent buffers are not tracked
+	private final Set<BuffRef> lentBuffs;
+	private final Queue<ByteBuffer>[] depots;
+	private final AtomicLong allocatedSize = new AtomicLong(0);
+	private volatile long sizeLimit;
+	private volatile int preferredSizeClass = 0;
+	private final AtomicInteger adjustCount = new AtomicInteger(0);
+
+	public DirectBufferPoolImpl(final long sizeLimit) {
+		this(sizeLimit, false);
+	}
+
+	/** @param trackFlag if true, the lent buffers are tracked to ignore the foreign and the repeated releases */
+	@SuppressWarnings("unchecked")
+	public DirectBufferPoolImpl(final long sizeLimit, final boolean trackFlag) {
+		this.sizeLimit = sizeLimit;
+		this.lentBuffs = trackFlag ? ConcurrentHashMap.newKeySet() : null;
+		depots = new Queue[sizeClassCount()];
+		for (var i = 0; i < depots.length; i++) {
+			depots[i] = new ConcurrentLinkedQueue<>();
+		}
+	}
+
+	private Magazine newMagazine() {
+		final var magazine = new Magazine();
+		magazine.adjustCount = adjustCount.get();
+		allMagazines.add(magazine);
+		return magazine;
+	}
+
+	/** @return the current thread's magazine trimmed to the preferred size class if adjusted since */
+	private Magazine magazine() {
+		final var magazine = magazines.get();
+		final var n = adjustCount.get();
+		if (magazine.adjustCount != n) {
+			magazine.adjustCount = n;
+			final var buffs = magazine.buffs;
+			final var counts = magazine.counts;
+			for (var i = preferredSizeClass + 1; i < buffs.length; i++) {
+				for (var j = 0; j < counts[i]; j++) {
+					allocatedSize.addAndGet(-buffs[i][j].capacity());
+					buffs[i][j] = null;
+				}
+				counts[i] = 0;
+			}
+		}
+		return magazine;
+	}
+
+	@Override
+	public final ByteBuffer acquire(final int size) {
+		final var sizeClass = sizeClass(size);
+		final var capacity = sizeClassCapacity(sizeClass);
+		final var magazine = magazine();
+		ByteBuffer buff;
+		if (magazine.counts[sizeClass] > 0) {
+			final var i = --magazine.counts[sizeClass];
+			buff = magazine.buffs[sizeClass][i];
+			magazine.buffs[sizeClass][i] = null;
+		} else {
+			buff = depots[sizeClass].poll();
+			if (buff == null) {
+				buff = allocate(capacity);
+			}
+		}
+		if (lentBuffs != null && buff.isDirect()) {
+			lentBuffs.add(new BuffRef(buff));
+		}
+		buff.clear().limit(Math.min(size, capacity));
+		return buff;
+	}
+
+	@Override
+	public final ByteBuffer acquire() {
+		return acquire(sizeClassCapacity(preferredSizeClass));
+	}
+
+	private ByteBuffer allocate(final int capacity) {
+		long prevSize;
+		do {
+			prevSize = allocatedSize.get();
+			if (prevSize + capacity > sizeLimit) {
+				if (Loggers.MSG.isTraceEnabled()) {
+					Loggers.MSG.trace(
+									"Direct buffers pool size limit ({}) is reached, falling back to the heap buffer", sizeLimit);
+				}
+				return ByteBuffer.allocate(capacity);
+			}
+		} while (!allocatedSize.compareAndSet(prevSize, prevSize + capacity));
+		return ByteBuffer.allocateDirect(capacity);
+	}
+
+	@Override
+	public final void release(final ByteBuffer buff) {
+		if (buff == null || !buff.isDirect()) {
+			return; // the heap fallback buffer
+		}
+		final var capacity = buff.capacity();
+		final var sizeClass = sizeClass(capacity);
+		if (capacity != sizeClassCapacity(sizeClass)) {
+			return; // not lent by the pool
+		}
+		if (lentBuffs != null && !lentBuffs.remove(new BuffRef(buff))) {
+			return; // not lent by the pool or released already
+		}
+		if (sizeClass > preferredSizeClass && allocatedSize.get() > sizeLimit / 2) {
+			// don't keep the large idle buffers which are not preferred currently
+			allocatedSize.addAndGet(-capacity);
+			return;
+		}
+		final var magazine = magazine();
+		final var n = magazine.counts[sizeClass];
+		if (n < magazine.buffs[sizeClass].length) {
+			magazine.buffs[sizeClass][n] = buff;
+			magazine.counts[sizeClass] = n + 1;
+		} else {
+			depots[sizeClass].offer(buff);
+		}
+	}
+
+	@Override
+	public final int adjust(final long avgTransferSize) {
+		final int sizeClass = sizeClass((int) Math.min(avgTransferSize, Integer.MAX_VALUE));
+		preferredSizeClass = sizeClass;
+		// let the live threads trim their magazines
+		adjustCount.incrementAndGet();
+		// the magazines of the terminated threads are not accessible by anybody else
+		for (final var magazine : allMagazines) {
+			if (!magazine.isOwnerAlive() && allMagazines.remove(magazine)) {
+				for (var i = 0; i < depots.length; i++) {
+					for (var j = 0; j < magazine.counts[i]; j++) {
+						depots[i].offer(magazine.buffs[i][j]);
+					}
+				}
+			}
+		}
+		// release the idle buffers of the larger size classes from the shared depots
+		ByteBuffer buff;
+		for (var i = sizeClass + 1; i < depots.length; i++) {
+			while (null != (buff = depots[i].poll())) {
+				allocatedSize.addAndGet(-buff.capacity());
+			}
+		}
+		return sizeClassCapacity(sizeClass);
+	}
+
+	@Override
+	public final long allocatedSize() {
+		return allocatedSize.get();
+	}
+
+	@Override
+	public final long sizeLimit() {
+		return sizeLimit;
+	}
+}
@@ -57,6 +57,16 @@ public interface StorageDriver<I extends Item, O extends Operation<I>>
 
 	long completedOpCount();
 
+	/** @return the count of the content chunks verified by the verification pool, 0 if the pool is not used */
+	default long verifyCount() {
+		return 0;
+	}
+
+	/** @return the total time spent by the verification pool, nanoseconds, 0 if the pool is not used */
+	default long verifyTimeNanos() {
+		return 0;
+	}
+
 	boolean isIdle();
 
 	void adjustIoBuffers(final long avgTransferSize, final OpType opType);
@@ -7,6 +7,7 @@ import com.emc.mongoose.base.concurrent.DaemonBase;
 import com.emc.mongoose.base.data.DataInput;
 import com.emc.mongoose.base.config.IllegalConfigurationException;
 import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.op.OpType;
 import com.emc.mongoose.base.item.op.Operation;
 import com.emc.mongoose.base.item.op.data.DataOperation;
 import com.emc.mongoose.base.logging.Loggers;
@@ -14,8 +15,11 @@ import com.emc.mongoose.base.storage.Credential;
 import com.github.akurilov.commons.concurrent.ThreadUtil;
 import com.github.akurilov.commons.io.Input;
 import com.github.akurilov.commons.io.Output;
+import com.github.akurilov.commons.reflection.TypeUtil;
+import com.github.akurilov.commons.system.SizeInBytes;
 import com.github.akurilov.confuse.Config;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
@@ -33,6 +37,9 @@ public abstract class StorageDriverBase<I extends Item, O extends Operation<I>>
 	protected final String namespace;
 	protected final Credential credential;
 	protected final boolean verifyFlag;
+	protected final DirectBufferPool ioBufferPool;
+	/** Not null if the verification should be offloaded from the I/O threads */
+	protected final DataVerifier<O> dataVerifier;
 
 	protected final ConcurrentMap<String, Credential> pathToCredMap = new ConcurrentHashMap<>(1);
 
@@ -65,6 +72,14 @@ public abstract class StorageDriverBase<I extends Item, O extends Operation<I>>
 			}
 		}
 		this.concurrencyLimit = limitConfig.intVal("concurrency");
+		final long ioBuffersSizeLimit;
+		final var ioBuffersSizeLimitRaw = limitConfig.val("memory");
+		if (ioBuffersSizeLimitRaw instanceof String) {
+			ioBuffersSizeLimit = SizeInBytes.toFixedSize((String) ioBuffersSizeLimitRaw);
+		} else {
+			ioBuffersSizeLimit = TypeUtil.typeConvert(ioBuffersSizeLimitRaw, long.class);
+		}
+		this.ioBufferPool = DirectBufferPool.instance(ioBuffersSizeLimit);
 		this.verifyFlag = verifyFlag;
 
 		final var confWorkerCount = driverConfig.intVal("threads");
@@ -75,6 +90,13 @@ public abstract class StorageDriverBase<I extends Item, O extends Operation<I>>
 		} else {
 			ioWorkerCount = ThreadUtil.getHardwareThreadCount();
 		}
+
+		final var verifyThreadCount = driverConfig.intVal("verify-threads");
+		if (verifyFlag && verifyThreadCount > 0) {
+			dataVerifier = new DataVerifierImpl<>(stepId, itemDataInput, verifyThreadCount, ioBufferPool::release);
+		} else {
+			dataVerifier = null;
+		}
 	}
 
 	public final void operationResultOutput(final Output<O> opResultOut) {
@@ -111,6 +133,25 @@ public abstract class StorageDriverBase<I extends Item, O extends Operation<I>>
 		return true;
 	}
 
+	/**
+	* Offload the verification of the received content chunk if the verification pool is enabled
+	* @param op the read operation
+	* @param layerNum the data input layer number which the content should match
+	* @param absOffset the absolute offset of the chunk (item's offset + position in the item)
+	* @param buff the received content chunk, shouldn't be reused by the caller. The chunk is released to
+	*     the I/O buffers pool when verified
+	* @return true if the chunk is submitted for the verification, false if the caller should verify
+	*     it inline
+	*/
+	protected final boolean offloadVerification(
+					final O op, final int layerNum, final long absOffset, final ByteBuffer buff) {
+		if (dataVerifier == null) {
+			return false;
+		}
+		dataVerifier.submit(op, layerNum, absOffset, buff);
+		return true;
+	}
+
 	protected boolean handleCompleted(final O op) {
 		if (isStopped()) {
 			return false;
@@ -118,6 +159,24 @@ public abstract class StorageDriverBase<I extends Item, O extends Operation<I>>
 			if (Loggers.MSG.isTraceEnabled()) {
 				Loggers.MSG.trace("{}: Load operation completed", op);
 			}
+			if (dataVerifier == null) {
+				return outputResult(op);
+			} else {
+				return dataVerifier.complete(op, this::outputVerifiedResult);
+			}
+		}
+	}
+
+	/** May be invoked later by the verifier's thread, so the state is checked again */
+	private boolean outputVerifiedResult(final O op) {
+		return !isStopped() && outputResult(op);
+	}
+
+	private boolean outputResult(final O op) {
+		final var opResultOut = this.opResultOut;
+		if (opResultOut == null) {
+			return false;
+		} else {
 			final O opResult = op.result();
 			if (opResultOut.put(opResult)) {
 				return true;
@@ -129,11 +188,32 @@ public abstract class StorageDriverBase<I extends Item, O extends Operation<I>>
 		}
 	}
 
+	/**
+	* Tunes the shared I/O buffers pool size classes. The storage driver implementations which override
+	* this method should invoke it also if they use the shared I/O buffers pool.
+	*/
+	@Override
+	public void adjustIoBuffers(final long avgTransferSize, final OpType opType) {
+		final var buffSize = ioBufferPool.adjust(avgTransferSize);
+		Loggers.MSG.debug(
+						"{}: preferred I/O buffer size for the {} operations is {}", toString(), opType, buffSize);
+	}
+
 	@Override
 	public final int concurrencyLimit() {
 		return concurrencyLimit;
 	}
 
+	@Override
+	public final long verifyCount() {
+		return dataVerifier == null ? 0 : dataVerifier.verifyCount();
+	}
+
+	@Override
+	public final long verifyTimeNanos() {
+		return dataVerifier == null ? 0 : dataVerifier.verifyTimeNanos();
+	}
+
 	@Override
 	public Input<O> getInput() {
 		throw new AssertionError("Shouldn't be invoked");
@@ -143,6 +223,9 @@ public abstract class StorageDriverBase<I extends Item, O extends Operation<I>>
 	protected void doClose() throws IOException, IllegalStateException {
 		try (final CloseableThreadContext.Instance logCtx = CloseableThreadContext.put(KEY_STEP_ID, stepId)
 						.put(KEY_CLASS_NAME, StorageDriverBase.class.getSimpleName())) {
+			if (dataVerifier != null) {
+				dataVerifier.close();
+			}
 			itemDataInput.close();
 			authTokens.clear();
 			pathToCredMap.clear();
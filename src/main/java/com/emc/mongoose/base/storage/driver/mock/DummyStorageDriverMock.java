@@ -2,6 +2,7 @@ package com.emc.mongoose.base.storage.driver.mock;
 
 import static com.github.akurilov.commons.lang.Exceptions.throwUnchecked;
 
+import com.emc.mongoose.base.data.DataInput;
 import com.emc.mongoose.base.item.DataItem;
 import com.emc.mongoose.base.item.Item;
 import com.emc.mongoose.base.item.ItemFactory;
@@ -9,11 +10,16 @@ import com.emc.mongoose.base.item.op.OpType;
 import com.emc.mongoose.base.item.op.Operation;
 import com.emc.mongoose.base.item.op.data.DataOperation;
 import com.emc.mongoose.base.logging.Loggers;
+import com.emc.mongoose.base.storage.driver.DataVerifier;
+import com.emc.mongoose.base.storage.driver.DataVerifierImpl;
+import com.emc.mongoose.base.storage.driver.DirectBufferPool;
 import com.emc.mongoose.base.storage.driver.StorageDriver;
 import com.github.akurilov.commons.collection.Range;
 import com.github.akurilov.commons.concurrent.AsyncRunnableBase;
 import com.github.akurilov.commons.io.Input;
 import com.github.akurilov.commons.io.Output;
+import com.github.akurilov.commons.reflection.TypeUtil;
+import com.github.akurilov.commons.system.SizeInBytes;
 import com.github.akurilov.confuse.Config;
 import java.io.EOFException;
 import java.io.IOException;
@@ -26,14 +32,37 @@ import java.util.concurrent.atomic.LongAdder;
 public final class DummyStorageDriverMock<I extends Item, O extends Operation<I>>
 				extends AsyncRunnableBase implements StorageDriver<I, O> {
 
+	// the size of the content chunks "received" by the read operations
+	private static final int CHUNK_SIZE = 0x10_000;
+
+	private final DataInput itemDataInput;
 	private final int concurrencyLimit;
+	private final DirectBufferPool ioBufferPool;
 	private final LongAdder scheduledOpCount = new LongAdder();
 	private final LongAdder completedOpCount = new LongAdder();
+	// not null if the read content is verified by the verification pool
+	private final DataVerifier<O> dataVerifier;
 	private Output<O> opResultOut = null;
 
-	public DummyStorageDriverMock(final Config storageConfig) {
+	public DummyStorageDriverMock(
+					final String stepId, final DataInput itemDataInput, final Config storageConfig, final boolean verifyFlag) {
+		this.itemDataInput = itemDataInput;
 		final Config limitConfig = storageConfig.configVal("driver-limit");
 		this.concurrencyLimit = limitConfig.intVal("concurrency");
+		final long ioBuffersSizeLimit;
+		final var ioBuffersSizeLimitRaw = limitConfig.val("memory");
+		if (ioBuffersSizeLimitRaw instanceof String) {
+			ioBuffersSizeLimit = SizeInBytes.toFixedSize((String) ioBuffersSizeLimitRaw);
+		} else {
+			ioBuffersSizeLimit = TypeUtil.typeConvert(ioBuffersSizeLimitRaw, long.class);
+		}
+		this.ioBufferPool = DirectBufferPool.instance(ioBuffersSizeLimit);
+		final var verifyThreadCount = storageConfig.intVal("driver-verify-threads");
+		if (verifyFlag && verifyThreadCount > 0 && itemDataInput != null) {
+			dataVerifier = new DataVerifierImpl<>(stepId, itemDataInput, verifyThreadCount, ioBufferPool::release);
+		} else {
+			dataVerifier = null;
+		}
 	}
 
 	@Override
@@ -42,7 +71,7 @@ public final class DummyStorageDriverMock<I extends Item, O extends Operation<I>
 			throwUnchecked(new EOFException());
 		}
 		checkStateFor(task);
-		if (opResultOut.put(task)) {
+		if (complete(task)) {
 			scheduledOpCount.increment();
 			completedOpCount.increment();
 			return true;
@@ -61,7 +90,7 @@ public final class DummyStorageDriverMock<I extends Item, O extends Operation<I>
 		while (i < to && isStarted()) {
 			nextTask = tasks.get(i);
 			checkStateFor(nextTask);
-			if (opResultOut.put(tasks.get(i))) {
+			if (complete(nextTask)) {
 				i++;
 			} else {
 				break;
@@ -82,7 +111,7 @@ public final class DummyStorageDriverMock<I extends Item, O extends Operation<I>
 		for (final O nextOp : tasks) {
 			if (isStarted()) {
 				checkStateFor(nextOp);
-				if (opResultOut.put(nextOp)) {
+				if (complete(nextOp)) {
 					n++;
 				} else {
 					break;
@@ -123,6 +152,9 @@ public final class DummyStorageDriverMock<I extends Item, O extends Operation<I>
 					if (dataOp.hasMarkedRanges()) {
 						dataOp.countBytesDone(dataOp.markedRangesSize());
 					} else {
+						if (dataVerifier != null && OpType.READ.equals(dataOp.type())) {
+							receiveContent(op, dataItem);
+						}
 						try {
 							dataOp.countBytesDone(dataItem.size());
 						} catch (final IOException ignored) {}
@@ -140,6 +172,54 @@ public final class DummyStorageDriverMock<I extends Item, O extends Operation<I>
 		op.status(Operation.Status.SUCC);
 	}
 
+	/**
+	* Submit the whole item content for the verification by chunks. The mock storage keeps the valid content only, so
+	* the content is taken from the item's data input.
+	*/
+	private void receiveContent(final O op, final DataItem dataItem) {
+		dataItem.dataInput(itemDataInput);
+		final var layerNum = dataItem.layer();
+		final var offset = dataItem.offset();
+		try {
+			final var size = dataItem.size();
+			dataItem.position(0);
+			for (var pos = 0L; pos < size; ) {
+				final var chunkSize = (int) Math.min(CHUNK_SIZE, size - pos);
+				final var chunk = ioBufferPool.acquire(chunkSize);
+				while (chunk.hasRemaining()) {
+					dataItem.read(chunk);
+				}
+				chunk.flip();
+				// the chunk is consumed by the verifier's thread after the submission
+				dataVerifier.submit(op, layerNum, offset + pos, chunk);
+				pos += chunkSize;
+			}
+		} catch (final IOException e) {
+			// the item's data input is in memory
+			throw new AssertionError(e);
+		}
+	}
+
+	/** @return true if the result is accepted by the output or the completion is deferred until verified */
+	private boolean complete(final O op) {
+		return dataVerifier == null ? opResultOut.put(op) : dataVerifier.complete(op, this::outputVerifiedResult);
+	}
+
+	private boolean outputVerifiedResult(final O op) {
+		final var opResultOut = this.opResultOut;
+		return opResultOut != null && opResultOut.put(op);
+	}
+
+	@Override
+	public final long verifyCount() {
+		return dataVerifier == null ? 0 : dataVerifier.verifyCount();
+	}
+
+	@Override
+	public final long verifyTimeNanos() {
+		return dataVerifier == null ? 0 : dataVerifier.verifyTimeNanos();
+	}
+
 	@Override
 	public final void operationResultOutput(final Output<O> opResultOut) {
 		this.opResultOut = opResultOut;
@@ -183,7 +263,9 @@ public final class DummyStorageDriverMock<I extends Item, O extends Operation<I>
 	}
 
 	@Override
-	public final void adjustIoBuffers(final long avgTransferSize, final OpType opType) {}
+	public final void adjustIoBuffers(final long avgTransferSize, final OpType opType) {
+		ioBufferPool.adjust(avgTransferSize);
+	}
 
 	@Override
 	protected void doStart() throws IllegalStateException {
@@ -208,6 +290,9 @@ public final class DummyStorageDriverMock<I extends Item, O extends Operation<I>
 
 	@Override
 	protected final void doClose() throws IOException {
+		if (dataVerifier != null) {
+			dataVerifier.close();
+		}
 		opResultOut = null;
 		Loggers.MSG.debug("{}: closed", toString());
 	}
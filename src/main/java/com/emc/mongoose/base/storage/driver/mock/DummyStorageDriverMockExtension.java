@@ -36,7 +36,7 @@ public final class DummyStorageDriverMockExtension<I extends Item, O extends Ope
 					final boolean verifyFlag,
 					final int batchSize)
 					throws IllegalConfigurationException {
-		return (T) new DummyStorageDriverMock<I, O>(storageConfig);
+		return (T) new DummyStorageDriverMock<I, O>(stepId, dataInput, storageConfig, verifyFlag);
 	}
 
 	@Override
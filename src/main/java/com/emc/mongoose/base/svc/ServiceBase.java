@@ -3,8 +3,7 @@ package com.emc.mongoose.base.svc;
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
 import com.github.akurilov.commons.concurrent.AsyncRunnableBase;
-import java.net.MalformedURLException;
-import java.net.SocketException;
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.rmi.RemoteException;
 import org.apache.logging.log4j.Level;
@@ -12,9 +11,15 @@ import org.apache.logging.log4j.Level;
 public abstract class ServiceBase extends AsyncRunnableBase implements Service {
 
 	protected final int port;
+	protected final ServiceTransport transport;
 
 	protected ServiceBase(final int port) {
+		this(port, ServiceTransport.RMI);
+	}
+
+	protected ServiceBase(final int port, final ServiceTransport transport) {
 		this.port = port;
+		this.transport = transport;
 	}
 
 	@Override
@@ -26,11 +31,8 @@ public abstract class ServiceBase extends AsyncRunnableBase implements Service {
 	protected void doStart() {
 		try {
 			try {
-				ServiceUtil.create(this, port);
-			} catch (final RemoteException
-							| URISyntaxException
-							| MalformedURLException
-							| SocketException e) {
+				ServiceUtil.create(this, port, transport);
+			} catch (final IOException | URISyntaxException e) {
 				LogUtil.exception(
 								Level.ERROR, e, "Failed to start the service \"{}\" @ port #{}", name(), port);
 			}
@@ -44,9 +46,9 @@ public abstract class ServiceBase extends AsyncRunnableBase implements Service {
 	@Override
 	protected void doStop() {
 		try {
-			ServiceUtil.close(this);
+			ServiceUtil.close(this, transport);
 			Loggers.MSG.info("Service \"{}\" stopped listening the port #{}", name(), port);
-		} catch (final RemoteException | MalformedURLException e) {
+		} catch (final IOException e) {
 			try {
 				throw new RemoteException("Failed to stop the service " + name(), e);
 			} catch (final RemoteException ignored) {}
@@ -0,0 +1,22 @@
+package com.emc.mongoose.base.svc;
+
+/** The transport used to expose the services to the remote nodes and to invoke the remote services */
+public enum ServiceTransport {
+
+	/** Java RMI, the registry and the services are bound to the node port */
+	RMI,
+	/**
+	* The NIO socket connections with the compact binary protocol (see {@link
+	* com.emc.mongoose.base.svc.nio.NioServiceUtil}), all the services are served via the node port
+	*/
+	NIO;
+
+	/**
+	* @param name the transport name, case insensitive, null means the default transport (RMI)
+	* @return the transport
+	* @throws IllegalArgumentException if the name is unknown
+	*/
+	public static ServiceTransport of(final String name) throws IllegalArgumentException {
+		return null == name ? RMI : valueOf(name.toUpperCase());
+	}
+}
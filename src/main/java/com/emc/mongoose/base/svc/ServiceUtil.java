@@ -2,6 +2,7 @@ package com.emc.mongoose.base.svc;
 
 import com.emc.mongoose.base.logging.LogUtil;
 import com.emc.mongoose.base.logging.Loggers;
+import com.emc.mongoose.base.svc.nio.NioServiceUtil;
 import com.github.akurilov.commons.net.FixedPortRmiSocketFactory;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
@@ -159,6 +160,16 @@ public abstract class ServiceUtil {
 		return svcUri;
 	}
 
+	/**
+	* Start serving the given service using the given transport
+	*
+	* @return the service URI
+	*/
+	public static String create(final Service svc, final int port, final ServiceTransport transport)
+					throws IOException, URISyntaxException {
+		return ServiceTransport.NIO.equals(transport) ? NioServiceUtil.create(svc, port) : create(svc, port);
+	}
+
 	@SuppressWarnings("unchecked")
 	public static <S extends Service> S resolve(final String addr, final String name)
 					throws NotBoundException, RemoteException, URISyntaxException, MalformedURLException {
@@ -173,6 +184,27 @@ public abstract class ServiceUtil {
 		return (S) Naming.lookup(svcUri);
 	}
 
+	/**
+	* @param addr the remote node address with the port
+	* @param name the service name
+	* @param transport the transport to use
+	* @param iface the service interface, required by the NIO transport
+	*/
+	public static <S extends Service> S resolve(
+					final String addr, final String name, final ServiceTransport transport, final Class<S> iface)
+					throws NotBoundException, RemoteException, URISyntaxException, MalformedURLException {
+		return ServiceTransport.NIO.equals(transport) ? NioServiceUtil.resolve(addr, name, iface) : resolve(addr, name);
+	}
+
+	/**
+	* Stop serving the given service which was started using the given transport
+	*
+	* @return the service URI
+	*/
+	public static String close(final Service svc, final ServiceTransport transport) throws IOException {
+		return ServiceTransport.NIO.equals(transport) ? NioServiceUtil.close(svc) : close(svc);
+	}
+
 	public static String close(final Service svc) throws RemoteException, MalformedURLException {
 		final String svcName = svc.name();
 		String svcUri = null;
@@ -213,5 +245,7 @@ public abstract class ServiceUtil {
 		synchronized (REGISTRY_MAP) {
 			REGISTRY_MAP.clear();
 		}
+
+		NioServiceUtil.shutdown();
 	}
 }
@@ -0,0 +1,249 @@
+package com.emc.mongoose.base.svc.nio;
+
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.stream.MetricsSnapshotsDecoder;
+import com.emc.mongoose.base.metrics.stream.MetricsSnapshotsEncoder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.rmi.Remote;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+* Encodes the remote method arguments and results. The types used by the service interfaces (the primitive values, the
+* strings, the byte arrays, the enums, the lists and the metrics snapshots) are written as the type tag followed by
+* the compact value. The remote objects (e.g. the callbacks) are written as the references by name. The Java
+* serialization is used for any other serializable value (e.g. the load step configuration passed once per step).
+*/
+final class BinaryCodec {
+
+	static final byte TAG_NULL = 0;
+	static final byte TAG_FALSE = 1;
+	static final byte TAG_TRUE = 2;
+	static final byte TAG_INT = 3;
+	static final byte TAG_LONG = 4;
+	static final byte TAG_DOUBLE = 5;
+	static final byte TAG_STRING = 6;
+	static final byte TAG_BYTES = 7;
+	static final byte TAG_ENUM = 8;
+	static final byte TAG_LIST = 9;
+	static final byte TAG_METRICS = 10;
+	static final byte TAG_REF = 11;
+	static final byte TAG_SERIALIZED = 12;
+
+	private BinaryCodec() {}
+
+	/**
+	* @param out the destination
+	* @param value the value to write
+	* @param exporter makes the remote object available for the other side and returns its name
+	*/
+	static void write(final DataOutputStream out, final Object value, final Function<Remote, String> exporter)
+					throws IOException {
+		if (null == value) {
+			out.writeByte(TAG_NULL);
+		} else if (value instanceof Boolean) {
+			out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+		} else if (value instanceof Integer) {
+			out.writeByte(TAG_INT);
+			writeVarLong(out, zigZag((Integer) value));
+		} else if (value instanceof Long) {
+			out.writeByte(TAG_LONG);
+			writeVarLong(out, zigZag((Long) value));
+		} else if (value instanceof Double) {
+			out.writeByte(TAG_DOUBLE);
+			out.writeDouble((Double) value);
+		} else if (value instanceof String) {
+			out.writeByte(TAG_STRING);
+			writeString(out, (String) value);
+		} else if (value instanceof byte[]) {
+			final var bytes = (byte[]) value;
+			out.writeByte(TAG_BYTES);
+			writeVarLong(out, bytes.length);
+			out.write(bytes);
+		} else if (value instanceof Enum) {
+			final var e = (Enum<?>) value;
+			out.writeByte(TAG_ENUM);
+			writeString(out, e.getDeclaringClass().getName());
+			writeVarLong(out, e.ordinal());
+		} else if (value instanceof Remote) {
+			out.writeByte(TAG_REF);
+			writeString(out, exporter.apply((Remote) value));
+		} else if (value instanceof List) {
+			final var list = (List<?>) value;
+			final var size = list.size();
+			if (size > 0 && list.get(0) instanceof AllMetricsSnapshot) {
+				@SuppressWarnings("unchecked")
+				final var frame = new MetricsSnapshotsEncoder().encode((List<? extends AllMetricsSnapshot>) list);
+				out.writeByte(TAG_METRICS);
+				writeVarLong(out, frame.length);
+				out.write(frame);
+			} else {
+				out.writeByte(TAG_LIST);
+				writeVarLong(out, size);
+				for (final var element : list) {
+					write(out, element, exporter);
+				}
+			}
+		} else if (value instanceof Serializable) {
+			final var bytes = new ByteArrayOutputStream();
+			try (final var objOut = new ObjectOutputStream(bytes)) {
+				objOut.writeObject(value);
+			}
+			out.writeByte(TAG_SERIALIZED);
+			writeVarLong(out, bytes.size());
+			bytes.writeTo(out);
+		} else {
+			throw new InvalidClassException(value.getClass().getName(), "The value may not be encoded");
+		}
+	}
+
+	/**
+	* @param in the source
+	* @param type the expected value type, used to make the proxy for the remote object reference
+	* @param resolver returns the proxy for the given remote object name and the expected type
+	* @return the value read
+	*/
+	static Object read(final DataInput in, final Class<?> type, final BiFunction<String, Class<?>, Object> resolver)
+					throws IOException {
+		final var tag = in.readByte();
+		switch (tag) {
+			case TAG_NULL:
+				return null;
+			case TAG_FALSE:
+				return false;
+			case TAG_TRUE:
+				return true;
+			case TAG_INT:
+				return (int) unZigZag(readVarLong(in));
+			case TAG_LONG:
+				return unZigZag(readVarLong(in));
+			case TAG_DOUBLE:
+				return in.readDouble();
+			case TAG_STRING:
+				return readString(in);
+			case TAG_BYTES:
+				return readBytes(in);
+			case TAG_ENUM:
+				final var enumClsName = readString(in);
+				final var ordinal = (int) readVarLong(in);
+				try {
+					final var constants = Class.forName(enumClsName, false, classLoader()).getEnumConstants();
+					if (null == constants || ordinal >= constants.length) {
+						throw new InvalidClassException(enumClsName, "No enum constant #" + ordinal);
+					}
+					return constants[ordinal];
+				} catch (final ClassNotFoundException e) {
+					throw new InvalidClassException(enumClsName, e.toString());
+				}
+			case TAG_LIST:
+				final var size = (int) readVarLong(in);
+				final List<Object> list = new ArrayList<>(size);
+				for (var i = 0; i < size; i++) {
+					list.add(read(in, Object.class, resolver));
+				}
+				return list;
+			case TAG_METRICS:
+				try {
+					return new MetricsSnapshotsDecoder().decode(readBytes(in));
+				} catch (final IllegalStateException e) {
+					throw new StreamCorruptedException("Failed to decode the metrics snapshots: " + e.getMessage());
+				}
+			case TAG_REF:
+				return resolver.apply(readString(in), type);
+			case TAG_SERIALIZED:
+				try (final var objIn = new ContextClassLoaderObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+					return objIn.readObject();
+				} catch (final ClassNotFoundException e) {
+					throw new InvalidClassException(e.getMessage(), "Failed to deserialize the value");
+				}
+			default:
+				throw new StreamCorruptedException("Unknown value type tag: " + tag);
+		}
+	}
+
+	static void writeString(final DataOutput out, final String s) throws IOException {
+		final var bytes = s.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(out, bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(final DataInput in) throws IOException {
+		return new String(readBytes(in), StandardCharsets.UTF_8);
+	}
+
+	private static byte[] readBytes(final DataInput in) throws IOException {
+		final var size = readVarLong(in);
+		if (size > Integer.MAX_VALUE) {
+			throw new StreamCorruptedException("Invalid size: " + size);
+		}
+		final var bytes = new byte[(int) size];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	static void writeVarLong(final DataOutput out, final long value) throws IOException {
+		var v = value;
+		while ((v & ~0x7FL) != 0) {
+			out.writeByte((int) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		out.writeByte((int) v);
+	}
+
+	static long readVarLong(final DataInput in) throws IOException {
+		long v = 0;
+		for (var shift = 0; shift < Long.SIZE; shift += 7) {
+			final var b = in.readByte();
+			v |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return v;
+			}
+		}
+		throw new StreamCorruptedException("Invalid variable length value");
+	}
+
+	private static long zigZag(final long v) {
+		return (v << 1) ^ (v >> 63);
+	}
+
+	private static long unZigZag(final long v) {
+		return (v >>> 1) ^ -(v & 1);
+	}
+
+	private static ClassLoader classLoader() {
+		final var clsLoader = Thread.currentThread().getContextClassLoader();
+		return null == clsLoader ? BinaryCodec.class.getClassLoader() : clsLoader;
+	}
+
+	/** Resolves the classes using the context class loader first to support the values of the extensions classes */
+	private static final class ContextClassLoaderObjectInputStream extends ObjectInputStream {
+
+		private ContextClassLoaderObjectInputStream(final InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected final Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			try {
+				return Class.forName(desc.getName(), false, classLoader());
+			} catch (final ClassNotFoundException e) {
+				return super.resolveClass(desc);
+			}
+		}
+	}
+}
@@ -0,0 +1,361 @@
+package com.emc.mongoose.base.svc.nio;
+
+import com.emc.mongoose.base.logging.LogContextThreadFactory;
+import com.emc.mongoose.base.logging.LogUtil;
+import com.emc.mongoose.base.logging.Loggers;
+import com.emc.mongoose.base.svc.Service;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.rmi.NoSuchObjectException;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.apache.logging.log4j.Level;
+
+/**
+* The connection which multiplexes the remote method calls in both directions: any side may invoke the methods of the
+* objects exposed by the other side. The calls are identified by the call id, so many calls may be in progress
+* concurrently and the responses may come in any order. The frame layout is:
+*
+* <pre>
+* int frameSize, byte frameType, varlong callId, then
+*   request: string objectName, string methodName, byte argCount, value... (see {@link BinaryCodec})
+*   response: byte status (0 - success, 1 - failure), value (the result or the exception)
+* </pre>
+*
+* The incoming requests are invoked using the given executor, the responses are handled by the reader thread. The
+* remote object references are the names of the objects at the writing side, except the proxies for the objects of
+* the other side which are referenced by the names prefixed with "peer/".
+*/
+public final class BinaryConnection implements Closeable {
+
+	static final byte FRAME_TYPE_REQUEST = 0;
+	static final byte FRAME_TYPE_RESPONSE = 1;
+	private static final byte STATUS_SUCCESS = 0;
+	private static final byte STATUS_FAILURE = 1;
+	private static final String EXPORTED_NAME_PREFIX = "exported/";
+	private static final String PEER_NAME_PREFIX = "peer/";
+	private static final int FRAME_SIZE_MAX = 0x4000_0000;
+	private static final Map<Class<?>, Map<String, Method>> REMOTE_METHODS = new ConcurrentHashMap<>();
+
+	private final SocketChannel channel;
+	private final Function<String, Object> boundObjects;
+	private final Executor executor;
+	private final String remoteAddr;
+	private final Map<String, Remote> exportedObjects = new ConcurrentHashMap<>();
+	private final AtomicLong exportedCount = new AtomicLong(0);
+	private final Map<Long, CompletableFuture<DataInputStream>> pendingCalls = new ConcurrentHashMap<>();
+	private final AtomicLong callCount = new AtomicLong(0);
+	private final Object writeLock = new Object();
+	private volatile boolean closedFlag = false;
+
+	/**
+	* @param channel the connected socket channel
+	* @param boundObjects returns the object bound to the given name, if any
+	* @param executor the executor for the incoming calls
+	*/
+	public BinaryConnection(
+					final SocketChannel channel, final Function<String, Object> boundObjects, final Executor executor)
+					throws IOException {
+		this.channel = channel;
+		this.boundObjects = boundObjects;
+		this.executor = executor;
+		channel.configureBlocking(true);
+		channel.socket().setTcpNoDelay(true);
+		remoteAddr = String.valueOf(channel.getRemoteAddress());
+		new LogContextThreadFactory("binaryConnectionReader", true).newThread(this::readFrames).start();
+	}
+
+	public final boolean isClosed() {
+		return closedFlag;
+	}
+
+	/**
+	* @param objName the remote object name
+	* @param method the method to invoke
+	* @param args the arguments, may be null if there are no arguments
+	* @param proxy the proxy which is invoked, returned if the remote object returns itself
+	* @return the remote method invocation result
+	* @throws Throwable the exception thrown by the remote method either {@link RemoteException} if the communication
+	*     failed
+	*/
+	final Object invoke(final String objName, final Method method, final Object[] args, final Object proxy)
+					throws Throwable {
+		final var callId = callCount.getAndIncrement();
+		final var bytes = new ByteArrayOutputStream();
+		final var out = new DataOutputStream(bytes);
+		out.writeByte(FRAME_TYPE_REQUEST);
+		BinaryCodec.writeVarLong(out, callId);
+		BinaryCodec.writeString(out, objName);
+		BinaryCodec.writeString(out, method.getName());
+		final var argCount = null == args ? 0 : args.length;
+		out.writeByte(argCount);
+		for (var i = 0; i < argCount; i++) {
+			BinaryCodec.write(out, args[i], this::export);
+		}
+		final var response = new CompletableFuture<DataInputStream>();
+		pendingCalls.put(callId, response);
+		final DataInputStream in;
+		try {
+			if (closedFlag) {
+				throw new RemoteException("The connection to " + remoteAddr + " is closed");
+			}
+			writeFrame(bytes);
+			in = response.get();
+		} catch (final ExecutionException e) {
+			throw e.getCause();
+		} catch (final IOException e) {
+			close();
+			throw new RemoteException("Failed to invoke the remote method \"" + method.getName() + "\"", e);
+		} finally {
+			pendingCalls.remove(callId);
+		}
+		final var status = in.readByte();
+		final var result = BinaryCodec.read(
+						in,
+						STATUS_SUCCESS == status ? method.getReturnType() : Throwable.class,
+						(name, type) -> objName.equals(name) ? proxy : resolve(name, type));
+		if (STATUS_SUCCESS == status) {
+			return result;
+		}
+		throw (Throwable) result;
+	}
+
+	private String export(final Remote obj) {
+		if (Proxy.isProxyClass(obj.getClass())) {
+			final var handler = Proxy.getInvocationHandler(obj);
+			// the peer's object is referenced by its name, the proxy for the remote object of another node is
+			// exported below as the local object forwarding the calls
+			if (handler instanceof BinaryServiceInvocationHandler
+							&& ((BinaryServiceInvocationHandler) handler).servedVia(this)) {
+				return PEER_NAME_PREFIX + ((BinaryServiceInvocationHandler) handler).name();
+			}
+		}
+		if (obj instanceof Service) {
+			// the bound service is referenced by its name
+			try {
+				final var svcName = ((Service) obj).name();
+				if (obj == boundObjects.apply(svcName)) {
+					return svcName;
+				}
+			} catch (final RemoteException ignored) {}
+		}
+		for (final var e : exportedObjects.entrySet()) {
+			if (e.getValue() == obj) {
+				return e.getKey();
+			}
+		}
+		final var name = EXPORTED_NAME_PREFIX + exportedCount.getAndIncrement();
+		exportedObjects.put(name, obj);
+		return name;
+	}
+
+	private Object resolve(final String name, final Class<?> type) {
+		if (name.startsWith(PEER_NAME_PREFIX)) {
+			// the peer got the proxy for the object of this side
+			final var ownName = name.substring(PEER_NAME_PREFIX.length());
+			final var obj = localObject(ownName);
+			if (null == obj) {
+				throw new IllegalArgumentException("No object bound to the name \"" + ownName + "\"");
+			}
+			return obj;
+		}
+		return remoteObjectProxy(name, type);
+	}
+
+	private Object localObject(final String name) {
+		final Object obj = exportedObjects.get(name);
+		return null == obj ? boundObjects.apply(name) : obj;
+	}
+
+	private Object remoteObjectProxy(final String name, final Class<?> type) {
+		if (!type.isInterface()) {
+			throw new IllegalArgumentException("The remote object type should be an interface: " + type);
+		}
+		return Proxy.newProxyInstance(
+						type.getClassLoader(), new Class<?>[]{type}, new BinaryServiceInvocationHandler(this, name));
+	}
+
+	private void writeFrame(final ByteArrayOutputStream bytes) throws IOException {
+		final var header = ByteBuffer.allocate(Integer.BYTES).putInt(0, bytes.size());
+		final var body = ByteBuffer.wrap(bytes.toByteArray());
+		final var buffs = new ByteBuffer[]{header, body};
+		synchronized (writeLock) {
+			while (body.hasRemaining()) {
+				channel.write(buffs);
+			}
+		}
+	}
+
+	private void readFrames() {
+		final var header = ByteBuffer.allocate(Integer.BYTES);
+		try {
+			while (!closedFlag) {
+				header.clear();
+				readFully(header);
+				final var frameSize = header.getInt(0);
+				if (frameSize < 2 || frameSize > FRAME_SIZE_MAX) {
+					throw new StreamCorruptedException("Invalid frame size: " + frameSize);
+				}
+				final var body = ByteBuffer.allocate(frameSize);
+				readFully(body);
+				final var in = new DataInputStream(new ByteArrayInputStream(body.array()));
+				final var frameType = in.readByte();
+				final var callId = BinaryCodec.readVarLong(in);
+				if (FRAME_TYPE_RESPONSE == frameType) {
+					final var response = pendingCalls.get(callId);
+					if (null != response) {
+						response.complete(in);
+					}
+				} else if (FRAME_TYPE_REQUEST == frameType) {
+					try {
+						executor.execute(() -> handleRequest(callId, in));
+					} catch (final RejectedExecutionException e) {
+						respond(callId, STATUS_FAILURE, new RemoteException("The remote side is shutting down"));
+					}
+				} else {
+					throw new StreamCorruptedException("Invalid frame type: " + frameType);
+				}
+			}
+		} catch (final EOFException ignored) {} catch (final IOException e) {
+			if (!closedFlag) {
+				LogUtil.exception(Level.DEBUG, e, "Connection with {} failure", remoteAddr);
+			}
+		} finally {
+			close();
+		}
+	}
+
+	private void readFully(final ByteBuffer buff) throws IOException {
+		while (buff.hasRemaining()) {
+			if (channel.read(buff) < 0) {
+				throw new EOFException();
+			}
+		}
+	}
+
+	private void handleRequest(final long callId, final DataInputStream in) {
+		Object result;
+		byte status = STATUS_SUCCESS;
+		try {
+			final var objName = BinaryCodec.readString(in);
+			final var methodName = BinaryCodec.readString(in);
+			final var argCount = in.readByte();
+			final var obj = localObject(objName);
+			if (null == obj) {
+				throw new NoSuchObjectException("No object bound to the name \"" + objName + "\"");
+			}
+			final var method = remoteMethod(obj.getClass(), methodName, argCount);
+			final var paramTypes = method.getParameterTypes();
+			final var args = new Object[argCount];
+			for (var i = 0; i < argCount; i++) {
+				args[i] = BinaryCodec.read(in, paramTypes[i], this::resolve);
+			}
+			try {
+				result = method.invoke(obj, args);
+			} catch (final InvocationTargetException e) {
+				throw e.getCause();
+			}
+		} catch (final Throwable cause) {
+			status = STATUS_FAILURE;
+			result = cause;
+		}
+		try {
+			respond(callId, status, result);
+		} catch (final IOException e) {
+			LogUtil.exception(Level.DEBUG, e, "Failed to respond to {}", remoteAddr);
+			close();
+		}
+	}
+
+	private void respond(final long callId, final byte status, final Object result) throws IOException {
+		final var bytes = new ByteArrayOutputStream();
+		final var out = new DataOutputStream(bytes);
+		out.writeByte(FRAME_TYPE_RESPONSE);
+		BinaryCodec.writeVarLong(out, callId);
+		final var value = new ByteArrayOutputStream();
+		try {
+			BinaryCodec.write(new DataOutputStream(value), result, this::export);
+			out.writeByte(status);
+		} catch (final ObjectStreamException e) {
+			// the result or the exception is not serializable
+			value.reset();
+			BinaryCodec.write(
+							new DataOutputStream(value),
+							new RemoteException("Failed to encode the result of the remote method: " + e),
+							this::export);
+			out.writeByte(STATUS_FAILURE);
+		}
+		value.writeTo(out);
+		writeFrame(bytes);
+	}
+
+	/**
+	* Finds the method by the name and the parameters count among the methods of the remote interfaces implemented by
+	* the given class. The remote interfaces methods are public so they may be invoked even if the class is not.
+	*/
+	private static Method remoteMethod(final Class<?> cls, final String name, final int paramCount)
+					throws RemoteException {
+		final var method = REMOTE_METHODS.computeIfAbsent(cls, BinaryConnection::remoteMethods)
+						.get(name + '/' + paramCount);
+		if (null == method) {
+			throw new RemoteException(
+							"No remote method \"" + name + "\" with " + paramCount + " parameters in the " + cls);
+		}
+		return method;
+	}
+
+	private static Map<String, Method> remoteMethods(final Class<?> cls) {
+		final Map<String, Method> methods = new ConcurrentHashMap<>();
+		for (var c = cls; c != null; c = c.getSuperclass()) {
+			for (final var iface : c.getInterfaces()) {
+				if (Remote.class.isAssignableFrom(iface)) {
+					for (final var method : iface.getMethods()) {
+						methods.putIfAbsent(method.getName() + '/' + method.getParameterCount(), method);
+					}
+				}
+			}
+		}
+		return methods;
+	}
+
+	@Override
+	public final void close() {
+		if (!closedFlag) {
+			closedFlag = true;
+			try {
+				channel.close();
+			} catch (final IOException e) {
+				LogUtil.exception(Level.DEBUG, e, "Failed to close the connection with {}", remoteAddr);
+			}
+			final var failure = new RemoteException("The connection to " + remoteAddr + " is closed");
+			pendingCalls.values().forEach(response -> response.completeExceptionally(failure));
+			exportedObjects.clear();
+			Loggers.MSG.debug("Connection with {} is closed", remoteAddr);
+		}
+	}
+
+	@Override
+	public final String toString() {
+		return "nio://" + remoteAddr;
+	}
+}
@@ -0,0 +1,84 @@
+package com.emc.mongoose.base.svc.nio;
+
+import static com.github.akurilov.commons.lang.Exceptions.throwUnchecked;
+
+import com.emc.mongoose.base.logging.LogContextThreadFactory;
+import com.emc.mongoose.base.logging.LogUtil;
+import com.emc.mongoose.base.logging.Loggers;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.logging.log4j.Level;
+
+/** Accepts the connections on the port and serves the calls to the objects bound to the names */
+final class BinaryServer implements Closeable {
+
+	private final int port;
+	private final ServerSocketChannel serverChannel;
+	private final Map<String, Object> boundObjects = new ConcurrentHashMap<>();
+	private final Set<BinaryConnection> conns = ConcurrentHashMap.newKeySet();
+	private final ExecutorService executor;
+	private final Thread acceptor;
+
+	BinaryServer(final int port) throws IOException {
+		this.port = port;
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(new InetSocketAddress(port));
+		executor = Executors.newCachedThreadPool(new LogContextThreadFactory("binaryServer" + port + "Worker", true));
+		acceptor = new LogContextThreadFactory("binaryServer" + port + "Acceptor", true).newThread(this::acceptConnections);
+		acceptor.start();
+	}
+
+	private void acceptConnections() {
+		try {
+			while (serverChannel.isOpen()) {
+				final var channel = serverChannel.accept();
+				if (!serverChannel.isOpen()) {
+					// accepted concurrently with the server closing
+					channel.close();
+					break;
+				}
+				final var conn = new BinaryConnection(channel, boundObjects::get, executor);
+				conns.add(conn);
+				conns.removeIf(BinaryConnection::isClosed);
+			}
+		} catch (final ClosedChannelException ignored) {} catch (final IOException e) {
+			LogUtil.exception(Level.WARN, e, "Failed to accept the connection @ port #{}", port);
+		}
+	}
+
+	final void bind(final String name, final Object obj) {
+		if (null != boundObjects.putIfAbsent(name, obj)) {
+			throw new AssertionError("Service already registered");
+		}
+	}
+
+	/** @return true if there are no more objects bound */
+	final boolean unbind(final String name) {
+		boundObjects.remove(name);
+		return boundObjects.isEmpty();
+	}
+
+	@Override
+	public final void close() throws IOException {
+		serverChannel.close();
+		// the listening socket is released only when the blocked accept call returns
+		try {
+			acceptor.join();
+		} catch (final InterruptedException e) {
+			throwUnchecked(e);
+		}
+		conns.forEach(BinaryConnection::close);
+		conns.clear();
+		executor.shutdownNow();
+		boundObjects.clear();
+		Loggers.MSG.debug("Binary services server @ port #{} is closed", port);
+	}
+}
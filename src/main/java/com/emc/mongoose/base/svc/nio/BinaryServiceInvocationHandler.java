@@ -0,0 +1,69 @@
+package com.emc.mongoose.base.svc.nio;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.rmi.RemoteException;
+
+/**
+* Forwards the proxy method calls to the remote object. The proxy either uses the given connection (the remote object
+* references received via the connection, e.g. the callbacks) or the pooled connection to the given node which is
+* reestablished if broken (the resolved services).
+*/
+final class BinaryServiceInvocationHandler implements InvocationHandler {
+
+	private final BinaryConnection conn;
+	private final String nodeAddr;
+	private final String name;
+
+	BinaryServiceInvocationHandler(final BinaryConnection conn, final String name) {
+		this.conn = conn;
+		this.nodeAddr = null;
+		this.name = name;
+	}
+
+	BinaryServiceInvocationHandler(final String nodeAddr, final String name) {
+		this.conn = null;
+		this.nodeAddr = nodeAddr;
+		this.name = name;
+	}
+
+	final String name() {
+		return name;
+	}
+
+	/** @return true if the remote object is served by the peer of the given connection */
+	final boolean servedVia(final BinaryConnection c) {
+		return null == conn ? c == NioServiceUtil.openConnection(nodeAddr) : c == conn;
+	}
+
+	@Override
+	public final Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+		if (Object.class.equals(method.getDeclaringClass())) {
+			switch (method.getName()) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				default:
+					return toString();
+			}
+		}
+		final var c = null == conn ? NioServiceUtil.connection(nodeAddr) : conn;
+		try {
+			return c.invoke(name, method, args, proxy);
+		} catch (final InterruptedException e) {
+			for (final var exceptionType : method.getExceptionTypes()) {
+				if (exceptionType.isInstance(e)) {
+					throw e;
+				}
+			}
+			Thread.currentThread().interrupt();
+			throw new RemoteException("Interrupted while invoking the remote method \"" + method.getName() + "\"", e);
+		}
+	}
+
+	@Override
+	public final String toString() {
+		return (null == conn ? "nio://" + nodeAddr : conn.toString()) + "/" + name;
+	}
+}
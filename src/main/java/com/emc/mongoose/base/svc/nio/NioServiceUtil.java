@@ -0,0 +1,160 @@
+package com.emc.mongoose.base.svc.nio;
+
+import com.emc.mongoose.base.logging.LogContextThreadFactory;
+import com.emc.mongoose.base.logging.LogUtil;
+import com.emc.mongoose.base.svc.Service;
+import com.emc.mongoose.base.svc.ServiceUtil;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+import java.rmi.ConnectException;
+import java.rmi.ConnectIOException;
+import java.rmi.NoSuchObjectException;
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.logging.log4j.Level;
+
+/**
+* The alternative to the RMI services transport. A single server socket per port serves all the services bound to the
+* port, a single connection per remote node is shared by all the proxies resolved for the node. The service interfaces
+* are the same as for the RMI transport. The remote calls are multiplexed over the connection (see {@link
+* BinaryConnection}), so a long call (e.g. await) doesn't block the other ones.
+*/
+public abstract class NioServiceUtil {
+
+	private static final String SCHEME = "nio";
+	private static final Map<Integer, BinaryServer> SERVERS = new HashMap<>();
+	private static final Map<String, BinaryConnection> CONNS = new HashMap<>();
+	private static final ExecutorService CLIENT_EXECUTOR = Executors.newCachedThreadPool(
+					new LogContextThreadFactory("binaryClientWorker", true));
+
+	/**
+	* Start serving the given service at the given port
+	*
+	* @return the service URI
+	*/
+	public static String create(final Service svc, final int port) throws IOException {
+		final var svcName = svc.name();
+		synchronized (SERVERS) {
+			var server = SERVERS.get(port);
+			if (null == server) {
+				server = new BinaryServer(port);
+				SERVERS.put(port, server);
+			}
+			server.bind(svcName, svc);
+		}
+		return SCHEME + "://" + ServiceUtil.getAnyExternalHostAddress() + ":" + port + "/" + svcName;
+	}
+
+	/**
+	* @param addrWithPort the remote node address with the port
+	* @param name the service name
+	* @param iface the service interface
+	* @return the proxy for the remote service
+	* @throws NotBoundException if there's no service with the given name at the remote node
+	* @throws RemoteException if failed to connect to the remote node
+	*/
+	@SuppressWarnings("unchecked")
+	public static <S extends Service> S resolve(final String addrWithPort, final String name, final Class<S> iface)
+					throws NotBoundException, RemoteException {
+		final var svc = (S) Proxy.newProxyInstance(
+						iface.getClassLoader(), new Class<?>[]{iface}, new BinaryServiceInvocationHandler(addrWithPort, name));
+		try {
+			svc.name(); // check if the service is bound
+		} catch (final NoSuchObjectException e) {
+			throw new NotBoundException(name);
+		}
+		return svc;
+	}
+
+	/** @return true if the given object is the proxy for the remote object served via this transport */
+	public static boolean isProxy(final Object obj) {
+		return Proxy.isProxyClass(obj.getClass())
+						&& Proxy.getInvocationHandler(obj) instanceof BinaryServiceInvocationHandler;
+	}
+
+	static BinaryConnection connection(final String addrWithPort) throws RemoteException {
+		synchronized (CONNS) {
+			var conn = CONNS.get(addrWithPort);
+			if (null == conn || conn.isClosed()) {
+				conn = connect(addrWithPort);
+				CONNS.put(addrWithPort, conn);
+			}
+			return conn;
+		}
+	}
+
+	/** @return the open connection to the given node if any, null otherwise */
+	static BinaryConnection openConnection(final String addrWithPort) {
+		synchronized (CONNS) {
+			final var conn = CONNS.get(addrWithPort);
+			return null == conn || conn.isClosed() ? null : conn;
+		}
+	}
+
+	private static BinaryConnection connect(final String addrWithPort) throws RemoteException {
+		final var portPos = addrWithPort.lastIndexOf(':');
+		if (portPos < 0) {
+			throw new UnknownHostException("No port information in the address: " + addrWithPort);
+		}
+		final InetSocketAddress addr;
+		try {
+			addr = new InetSocketAddress(
+							addrWithPort.substring(0, portPos), Integer.parseInt(addrWithPort.substring(portPos + 1)));
+		} catch (final IllegalArgumentException e) {
+			throw new UnknownHostException("Invalid address: " + addrWithPort, e);
+		}
+		try {
+			final var channel = SocketChannel.open(addr);
+			return new BinaryConnection(channel, name -> null, CLIENT_EXECUTOR);
+		} catch (final UnresolvedAddressException e) {
+			throw new UnknownHostException("Failed to resolve the address: " + addrWithPort);
+		} catch (final java.net.ConnectException e) {
+			throw new ConnectException("Failed to connect to " + addrWithPort, e);
+		} catch (final IOException e) {
+			throw new ConnectIOException("Failed to connect to " + addrWithPort, e);
+		}
+	}
+
+	/**
+	* Stop serving the given service
+	*
+	* @return the service URI
+	*/
+	public static String close(final Service svc) throws IOException {
+		final var svcName = svc.name();
+		final var port = svc.registryPort();
+		synchronized (SERVERS) {
+			final var server = SERVERS.get(port);
+			if (null != server && server.unbind(svcName)) {
+				SERVERS.remove(port);
+				server.close();
+			}
+		}
+		return SCHEME + "://" + ServiceUtil.getAnyExternalHostAddress() + ":" + port + "/" + svcName;
+	}
+
+	public static void shutdown() {
+		synchronized (SERVERS) {
+			for (final var server : SERVERS.values()) {
+				try {
+					server.close();
+				} catch (final IOException e) {
+					LogUtil.exception(Level.WARN, e, "Failed to close the binary services server");
+				}
+			}
+			SERVERS.clear();
+		}
+		synchronized (CONNS) {
+			CONNS.values().forEach(BinaryConnection::close);
+			CONNS.clear();
+		}
+	}
+}
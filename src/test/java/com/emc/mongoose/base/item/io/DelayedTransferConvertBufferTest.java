@@ -0,0 +1,92 @@
+package com.emc.mongoose.base.item.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.op.Operation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class DelayedTransferConvertBufferTest {
+
+	@SuppressWarnings("unchecked")
+	private static List<Operation<Item>> ops(final int count) {
+		final List<Operation<Item>> ops = new ArrayList<>(count);
+		for (var i = 0; i < count; i++) {
+			final var item = mock(Item.class);
+			when(item.name()).thenReturn("item" + i);
+			final Operation<Item> op = mock(Operation.class);
+			when(op.item()).thenReturn(item);
+			ops.add(op);
+		}
+		return ops;
+	}
+
+	private static List<String> names(final List<Item> items) {
+		final List<String> names = new ArrayList<>(items.size());
+		for (final var item : items) {
+			names.add(item.name());
+		}
+		return names;
+	}
+
+	@Test
+	public void testBatchPutKeepsAllElements() {
+		final var buff = new DelayedTransferConvertBuffer<Item, Operation<Item>>(100, 0, TimeUnit.SECONDS);
+		final var ops = ops(10);
+		assertEquals(8, buff.put(ops, 1, 9));
+		assertEquals(0.08, buff.fill(), 1e-9);
+		final List<Item> items = new ArrayList<>();
+		assertEquals(8, buff.get(items, 100));
+		assertEquals(
+						List.of("item1", "item2", "item3", "item4", "item5", "item6", "item7", "item8"), names(items));
+		assertEquals(0, buff.fill(), 0);
+	}
+
+	@Test
+	public void testSizeIsDecrementedOnTake() {
+		final var buff = new DelayedTransferConvertBuffer<Item, Operation<Item>>(100, 0, TimeUnit.SECONDS);
+		assertEquals(5, buff.put(ops(5)));
+		assertEquals(0.05, buff.fill(), 1e-9);
+		assertEquals("item0", buff.get().name());
+		assertEquals(0.04, buff.fill(), 1e-9);
+		assertEquals(2, buff.skip(2));
+		assertEquals(0.02, buff.fill(), 1e-9);
+		final List<Item> items = new ArrayList<>();
+		assertEquals(2, buff.get(items, 100));
+		assertEquals(List.of("item3", "item4"), names(items));
+		assertEquals(0, buff.fill(), 0);
+	}
+
+	@Test
+	public void testBatchPutBlocksWhileFull() throws Exception {
+		final var limit = 4;
+		final var count = 10;
+		final var buff = new DelayedTransferConvertBuffer<Item, Operation<Item>>(limit, 0, TimeUnit.SECONDS);
+		final var ops = ops(count);
+		final var putResult = CompletableFuture.supplyAsync(() -> buff.put(ops));
+		TimeUnit.MILLISECONDS.sleep(200);
+		// the buffer is full and nothing was taken yet
+		assertFalse(putResult.isDone());
+		assertEquals(1, buff.fill(), 0);
+		final List<Item> items = new ArrayList<>(count);
+		final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (items.size() < count && System.nanoTime() < deadline) {
+			buff.get(items, 1);
+			assertTrue(buff.fill() <= 1);
+		}
+		assertEquals(count, (int) putResult.get(10, TimeUnit.SECONDS));
+		final List<String> expectedNames = new ArrayList<>(count);
+		for (var i = 0; i < count; i++) {
+			expectedNames.add("item" + i);
+		}
+		assertEquals(expectedNames, names(items));
+	}
+}
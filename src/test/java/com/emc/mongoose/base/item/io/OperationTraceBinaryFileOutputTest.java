@@ -0,0 +1,152 @@
+package com.emc.mongoose.base.item.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.emc.mongoose.base.item.DataItem;
+import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.item.op.Operation;
+import com.emc.mongoose.base.item.op.data.DataOperation;
+import com.emc.mongoose.base.logging.OperationTraceCsvConverter;
+import com.emc.mongoose.base.logging.OperationTraceRecord;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class OperationTraceBinaryFileOutputTest {
+
+	private static final int RING_SIZE = 0x10_0000;
+
+	@SuppressWarnings("unchecked")
+	private static Operation<Item> op(final String nodeAddr, final String itemName, final long duration) {
+		final Item item = mock(Item.class, withSettings().stubOnly());
+		when(item.name()).thenReturn(itemName);
+		when(item.toString()).thenReturn(itemName);
+		final Operation<Item> op = mock(Operation.class, withSettings().stubOnly());
+		when(op.item()).thenReturn(item);
+		when(op.nodeAddr()).thenReturn(nodeAddr);
+		when(op.type()).thenReturn(OpType.READ);
+		when(op.status()).thenReturn(Operation.Status.SUCC);
+		when(op.reqTimeStart()).thenReturn(1_000_000L + duration);
+		when(op.duration()).thenReturn(duration);
+		when(op.latency()).thenReturn(duration / 2);
+		return op;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Operation<Item> dataOp(final String itemName, final long duration, final long size) {
+		final DataItem item = mock(DataItem.class);
+		when(item.name()).thenReturn(itemName);
+		when(item.toString()).thenReturn(itemName + ",0," + size);
+		final DataOperation<DataItem> op = mock(DataOperation.class);
+		when(op.item()).thenReturn(item);
+		when(op.nodeAddr()).thenReturn("10.0.0.1:9020");
+		when(op.type()).thenReturn(OpType.CREATE);
+		when(op.status()).thenReturn(Operation.Status.RESP_FAIL_NOT_FOUND);
+		when(op.reqTimeStart()).thenReturn(123L);
+		when(op.duration()).thenReturn(duration);
+		when(op.latency()).thenReturn(duration + 1);
+		when(op.dataLatency()).thenReturn(duration / 3);
+		when(op.countBytesDone()).thenReturn(size);
+		return (Operation<Item>) (Operation<?>) op;
+	}
+
+	private static List<OperationTraceRecord<?, ?>> readAll(final Path filePath) throws Exception {
+		final List<OperationTraceRecord<?, ?>> records = new ArrayList<>();
+		try (final var in = new OperationTraceBinaryFileInput(filePath)) {
+			OperationTraceRecord<?, ?> record;
+			while (null != (record = in.get())) {
+				records.add(record);
+			}
+		}
+		return records;
+	}
+
+	@Test
+	public void testRecordsEqualToTheTraceRecords() throws Exception {
+		final var filePath = Files.createTempDirectory(getClass().getSimpleName()).resolve("op.trace.bin");
+		final List<Operation<Item>> ops = List.of(
+						op("127.0.0.1", "/bucket/item0", 100),
+						op(null, "/bucket/\u0436\u20AC\u0000", 200),
+						dataOp("/bucket/item2", 300, 1024));
+		final var output = new OperationTraceBinaryFileOutput<Item, Operation<Item>>(filePath, RING_SIZE);
+		assertEquals(ops.size(), output.put(ops));
+		output.put((Operation<Item>) null);
+		final var records = readAll(filePath);
+		assertEquals(ops.size(), records.size());
+		final var expectedCsv = new StringBuilder();
+		for (var i = 0; i < ops.size(); i++) {
+			final var expected = new OperationTraceRecord<>(ops.get(i));
+			assertEquals(expected, records.get(i));
+			expected.format(expectedCsv);
+		}
+		final var actualCsv = new StringWriter();
+		assertEquals(ops.size(), OperationTraceCsvConverter.convert(filePath, actualCsv));
+		assertEquals(expectedCsv.toString(), actualCsv.toString());
+	}
+
+	@Test
+	public void testConcurrentProducersWrapAroundTheRing() throws Exception {
+		final var filePath = Files.createTempDirectory(getClass().getSimpleName()).resolve("op.trace.bin");
+		final var output = new OperationTraceBinaryFileOutput<Item, Operation<Item>>(filePath, RING_SIZE);
+		final var threadCount = 4;
+		final var opCountPerThread = 10_000;
+		final var opsByThread = new ArrayList<List<Operation<Item>>>();
+		for (var i = 0; i < threadCount; i++) {
+			final var ops = new ArrayList<Operation<Item>>();
+			for (var j = 0; j < 0x100; j++) {
+				// the different name lengths to get the different record sizes
+				ops.add(op("node" + i, "/bucket/" + "x".repeat(j % 50) + j, i * 1000 + j + 1));
+			}
+			opsByThread.add(ops);
+		}
+		final var executor = Executors.newFixedThreadPool(threadCount);
+		for (var i = 0; i < threadCount; i++) {
+			final var ops = opsByThread.get(i);
+			executor.submit(
+							() -> {
+								for (var j = 0; j < opCountPerThread; j++) {
+									output.put(ops.get(j % ops.size()));
+								}
+							});
+		}
+		executor.shutdown();
+		executor.awaitTermination(1, TimeUnit.MINUTES);
+		output.close();
+		final var records = readAll(filePath);
+		assertEquals(threadCount * opCountPerThread, records.size());
+		final Map<OperationTraceRecord<?, ?>, Integer> expectedCounts = new HashMap<>();
+		for (final var ops : opsByThread) {
+			for (var j = 0; j < opCountPerThread; j++) {
+				expectedCounts.merge(new OperationTraceRecord<>(ops.get(j % ops.size())), 1, Integer::sum);
+			}
+		}
+		final Map<OperationTraceRecord<?, ?>, Integer> actualCounts = new HashMap<>();
+		for (final var record : records) {
+			actualCounts.merge(record, 1, Integer::sum);
+		}
+		assertEquals(expectedCounts, actualCounts);
+	}
+
+	@Test
+	public void testClosedOutputRejectsTheTraces() throws Exception {
+		final var filePath = Files.createTempDirectory(getClass().getSimpleName()).resolve("op.trace.bin");
+		final var output = new OperationTraceBinaryFileOutput<Item, Operation<Item>>(filePath, RING_SIZE);
+		output.close();
+		assertEquals(0, output.put(List.of(op("127.0.0.1", "/bucket/item0", 100))));
+		try (final var in = new OperationTraceBinaryFileInput(filePath)) {
+			assertNull(in.get());
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.emc.mongoose.base.load.step.client;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+import com.emc.mongoose.base.load.step.file.FileManager;
+import com.emc.mongoose.base.load.step.file.FileManagerImpl;
+import com.emc.mongoose.base.load.step.service.file.FileManagerService;
+import com.emc.mongoose.base.load.step.service.file.FileManagerServiceImpl;
+import com.github.akurilov.confuse.Config;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class ItemDataInputFileSlicerTest {
+
+	private static final int CHUNK_SIZE = 0x10_0000;
+
+	private Path srcFilePath;
+	private byte[] data;
+
+	@Before
+	public void setUp() throws Exception {
+		data = new byte[5 * CHUNK_SIZE + 123];
+		new Random().nextBytes(data);
+		srcFilePath = Files.createTempFile(getClass().getSimpleName(), ".data");
+		Files.write(srcFilePath, data);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Files.deleteIfExists(Paths.get(FileManager.CACHE_DIR.toString(), ItemDataInputFileSlicer.digest(srcFilePath)));
+		Files.deleteIfExists(srcFilePath);
+	}
+
+	@Test
+	public void testDigest() throws Exception {
+		final var filePath = Files.createTempFile(getClass().getSimpleName(), ".txt");
+		try {
+			Files.write(filePath, "abc".getBytes(StandardCharsets.US_ASCII));
+			assertEquals(
+							"ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+							ItemDataInputFileSlicer.digest(filePath));
+		} finally {
+			Files.delete(filePath);
+		}
+	}
+
+	@Test
+	public void testTransferOnceThenReuse() throws Exception {
+		final var localFileMgr = new FileManagerImpl();
+		final var remoteFileMgr = mock(FileManagerService.class, delegatesTo(new FileManagerServiceImpl(0)));
+		final List<FileManager> fileMgrs = List.of(localFileMgr, remoteFileMgr);
+		final var localConfig = mock(Config.class);
+		final var remoteConfig = mock(Config.class);
+		final List<Config> configSlices = List.of(localConfig, remoteConfig);
+
+		try (final var slicer = new ItemDataInputFileSlicer("step0", fileMgrs, configSlices, srcFilePath.toString(), CHUNK_SIZE)) {
+			verify(remoteFileMgr, atLeastOnce()).writeToFile(anyString(), any());
+		}
+		final var fileNameCaptor = ArgumentCaptor.forClass(Object.class);
+		verify(remoteConfig).val(eq("item-data-input-file"), fileNameCaptor.capture());
+		final var cachedFileName = (String) fileNameCaptor.getValue();
+		assertTrue(cachedFileName, cachedFileName.startsWith(FileManager.CACHE_DIR.toString()));
+		assertArrayEquals(data, Files.readAllBytes(Paths.get(cachedFileName)));
+		// the local slice uses the source file
+		verify(localConfig, never()).val(anyString(), any());
+
+		// the next step: the file is not transferred again
+		final var nextRemoteFileMgr = mock(FileManagerService.class, delegatesTo(new FileManagerServiceImpl(0)));
+		final var nextRemoteConfig = mock(Config.class);
+		try (
+			final var slicer = new ItemDataInputFileSlicer(
+							"step1",
+							List.of(localFileMgr, nextRemoteFileMgr),
+							List.of(localConfig, nextRemoteConfig),
+							srcFilePath.toString(),
+							CHUNK_SIZE)
+		) {
+			verify(nextRemoteFileMgr, never()).writeToFile(anyString(), any());
+		}
+		verify(nextRemoteConfig).val("item-data-input-file", cachedFileName);
+		assertArrayEquals(data, Files.readAllBytes(Paths.get(cachedFileName)));
+	}
+
+	@Test
+	public void testTransferIfCacheCheckFails() throws Exception {
+		final var remoteFileMgr = mock(FileManagerService.class, delegatesTo(new FileManagerServiceImpl(0)));
+		doThrow(new IOException("test")).when(remoteFileMgr).cachedFile(anyString(), any(Long.class));
+		final var remoteConfig = mock(Config.class);
+		final String tmpFileName;
+		try (
+			final var slicer = new ItemDataInputFileSlicer(
+							"step0",
+							List.of(new FileManagerImpl(), remoteFileMgr),
+							List.of(mock(Config.class), remoteConfig),
+							srcFilePath.toString(),
+							CHUNK_SIZE)
+		) {
+			final var fileNameCaptor = ArgumentCaptor.forClass(Object.class);
+			verify(remoteConfig).val(eq("item-data-input-file"), fileNameCaptor.capture());
+			tmpFileName = (String) fileNameCaptor.getValue();
+			assertFalse(tmpFileName, tmpFileName.startsWith(FileManager.CACHE_DIR.toString()));
+			assertArrayEquals(data, Files.readAllBytes(Paths.get(tmpFileName)));
+			verify(remoteFileMgr, never()).cacheFile(anyString(), anyString());
+		}
+		// the uncached file is deleted after the load step
+		assertFalse(Files.exists(Paths.get(tmpFileName)));
+	}
+}
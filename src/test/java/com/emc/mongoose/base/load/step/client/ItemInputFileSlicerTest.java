@@ -0,0 +1,132 @@
+package com.emc.mongoose.base.load.step.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.emc.mongoose.base.item.DataItemFactoryImpl;
+import com.emc.mongoose.base.item.DataItemImpl;
+import com.emc.mongoose.base.item.io.CsvFileItemInput;
+import com.emc.mongoose.base.load.step.client.ItemInputFileSlicer.Partitioning;
+import com.emc.mongoose.base.load.step.file.FileManager;
+import com.emc.mongoose.base.load.step.file.FileManagerImpl;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ItemInputFileSlicerTest {
+
+	private static final int SLICE_COUNT = 3;
+	private static final int BATCH_SIZE = 100;
+	private static final int CHUNK_SIZE = 1_000;
+
+	private final List<FileManager> fileMgrs = new ArrayList<>(SLICE_COUNT);
+	private ExecutorService executor;
+	private Path dirPath;
+
+	@Before
+	public void setUp() throws Exception {
+		for (var i = 0; i < SLICE_COUNT; i++) {
+			fileMgrs.add(new FileManagerImpl());
+		}
+		executor = Executors.newFixedThreadPool(SLICE_COUNT);
+		dirPath = Files.createTempDirectory(getClass().getSimpleName());
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	private Path writeItems(final int count) throws Exception {
+		final var strb = new StringBuilder();
+		for (var i = 0; i < count; i++) {
+			strb.append(new DataItemImpl("item" + i, i, 1024).toString()).append('\n');
+		}
+		final var filePath = dirPath.resolve("items.csv");
+		Files.write(filePath, strb.toString().getBytes(StandardCharsets.UTF_8));
+		return filePath;
+	}
+
+	private Map<FileManager, String> scatter(final Path srcFilePath, final Partitioning partitioning, final String tag)
+					throws Exception {
+		final Map<FileManager, String> fileSlices = new HashMap<>();
+		for (var i = 0; i < SLICE_COUNT; i++) {
+			fileSlices.put(fileMgrs.get(i), dirPath.resolve(tag + i + ".csv").toString());
+		}
+		try (final var itemInput = new CsvFileItemInput<>(srcFilePath, new DataItemFactoryImpl<DataItemImpl>())) {
+			ItemInputFileSlicer.scatterItems(
+							itemInput, fileMgrs, fileSlices, partitioning, BATCH_SIZE, CHUNK_SIZE, executor);
+		}
+		return fileSlices;
+	}
+
+	private List<String> names(final String fileName) throws Exception {
+		final List<String> names = new ArrayList<>();
+		try (final var itemInput = new CsvFileItemInput<>(Paths.get(fileName), new DataItemFactoryImpl<DataItemImpl>())) {
+			DataItemImpl item;
+			while (null != (item = itemInput.get())) {
+				names.add(item.name());
+				assertEquals(1024, item.size());
+			}
+		}
+		return names;
+	}
+
+	@Test
+	public void testRoundRobin() throws Exception {
+		final var count = 10_001;
+		final var fileSlices = scatter(writeItems(count), Partitioning.ROUNDROBIN, "rr");
+		for (var i = 0; i < SLICE_COUNT; i++) {
+			final var names = names(fileSlices.get(fileMgrs.get(i)));
+			assertEquals((count - i + SLICE_COUNT - 1) / SLICE_COUNT, names.size());
+			for (var j = 0; j < names.size(); j++) {
+				assertEquals("item" + (j * SLICE_COUNT + i), names.get(j));
+			}
+		}
+	}
+
+	@Test
+	public void testHashIsReproducible() throws Exception {
+		final var count = 10_000;
+		final var srcFilePath = writeItems(count);
+		final var fileSlices1 = scatter(srcFilePath, Partitioning.HASH, "hash1-");
+		final var fileSlices2 = scatter(srcFilePath, Partitioning.HASH, "hash2-");
+		var total = 0;
+		for (final var fileMgr : fileMgrs) {
+			final var names = names(fileSlices1.get(fileMgr));
+			assertEquals(names, names(fileSlices2.get(fileMgr)));
+			// the distribution is roughly even
+			assertTrue(Integer.toString(names.size()), names.size() > count / SLICE_COUNT * 9 / 10);
+			total += names.size();
+		}
+		assertEquals(count, total);
+	}
+
+	@Test
+	public void testEmptySlices() throws Exception {
+		final var fileSlices = scatter(writeItems(1), Partitioning.ROUNDROBIN, "empty");
+		assertEquals(List.of("item0"), names(fileSlices.get(fileMgrs.get(0))));
+		for (var i = 1; i < SLICE_COUNT; i++) {
+			final var fileName = fileSlices.get(fileMgrs.get(i));
+			assertTrue(Files.exists(Paths.get(fileName)));
+			assertEquals(0, Files.size(Paths.get(fileName)));
+		}
+	}
+
+	@Test
+	public void testPartitioningOf() {
+		assertEquals(Partitioning.ROUNDROBIN, Partitioning.of(null));
+		assertEquals(Partitioning.ROUNDROBIN, Partitioning.of("round-robin"));
+		assertEquals(Partitioning.HASH, Partitioning.of("hash"));
+	}
+}
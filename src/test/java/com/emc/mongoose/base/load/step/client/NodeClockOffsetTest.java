@@ -0,0 +1,119 @@
+package com.emc.mongoose.base.load.step.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.emc.mongoose.base.item.io.OperationTraceBinaryFileInput;
+import com.emc.mongoose.base.item.io.OperationTraceBinaryFileOutput;
+import com.emc.mongoose.base.logging.OperationTraceRecord;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class NodeClockOffsetTest {
+
+	private static final long OFFSET = -123_456_789L;
+
+	@Test
+	public void testSampleUsesMinRoundTrip() throws Exception {
+		// the request and the response delays, only the 3rd round trip is symmetric and the shortest
+		final long[] reqDelays = {500, 100, 20, 10, 300};
+		final long[] respDelays = {100, 900, 20, 200, 10};
+		final long[] now = {1_000_000};
+		final int[] i = {0};
+		final var sample = NodeClockOffset.sample(
+						() -> now[0],
+						() -> {
+							now[0] += reqDelays[i[0]];
+							final var remoteTime = now[0] + OFFSET;
+							now[0] += respDelays[i[0]];
+							i[0]++;
+							return remoteTime;
+						},
+						reqDelays.length);
+		assertEquals(reqDelays.length, i[0]);
+		assertEquals(OFFSET, sample.offsetMicros());
+		assertEquals(40, sample.roundTripMicros());
+		assertEquals(20, NodeClockOffset.of(sample, null).errorMicros());
+	}
+
+	@Test
+	public void testDrift() {
+		final var first = new NodeClockOffset.Sample(1_000_000, OFFSET, 100);
+		// +100 ppm
+		final var last = new NodeClockOffset.Sample(11_000_000, OFFSET + 1_000, 300);
+		final var clockOffset = NodeClockOffset.of(first, last);
+		assertEquals(0.0001, clockOffset.drift(), 1e-12);
+		assertEquals(150, clockOffset.errorMicros());
+		assertEquals(1_000_000, clockOffset.toLocal(1_000_000 + OFFSET));
+		assertEquals(6_000_000, clockOffset.toLocal(6_000_000 + OFFSET + 500));
+		assertEquals(11_000_000, clockOffset.toLocal(11_000_000 + OFFSET + 1_000));
+		// no drift if the last sample is not available
+		assertEquals(6_000_000, NodeClockOffset.of(first, null).toLocal(6_000_000 + OFFSET));
+	}
+
+	@Test
+	public void testAlignCsvLines() {
+		final var clockOffset = NodeClockOffset.of(new NodeClockOffset.Sample(0, 1_000, 0), null);
+		final var lines = "10.0.0.1:9020,/bucket/item0,1,0,1500,100,50,,1024\n"
+						+ "10.0.0.1:9020,/bucket/item,with,commas,1,0,2500,100,50,70,1024\n"
+						+ ",,0,5,,,,,\n"
+						+ "not a trace record\n"
+						+ "10.0.0.2:9020,/bucket/item1,1,0,3500,100,50,,";
+		assertEquals(
+						"10.0.0.1:9020,/bucket/item0,1,0,500,100,50,,1024\n"
+										+ "10.0.0.1:9020,/bucket/item,with,commas,1,0,1500,100,50,70,1024\n"
+										+ ",,0,5,,,,,\n"
+										+ "not a trace record\n"
+										+ "10.0.0.2:9020,/bucket/item1,1,0,2500,100,50,,",
+						OpTraceLogFileAggregator.alignTimestamps(lines, clockOffset));
+	}
+
+	@Test
+	public void testAlignBinaryRecords() throws Exception {
+		final var filePath = Files.createTempDirectory(getClass().getSimpleName())
+						.resolve(OperationTraceBinaryFileOutput.FILE_NAME);
+		final List<OperationTraceRecord<?, ?>> records = new ArrayList<>();
+		for (var i = 0; i < 1_000; i++) {
+			records.add(
+							new OperationTraceRecord<>(
+											"10.0.0." + (i % 10) + ":9020",
+											"/bucket/item" + "x".repeat(i % 37) + i,
+											i % 4,
+											i % 7,
+											i == 0 ? -1 : 1_000_000 + i,
+											100 + i,
+											50,
+											-1,
+											i));
+		}
+		try (final var output = new OperationTraceBinaryFileOutput<>(filePath)) {
+			for (final var record : records) {
+				output.putRecord(record);
+			}
+		}
+		final var data = Files.readAllBytes(filePath);
+		final var alignedData = new ByteArrayOutputStream(data.length);
+		final var clockOffset = NodeClockOffset.of(new NodeClockOffset.Sample(0, 1_000, 0), null);
+		final var aligningOutput = new OpTraceBinaryFileAggregator.TimestampAligningOutput(alignedData, clockOffset);
+		// the chunks boundaries don't match the records boundaries
+		for (var off = 0; off < data.length; off += 13) {
+			aligningOutput.accept(data, off, Math.min(13, data.length - off));
+		}
+		aligningOutput.flush();
+		Files.write(filePath, alignedData.toByteArray());
+		try (final var input = new OperationTraceBinaryFileInput(filePath)) {
+			for (final var record : records) {
+				final var alignedRecord = input.get();
+				assertEquals(record.itemPath(), alignedRecord.itemPath());
+				assertEquals(record.duration(), alignedRecord.duration());
+				assertEquals(
+								record.reqTimeStart() > 0 ? record.reqTimeStart() - 1_000 : record.reqTimeStart(),
+								alignedRecord.reqTimeStart());
+			}
+			assertNull(input.get());
+		}
+	}
+}
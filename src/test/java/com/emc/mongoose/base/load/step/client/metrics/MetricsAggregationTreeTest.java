@@ -0,0 +1,137 @@
+package com.emc.mongoose.base.load.step.client.metrics;
+
+import static com.emc.mongoose.base.load.step.client.metrics.MetricsAggregationTreeUtil.ENTRY_NODE_INDEX;
+import static com.emc.mongoose.base.load.step.client.metrics.MetricsAggregationTreeUtil.childIndices;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.emc.mongoose.base.load.step.LoadStep;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.ConcurrencyMetricSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshotImpl;
+import com.emc.mongoose.base.metrics.type.LogLinearHistogramImpl;
+import com.github.akurilov.confuse.Config;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class MetricsAggregationTreeTest {
+
+	@Test
+	public void testEachNodeIsCollectedOnce() {
+		for (final var nodeCount : new int[] {1, 2, 3, 10, 100, 257}) {
+			for (final var fanOut : new int[] {1, 2, 8, 16}) {
+				final var collectedFlags = new boolean[nodeCount];
+				final List<Integer> nodeIndices = new ArrayList<>(childIndices(ENTRY_NODE_INDEX, nodeCount, fanOut));
+				var depth = 0;
+				while (!nodeIndices.isEmpty()) {
+					final List<Integer> nextNodeIndices = new ArrayList<>();
+					for (final int nodeIndex : nodeIndices) {
+						assertTrue(nodeIndex + " is collected twice", !collectedFlags[nodeIndex]);
+						collectedFlags[nodeIndex] = true;
+						final var children = childIndices(nodeIndex, nodeCount, fanOut);
+						assertTrue(children.size() <= fanOut);
+						nextNodeIndices.addAll(children);
+					}
+					nodeIndices.clear();
+					nodeIndices.addAll(nextNodeIndices);
+					depth++;
+				}
+				for (var i = 0; i < nodeCount; i++) {
+					assertTrue("node #" + i + " is not collected", collectedFlags[i]);
+				}
+				if (fanOut > 1) {
+					assertTrue(depth <= 1 + Math.log(nodeCount) / Math.log(fanOut));
+				}
+			}
+		}
+	}
+
+	private static AllMetricsSnapshot snapshot(final Random rnd, final long elapsedTimeMillis) {
+		final var histogram = new LogLinearHistogramImpl();
+		final var count = 1 + rnd.nextInt(1000);
+		long sum = 0;
+		for (var i = 0; i < count; i++) {
+			final var value = 1 + rnd.nextInt(1_000_000);
+			histogram.update(value);
+			sum += value;
+		}
+		final var histogramSnapshot = histogram.snapshot();
+		return new AllMetricsSnapshotImpl(
+						new TimingMetricSnapshotImpl(
+										sum, count, 1, 1_000_000, (double) sum / count, histogramSnapshot, histogramSnapshot, "duration"),
+						new TimingMetricSnapshotImpl(sum / 10, count, 0, 100_000, (double) sum / count / 10, "latency"),
+						new ConcurrencyMetricSnapshotImpl("concurrency", 10, 9.5),
+						new RateMetricSnapshotImpl(0, 0, "failures", 0, elapsedTimeMillis),
+						new RateMetricSnapshotImpl(1.5, count * 1000.0 / elapsedTimeMillis, "successes", count, elapsedTimeMillis),
+						new RateMetricSnapshotImpl(1e6, 2e6, "bytes", (long) count << 20, elapsedTimeMillis),
+						elapsedTimeMillis);
+	}
+
+	// merge the snapshots the same way as the aggregation tree does
+	private static AllMetricsSnapshot aggregateByTree(
+					final int nodeIndex, final List<AllMetricsSnapshot> nodeSnapshots, final int fanOut) {
+		final List<AllMetricsSnapshot> snapshots = new ArrayList<>();
+		for (final int childIndex : childIndices(nodeIndex, nodeSnapshots.size(), fanOut)) {
+			snapshots.add(aggregateByTree(childIndex, nodeSnapshots, fanOut));
+		}
+		if (ENTRY_NODE_INDEX != nodeIndex) {
+			snapshots.add(nodeSnapshots.get(nodeIndex));
+		}
+		return AllMetricsSnapshotImpl.aggregate(snapshots);
+	}
+
+	@Test
+	public void testTreeAggregationIsTheSameAsFlat() {
+		final var rnd = new Random(1);
+		final List<AllMetricsSnapshot> nodeSnapshots = new ArrayList<>();
+		for (var i = 0; i < 50; i++) {
+			nodeSnapshots.add(snapshot(rnd, 10_000 + rnd.nextInt(100)));
+		}
+		final var flat = AllMetricsSnapshotImpl.aggregate(nodeSnapshots);
+		final var tree = aggregateByTree(ENTRY_NODE_INDEX, nodeSnapshots, 3);
+		assertEquals(flat.elapsedTimeMillis(), tree.elapsedTimeMillis());
+		assertEquals(flat.successSnapshot().count(), tree.successSnapshot().count());
+		assertEquals(flat.successSnapshot().mean(), tree.successSnapshot().mean(), 1e-6);
+		assertEquals(flat.byteSnapshot().count(), tree.byteSnapshot().count());
+		assertEquals(flat.concurrencySnapshot().last(), tree.concurrencySnapshot().last());
+		final var flatDur = flat.durationSnapshot();
+		final var treeDur = tree.durationSnapshot();
+		assertEquals(flatDur.count(), treeDur.count());
+		assertEquals(flatDur.sum(), treeDur.sum());
+		assertEquals(flatDur.min(), treeDur.min());
+		assertEquals(flatDur.max(), treeDur.max());
+		assertArrayEquals(flatDur.histogramSnapshot().bucketIndices(), treeDur.histogramSnapshot().bucketIndices());
+		assertArrayEquals(flatDur.histogramSnapshot().bucketCounts(), treeDur.histogramSnapshot().bucketCounts());
+		for (final var q : new double[] {0.5, 0.9, 0.99}) {
+			assertEquals(flatDur.histogramSnapshot().quantile(q), treeDur.histogramSnapshot().quantile(q));
+		}
+	}
+
+	@Test
+	public void testRefreshFetchesTheLatestSnapshots() throws Exception {
+		final var rnd = new Random(1);
+		final var snapshot1 = snapshot(rnd, 1_000);
+		final var snapshot2 = snapshot(rnd, 2_000);
+		final var loadStep = mock(LoadStep.class);
+		// the closed supplier clears the last snapshots list
+		doReturn(new ArrayList<>(List.of(snapshot1))).doReturn(new ArrayList<>(List.of(snapshot2))).when(loadStep).metricsSnapshots();
+		final var metricsConfig = mock(Config.class);
+		when(metricsConfig.intVal("average-aggregation-period")).thenReturn(1_000_000);
+		try (final var aggregator = new MetricsAggregatorImpl("test", List.of(loadStep), metricsConfig)) {
+			assertTrue(aggregator.metricsSnapshotsByIndex(0).isEmpty());
+			aggregator.refresh();
+			assertEquals(List.of(snapshot1), aggregator.metricsSnapshotsByIndex(0));
+			// the period is not over yet but the snapshots are fetched
+			aggregator.refresh();
+			assertEquals(List.of(snapshot2), aggregator.metricsSnapshotsByIndex(0));
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.emc.mongoose.base.load.step.file;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+import org.junit.Test;
+
+public class FileManagerImplTest {
+
+	@Test
+	public void testReadBinaryFile() throws Exception {
+		final var data = new byte[1_000_000];
+		new Random(1).nextBytes(data);
+		// no line breaks in the 1st half, some line breaks in the 2nd half
+		for (var i = 0; i < data.length / 2; i++) {
+			if (data[i] == '\n') {
+				data[i] = 0;
+			}
+		}
+		final var fileMgr = new FileManagerImpl();
+		final var filePath = Files.createTempFile(getClass().getSimpleName(), ".bin");
+		try {
+			fileMgr.writeToFile(filePath.toString(), data);
+			final var out = new ByteArrayOutputStream(data.length);
+			try {
+				while (true) {
+					out.write(fileMgr.readFromFile(filePath.toString(), out.size()));
+				}
+			} catch (final EOFException ok) {}
+			assertArrayEquals(data, out.toByteArray());
+		} finally {
+			fileMgr.deleteFile(filePath.toString());
+		}
+	}
+
+	@Test
+	public void testEvictCachedFiles() throws Exception {
+		final var cacheDir = Files.createTempDirectory(getClass().getSimpleName());
+		try {
+			final var now = System.currentTimeMillis();
+			// the file #0 is the least recently used
+			for (var i = 0; i < 4; i++) {
+				final var filePath = cacheDir.resolve("file" + i);
+				Files.write(filePath, new byte[100]);
+				Files.setLastModifiedTime(filePath, FileTime.fromMillis(now - 10_000 + i * 1_000));
+			}
+			FileManagerImpl.evictCachedFiles(cacheDir, cacheDir.resolve("file3"), 250);
+			assertFalse(Files.exists(cacheDir.resolve("file0")));
+			assertFalse(Files.exists(cacheDir.resolve("file1")));
+			assertTrue(Files.exists(cacheDir.resolve("file2")));
+			assertTrue(Files.exists(cacheDir.resolve("file3")));
+			// the kept file is not deleted even if it doesn't fit the limit alone
+			FileManagerImpl.evictCachedFiles(cacheDir, cacheDir.resolve("file2"), 50);
+			assertTrue(Files.exists(cacheDir.resolve("file2")));
+			assertFalse(Files.exists(cacheDir.resolve("file3")));
+			try (final var dirStream = Files.list(cacheDir)) {
+				assertEquals(1, dirStream.count());
+			}
+		} finally {
+			try (final var dirStream = Files.list(cacheDir)) {
+				for (final var filePath : (Iterable<Path>) dirStream::iterator) {
+					Files.delete(filePath);
+				}
+			}
+			Files.delete(cacheDir);
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.emc.mongoose.base.load.step.file;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileTransferTest {
+
+	private final FileManagerImpl fileMgr = new FileManagerImpl();
+	private ExecutorService executor;
+	private Path dirPath;
+
+	@Before
+	public void setUp() throws Exception {
+		executor = Executors.newCachedThreadPool();
+		dirPath = Files.createTempDirectory(getClass().getSimpleName());
+	}
+
+	@After
+	public void tearDown() {
+		fileMgr.closeFiles();
+		executor.shutdownNow();
+	}
+
+	private String writeFile(final byte[] data) throws Exception {
+		final var fileName = Files.createTempFile(dirPath, "transfer", null).toString();
+		fileMgr.writeToFile(fileName, data);
+		return fileName;
+	}
+
+	@Test
+	public void testTransfer() throws Exception {
+		final var data = new byte[1_000_003];
+		new Random(1).nextBytes(data);
+		// make the data compressible
+		for (var i = 0; i < data.length; i += 2) {
+			data[i] = 0;
+		}
+		final var fileName = writeFile(data);
+		for (final var compress : new boolean[] {false, true}) {
+			for (final var chunkSize : new int[] {1, 1_000, 0x10_0000}) {
+				for (final var pipelineDepth : new int[] {1, 4}) {
+					if (chunkSize == 1 && compress) {
+						continue;
+					}
+					final var out = new ByteArrayOutputStream(data.length);
+					final var transfer = new FileTransfer(chunkSize, compress, pipelineDepth);
+					assertEquals(data.length, transfer.transfer(fileMgr, fileName, executor, out::write));
+					assertArrayEquals(data, out.toByteArray());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testTransferExactChunks() throws Exception {
+		final var data = new byte[4_000];
+		new Random(2).nextBytes(data);
+		final var fileName = writeFile(data);
+		final var out = new ByteArrayOutputStream();
+		assertEquals(data.length, new FileTransfer(1_000, false, 3).transfer(fileMgr, fileName, executor, out::write));
+		assertArrayEquals(data, out.toByteArray());
+		final var emptyFileName = writeFile(new byte[0]);
+		assertEquals(0, new FileTransfer(1_000, true, 3).transfer(fileMgr, emptyFileName, executor, out::write));
+	}
+
+	@Test
+	public void testTransferLines() throws Exception {
+		final var text = new StringBuilder();
+		for (var i = 0; i < 10_000; i++) {
+			text.append("line #").append(i).append(",").append("x".repeat(i % 100)).append('\n');
+		}
+		text.append("the last line without the line break");
+		final var data = text.toString().getBytes(StandardCharsets.US_ASCII);
+		final var fileName = writeFile(data);
+		final List<String> chunks = new ArrayList<>();
+		final var transfer = new FileTransfer(100, true, 4);
+		assertEquals(
+						data.length,
+						transfer.transferLines(
+										fileMgr,
+										fileName,
+										executor,
+										(buff, off, len) -> chunks.add(new String(buff, off, len, StandardCharsets.US_ASCII))));
+		for (var i = 0; i < chunks.size() - 1; i++) {
+			assertTrue(chunks.get(i), chunks.get(i).endsWith("\n"));
+		}
+		assertEquals("the last line without the line break", chunks.get(chunks.size() - 1));
+		assertEquals(text.toString(), String.join("", chunks));
+	}
+
+	@Test
+	public void testReadFromFileAfterAppends() throws Exception {
+		final var fileName = writeFile("abc\nde".getBytes(StandardCharsets.US_ASCII));
+		assertArrayEquals("abc\n".getBytes(StandardCharsets.US_ASCII), fileMgr.readFromFile(fileName, 0));
+		// the same file handle is used for the subsequent appends
+		fileMgr.writeToFile(fileName, "f\ngh".getBytes(StandardCharsets.US_ASCII));
+		assertEquals(10, fileMgr.fileSize(fileName));
+		assertArrayEquals("def\n".getBytes(StandardCharsets.US_ASCII), fileMgr.readFromFile(fileName, 4));
+		// no line breaks: all the remaining bytes
+		assertArrayEquals("gh".getBytes(StandardCharsets.US_ASCII), fileMgr.readFromFile(fileName, 8));
+		try {
+			fileMgr.readFromFile(fileName, 10);
+			fail();
+		} catch (final EOFException expected) {}
+		assertArrayEquals("gh".getBytes(StandardCharsets.US_ASCII), fileMgr.readChunk(fileName, 8, 100, false));
+		fileMgr.deleteFile(fileName);
+		assertTrue(Files.notExists(Path.of(fileName)));
+	}
+}
@@ -0,0 +1,131 @@
+package com.emc.mongoose.base.load.step.lease;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.Test;
+
+public class OpCountLeaseTest {
+
+	@Test
+	public void testCoordinatorConcurrentLeases() throws Exception {
+		final var countLimit = 1_000_003L;
+		final var coordinator = new OpCountLeaseCoordinatorImpl(countLimit);
+		final var leasedCount = new LongAdder();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<?>> results = new ArrayList<>();
+			for (var i = 0; i < 4; i++) {
+				results.add(
+								executor.submit(
+												() -> {
+													long n;
+													while (0 < (n = coordinator.lease(100))) {
+														assertTrue(n <= 100);
+														leasedCount.add(n);
+													}
+												}));
+			}
+			for (final var result : results) {
+				result.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(countLimit, leasedCount.sum());
+		assertEquals(0, coordinator.remaining());
+		assertEquals(0, coordinator.lease(1));
+	}
+
+	// consume the operations count as fast as the lease allows, sleeping between the operations
+	private static long consume(final OpCountLease lease, final long opDurationMicros) throws Exception {
+		long usedCount = 0;
+		while (!lease.isReached(usedCount)) {
+			if (usedCount < lease.limit(usedCount)) {
+				usedCount++;
+				if (opDurationMicros > 0) {
+					TimeUnit.MICROSECONDS.sleep(opDurationMicros);
+				}
+			} else {
+				Thread.yield();
+			}
+		}
+		return usedCount;
+	}
+
+	@Test
+	public void testLeaseIsExtendedUntilExhausted() throws Exception {
+		final var countLimit = 12_345L;
+		final var coordinator = new OpCountLeaseCoordinatorImpl(countLimit);
+		try (final var lease = new OpCountLease(coordinator, 100)) {
+			assertFalse(lease.isReached(0));
+			assertEquals(countLimit, consume(lease, 0));
+			assertTrue(lease.isReached(countLimit));
+			assertEquals(countLimit, lease.limit(countLimit));
+		}
+	}
+
+	@Test
+	public void testFasterSliceTakesMore() throws Exception {
+		final var countLimit = 2_000L;
+		final var coordinator = new OpCountLeaseCoordinatorImpl(countLimit);
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try (final var fastLease = new OpCountLease(coordinator, 10);
+						final var slowLease = new OpCountLease(coordinator, 10)) {
+			final var fastResult = executor.submit(() -> consume(fastLease, 0));
+			final var slowResult = executor.submit(() -> consume(slowLease, 1_000));
+			final long fastCount = fastResult.get();
+			final long slowCount = slowResult.get();
+			assertEquals(countLimit, fastCount + slowCount);
+			assertTrue(fastCount + " vs " + slowCount, fastCount > slowCount);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testFailedLeaseIsRetried() throws Exception {
+		final var countLimit = 1_000L;
+		final var coordinator = new OpCountLeaseCoordinatorImpl(countLimit);
+		final var callCount = new AtomicInteger(0);
+		// every 3rd request fails before the grant, every 3rd one fails after the grant (the response is lost)
+		final OpCountLeaseCoordinator flakyCoordinator = (leaseId, seqNum, count) -> {
+			final var i = callCount.incrementAndGet();
+			if (i % 3 == 1) {
+				throw new RemoteException("test");
+			}
+			final var granted = coordinator.lease(leaseId, seqNum, count);
+			if (i % 3 == 2) {
+				throw new RemoteException("test");
+			}
+			return granted;
+		};
+		try (final var lease = new OpCountLease(flakyCoordinator, 100, 1)) {
+			assertEquals(countLimit, consume(lease, 0));
+		}
+		assertEquals(0, coordinator.remaining());
+	}
+
+	@Test
+	public void testLeaseIsFinalAfterRetries() throws Exception {
+		final var callCount = new AtomicInteger(0);
+		final OpCountLeaseCoordinator failingCoordinator = (leaseId, seqNum, count) -> {
+			callCount.incrementAndGet();
+			throw new RemoteException("test");
+		};
+		try (final var lease = new OpCountLease(failingCoordinator, 100, 1)) {
+			assertEquals(0, consume(lease, 0));
+		}
+		assertEquals(OpCountLease.RETRY_COUNT_MAX + 1, callCount.get());
+	}
+}
@@ -0,0 +1,150 @@
+package com.emc.mongoose.base.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.io.OperationTraceBinaryFileOutput;
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.item.op.Operation;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OperationTraceAnalyzerTest {
+
+	private static final int COUNT = 10_000;
+	private static final long TIME_START = 1_500_000_000_000_000L;
+	private static final long TIME_BUCKET_SIZE = TimeUnit.SECONDS.toMicros(1);
+
+	private ForkJoinPool pool;
+	private Path dirPath;
+
+	@Before
+	public void setUp() throws Exception {
+		pool = new ForkJoinPool(4);
+		dirPath = Files.createTempDirectory(getClass().getSimpleName());
+	}
+
+	@After
+	public void tearDown() {
+		pool.shutdownNow();
+	}
+
+	/** 2 nodes, READ and CREATE, every 10th failed, 1000 records per second, durations from 1 to 1000 us */
+	private static List<OperationTraceRecord<?, ?>> records() {
+		final List<OperationTraceRecord<?, ?>> records = new ArrayList<>(COUNT);
+		for (var i = 0; i < COUNT; i++) {
+			records.add(
+							new OperationTraceRecord<>(
+											i % 2 == 0 ? "10.0.0.1:9020" : "10.0.0.2:9020",
+											"/bucket/item" + i,
+											(i % 4 < 2 ? OpType.READ : OpType.CREATE).ordinal(),
+											(i % 10 == 0 ? Operation.Status.FAIL_IO : Operation.Status.SUCC).ordinal(),
+											TIME_START + i * 1_000L,
+											i % 1000 + 1,
+											i % 1000 < 500 ? i % 1000 + 1 : -1,
+											-1,
+											1024));
+		}
+		return records;
+	}
+
+	private Path writeCsv(final List<OperationTraceRecord<?, ?>> records) throws Exception {
+		final var strb = new StringBuilder();
+		records.forEach(record -> record.format(strb));
+		final var filePath = dirPath.resolve("op.trace.csv");
+		Files.write(filePath, strb.toString().getBytes(StandardCharsets.UTF_8));
+		return filePath;
+	}
+
+	private static void assertExpected(final OperationTraceAnalyzer.Result result) {
+		assertEquals(0, result.skippedCount());
+		final var total = result.total();
+		assertEquals(COUNT, total.count());
+		assertEquals(COUNT * 1024L, total.transferSizeSum());
+		assertEquals((COUNT - 1) * 1_000L + 1000, total.elapsedTime());
+		assertEquals(500, total.durationMean());
+		assertEquals(500, total.durationSnapshot().quantile(0.5), 4);
+		assertEquals(990, total.durationSnapshot().quantile(0.99), 8);
+		assertEquals(COUNT / 2, total.latencySnapshot().count());
+		assertEquals(250, total.latencyMean());
+		final var byNode = result.byNode();
+		assertEquals(2, byNode.size());
+		assertEquals(COUNT / 2, byNode.get("10.0.0.1:9020").count());
+		assertEquals(COUNT / 2, byNode.get("10.0.0.2:9020").count());
+		final var byOpType = result.byOpType();
+		assertEquals(2, byOpType.size());
+		assertEquals(COUNT / 2, byOpType.get(OpType.READ.name()).count());
+		assertEquals(COUNT / 2, byOpType.get(OpType.CREATE.name()).count());
+		final var byStatus = result.byStatus();
+		assertEquals(2, byStatus.size());
+		assertEquals(COUNT / 10, byStatus.get(Operation.Status.FAIL_IO.name()).count());
+		assertEquals(COUNT - COUNT / 10, byStatus.get(Operation.Status.SUCC.name()).count());
+		final var byTimeBucket = result.byTimeBucket();
+		assertEquals(COUNT / 1000, byTimeBucket.size());
+		var bucketStart = TIME_START;
+		for (final var e : byTimeBucket.entrySet()) {
+			assertEquals(bucketStart, (long) e.getKey());
+			assertEquals(1000, e.getValue().count());
+			bucketStart += TIME_BUCKET_SIZE;
+		}
+	}
+
+	@Test
+	public void testCsvChunks() throws Exception {
+		final var filePath = writeCsv(records());
+		// the chunks are smaller than some lines
+		for (final var chunkSize : new long[] {50, 1_000, 0x10_0000}) {
+			final var result = OperationTraceAnalyzer.analyze(List.of(filePath), TIME_BUCKET_SIZE, chunkSize, pool);
+			assertExpected(result);
+		}
+	}
+
+	@Test
+	public void testCsvSkipInvalidLines() throws Exception {
+		final var filePath = dirPath.resolve("op.trace.csv");
+		Files.write(
+						filePath,
+						("StorageNode,ItemPath,OpType,Status,ReqTimeStart[us],Duration[us]\r\n"
+										+ "127.0.0.1,/item0,1,4,1000000,100,50,,1024\r\n"
+										+ "\r\n"
+										+ "127.0.0.1,/item1,1,4,1000100,200,,,\r\n"
+										+ "garbage\n"
+										+ ",/item2,1,4,1000200,300,,,0")
+										.getBytes(StandardCharsets.US_ASCII));
+		final var result = OperationTraceAnalyzer.analyze(List.of(filePath), TIME_BUCKET_SIZE, pool);
+		assertEquals(2, result.skippedCount());
+		assertEquals(3, result.total().count());
+		assertEquals(1024, result.total().transferSizeSum());
+		assertEquals(200, result.total().durationMean());
+		assertEquals(1, result.total().latencySnapshot().count());
+		assertEquals(2, result.byNode().get("127.0.0.1").count());
+		assertEquals(1, result.byNode().get("").count());
+	}
+
+	@Test
+	public void testBinaryAndCsvTogether() throws Exception {
+		final var records = records();
+		final var csvFilePath = writeCsv(records.subList(0, COUNT / 2));
+		final var binFilePath = dirPath.resolve("op.trace.bin");
+		final var output = new OperationTraceBinaryFileOutput<Item, Operation<Item>>(binFilePath);
+		records.subList(COUNT / 2, COUNT).forEach(output::putRecord);
+		output.put((Operation<Item>) null);
+		final var result = OperationTraceAnalyzer.analyze(List.of(csvFilePath, binFilePath), TIME_BUCKET_SIZE, pool);
+		assertExpected(result);
+		final var strb = new StringBuilder();
+		OperationTraceAnalyzer.format(result, strb);
+		final var text = strb.toString();
+		assertTrue(text, text.startsWith("Operation traces analysis: " + COUNT + " records, 0 lines skipped"));
+		assertTrue(text, text.contains("10.0.0.2:9020"));
+		assertTrue(text, text.contains(Operation.Status.FAIL_IO.name()));
+	}
+}
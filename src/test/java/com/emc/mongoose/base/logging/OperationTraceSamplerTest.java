@@ -0,0 +1,185 @@
+package com.emc.mongoose.base.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.item.op.Operation;
+import com.emc.mongoose.base.metrics.context.MetricsContext;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshot;
+import com.github.akurilov.confuse.Config;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class OperationTraceSamplerTest {
+
+	@SuppressWarnings("unchecked")
+	private static Operation<Item> op(final int i, final Operation.Status status, final long duration) {
+		final Item item = mock(Item.class, withSettings().stubOnly());
+		when(item.toString()).thenReturn("/item" + i);
+		final Operation<Item> op = mock(Operation.class, withSettings().stubOnly());
+		when(op.item()).thenReturn(item);
+		when(op.type()).thenReturn(OpType.READ);
+		when(op.status()).thenReturn(status);
+		when(op.reqTimeStart()).thenReturn((long) i);
+		when(op.duration()).thenReturn(duration);
+		return op;
+	}
+
+	private static MetricsContext metricsContext(final long intervalQuantile, final long quantile) {
+		final var durSnapshot = mock(TimingMetricSnapshot.class);
+		when(durSnapshot.intervalQuantile(TailOperationTraceSampler.QUANTILE)).thenReturn(intervalQuantile);
+		when(durSnapshot.quantile(TailOperationTraceSampler.QUANTILE)).thenReturn(quantile);
+		final var snapshot = mock(AllMetricsSnapshot.class);
+		when(snapshot.durationSnapshot()).thenReturn(durSnapshot);
+		final var metricsCtx = mock(MetricsContext.class);
+		when(metricsCtx.lastSnapshot()).thenReturn(snapshot);
+		return metricsCtx;
+	}
+
+	@Test
+	public void testInstance() {
+		final var sampleConfig = mock(Config.class);
+		when(sampleConfig.stringVal("mode")).thenReturn("all");
+		assertNull(OperationTraceSampler.instance(sampleConfig, null, records -> {}));
+		when(sampleConfig.stringVal("mode")).thenReturn("nth");
+		when(sampleConfig.intVal("nth")).thenReturn(10);
+		assertTrue(OperationTraceSampler.instance(sampleConfig, null, records -> {}) instanceof NthOperationTraceSampler);
+		when(sampleConfig.stringVal("mode")).thenReturn("reservoir");
+		when(sampleConfig.intVal("reservoir")).thenReturn(10);
+		when(sampleConfig.val("period")).thenReturn("1m");
+		assertTrue(
+						OperationTraceSampler.instance(sampleConfig, null, records -> {})
+										instanceof ReservoirOperationTraceSampler);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInstanceUnknownMode() {
+		final var sampleConfig = mock(Config.class);
+		when(sampleConfig.stringVal("mode")).thenReturn("some");
+		OperationTraceSampler.instance(sampleConfig, null, records -> {});
+	}
+
+	@Test
+	public void testNth() {
+		final var sampler = new NthOperationTraceSampler<Item, Operation<Item>>(10);
+		final var op = op(0, Operation.Status.SUCC, 1);
+		var count = 0;
+		for (var i = 0; i < 1000; i++) {
+			if (sampler.test(op)) {
+				count++;
+			}
+		}
+		assertEquals(100, count);
+	}
+
+	@Test
+	public void testFail() {
+		final var sampler = new FailOperationTraceSampler<Item, Operation<Item>>();
+		assertFalse(sampler.test(op(0, Operation.Status.SUCC, 1)));
+		assertFalse(sampler.test(op(0, Operation.Status.INTERRUPTED, 1)));
+		assertFalse(sampler.test(op(0, Operation.Status.PENDING, 1)));
+		assertTrue(sampler.test(op(0, Operation.Status.FAIL_IO, 1)));
+		assertTrue(sampler.test(op(0, Operation.Status.RESP_FAIL_NOT_FOUND, 1)));
+	}
+
+	@Test
+	public void testTailFixedThreshold() {
+		final var sampler = new TailOperationTraceSampler<Item, Operation<Item>>(1000, null);
+		assertFalse(sampler.test(op(0, Operation.Status.SUCC, 1000)));
+		assertTrue(sampler.test(op(0, Operation.Status.SUCC, 1001)));
+	}
+
+	@Test
+	public void testTailCurrentQuantile() {
+		var sampler = new TailOperationTraceSampler<Item, Operation<Item>>(0, metricsContext(500, 2000));
+		assertFalse(sampler.test(op(0, Operation.Status.SUCC, 500)));
+		assertTrue(sampler.test(op(0, Operation.Status.SUCC, 501)));
+		// no complete output period yet
+		sampler = new TailOperationTraceSampler<>(0, metricsContext(0, 2000));
+		assertFalse(sampler.test(op(0, Operation.Status.SUCC, 1000)));
+		assertTrue(sampler.test(op(0, Operation.Status.SUCC, 2001)));
+		// no values yet
+		sampler = new TailOperationTraceSampler<>(0, metricsContext(0, 0));
+		assertFalse(sampler.test(op(0, Operation.Status.SUCC, 1000)));
+	}
+
+	@Test
+	public void testReservoir() throws Exception {
+		final List<List<OperationTraceRecord<?, ?>>> outputs = new ArrayList<>();
+		final List<Operation<Item>> ops = new ArrayList<>();
+		for (var i = 0; i < 1000; i++) {
+			ops.add(op(i, Operation.Status.SUCC, 1));
+		}
+		final var sampler = new ReservoirOperationTraceSampler<Item, Operation<Item>>(10, 1_000, outputs::add);
+		for (var i = 0; i < 5; i++) {
+			assertFalse(sampler.test(ops.get(i)));
+		}
+		Thread.sleep(1_100);
+		// the next period starts
+		for (var i = 5; i < 1000; i++) {
+			assertFalse(sampler.test(ops.get(i)));
+		}
+		assertEquals(1, outputs.size());
+		final var firstPeriodRecords = outputs.get(0);
+		assertEquals(5, firstPeriodRecords.size());
+		for (var i = 0; i < 5; i++) {
+			assertEquals(i, firstPeriodRecords.get(i).reqTimeStart());
+			assertEquals("/item" + i, firstPeriodRecords.get(i).itemPath());
+		}
+		sampler.flush();
+		assertEquals(2, outputs.size());
+		final var secondPeriodRecords = outputs.get(1);
+		assertEquals(10, secondPeriodRecords.size());
+		for (var i = 1; i < 10; i++) {
+			assertTrue(secondPeriodRecords.get(i - 1).reqTimeStart() < secondPeriodRecords.get(i).reqTimeStart());
+		}
+		sampler.flush();
+		assertEquals(2, outputs.size());
+	}
+
+	@Test
+	public void testReservoirOutputWaitsForWriters() throws Exception {
+		final List<List<OperationTraceRecord<?, ?>>> outputs = new CopyOnWriteArrayList<>();
+		final var sampler = new ReservoirOperationTraceSampler<Item, Operation<Item>>(10, 500, outputs::add);
+		// the writer is blocked while building the trace record
+		final var writerEntered = new CountDownLatch(1);
+		final var writerRelease = new CountDownLatch(1);
+		final var slowOp = op(0, Operation.Status.SUCC, 1);
+		when(slowOp.item().toString()).thenAnswer(
+						invocation -> {
+							writerEntered.countDown();
+							writerRelease.await();
+							return "/item0";
+						});
+		final var slowWriter = CompletableFuture.runAsync(() -> sampler.test(slowOp));
+		assertTrue(writerEntered.await(10, TimeUnit.SECONDS));
+		Thread.sleep(600);
+		// the period is over, the next operation result replaces the window
+		final var nextWriter = CompletableFuture.runAsync(() -> sampler.test(op(1, Operation.Status.SUCC, 1)));
+		Thread.sleep(200);
+		assertFalse(nextWriter.isDone());
+		assertTrue(outputs.isEmpty());
+		writerRelease.countDown();
+		slowWriter.get(10, TimeUnit.SECONDS);
+		nextWriter.get(10, TimeUnit.SECONDS);
+		assertEquals(1, outputs.size());
+		assertEquals(1, outputs.get(0).size());
+		assertEquals("/item0", outputs.get(0).get(0).itemPath());
+		sampler.flush();
+		assertEquals(2, outputs.size());
+		assertEquals("/item1", outputs.get(1).get(0).itemPath());
+	}
+}
@@ -8,6 +8,7 @@ import com.emc.mongoose.base.metrics.MetricsConstants;
 import com.emc.mongoose.base.metrics.snapshot.ConcurrencyMetricSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.DistributedAllMetricsSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.DistributedAllMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.OpTypeMetricsSnapshotImpl;
 import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshot;
 import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshotImpl;
 import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshot;
@@ -17,7 +18,10 @@ import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import org.junit.Test;
 
@@ -102,5 +106,56 @@ public class StepResultsMetricsLogMessageTest extends StepResultsMetricsLogMessa
 		assertEquals(STEP_ID, parsed.get("Load Step Id"));
 		assertEquals(OP_TYPE.name(), parsed.get("Operation Type"));
 		assertEquals(COUNT, ((Map<String, Object>) parsed.get("Operations Count")).get("Successful"));
+		assertEquals(null, parsed.get("Operation Types"));
+	}
+
+	@Test
+	public final void testOpTypesBreakdownIsValidYaml() throws Exception {
+		final TimingMeterImpl latMeter = new TimingMeterImpl(MetricsConstants.METRIC_NAME_LAT);
+		for (final long latency : LATENCIES) {
+			latMeter.update(latency);
+		}
+		final RateMetricSnapshot fS = new RateMetricSnapshotImpl(0, 0, MetricsConstants.METRIC_NAME_FAIL, 0, 0);
+		final DistributedAllMetricsSnapshot snapshot = new DistributedAllMetricsSnapshotImpl(
+						SNAPSHOT.durationSnapshot(),
+						SNAPSHOT.latencySnapshot(),
+						SNAPSHOT.concurrencySnapshot(),
+						SNAPSHOT.failsSnapshot(),
+						SNAPSHOT.successSnapshot(),
+						SNAPSHOT.byteSnapshot(),
+						2,
+						123456,
+						Collections.emptyList(),
+						Arrays.asList(
+										new OpTypeMetricsSnapshotImpl(
+														OpType.CREATE,
+														SNAPSHOT.successSnapshot(),
+														fS,
+														SNAPSHOT.byteSnapshot(),
+														SNAPSHOT.durationSnapshot(),
+														latMeter.snapshot()),
+										new OpTypeMetricsSnapshotImpl(
+														OpType.READ,
+														new RateMetricSnapshotImpl(0, 0, MetricsConstants.METRIC_NAME_SUCC, 0, 0),
+														fS,
+														new RateMetricSnapshotImpl(0, 0, MetricsConstants.METRIC_NAME_BYTE, 0, 0),
+														SNAPSHOT.durationSnapshot(),
+														SNAPSHOT.latencySnapshot())));
+		final StringBuilder buff = new StringBuilder();
+		new StepResultsMetricsLogMessage(OP_TYPE, STEP_ID, 0, snapshot, latencies, durations).formatTo(buff);
+		System.out.println(buff.toString());
+		final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+		final JavaType parsedType = mapper.getTypeFactory().constructArrayType(Map.class);
+		final Map<String, Object> parsed = ((Map<String, Object>[]) mapper.readValue(buff.toString(), parsedType))[0];
+		final List<Map<String, Object>> opTypes = (List<Map<String, Object>>) parsed.get("Operation Types");
+		assertEquals(2, opTypes.size());
+		assertEquals(OpType.CREATE.name(), opTypes.get(0).get("Operation Type"));
+		assertEquals(COUNT, ((Map<String, Object>) opTypes.get(0).get("Operations Count")).get("Successful"));
+		final Map<String, Object> createLatency = (Map<String, Object>) opTypes.get(0).get("Operations Latency [us]");
+		assertEquals(latMeter.snapshot().max(), ((Number) createLatency.get("Max")).longValue());
+		assertEquals(
+						latMeter.snapshot().quantile(0.5), ((Number) createLatency.get("Quantile 0.5")).longValue());
+		assertEquals(OpType.READ.name(), opTypes.get(1).get("Operation Type"));
+		assertEquals(0, ((Map<String, Object>) opTypes.get(1).get("Operations Count")).get("Failed"));
 	}
 }
@@ -0,0 +1,71 @@
+package com.emc.mongoose.base.metrics;
+
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshotImpl;
+import com.emc.mongoose.base.metrics.type.TimingMeterImpl;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsManagerImplTest {
+
+	private static final int NODE_COUNT = 3;
+	private static final int COUNT_PER_NODE = 100_000;
+	private static final double MAX_RELATIVE_ERROR = 1.0 / LogLinearHistogramSnapshot.SUB_BUCKET_COUNT;
+	private static final List<Double> QUANTILES = List.of(0.01, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999);
+
+	@Test
+	public void testQuantilesFromTheMergedHistograms() {
+		final var rnd = ThreadLocalRandom.current();
+		final var durations = new long[NODE_COUNT * COUNT_PER_NODE];
+		final List<TimingMetricSnapshot> nodeSnapshots = new ArrayList<>();
+		for (int i = 0; i < NODE_COUNT; i++) {
+			final var meter = new TimingMeterImpl("duration");
+			for (int j = 0; j < COUNT_PER_NODE; j++) {
+				// the different durations range on each node
+				final var duration = (i + 1) * 1_000 + rnd.nextLong(1_000_000);
+				durations[i * COUNT_PER_NODE + j] = duration;
+				meter.update(duration);
+			}
+			nodeSnapshots.add(meter.snapshot());
+		}
+		Arrays.sort(durations);
+		final var quantileValues = MetricsManagerImpl.quantileValues(
+						QUANTILES, TimingMetricSnapshotImpl.aggregate(nodeSnapshots));
+		Assert.assertEquals(QUANTILES, new ArrayList<>(quantileValues.keySet()));
+		for (final var quantile : QUANTILES) {
+			final var expected = durations[(int) (quantile * (durations.length - 1))];
+			Assert.assertEquals(
+							"quantile " + quantile,
+							expected,
+							quantileValues.get(quantile),
+							expected * MAX_RELATIVE_ERROR + 1);
+		}
+	}
+
+	@Test
+	public void testQuantilesOfTheConstantDuration() {
+		final var meter = new TimingMeterImpl("latency");
+		for (int i = 0; i < COUNT_PER_NODE; i++) {
+			meter.update(12_345);
+		}
+		final var quantileValues = MetricsManagerImpl.quantileValues(QUANTILES, meter.snapshot());
+		for (final var quantile : QUANTILES) {
+			// limited by the exact min and max
+			Assert.assertEquals(12_345, (long) quantileValues.get(quantile));
+		}
+	}
+
+	@Test
+	public void testQuantilesOfTheEmptySnapshot() {
+		final var quantileValues = MetricsManagerImpl.quantileValues(
+						QUANTILES, new TimingMeterImpl("latency").snapshot());
+		for (final var quantile : QUANTILES) {
+			Assert.assertEquals(0, (long) quantileValues.get(quantile));
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package com.emc.mongoose.base.metrics.context;
+
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.OpTypeMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.OpTypeMetricsSnapshotImpl;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OpTypeMetricsTest {
+
+	private static MetricsContext<AllMetricsSnapshot> newMetricsContext() {
+		return MetricsContextImpl.builder()
+						.loadStepId("op-type-metrics-test")
+						.opType(OpType.CREATE)
+						.actualConcurrencyGauge(() -> 1)
+						.concurrencyLimit(1)
+						.outputPeriodSec(1)
+						.runId(1)
+						.build();
+	}
+
+	private static List<OpTypeMetricsSnapshot> opTypeSnapshots(final MetricsContext<AllMetricsSnapshot> ctx)
+					throws InterruptedException {
+		// wait for the snapshot update period to pass
+		Thread.sleep(MetricsContext.DEFAULT_SNAPSHOT_UPDATE_PERIOD_MILLIS + 10);
+		ctx.refreshLastSnapshot();
+		return ctx.lastSnapshot().opTypeSnapshots();
+	}
+
+	@Test
+	public void testOpTypeMetricsAccounting() throws Exception {
+		try (final var ctx = newMetricsContext()) {
+			ctx.start();
+			for (var i = 0; i < 10; i++) {
+				ctx.markSucc(OpType.READ, null, 10, 2000, 1000);
+			}
+			ctx.markSucc(OpType.CREATE, null, 1, 200, 100);
+			ctx.markPartSucc(OpType.CREATE, null, 1, 400, 300);
+			ctx.markFail(OpType.CREATE, null);
+			final var opTypeSnapshots = opTypeSnapshots(ctx);
+			// in the operation type order
+			Assert.assertEquals(2, opTypeSnapshots.size());
+			final var createSnapshot = opTypeSnapshots.get(0);
+			Assert.assertEquals(OpType.CREATE, createSnapshot.opType());
+			Assert.assertEquals(1, createSnapshot.successSnapshot().count());
+			Assert.assertEquals(1, createSnapshot.failsSnapshot().count());
+			Assert.assertEquals(2, createSnapshot.byteSnapshot().count());
+			Assert.assertEquals(2, createSnapshot.latencySnapshot().count());
+			Assert.assertEquals(100, createSnapshot.latencySnapshot().min());
+			Assert.assertEquals(400, createSnapshot.durationSnapshot().max());
+			final var readSnapshot = opTypeSnapshots.get(1);
+			Assert.assertEquals(OpType.READ, readSnapshot.opType());
+			Assert.assertEquals(10, readSnapshot.successSnapshot().count());
+			Assert.assertEquals(0, readSnapshot.failsSnapshot().count());
+			Assert.assertEquals(100, readSnapshot.byteSnapshot().count());
+			Assert.assertEquals(1000, readSnapshot.latencySnapshot().max());
+			Assert.assertEquals(1000, readSnapshot.latencySnapshot().quantile(0.5), 10);
+			// the totals include all the operation types
+			Assert.assertEquals(11, ctx.lastSnapshot().successSnapshot().count());
+			Assert.assertEquals(12, ctx.lastSnapshot().latencySnapshot().count());
+		}
+	}
+
+	@Test
+	public void testSingleOpTypeIsNotReported() throws Exception {
+		try (final var ctx = newMetricsContext()) {
+			ctx.start();
+			ctx.markSucc(OpType.CREATE, null, 1, 200, 100);
+			ctx.markFail(OpType.CREATE, null);
+			Assert.assertTrue(opTypeSnapshots(ctx).isEmpty());
+			Assert.assertEquals(1, ctx.lastSnapshot().successSnapshot().count());
+		}
+	}
+
+	@Test
+	public void testSingleOpTypeMetersAreNotAllocated() throws Exception {
+		try (final var ctx = newMetricsContext()) {
+			ctx.start();
+			ctx.markSucc(OpType.CREATE, null, 1, 200, 100);
+			ctx.markPartSucc(OpType.CREATE, null, 1, 400, 300);
+			ctx.markFail(OpType.CREATE, null);
+			final var opTypeMetricsField = MetricsContextImpl.class.getDeclaredField("opTypeMetrics");
+			opTypeMetricsField.setAccessible(true);
+			for (final var opMetrics : (Object[]) opTypeMetricsField.get(ctx)) {
+				Assert.assertNull(opMetrics);
+			}
+			// the meters are created for the 2nd operation type only, the 1st one is derived from the totals
+			ctx.markSucc(OpType.READ, null, 10, 2000, 1000);
+			final var opTypeSnapshots = opTypeSnapshots(ctx);
+			Assert.assertEquals(2, opTypeSnapshots.size());
+			Assert.assertNull(((Object[]) opTypeMetricsField.get(ctx))[OpType.CREATE.ordinal()]);
+			Assert.assertNotNull(((Object[]) opTypeMetricsField.get(ctx))[OpType.READ.ordinal()]);
+			final var createSnapshot = opTypeSnapshots.get(0);
+			Assert.assertEquals(OpType.CREATE, createSnapshot.opType());
+			Assert.assertEquals(1, createSnapshot.successSnapshot().count());
+			Assert.assertEquals(1, createSnapshot.failsSnapshot().count());
+			Assert.assertEquals(2, createSnapshot.byteSnapshot().count());
+			Assert.assertEquals(2, createSnapshot.latencySnapshot().count());
+			Assert.assertEquals(400, createSnapshot.latencySnapshot().sum());
+			Assert.assertEquals(100, createSnapshot.latencySnapshot().min());
+			// the 1st operation type extremes are exact even if the total ones belong to the other types
+			Assert.assertEquals(300, createSnapshot.latencySnapshot().max());
+			Assert.assertEquals(600, createSnapshot.durationSnapshot().sum());
+			Assert.assertEquals(200, createSnapshot.durationSnapshot().min());
+			Assert.assertEquals(400, createSnapshot.durationSnapshot().max());
+			final var readSnapshot = opTypeSnapshots.get(1);
+			Assert.assertEquals(OpType.READ, readSnapshot.opType());
+			Assert.assertEquals(1, readSnapshot.successSnapshot().count());
+			Assert.assertEquals(0, readSnapshot.failsSnapshot().count());
+			Assert.assertEquals(1000, readSnapshot.latencySnapshot().max());
+		}
+	}
+
+	@Test
+	public void testAggregateByOpType() throws Exception {
+		final List<OpTypeMetricsSnapshot> opTypeSnapshots1;
+		final List<OpTypeMetricsSnapshot> opTypeSnapshots2;
+		try (final var ctx1 = newMetricsContext(); final var ctx2 = newMetricsContext()) {
+			ctx1.start();
+			ctx2.start();
+			ctx1.markSucc(OpType.READ, null, 1, 200, 100);
+			ctx1.markSucc(OpType.UPDATE, null, 1, 200, 100);
+			ctx2.markSucc(OpType.CREATE, null, 1, 200, 100);
+			ctx2.markSucc(OpType.UPDATE, null, 1, 400, 300);
+			opTypeSnapshots1 = opTypeSnapshots(ctx1);
+			opTypeSnapshots2 = opTypeSnapshots(ctx2);
+		}
+		final var opTypeSnapshots = OpTypeMetricsSnapshotImpl.aggregate(
+						Arrays.asList(opTypeSnapshots1, opTypeSnapshots2));
+		Assert.assertEquals(3, opTypeSnapshots.size());
+		Assert.assertEquals(OpType.CREATE, opTypeSnapshots.get(0).opType());
+		Assert.assertEquals(OpType.READ, opTypeSnapshots.get(1).opType());
+		Assert.assertEquals(OpType.UPDATE, opTypeSnapshots.get(2).opType());
+		Assert.assertEquals(2, opTypeSnapshots.get(2).successSnapshot().count());
+		Assert.assertEquals(2, opTypeSnapshots.get(2).latencySnapshot().count());
+		Assert.assertEquals(100, opTypeSnapshots.get(2).latencySnapshot().min());
+		Assert.assertEquals(300, opTypeSnapshots.get(2).latencySnapshot().max());
+	}
+
+	@Test
+	public void testOpTypeSnapshotsAreCopiedOnRefresh() throws Exception {
+		try (final var ctx = newMetricsContext()) {
+			ctx.start();
+			ctx.markSucc(OpType.CREATE, null, 1, 200, 100);
+			ctx.markSucc(OpType.READ, null, 10, 2000, 1000);
+			final var opTypeSnapshots1 = opTypeSnapshots(ctx);
+			final var copy1 = List.copyOf(opTypeSnapshots1);
+			ctx.markSucc(OpType.CREATE, null, 1, 20, 10);
+			final var opTypeSnapshots2 = opTypeSnapshots(ctx);
+			// the previously published snapshots are not changed by the next refreshes
+			Assert.assertEquals(copy1, opTypeSnapshots1);
+			Assert.assertEquals(1, opTypeSnapshots1.get(0).successSnapshot().count());
+			Assert.assertEquals(2, opTypeSnapshots2.get(0).successSnapshot().count());
+			Assert.assertEquals(10, opTypeSnapshots2.get(0).latencySnapshot().min());
+			Assert.assertEquals(100, opTypeSnapshots2.get(0).latencySnapshot().max());
+			Assert.assertEquals(1, opTypeSnapshots2.get(1).successSnapshot().count());
+		}
+	}
+}
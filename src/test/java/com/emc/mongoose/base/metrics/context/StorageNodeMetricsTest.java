@@ -0,0 +1,119 @@
+package com.emc.mongoose.base.metrics.context;
+
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshotHolder;
+import com.emc.mongoose.base.metrics.snapshot.StorageNodeMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.StorageNodeMetricsSnapshotImpl;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StorageNodeMetricsTest {
+
+	private static MetricsContext<AllMetricsSnapshot> newMetricsContext(final boolean storageNodeMetricsFlag) {
+		return MetricsContextImpl.builder()
+						.loadStepId("storage-node-metrics-test")
+						.opType(OpType.CREATE)
+						.actualConcurrencyGauge(() -> 1)
+						.concurrencyLimit(1)
+						.outputPeriodSec(1)
+						.storageNodeMetricsFlag(storageNodeMetricsFlag)
+						.runId(1)
+						.build();
+	}
+
+	private static List<StorageNodeMetricsSnapshot> storageNodeSnapshots(final MetricsContext<AllMetricsSnapshot> ctx)
+					throws InterruptedException {
+		// wait for the snapshot update period to pass
+		Thread.sleep(MetricsContext.DEFAULT_SNAPSHOT_UPDATE_PERIOD_MILLIS + 10);
+		ctx.refreshLastSnapshot();
+		return ctx.lastSnapshot().storageNodeSnapshots();
+	}
+
+	@Test
+	public void testStorageNodeMetricsAccounting() throws Exception {
+		try (final var ctx = newMetricsContext(true)) {
+			ctx.start();
+			final var nodeAddr1 = "10.0.0.1:9020";
+			final var nodeAddr2 = "10.0.0.2:9020";
+			for (var i = 0; i < 10; i++) {
+				ctx.markSucc(OpType.CREATE, nodeAddr1, 1, 200, 100);
+			}
+			// equal but not the same string instance
+			ctx.markSucc(OpType.CREATE, new String(nodeAddr1), 1, 2000, 1000);
+			ctx.markSucc(OpType.CREATE, nodeAddr2, 1, 200, 100);
+			ctx.markFail(OpType.CREATE, nodeAddr2);
+			ctx.markFail(OpType.CREATE, null);
+			final var nodeSnapshots = storageNodeSnapshots(ctx);
+			Assert.assertEquals(2, nodeSnapshots.size());
+			final var nodeSnapshot1 = nodeSnapshots.get(0);
+			Assert.assertEquals(nodeAddr1, nodeSnapshot1.nodeAddr());
+			Assert.assertEquals(11, nodeSnapshot1.successSnapshot().count());
+			Assert.assertEquals(0, nodeSnapshot1.failsSnapshot().count());
+			Assert.assertEquals(11, nodeSnapshot1.latencySnapshot().count());
+			Assert.assertEquals(1000, nodeSnapshot1.latencySnapshot().max());
+			final var nodeSnapshot2 = nodeSnapshots.get(1);
+			Assert.assertEquals(nodeAddr2, nodeSnapshot2.nodeAddr());
+			Assert.assertEquals(1, nodeSnapshot2.successSnapshot().count());
+			Assert.assertEquals(1, nodeSnapshot2.failsSnapshot().count());
+			// the totals include the operations w/o the storage node address
+			Assert.assertEquals(12, ctx.lastSnapshot().successSnapshot().count());
+			Assert.assertEquals(2, ctx.lastSnapshot().failsSnapshot().count());
+		}
+	}
+
+	@Test
+	public void testStorageNodeSnapshotsListReuse() throws Exception {
+		try (final var ctx = newMetricsContext(true)) {
+			ctx.start();
+			ctx.markSucc(OpType.CREATE, "node1", 1, 200, 100);
+			final var nodeSnapshots1 = storageNodeSnapshots(ctx);
+			final var copy = AllMetricsSnapshotHolder.immutableCopyOf(ctx.lastSnapshot()).storageNodeSnapshots();
+			ctx.markSucc(OpType.CREATE, "node1", 1, 200, 100);
+			storageNodeSnapshots(ctx);
+			// the holders are refreshed in turn
+			final var nodeSnapshots3 = storageNodeSnapshots(ctx);
+			Assert.assertSame(nodeSnapshots1, nodeSnapshots3);
+			Assert.assertEquals(2, nodeSnapshots3.get(0).successSnapshot().count());
+			// the copy is not affected by the refresh
+			Assert.assertEquals(1, copy.get(0).successSnapshot().count());
+		}
+	}
+
+	@Test
+	public void testStorageNodeMetricsDisabled() throws Exception {
+		try (final var ctx = newMetricsContext(false)) {
+			ctx.start();
+			ctx.markSucc(OpType.CREATE, "10.0.0.1:9020", 1, 200, 100);
+			Assert.assertTrue(storageNodeSnapshots(ctx).isEmpty());
+			Assert.assertEquals(1, ctx.lastSnapshot().successSnapshot().count());
+		}
+	}
+
+	@Test
+	public void testAggregateByStorageNode() throws Exception {
+		final List<StorageNodeMetricsSnapshot> nodeSnapshots1;
+		final List<StorageNodeMetricsSnapshot> nodeSnapshots2;
+		try (final var ctx1 = newMetricsContext(true); final var ctx2 = newMetricsContext(true)) {
+			ctx1.start();
+			ctx2.start();
+			ctx1.markSucc(OpType.CREATE, "node1", 1, 200, 100);
+			ctx1.markSucc(OpType.CREATE, "node2", 1, 200, 100);
+			ctx2.markSucc(OpType.CREATE, "node2", 1, 400, 300);
+			ctx2.markSucc(OpType.CREATE, "node3", 1, 200, 100);
+			nodeSnapshots1 = storageNodeSnapshots(ctx1);
+			nodeSnapshots2 = storageNodeSnapshots(ctx2);
+		}
+		final var nodeSnapshots = StorageNodeMetricsSnapshotImpl.aggregate(Arrays.asList(nodeSnapshots1, nodeSnapshots2));
+		Assert.assertEquals(3, nodeSnapshots.size());
+		Assert.assertEquals("node1", nodeSnapshots.get(0).nodeAddr());
+		Assert.assertEquals("node2", nodeSnapshots.get(1).nodeAddr());
+		Assert.assertEquals("node3", nodeSnapshots.get(2).nodeAddr());
+		Assert.assertEquals(2, nodeSnapshots.get(1).successSnapshot().count());
+		Assert.assertEquals(2, nodeSnapshots.get(1).latencySnapshot().count());
+		Assert.assertEquals(100, nodeSnapshots.get(1).latencySnapshot().min());
+		Assert.assertEquals(300, nodeSnapshots.get(1).latencySnapshot().max());
+	}
+}
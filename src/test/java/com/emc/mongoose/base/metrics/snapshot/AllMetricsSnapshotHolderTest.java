@@ -0,0 +1,26 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class AllMetricsSnapshotHolderTest {
+
+	@Test
+	public void testCopyWaitsForRefresh() throws Exception {
+		final var holder = new AllMetricsSnapshotHolder("FAIL", "SUCC", "BYTE");
+		holder.beginRefresh();
+		holder.successSnapshot().set(1, 0, 0, 0);
+		final var copyFuture = CompletableFuture.supplyAsync(holder::copy);
+		TimeUnit.MILLISECONDS.sleep(100);
+		assertFalse(copyFuture.isDone());
+		holder.failsSnapshot().set(1, 0, 0, 0);
+		holder.endRefresh();
+		final var copy = copyFuture.get(10, TimeUnit.SECONDS);
+		assertEquals(1, copy.successSnapshot().count());
+		assertEquals(1, copy.failsSnapshot().count());
+	}
+}
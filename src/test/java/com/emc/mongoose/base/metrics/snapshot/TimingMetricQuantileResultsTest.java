@@ -0,0 +1,88 @@
+package com.emc.mongoose.base.metrics.snapshot;
+
+import static com.emc.mongoose.base.metrics.TimingMetricType.DURATION;
+import static com.emc.mongoose.base.metrics.TimingMetricType.LATENCY;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.io.ItemTimingMetricsBinaryFileOutput;
+import com.emc.mongoose.base.item.io.ItemTimingMetricsFileOutput;
+import com.emc.mongoose.base.item.op.Operation;
+import com.github.akurilov.commons.io.Output;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimingMetricQuantileResultsTest {
+
+	private static final int OP_COUNT = 10_000;
+	private static final List<Double> QUANTILES = Arrays.asList(0.99, 0.25, 0.5, 0.75, 0.0);
+
+	@SuppressWarnings("unchecked")
+	private static Operation<Item> op(final long latency, final long duration) {
+		final Operation<Item> op = mock(Operation.class);
+		when(op.latency()).thenReturn(latency);
+		when(op.duration()).thenReturn(duration);
+		return op;
+	}
+
+	@Test
+	public void testTextAndBinaryFiles() throws Exception {
+		final Path dir = Files.createTempDirectory(getClass().getSimpleName());
+		final String pattern = "timingMetrics_test";
+		final Random rnd = new Random(42);
+		final long[] latencies = new long[OP_COUNT * 2];
+		final long[] durations = new long[OP_COUNT * 2];
+		final Output<Operation<Item>> textOutput = new ItemTimingMetricsFileOutput<>(dir.resolve(pattern));
+		final Output<Operation<Item>> binOutput = new ItemTimingMetricsBinaryFileOutput<>(dir.resolve(pattern + "_1"));
+		final List<Operation<Item>> binOps = new ArrayList<>(OP_COUNT);
+		for (int i = 0; i < OP_COUNT; i++) {
+			latencies[i] = rnd.nextInt(1_000_000);
+			durations[i] = latencies[i] + rnd.nextInt(1_000_000);
+			textOutput.put(op(latencies[i], durations[i]));
+			latencies[OP_COUNT + i] = rnd.nextInt(1_000_000);
+			durations[OP_COUNT + i] = latencies[OP_COUNT + i] + rnd.nextInt(1_000_000);
+			binOps.add(op(latencies[OP_COUNT + i], durations[OP_COUNT + i]));
+		}
+		binOps.add(null);
+		textOutput.put((Operation<Item>) null);
+		binOutput.put(binOps);
+		Arrays.sort(latencies);
+		Arrays.sort(durations);
+		final String dirPath = dir.toString();
+		try (final TimingMetricQuantileResultsImpl latQuantiles = new TimingMetricQuantileResultsImpl(
+						QUANTILES, LATENCY, 2, dirPath, pattern);
+						final TimingMetricQuantileResultsImpl durQuantiles = new TimingMetricQuantileResultsImpl(
+										QUANTILES, DURATION, 2, dirPath, pattern)) {
+			Assert.assertEquals(QUANTILES, new ArrayList<>(latQuantiles.getMetricsValues().keySet()));
+			for (final Double q : QUANTILES) {
+				final int k = (int) (q * latencies.length);
+				Assert.assertEquals(latencies[k], (long) latQuantiles.getMetricsValues().get(q));
+				Assert.assertEquals(durations[k], (long) durQuantiles.getMetricsValues().get(q));
+			}
+		}
+		Assert.assertEquals(0, dir.toFile().list().length);
+		Files.delete(dir);
+	}
+
+	@Test
+	public void testSelect() {
+		final Random rnd = new Random(0);
+		for (int n = 1; n < 200; n++) {
+			final long[] values = new long[n];
+			for (int i = 0; i < n; i++) {
+				values[i] = rnd.nextInt(20);
+			}
+			final long[] sorted = values.clone();
+			Arrays.sort(sorted);
+			final int k = rnd.nextInt(n);
+			Assert.assertEquals(sorted[k], TimingMetricQuantileResultsImpl.select(values, 0, n - 1, k));
+		}
+	}
+}
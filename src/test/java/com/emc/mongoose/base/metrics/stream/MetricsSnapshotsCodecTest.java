@@ -0,0 +1,427 @@
+package com.emc.mongoose.base.metrics.stream;
+
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.item.op.Operation;
+import com.emc.mongoose.base.logging.OperationTraceRecord;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.AllMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.ConcurrencyMetricSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.InjectorMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.InjectorMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.OpTypeMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.OpTypeMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.SlowestOperationsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.SlowestOperationsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.StorageNodeMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.StorageNodeMetricsSnapshotImpl;
+import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.TimingMetricSnapshotImpl;
+import com.emc.mongoose.base.metrics.type.LogLinearHistogramImpl;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsSnapshotsCodecTest {
+
+	private static AllMetricsSnapshot snapshot(
+					final LogLinearHistogramImpl durHistogram, final long count, final long elapsedTimeMillis) {
+		return snapshot(durHistogram, count, elapsedTimeMillis, Collections.emptyList());
+	}
+
+	private static AllMetricsSnapshot snapshot(
+					final LogLinearHistogramImpl durHistogram,
+					final long count,
+					final long elapsedTimeMillis,
+					final List<StorageNodeMetricsSnapshot> storageNodeSnapshots) {
+		return snapshot(durHistogram, count, elapsedTimeMillis, storageNodeSnapshots, Collections.emptyList());
+	}
+
+	private static AllMetricsSnapshot snapshot(
+					final LogLinearHistogramImpl durHistogram,
+					final long count,
+					final long elapsedTimeMillis,
+					final List<StorageNodeMetricsSnapshot> storageNodeSnapshots,
+					final List<OpTypeMetricsSnapshot> opTypeSnapshots) {
+		return snapshot(
+						durHistogram,
+						count,
+						elapsedTimeMillis,
+						storageNodeSnapshots,
+						opTypeSnapshots,
+						SlowestOperationsSnapshotImpl.EMPTY);
+	}
+
+	private static AllMetricsSnapshot snapshot(
+					final LogLinearHistogramImpl durHistogram,
+					final long count,
+					final long elapsedTimeMillis,
+					final List<StorageNodeMetricsSnapshot> storageNodeSnapshots,
+					final List<OpTypeMetricsSnapshot> opTypeSnapshots,
+					final SlowestOperationsSnapshot slowestOpsSnapshot) {
+		return snapshot(
+						durHistogram,
+						count,
+						elapsedTimeMillis,
+						storageNodeSnapshots,
+						opTypeSnapshots,
+						slowestOpsSnapshot,
+						InjectorMetricsSnapshotImpl.EMPTY);
+	}
+
+	private static AllMetricsSnapshot snapshot(
+					final LogLinearHistogramImpl durHistogram,
+					final long count,
+					final long elapsedTimeMillis,
+					final List<StorageNodeMetricsSnapshot> storageNodeSnapshots,
+					final List<OpTypeMetricsSnapshot> opTypeSnapshots,
+					final SlowestOperationsSnapshot slowestOpsSnapshot,
+					final InjectorMetricsSnapshot injectorSnapshot) {
+		final var durHistogramSnapshot = durHistogram.snapshot();
+		return new AllMetricsSnapshotImpl(
+						new TimingMetricSnapshotImpl(
+										count * 1000, count, 10, 100_000, 1000, durHistogramSnapshot, durHistogramSnapshot, "duration"),
+						new TimingMetricSnapshotImpl(count * 100, count, 1, 10_000, 100, "latency"),
+						new ConcurrencyMetricSnapshotImpl("concurrency", 10, 9.5),
+						new RateMetricSnapshotImpl(0, 0, "failures", 0, elapsedTimeMillis),
+						new RateMetricSnapshotImpl(count * 1000.0 / elapsedTimeMillis, 1.5, "successes", count, elapsedTimeMillis),
+						new RateMetricSnapshotImpl(1e6, 2e6, "bytes", count << 20, elapsedTimeMillis),
+						elapsedTimeMillis,
+						storageNodeSnapshots,
+						opTypeSnapshots,
+						slowestOpsSnapshot,
+						injectorSnapshot);
+	}
+
+	private static StorageNodeMetricsSnapshot storageNodeSnapshot(
+					final String nodeAddr,
+					final LogLinearHistogramImpl latHistogram,
+					final long count,
+					final long elapsedTimeMillis) {
+		return new StorageNodeMetricsSnapshotImpl(
+						nodeAddr,
+						new RateMetricSnapshotImpl(1.5, count * 1000.0 / elapsedTimeMillis, "success_op", count, elapsedTimeMillis),
+						new RateMetricSnapshotImpl(0, 0, "failed_op", 0, elapsedTimeMillis),
+						new TimingMetricSnapshotImpl(count * 100, count, 1, 10_000, 100, latHistogram.snapshot(), "latency"));
+	}
+
+	private static OpTypeMetricsSnapshot opTypeSnapshot(
+					final OpType opType, final LogLinearHistogramImpl histogram, final long count, final long elapsedTimeMillis) {
+		final var histogramSnapshot = histogram.snapshot();
+		return new OpTypeMetricsSnapshotImpl(
+						opType,
+						new RateMetricSnapshotImpl(1.5, count * 1000.0 / elapsedTimeMillis, "success_op", count, elapsedTimeMillis),
+						new RateMetricSnapshotImpl(0, 0, "failed_op", 0, elapsedTimeMillis),
+						new RateMetricSnapshotImpl(1e6, 2e6, "byte", count << 20, elapsedTimeMillis),
+						new TimingMetricSnapshotImpl(count * 1000, count, 10, 100_000, 1000, histogramSnapshot, "duration"),
+						new TimingMetricSnapshotImpl(count * 100, count, 1, 10_000, 100, histogramSnapshot, "latency"));
+	}
+
+	private static OperationTraceRecord<?, ?> opTraceRecord(
+					final String storageNode, final String itemPath, final long duration) {
+		return new OperationTraceRecord<>(
+						storageNode,
+						itemPath,
+						OpType.READ.ordinal(),
+						Operation.Status.SUCC.ordinal(),
+						1_551_703_156_012_345L,
+						duration,
+						duration / 2,
+						-1,
+						1 << 20);
+	}
+
+	private static void assertTimingEquals(final TimingMetricSnapshot expected, final TimingMetricSnapshot actual) {
+		Assert.assertEquals(expected.name(), actual.name());
+		Assert.assertEquals(expected.count(), actual.count());
+		Assert.assertEquals(expected.sum(), actual.sum());
+		Assert.assertEquals(expected.min(), actual.min());
+		Assert.assertEquals(expected.max(), actual.max());
+		Assert.assertEquals(expected.mean(), actual.mean(), 0);
+		Assert.assertArrayEquals(
+						expected.histogramSnapshot().bucketIndices(), actual.histogramSnapshot().bucketIndices());
+		Assert.assertArrayEquals(
+						expected.histogramSnapshot().bucketCounts(), actual.histogramSnapshot().bucketCounts());
+		Assert.assertEquals(expected.histogramSnapshot().count(), actual.histogramSnapshot().count());
+		Assert.assertArrayEquals(
+						expected.intervalHistogramSnapshot().bucketCounts(),
+						actual.intervalHistogramSnapshot().bucketCounts());
+	}
+
+	private static void assertEquals(final List<AllMetricsSnapshot> expected, final List<AllMetricsSnapshot> actual) {
+		Assert.assertEquals(expected.size(), actual.size());
+		for (var i = 0; i < expected.size(); i++) {
+			final var e = expected.get(i);
+			final var a = actual.get(i);
+			Assert.assertEquals(e.elapsedTimeMillis(), a.elapsedTimeMillis());
+			assertTimingEquals(e.durationSnapshot(), a.durationSnapshot());
+			assertTimingEquals(e.latencySnapshot(), a.latencySnapshot());
+			Assert.assertEquals(e.concurrencySnapshot().name(), a.concurrencySnapshot().name());
+			Assert.assertEquals(e.concurrencySnapshot().last(), a.concurrencySnapshot().last());
+			Assert.assertEquals(e.concurrencySnapshot().mean(), a.concurrencySnapshot().mean(), 0);
+			Assert.assertEquals(e.successSnapshot().count(), a.successSnapshot().count());
+			Assert.assertEquals(e.successSnapshot().last(), a.successSnapshot().last(), 0);
+			Assert.assertEquals(e.successSnapshot().mean(), a.successSnapshot().mean(), 0);
+			Assert.assertEquals(e.successSnapshot().elapsedTimeMillis(), a.successSnapshot().elapsedTimeMillis());
+			Assert.assertEquals(e.byteSnapshot().count(), a.byteSnapshot().count());
+			Assert.assertEquals(e.failsSnapshot().name(), a.failsSnapshot().name());
+			final var eNodes = e.storageNodeSnapshots();
+			final var aNodes = a.storageNodeSnapshots();
+			Assert.assertEquals(eNodes.size(), aNodes.size());
+			for (var j = 0; j < eNodes.size(); j++) {
+				Assert.assertEquals(eNodes.get(j).nodeAddr(), aNodes.get(j).nodeAddr());
+				Assert.assertEquals(eNodes.get(j).successSnapshot().count(), aNodes.get(j).successSnapshot().count());
+				Assert.assertEquals(eNodes.get(j).successSnapshot().mean(), aNodes.get(j).successSnapshot().mean(), 0);
+				Assert.assertEquals(eNodes.get(j).failsSnapshot().count(), aNodes.get(j).failsSnapshot().count());
+				assertTimingEquals(eNodes.get(j).latencySnapshot(), aNodes.get(j).latencySnapshot());
+			}
+			final var eOpTypes = e.opTypeSnapshots();
+			final var aOpTypes = a.opTypeSnapshots();
+			Assert.assertEquals(eOpTypes.size(), aOpTypes.size());
+			for (var j = 0; j < eOpTypes.size(); j++) {
+				Assert.assertEquals(eOpTypes.get(j).opType(), aOpTypes.get(j).opType());
+				Assert.assertEquals(eOpTypes.get(j).successSnapshot().count(), aOpTypes.get(j).successSnapshot().count());
+				Assert.assertEquals(eOpTypes.get(j).successSnapshot().mean(), aOpTypes.get(j).successSnapshot().mean(), 0);
+				Assert.assertEquals(eOpTypes.get(j).failsSnapshot().count(), aOpTypes.get(j).failsSnapshot().count());
+				Assert.assertEquals(eOpTypes.get(j).byteSnapshot().count(), aOpTypes.get(j).byteSnapshot().count());
+				assertTimingEquals(eOpTypes.get(j).durationSnapshot(), aOpTypes.get(j).durationSnapshot());
+				assertTimingEquals(eOpTypes.get(j).latencySnapshot(), aOpTypes.get(j).latencySnapshot());
+			}
+		}
+	}
+
+	@Test
+	public void testDeltaFramesRestoreTheSnapshots() {
+		final var encoder = new MetricsSnapshotsEncoder();
+		final var decoder = new MetricsSnapshotsDecoder();
+		final var histogram1 = new LogLinearHistogramImpl();
+		final var histogram2 = new LogLinearHistogramImpl();
+		for (var i = 1; i <= 10_000; i++) {
+			histogram1.update(i);
+			histogram2.update(i * 1000L);
+		}
+		var snapshots = Arrays.asList(snapshot(histogram1, 10_000, 1000), snapshot(histogram2, 10_000, 1000));
+		final var fullFrame = encoder.encode(snapshots);
+		assertEquals(snapshots, decoder.decode(fullFrame));
+		// nothing changed
+		Assert.assertNull(encoder.encode(snapshots));
+		histogram1.update(12345);
+		snapshots = Arrays.asList(snapshot(histogram1, 10_001, 1100), snapshot(histogram2, 10_000, 1100));
+		final var deltaFrame = encoder.encode(snapshots);
+		Assert.assertTrue(deltaFrame.length + " >= " + fullFrame.length / 10, deltaFrame.length < fullFrame.length / 10);
+		assertEquals(snapshots, decoder.decode(deltaFrame));
+		// lost frame
+		snapshots = Arrays.asList(snapshot(histogram1, 10_001, 1200), snapshot(histogram2, 10_000, 1200));
+		encoder.encode(snapshots);
+		encoder.reset();
+		snapshots = Arrays.asList(snapshot(histogram1, 10_001, 1300), snapshot(histogram2, 10_000, 1300));
+		assertEquals(snapshots, decoder.decode(encoder.encode(snapshots)));
+	}
+
+	@Test
+	public void testStorageNodeSnapshots() {
+		final var encoder = new MetricsSnapshotsEncoder();
+		final var decoder = new MetricsSnapshotsDecoder();
+		final var durHistogram = new LogLinearHistogramImpl();
+		final var latHistogram1 = new LogLinearHistogramImpl();
+		final var latHistogram2 = new LogLinearHistogramImpl();
+		for (var i = 1; i <= 1000; i++) {
+			durHistogram.update(i * 10L);
+			latHistogram1.update(i);
+			latHistogram2.update(i * 2L);
+		}
+		var snapshots = Arrays.asList(
+						snapshot(
+										durHistogram,
+										2000,
+										1000,
+										Arrays.asList(
+														storageNodeSnapshot("node1", latHistogram1, 1000, 1000),
+														storageNodeSnapshot("node2", latHistogram2, 1000, 1000))));
+		assertEquals(snapshots, decoder.decode(encoder.encode(snapshots)));
+		// one storage node changed only
+		latHistogram2.update(12345);
+		durHistogram.update(23456);
+		snapshots = Arrays.asList(
+						snapshot(
+										durHistogram,
+										2001,
+										1100,
+										Arrays.asList(
+														storageNodeSnapshot("node1", latHistogram1, 1000, 1000),
+														storageNodeSnapshot("node2", latHistogram2, 1001, 1100))));
+		final var deltaFrame = encoder.encode(snapshots);
+		Assert.assertEquals(MetricsSnapshotsEncoder.FRAME_TYPE_DELTA, deltaFrame[0]);
+		assertEquals(snapshots, decoder.decode(deltaFrame));
+		// new storage node appeared
+		snapshots = Arrays.asList(
+						snapshot(
+										durHistogram,
+										2002,
+										1200,
+										Arrays.asList(
+														storageNodeSnapshot("node1", latHistogram1, 1000, 1000),
+														storageNodeSnapshot("node2", latHistogram2, 1001, 1100),
+														storageNodeSnapshot("node3", latHistogram1, 1, 1200))));
+		final var fullFrame = encoder.encode(snapshots);
+		Assert.assertEquals(MetricsSnapshotsEncoder.FRAME_TYPE_FULL, fullFrame[0]);
+		assertEquals(snapshots, decoder.decode(fullFrame));
+	}
+
+	@Test
+	public void testOpTypeSnapshots() {
+		final var encoder = new MetricsSnapshotsEncoder();
+		final var decoder = new MetricsSnapshotsDecoder();
+		final var durHistogram = new LogLinearHistogramImpl();
+		final var createHistogram = new LogLinearHistogramImpl();
+		final var readHistogram = new LogLinearHistogramImpl();
+		for (var i = 1; i <= 1000; i++) {
+			durHistogram.update(i * 10L);
+			createHistogram.update(i);
+			readHistogram.update(i * 2L);
+		}
+		var snapshots = Arrays.asList(
+						snapshot(
+										durHistogram,
+										2000,
+										1000,
+										Collections.emptyList(),
+										Arrays.asList(
+														opTypeSnapshot(OpType.CREATE, createHistogram, 1000, 1000),
+														opTypeSnapshot(OpType.READ, readHistogram, 1000, 1000))));
+		assertEquals(snapshots, decoder.decode(encoder.encode(snapshots)));
+		// one operation type changed only
+		readHistogram.update(12345);
+		durHistogram.update(23456);
+		snapshots = Arrays.asList(
+						snapshot(
+										durHistogram,
+										2001,
+										1100,
+										Collections.emptyList(),
+										Arrays.asList(
+														opTypeSnapshot(OpType.CREATE, createHistogram, 1000, 1000),
+														opTypeSnapshot(OpType.READ, readHistogram, 1001, 1100))));
+		final var deltaFrame = encoder.encode(snapshots);
+		Assert.assertEquals(MetricsSnapshotsEncoder.FRAME_TYPE_DELTA, deltaFrame[0]);
+		assertEquals(snapshots, decoder.decode(deltaFrame));
+		// new operation type appeared
+		snapshots = Arrays.asList(
+						snapshot(
+										durHistogram,
+										2002,
+										1200,
+										Collections.emptyList(),
+										Arrays.asList(
+														opTypeSnapshot(OpType.CREATE, createHistogram, 1000, 1000),
+														opTypeSnapshot(OpType.READ, readHistogram, 1001, 1100),
+														opTypeSnapshot(OpType.DELETE, createHistogram, 1, 1200))));
+		final var fullFrame = encoder.encode(snapshots);
+		Assert.assertEquals(MetricsSnapshotsEncoder.FRAME_TYPE_FULL, fullFrame[0]);
+		assertEquals(snapshots, decoder.decode(fullFrame));
+	}
+
+	@Test
+	public void testSlowestOps() {
+		final var encoder = new MetricsSnapshotsEncoder();
+		final var decoder = new MetricsSnapshotsDecoder();
+		final var durHistogram = new LogLinearHistogramImpl();
+		durHistogram.update(1000);
+		final var slowestOps1 = new SlowestOperationsSnapshotImpl(
+						Arrays.asList(opTraceRecord("node1", "/bucket/item1", 200_000), opTraceRecord(null, null, 100_000)),
+						Collections.emptyList());
+		var snapshots = Arrays.asList(
+						snapshot(durHistogram, 1, 1000, Collections.emptyList(), Collections.emptyList(), slowestOps1));
+		var decoded = decoder.decode(encoder.encode(snapshots));
+		Assert.assertEquals(slowestOps1.stepOps(), decoded.get(0).slowestOpsSnapshot().stepOps());
+		Assert.assertTrue(decoded.get(0).slowestOpsSnapshot().lastIntervalOps().isEmpty());
+		// the same slowest operations snapshot instance is not transferred again
+		snapshots = Arrays.asList(
+						snapshot(durHistogram, 2, 1100, Collections.emptyList(), Collections.emptyList(), slowestOps1));
+		final var deltaFrame = encoder.encode(snapshots);
+		Assert.assertEquals(MetricsSnapshotsEncoder.FRAME_TYPE_DELTA, deltaFrame[0]);
+		decoded = decoder.decode(deltaFrame);
+		Assert.assertEquals(2, decoded.get(0).successSnapshot().count());
+		Assert.assertEquals(slowestOps1.stepOps(), decoded.get(0).slowestOpsSnapshot().stepOps());
+		Assert.assertNull(encoder.encode(snapshots));
+		// the slowest operations changed only
+		final var slowestOps2 = new SlowestOperationsSnapshotImpl(
+						Arrays.asList(opTraceRecord("node2", "/bucket/item3", 300_000), slowestOps1.stepOps().get(0)),
+						Arrays.asList(opTraceRecord("node2", "/bucket/item3", 300_000)));
+		snapshots = Arrays.asList(
+						snapshot(durHistogram, 2, 1100, Collections.emptyList(), Collections.emptyList(), slowestOps2));
+		decoded = decoder.decode(encoder.encode(snapshots));
+		Assert.assertEquals(slowestOps2.stepOps(), decoded.get(0).slowestOpsSnapshot().stepOps());
+		Assert.assertEquals(slowestOps2.lastIntervalOps(), decoded.get(0).slowestOpsSnapshot().lastIntervalOps());
+	}
+
+	@Test
+	public void testInjector() {
+		final var encoder = new MetricsSnapshotsEncoder();
+		final var decoder = new MetricsSnapshotsDecoder();
+		final var durHistogram = new LogLinearHistogramImpl();
+		durHistogram.update(1000);
+		final var injectorSnapshot1 = new InjectorMetricsSnapshotImpl(
+						100, 2, 0.5, 0.25, 0, 0, 3, 2.5, 90, 4500, 80, 2000, 20, 1 << 20, 1e6, 4, 1000);
+		var snapshots = Arrays.asList(
+						snapshot(
+										durHistogram,
+										1,
+										1000,
+										Collections.emptyList(),
+										Collections.emptyList(),
+										SlowestOperationsSnapshotImpl.EMPTY,
+										injectorSnapshot1));
+		var decoded = decoder.decode(encoder.encode(snapshots)).get(0).injectorSnapshot();
+		assertInjectorEquals(injectorSnapshot1, decoded);
+		// the injector metrics changed only
+		final var injectorSnapshot2 = new InjectorMetricsSnapshotImpl(
+						200, 3, 0.95, 0.6, 0.1, 0.05, 0, 1.25, 190, 9000, 170, 4000, 30, 2 << 20, 1.5e6, 4, 2000);
+		snapshots = Arrays.asList(
+						snapshot(
+										durHistogram,
+										1,
+										1000,
+										Collections.emptyList(),
+										Collections.emptyList(),
+										SlowestOperationsSnapshotImpl.EMPTY,
+										injectorSnapshot2));
+		final var deltaFrame = encoder.encode(snapshots);
+		Assert.assertEquals(MetricsSnapshotsEncoder.FRAME_TYPE_DELTA, deltaFrame[0]);
+		decoded = decoder.decode(deltaFrame).get(0).injectorSnapshot();
+		assertInjectorEquals(injectorSnapshot2, decoded);
+		Assert.assertNull(encoder.encode(snapshots));
+	}
+
+	private static void assertInjectorEquals(final InjectorMetricsSnapshot expected, final InjectorMetricsSnapshot actual) {
+		Assert.assertEquals(expected.fiberInvocationCount(), actual.fiberInvocationCount());
+		Assert.assertEquals(expected.fiberOverrunCount(), actual.fiberOverrunCount());
+		Assert.assertEquals(expected.recycleQueueFillLast(), actual.recycleQueueFillLast(), 0);
+		Assert.assertEquals(expected.recycleQueueFillMean(), actual.recycleQueueFillMean(), 0);
+		Assert.assertEquals(expected.transferBufferFillLast(), actual.transferBufferFillLast(), 0);
+		Assert.assertEquals(expected.transferBufferFillMean(), actual.transferBufferFillMean(), 0);
+		Assert.assertEquals(expected.driverQueueDepthLast(), actual.driverQueueDepthLast(), 0);
+		Assert.assertEquals(expected.driverQueueDepthMean(), actual.driverQueueDepthMean(), 0);
+		Assert.assertEquals(expected.completionCount(), actual.completionCount());
+		Assert.assertEquals(expected.completionTimeMicros(), actual.completionTimeMicros());
+		Assert.assertEquals(expected.verifyCount(), actual.verifyCount());
+		Assert.assertEquals(expected.verifyTimeMicros(), actual.verifyTimeMicros());
+		Assert.assertEquals(expected.gcPauseMillis(), actual.gcPauseMillis());
+		Assert.assertEquals(expected.allocatedBytes(), actual.allocatedBytes());
+		Assert.assertEquals(expected.allocRateLast(), actual.allocRateLast(), 0);
+		Assert.assertEquals(expected.processorCount(), actual.processorCount());
+		Assert.assertEquals(expected.elapsedTimeMillis(), actual.elapsedTimeMillis());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testDeltaFrameWithoutBaseFails() {
+		final var encoder = new MetricsSnapshotsEncoder();
+		final var histogram = new LogLinearHistogramImpl();
+		histogram.update(1);
+		encoder.encode(Arrays.asList(snapshot(histogram, 1, 1000)));
+		final var deltaFrame = encoder.encode(Arrays.asList(snapshot(histogram, 1, 2000)));
+		new MetricsSnapshotsDecoder().decode(deltaFrame);
+	}
+}
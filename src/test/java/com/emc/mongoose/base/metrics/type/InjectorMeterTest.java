@@ -0,0 +1,134 @@
+package com.emc.mongoose.base.metrics.type;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.emc.mongoose.base.metrics.snapshot.InjectorMetricsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.InjectorMetricsSnapshotImpl;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class InjectorMeterTest {
+
+	private static final class TestGauges implements InjectorGauges {
+
+		volatile double recycleQueueFill;
+		volatile long driverQueueDepth;
+
+		@Override
+		public long fiberInvocationCount() {
+			return 1000;
+		}
+
+		@Override
+		public long fiberOverrunCount() {
+			return 5;
+		}
+
+		@Override
+		public double recycleQueueFill() {
+			return recycleQueueFill;
+		}
+
+		@Override
+		public double transferBufferFill() {
+			return 0;
+		}
+
+		@Override
+		public long driverQueueDepth() {
+			return driverQueueDepth;
+		}
+
+		@Override
+		public long completionCount() {
+			return 10;
+		}
+
+		@Override
+		public long completionTimeNanos() {
+			return 50_000;
+		}
+
+		@Override
+		public long verifyCount() {
+			return 20;
+		}
+
+		@Override
+		public long verifyTimeNanos() {
+			return 400_000;
+		}
+	}
+
+	@Test
+	public void testEmptyWithoutGauges() {
+		assertSame(InjectorMetricsSnapshotImpl.EMPTY, new InjectorMeter().snapshot());
+	}
+
+	@Test
+	public void testGaugesSampling() {
+		final var meter = new InjectorMeter();
+		final var gauges = new TestGauges();
+		meter.gauges(gauges);
+		gauges.recycleQueueFill = 0.2;
+		gauges.driverQueueDepth = 10;
+		meter.snapshot();
+		gauges.recycleQueueFill = 0.6;
+		gauges.driverQueueDepth = 20;
+		final var snapshot = meter.snapshot();
+		assertEquals(1000, snapshot.fiberInvocationCount());
+		assertEquals(0.005, snapshot.fiberOverrunRatio(), 0);
+		assertEquals(0.6, snapshot.recycleQueueFillLast(), 0);
+		assertEquals(0.4, snapshot.recycleQueueFillMean(), 1e-9);
+		assertEquals(20, snapshot.driverQueueDepthLast(), 0);
+		assertEquals(15, snapshot.driverQueueDepthMean(), 0);
+		assertEquals(50, snapshot.completionTimeMicros());
+		assertEquals(5, snapshot.completionTimeMean(), 0);
+		assertEquals(20, snapshot.verifyCount());
+		assertEquals(20, snapshot.verifyTimeMean(), 0);
+		assertTrue(snapshot.processorCount() > 0);
+		// the means are reset with the start time
+		meter.resetStartTime();
+		gauges.recycleQueueFill = 0.1;
+		assertEquals(0.1, meter.snapshot().recycleQueueFillMean(), 0);
+	}
+
+	@Test
+	public void testSaturated() {
+		final InjectorMetricsSnapshot notSaturated = new InjectorMetricsSnapshotImpl(
+						1000, 5, 0.95, 0.5, 0, 0, 10, 10, 1000, 100_000, 0, 0, 10, 0, 0, 4, 1000);
+		assertFalse(notSaturated.injectorBound());
+		final InjectorMetricsSnapshot saturated = new InjectorMetricsSnapshotImpl(
+						1000, 50, 0.95, 0.95, 0, 0, 10, 10, 1000, 3_000_000, 1000, 3_000_000, 200, 0, 0, 4, 1000);
+		assertEquals(
+						Arrays.asList("load generator", "recycle queue", "results completion", "content verification", "GC"), saturated.saturated());
+		assertTrue(saturated.injectorBound());
+	}
+
+	@Test
+	public void testAggregate() {
+		final List<InjectorMetricsSnapshot> snapshots = Arrays.asList(
+						new InjectorMetricsSnapshotImpl(1000, 5, 0.1, 0.2, 0, 0, 10, 8, 900, 1000, 100, 2000, 10, 100, 50, 4, 1000),
+						new InjectorMetricsSnapshotImpl(2000, 50, 0.9, 0.95, 0, 0, 20, 16, 1900, 2000, 200, 3000, 300, 200, 150, 8, 1200));
+		final var aggregated = InjectorMetricsSnapshotImpl.aggregate(snapshots);
+		assertEquals(3000, aggregated.fiberInvocationCount());
+		assertEquals(55, aggregated.fiberOverrunCount());
+		assertEquals(0.9, aggregated.recycleQueueFillLast(), 0);
+		assertEquals(0.95, aggregated.recycleQueueFillMean(), 0);
+		assertEquals(30, aggregated.driverQueueDepthLast(), 0);
+		assertEquals(2800, aggregated.completionCount());
+		assertEquals(3000, aggregated.completionTimeMicros());
+		assertEquals(300, aggregated.verifyCount());
+		assertEquals(5000, aggregated.verifyTimeMicros());
+		assertEquals(300, aggregated.gcPauseMillis());
+		assertEquals(300, aggregated.allocatedBytes());
+		assertEquals(200, aggregated.allocRateLast(), 0);
+		assertEquals(12, aggregated.processorCount());
+		assertEquals(1200, aggregated.elapsedTimeMillis());
+		assertTrue(aggregated.saturated().contains("recycle queue"));
+	}
+}
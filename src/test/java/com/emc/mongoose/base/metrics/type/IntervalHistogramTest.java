@@ -0,0 +1,66 @@
+package com.emc.mongoose.base.metrics.type;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntervalHistogramTest {
+
+	private static final long INTERVAL_MILLIS = 10_000;
+
+	@Test
+	public void testIntervalRotation() {
+		final var clock = new AtomicLong(0);
+		final var histogram = new IntervalHistogramImpl(INTERVAL_MILLIS, clock::get);
+		for (var i = 1; i <= 100; i++) {
+			histogram.update(1_000);
+		}
+		// the first interval is not complete yet
+		Assert.assertEquals(0, histogram.snapshot().count());
+		clock.set(INTERVAL_MILLIS);
+		var snapshot = histogram.snapshot();
+		Assert.assertEquals(100, snapshot.count());
+		Assert.assertEquals(1_000, snapshot.quantile(0.5), 1_000 / 64.0);
+		for (var i = 1; i <= 10; i++) {
+			histogram.update(100_000);
+		}
+		// the same interval snapshot is returned until the next interval is complete
+		Assert.assertEquals(100, histogram.snapshot().count());
+		clock.set(2 * INTERVAL_MILLIS);
+		snapshot = histogram.snapshot();
+		Assert.assertEquals(10, snapshot.count());
+		Assert.assertEquals(100_000, snapshot.quantile(0.5), 100_000 / 64.0);
+		// nothing recorded during the 3rd interval
+		clock.set(3 * INTERVAL_MILLIS);
+		Assert.assertEquals(0, histogram.snapshot().count());
+	}
+
+	@Test
+	public void testConcurrentUpdatesAreNotLost() throws Exception {
+		final var clock = new AtomicLong(0);
+		final var histogram = new IntervalHistogramImpl(1, clock::get);
+		final var threads = new Thread[4];
+		final var updatesPerThread = 1_000_000;
+		for (var i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				for (var j = 0; j < updatesPerThread; j++) {
+					histogram.update(j);
+				}
+			});
+			threads[i].start();
+		}
+		var total = 0L;
+		var alive = true;
+		while (alive) {
+			clock.incrementAndGet();
+			total += histogram.snapshot().count();
+			alive = false;
+			for (final var t : threads) {
+				alive |= t.isAlive();
+			}
+		}
+		clock.incrementAndGet();
+		total += histogram.snapshot().count();
+		Assert.assertEquals(threads.length * updatesPerThread, total);
+	}
+}
@@ -0,0 +1,60 @@
+package com.emc.mongoose.base.metrics.type;
+
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshotImpl;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LogLinearHistogramTest {
+
+	private static final int COUNT = 1_000_000;
+	private static final double MAX_RELATIVE_ERROR = 1.0 / LogLinearHistogramSnapshot.SUB_BUCKET_COUNT;
+
+	@Test
+	public void testBucketIndexIsMonotonic() {
+		int prevIdx = LogLinearHistogramSnapshot.bucketIndex(0);
+		for (long v = 1; v < 1_000_000; v++) {
+			final int idx = LogLinearHistogramSnapshot.bucketIndex(v);
+			Assert.assertTrue(idx == prevIdx || idx == prevIdx + 1);
+			prevIdx = idx;
+		}
+		Assert.assertEquals(
+						LogLinearHistogramSnapshot.BUCKET_COUNT - 1,
+						LogLinearHistogramSnapshot.bucketIndex(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testQuantilesRelativeError() {
+		final var histogram = new LogLinearHistogramImpl();
+		final var values = new long[COUNT];
+		final var rnd = ThreadLocalRandom.current();
+		for (var i = 0; i < COUNT; i++) {
+			values[i] = (long) Math.exp(rnd.nextDouble(20));
+			histogram.update(values[i]);
+		}
+		Arrays.sort(values);
+		final var snapshot = histogram.snapshot();
+		Assert.assertEquals(COUNT, snapshot.count());
+		for (final var q : new double[] { 0.01, 0.25, 0.5, 0.75, 0.99, 0.999 }) {
+			final var expected = values[(int) Math.ceil(q * COUNT) - 1];
+			final var actual = snapshot.quantile(q);
+			Assert.assertEquals(expected, actual, expected * MAX_RELATIVE_ERROR + 1);
+		}
+	}
+
+	@Test
+	public void testMerge() {
+		final var h1 = new LogLinearHistogramImpl();
+		final var h2 = new LogLinearHistogramImpl();
+		for (var i = 1; i <= 1000; i++) {
+			h1.update(i);
+			h2.update(i + 1000);
+		}
+		final var merged = LogLinearHistogramSnapshotImpl.aggregate(Arrays.asList(h1.snapshot(), h2.snapshot()));
+		Assert.assertEquals(2000, merged.count());
+		Assert.assertEquals(1000, merged.quantile(0.5), 1000 * MAX_RELATIVE_ERROR);
+		Assert.assertEquals(1980, merged.quantile(0.99), 1980 * MAX_RELATIVE_ERROR);
+	}
+}
@@ -3,6 +3,7 @@ package com.emc.mongoose.base.metrics.type;
 import static org.junit.Assert.assertEquals;
 
 import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshotHolder;
 
 import java.time.Clock;
 import java.util.concurrent.TimeUnit;
@@ -35,4 +36,20 @@ public class RateMeterTest {
 		assertEquals(expectedRate, snapshot2.mean(), expectedRate * ACCURACY);
 		assertEquals(expectedRate, snapshot2.last(), expectedRate * ACCURACY);
 	}
+
+	@Test
+	public void testSnapshotHolder() {
+		final RateMeter<RateMetricSnapshot> meter = new RateMeterImpl(Clock.systemUTC(), "SOME_RATE");
+		final var holder = new RateMetricSnapshotHolder("SOME_RATE");
+		meter.update(COUNT_BYTES_1);
+		meter.snapshot(holder);
+		assertEquals(COUNT_BYTES_1, holder.count());
+		final var copy = holder.copy();
+		meter.update(COUNT_BYTES_2);
+		meter.snapshot(holder);
+		assertEquals(COUNT_BYTES_1 + COUNT_BYTES_2, holder.count());
+		// the copy is not affected by the refresh
+		assertEquals(COUNT_BYTES_1, copy.count());
+		assertEquals("SOME_RATE", copy.name());
+	}
 }
@@ -0,0 +1,111 @@
+package com.emc.mongoose.base.metrics.type;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.emc.mongoose.base.item.Item;
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.item.op.Operation;
+import com.emc.mongoose.base.logging.OperationTraceRecord;
+import com.emc.mongoose.base.metrics.snapshot.SlowestOperationsSnapshot;
+import com.emc.mongoose.base.metrics.snapshot.SlowestOperationsSnapshotImpl;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class SlowestOperationsTrackerTest {
+
+	private static final long INTERVAL_MILLIS = 100;
+
+	@SuppressWarnings("unchecked")
+	private static Operation<Item> op(final String itemPath, final long duration) {
+		final Item item = mock(Item.class);
+		when(item.toString()).thenReturn(itemPath + ",0,0");
+		final Operation<Item> op = mock(Operation.class);
+		when(op.item()).thenReturn(item);
+		when(op.nodeAddr()).thenReturn("127.0.0.1");
+		when(op.type()).thenReturn(OpType.READ);
+		when(op.status()).thenReturn(Operation.Status.SUCC);
+		when(op.duration()).thenReturn(duration);
+		when(op.latency()).thenReturn(duration / 2);
+		return op;
+	}
+
+	private static List<Long> durations(final List<OperationTraceRecord<?, ?>> ops) {
+		return ops.stream().map(OperationTraceRecord::duration).collect(Collectors.toList());
+	}
+
+	@Test
+	public void testKeepsSlowestFirst() {
+		final var tracker = new SlowestOperationsTracker(3, 0);
+		for (final var duration : new long[] { 5, 1, 9, 3, 7, 2 }) {
+			tracker.offer(op("/item" + duration, duration));
+		}
+		final var snapshot = tracker.snapshot();
+		assertEquals(List.of(9L, 7L, 5L), durations(snapshot.stepOps()));
+		assertTrue(snapshot.lastIntervalOps().isEmpty());
+		final var slowest = snapshot.stepOps().get(0);
+		assertEquals("/item9", slowest.itemPath());
+		assertEquals("127.0.0.1", slowest.storageNode());
+		assertEquals(OpType.READ.ordinal(), slowest.opTypeCode());
+		assertEquals(Operation.Status.SUCC.ordinal(), slowest.statusCode());
+		assertEquals(4, slowest.respLatency());
+	}
+
+	@Test
+	public void testFastOperationIsRejectedByThreshold() {
+		final var tracker = new SlowestOperationsTracker(2, 0);
+		tracker.offer(op("/a", 10));
+		tracker.offer(op("/b", 20));
+		final var snapshot = tracker.snapshot();
+		final var fastOp = op("/c", 5);
+		tracker.offer(fastOp);
+		// rejected w/o copying the operation fields
+		verify(fastOp, never()).item();
+		assertSame(snapshot, tracker.snapshot());
+		tracker.offer(op("/d", 15));
+		assertEquals(List.of(20L, 15L), durations(tracker.snapshot().stepOps()));
+	}
+
+	@Test
+	public void testIntervalRoll() throws Exception {
+		final var tracker = new SlowestOperationsTracker(2, INTERVAL_MILLIS);
+		tracker.offer(op("/a", 10));
+		tracker.offer(op("/b", 20));
+		tracker.offer(op("/c", 30));
+		TimeUnit.MILLISECONDS.sleep(INTERVAL_MILLIS + 10);
+		var snapshot = tracker.snapshot();
+		assertEquals(List.of(30L, 20L), durations(snapshot.lastIntervalOps()));
+		// the threshold is reset for the new interval
+		tracker.offer(op("/d", 5));
+		TimeUnit.MILLISECONDS.sleep(INTERVAL_MILLIS + 10);
+		snapshot = tracker.snapshot();
+		assertEquals(List.of(5L), durations(snapshot.lastIntervalOps()));
+		assertEquals(List.of(30L, 20L), durations(snapshot.stepOps()));
+	}
+
+	@Test
+	public void testAggregate() {
+		final var tracker1 = new SlowestOperationsTracker(2, 0);
+		final var tracker2 = new SlowestOperationsTracker(2, 0);
+		tracker1.offer(op("/a", 10));
+		tracker1.offer(op("/b", 40));
+		tracker2.offer(op("/c", 30));
+		tracker2.offer(op("/d", 20));
+		final SlowestOperationsSnapshot snapshot = SlowestOperationsSnapshotImpl.aggregate(
+						List.of(tracker1.snapshot(), tracker2.snapshot()));
+		assertEquals(List.of(40L, 30L), durations(snapshot.stepOps()));
+		assertTrue(snapshot.lastIntervalOps().isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidLimit() {
+		new SlowestOperationsTracker(0, 0);
+	}
+}
@@ -26,5 +26,20 @@ public class TimingMeterTest {
 		final double mean = ((double) sum) / INTERVALS;
 		Assert.assertEquals(snapshot.mean(), mean, mean * 0.001);
 		Assert.assertEquals(snapshot.max(), INTERVALS - 1);
+		Assert.assertEquals(snapshot.quantile(0.5), INTERVALS / 2 - 1);
+	}
+
+	@Test
+	public void testSnapshotIsReusedWithoutUpdates() {
+		final var meter = new TimingMeterImpl("SOME_METRIC");
+		meter.update(10);
+		final var snapshot1 = meter.snapshot();
+		Assert.assertSame(snapshot1, meter.snapshot());
+		meter.update(20);
+		final var snapshot2 = meter.snapshot();
+		Assert.assertNotSame(snapshot1, snapshot2);
+		// the previous snapshot doesn't share the reused histogram buffer
+		Assert.assertEquals(1, snapshot1.histogramSnapshot().count());
+		Assert.assertEquals(2, snapshot2.histogramSnapshot().count());
 	}
 }
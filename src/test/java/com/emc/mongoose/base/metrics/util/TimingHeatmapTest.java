@@ -0,0 +1,73 @@
+package com.emc.mongoose.base.metrics.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.emc.mongoose.base.metrics.snapshot.LogLinearHistogramSnapshot;
+import com.emc.mongoose.base.metrics.type.LogLinearHistogramImpl;
+import org.junit.Test;
+
+public class TimingHeatmapTest {
+
+	@Test
+	public void testBuckets() {
+		assertEquals(41, TimingHeatmap.BUCKET_COUNT);
+		assertEquals(0, TimingHeatmap.bucketIndex(0));
+		assertEquals(1, TimingHeatmap.bucketIndex(1));
+		assertEquals(2, TimingHeatmap.bucketIndex(2));
+		assertEquals(2, TimingHeatmap.bucketIndex(3));
+		assertEquals(11, TimingHeatmap.bucketIndex(1024));
+		assertEquals(11, TimingHeatmap.bucketIndex(2047));
+		assertEquals(40, TimingHeatmap.bucketIndex(Long.MAX_VALUE));
+		for (var i = 0; i < TimingHeatmap.BUCKET_COUNT; i++) {
+			assertEquals(i, TimingHeatmap.bucketIndex(TimingHeatmap.bucketLowerBound(i)));
+		}
+	}
+
+	@Test
+	public void testSlices() {
+		final var durHistogram = new LogLinearHistogramImpl();
+		final var latHistogram = new LogLinearHistogramImpl();
+		final var heatmap = new TimingHeatmap(1000, 0);
+		// bimodal: cache hits ~100us and misses ~10ms
+		for (var i = 0; i < 100; i++) {
+			durHistogram.update(100 + i);
+			durHistogram.update(10_000 + i);
+			latHistogram.update(50);
+		}
+		var durSlice = heatmap.durationSlice(durHistogram.snapshot());
+		var latSlice = heatmap.latencySlice(latHistogram.snapshot());
+		final var expectedDurSlice = new long[TimingHeatmap.BUCKET_COUNT];
+		expectedDurSlice[TimingHeatmap.bucketIndex(100)] = 28; // 100..127
+		expectedDurSlice[TimingHeatmap.bucketIndex(128)] = 72; // 128..199
+		expectedDurSlice[TimingHeatmap.bucketIndex(10_000)] = 100;
+		assertArrayEquals(expectedDurSlice, durSlice);
+		assertEquals(100, latSlice[TimingHeatmap.bucketIndex(50)]);
+		// the next slice contains the new values only
+		durHistogram.update(1_000_000);
+		durSlice = heatmap.durationSlice(durHistogram.snapshot());
+		latSlice = heatmap.latencySlice(latHistogram.snapshot());
+		final var expectedNextDurSlice = new long[TimingHeatmap.BUCKET_COUNT];
+		expectedNextDurSlice[TimingHeatmap.bucketIndex(1_000_000)] = 1;
+		assertArrayEquals(expectedNextDurSlice, durSlice);
+		assertArrayEquals(new long[TimingHeatmap.BUCKET_COUNT], latSlice);
+	}
+
+	@Test
+	public void testSliceDone() {
+		final var heatmap = new TimingHeatmap(1000, 10_000);
+		assertFalse(heatmap.sliceDone(10_999));
+		assertTrue(heatmap.sliceDone(11_000));
+		assertFalse(heatmap.sliceDone(11_500));
+		assertTrue(heatmap.sliceDone(12_001));
+	}
+
+	@Test
+	public void testEmptyHistogram() {
+		final LogLinearHistogramSnapshot empty = new LogLinearHistogramImpl().snapshot();
+		assertArrayEquals(
+						new long[TimingHeatmap.BUCKET_COUNT], new TimingHeatmap(1000, 0).durationSlice(empty));
+	}
+}
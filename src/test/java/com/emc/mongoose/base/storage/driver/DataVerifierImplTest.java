@@ -0,0 +1,206 @@
+package com.emc.mongoose.base.storage.driver;
+
+import com.emc.mongoose.base.data.DataInput;
+import com.emc.mongoose.base.item.DataItemImpl;
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.item.op.Operation;
+import com.emc.mongoose.base.item.op.data.DataOperationImpl;
+import com.github.akurilov.commons.system.SizeInBytes;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.mockito.Mockito;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataVerifierImplTest {
+
+	private static final int CHUNK_SIZE = 0x1000;
+	private static final int CHUNK_COUNT = 0x10;
+
+	private static ByteBuffer expectedChunk(final DataInput dataInput, final long absOffset) {
+		final var ringBuff = dataInput.getLayer(0).asReadOnlyBuffer();
+		ringBuff.position((int) (absOffset % dataInput.getSize()));
+		ringBuff.limit(ringBuff.position() + CHUNK_SIZE);
+		final var chunk = ByteBuffer.allocate(CHUNK_SIZE);
+		chunk.put(ringBuff).flip();
+		return chunk;
+	}
+
+	@Test
+	public void testVerificationResultIsMergedBeforeCompletion() throws Exception {
+		try (final var dataInput = DataInput.instance(null, "7a42d9c483244167", new SizeInBytes("1MB"), 1, false);
+						final var verifier = new DataVerifierImpl<DataOperationImpl<DataItemImpl>>("test", dataInput, 4)) {
+			final BlockingQueue<DataOperationImpl<DataItemImpl>> completed = new ArrayBlockingQueue<>(2);
+			final var validOp = new DataOperationImpl<>(
+							0, OpType.READ, new DataItemImpl("valid,0,10000,0/0"), null, null, null, null, 0);
+			final var corruptOp = new DataOperationImpl<>(
+							0, OpType.READ, new DataItemImpl("corrupt,0,10000,0/0"), null, null, null, null, 0);
+			validOp.status(Operation.Status.SUCC);
+			corruptOp.status(Operation.Status.SUCC);
+			for (int i = 0; i < CHUNK_COUNT; i++) {
+				final long absOffset = i * CHUNK_SIZE;
+				verifier.submit(validOp, 0, absOffset, expectedChunk(dataInput, absOffset));
+				final var chunk = expectedChunk(dataInput, absOffset);
+				if (i == CHUNK_COUNT - 1) {
+					chunk.put(CHUNK_SIZE / 2, (byte) ~chunk.get(CHUNK_SIZE / 2));
+				}
+				verifier.submit(corruptOp, 0, absOffset, chunk);
+			}
+			Assert.assertTrue(verifier.complete(validOp, completed::offer));
+			Assert.assertTrue(verifier.complete(corruptOp, completed::offer));
+			for (int i = 0; i < 2; i++) {
+				final var op = completed.poll(10, TimeUnit.SECONDS);
+				Assert.assertNotNull(op);
+				if (op == validOp) {
+					Assert.assertEquals(Operation.Status.SUCC, op.status());
+				} else {
+					Assert.assertEquals(Operation.Status.RESP_FAIL_CORRUPT, op.status());
+				}
+			}
+			Assert.assertEquals(2 * CHUNK_COUNT, verifier.verifyCount());
+		}
+	}
+
+	@Test
+	public void testCompletionWithoutSubmittedContent() throws Exception {
+		try (final var dataInput = DataInput.instance(null, "7a42d9c483244167", new SizeInBytes("1MB"), 1, false);
+						final var verifier = new DataVerifierImpl<DataOperationImpl<DataItemImpl>>("test", dataInput, 1)) {
+			final var op = new DataOperationImpl<>(
+							0, OpType.READ, new DataItemImpl("item,0,10000,0/0"), null, null, null, null, 0);
+			op.status(Operation.Status.SUCC);
+			Assert.assertFalse(verifier.complete(op, o -> false));
+			Assert.assertEquals(Operation.Status.SUCC, op.status());
+		}
+	}
+
+	@Test
+	public void testVerificationErrorFailsOperation() throws Exception {
+		try (final var dataInput = DataInput.instance(null, "7a42d9c483244167", new SizeInBytes("1MB"), 1, false);
+						final var verifier = new DataVerifierImpl<DataOperationImpl<DataItemImpl>>("test", dataInput, 1)) {
+			final BlockingQueue<DataOperationImpl<DataItemImpl>> completed = new ArrayBlockingQueue<>(1);
+			final var op = new DataOperationImpl<>(
+							0, OpType.READ, new DataItemImpl("item,0,10000,0/0"), null, null, null, null, 0);
+			op.status(Operation.Status.SUCC);
+			// no content to verify, not a content mismatch
+			verifier.submit(op, 0, 0, null);
+			Assert.assertTrue(verifier.complete(op, completed::offer));
+			Assert.assertSame(op, completed.poll(10, TimeUnit.SECONDS));
+			Assert.assertEquals(Operation.Status.FAIL_UNKNOWN, op.status());
+		}
+	}
+
+	@Test
+	public void testCloseVerifiesSubmittedContent() throws Exception {
+		try (final var dataInput = DataInput.instance(null, "7a42d9c483244167", new SizeInBytes("1MB"), 1, false)) {
+			final var verifier = new DataVerifierImpl<DataOperationImpl<DataItemImpl>>("test", dataInput, 1);
+			final BlockingQueue<DataOperationImpl<DataItemImpl>> completed = new ArrayBlockingQueue<>(1);
+			final var op = new DataOperationImpl<>(
+							0, OpType.READ, new DataItemImpl("item,0,10000,0/0"), null, null, null, null, 0);
+			op.status(Operation.Status.SUCC);
+			for (int i = 0; i < CHUNK_COUNT; i++) {
+				final long absOffset = i * CHUNK_SIZE;
+				verifier.submit(op, 0, absOffset, expectedChunk(dataInput, absOffset));
+			}
+			Assert.assertTrue(verifier.complete(op, completed::offer));
+			verifier.close();
+			Assert.assertSame(op, completed.poll());
+			Assert.assertEquals(Operation.Status.SUCC, op.status());
+			Assert.assertEquals(CHUNK_COUNT, verifier.verifyCount());
+		}
+	}
+
+	@Test
+	public void testInterruptedCloseFailsQueuedOperations() throws Exception {
+		final var verifyStarted = new CountDownLatch(1);
+		final var dataInput = Mockito.mock(DataInput.class);
+		Mockito.when(dataInput.getLayer(Mockito.anyInt()))
+						.thenAnswer(
+										invocation -> {
+											verifyStarted.countDown();
+											// block the only verifier thread until interrupted
+											new CountDownLatch(1).await();
+											return null;
+										});
+		final var verifier = new DataVerifierImpl<DataOperationImpl<DataItemImpl>>("test", dataInput, 1);
+		final BlockingQueue<DataOperationImpl<DataItemImpl>> completed = new ArrayBlockingQueue<>(2);
+		final var runningOp = new DataOperationImpl<>(
+						0, OpType.READ, new DataItemImpl("running,0,10000,0/0"), null, null, null, null, 0);
+		final var queuedOp = new DataOperationImpl<>(
+						0, OpType.READ, new DataItemImpl("queued,0,10000,0/0"), null, null, null, null, 0);
+		runningOp.status(Operation.Status.SUCC);
+		queuedOp.status(Operation.Status.SUCC);
+		verifier.submit(runningOp, 0, 0, ByteBuffer.allocate(CHUNK_SIZE));
+		verifier.submit(queuedOp, 0, 0, ByteBuffer.allocate(CHUNK_SIZE));
+		Assert.assertTrue(verifier.complete(runningOp, completed::offer));
+		Assert.assertTrue(verifier.complete(queuedOp, completed::offer));
+		Assert.assertTrue(verifyStarted.await(10, TimeUnit.SECONDS));
+		Assert.assertTrue(completed.isEmpty());
+		Thread.currentThread().interrupt();
+		verifier.close();
+		Assert.assertTrue(Thread.interrupted());
+		for (int i = 0; i < 2; i++) {
+			final var op = completed.poll(10, TimeUnit.SECONDS);
+			Assert.assertNotNull(op);
+			if (op == queuedOp) {
+				Assert.assertEquals(Operation.Status.INTERRUPTED, op.status());
+			} else {
+				Assert.assertEquals(Operation.Status.FAIL_UNKNOWN, op.status());
+			}
+		}
+	}
+
+	@Test
+	public void testVerifiedChunksAreReleased() throws Exception {
+		final List<ByteBuffer> releasedChunks = Collections.synchronizedList(new ArrayList<>());
+		try (final var dataInput = DataInput.instance(null, "7a42d9c483244167", new SizeInBytes("1MB"), 1, false)) {
+			final var verifier = new DataVerifierImpl<DataOperationImpl<DataItemImpl>>(
+							"test", dataInput, 2, releasedChunks::add);
+			final var op = new DataOperationImpl<>(
+							0, OpType.READ, new DataItemImpl("item,0,10000,0/0"), null, null, null, null, 0);
+			final List<ByteBuffer> chunks = new ArrayList<>();
+			for (int i = 0; i < CHUNK_COUNT; i++) {
+				final long absOffset = i * CHUNK_SIZE;
+				final var chunk = expectedChunk(dataInput, absOffset);
+				chunks.add(chunk);
+				verifier.submit(op, 0, absOffset, chunk);
+			}
+			Assert.assertTrue(verifier.complete(op, o -> true));
+			verifier.close();
+			Assert.assertEquals(CHUNK_COUNT, releasedChunks.size());
+			for (final var chunk : chunks) {
+				Assert.assertTrue(releasedChunks.stream().anyMatch(released -> released == chunk));
+			}
+		}
+	}
+
+	@Test
+	public void testDeferredCompletionFailureIsCounted() throws Exception {
+		try (final var dataInput = DataInput.instance(null, "7a42d9c483244167", new SizeInBytes("1MB"), 1, false)) {
+			final var completeInvoked = new CountDownLatch(1);
+			final var blockingDataInput = Mockito.mock(DataInput.class);
+			Mockito.when(blockingDataInput.getLayer(Mockito.anyInt()))
+							.thenAnswer(
+											invocation -> {
+												// don't finish the verification before the completion is deferred
+												completeInvoked.await();
+												return dataInput.getLayer(invocation.getArgument(0));
+											});
+			final var verifier = new DataVerifierImpl<DataOperationImpl<DataItemImpl>>("test", blockingDataInput, 1);
+			final var op = new DataOperationImpl<>(
+							0, OpType.READ, new DataItemImpl("item,0,10000,0/0"), null, null, null, null, 0);
+			verifier.submit(op, 0, 0, expectedChunk(dataInput, 0));
+			// e.g. the results queue overflow after the verification
+			Assert.assertTrue(verifier.complete(op, o -> false));
+			completeInvoked.countDown();
+			verifier.close();
+			Assert.assertEquals(1, verifier.verifyCount());
+			Assert.assertEquals(1, verifier.droppedCount());
+		}
+	}
+}
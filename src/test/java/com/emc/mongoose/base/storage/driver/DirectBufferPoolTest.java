@@ -0,0 +1,123 @@
+package com.emc.mongoose.base.storage.driver;
+
+import static com.emc.mongoose.base.storage.driver.StorageDriver.BUFF_SIZE_MAX;
+import static com.emc.mongoose.base.storage.driver.StorageDriver.BUFF_SIZE_MIN;
+
+import java.nio.ByteBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DirectBufferPoolTest {
+
+	@Test
+	public void testSizeClasses() {
+		Assert.assertEquals(13, DirectBufferPool.sizeClassCount());
+		Assert.assertEquals(0, DirectBufferPool.sizeClass(1));
+		Assert.assertEquals(0, DirectBufferPool.sizeClass(BUFF_SIZE_MIN));
+		Assert.assertEquals(1, DirectBufferPool.sizeClass(BUFF_SIZE_MIN + 1));
+		Assert.assertEquals(12, DirectBufferPool.sizeClass(BUFF_SIZE_MAX));
+		Assert.assertEquals(12, DirectBufferPool.sizeClass(Integer.MAX_VALUE));
+		Assert.assertEquals(BUFF_SIZE_MAX, DirectBufferPool.sizeClassCapacity(12));
+	}
+
+	@Test
+	public void testBuffersReuse() {
+		final var pool = new DirectBufferPoolImpl(0x100_000);
+		final var buff = pool.acquire(10_000);
+		Assert.assertTrue(buff.isDirect());
+		Assert.assertEquals(0x4000, buff.capacity());
+		Assert.assertEquals(10_000, buff.limit());
+		pool.release(buff);
+		Assert.assertSame(buff, pool.acquire(0x3000));
+		Assert.assertEquals(0x4000, pool.allocatedSize());
+	}
+
+	@Test
+	public void testSizeLimit() {
+		final var pool = new DirectBufferPoolImpl(0x10_000);
+		final var buff1 = pool.acquire(0x10_000);
+		Assert.assertTrue(buff1.isDirect());
+		final var buff2 = pool.acquire(0x10_000);
+		Assert.assertFalse(buff2.isDirect());
+		pool.release(buff2);
+		Assert.assertEquals(0x10_000, pool.allocatedSize());
+	}
+
+	@Test
+	public void testAdjust() {
+		final var pool = new DirectBufferPoolImpl(0x1_000_000);
+		Assert.assertEquals(0x100_000, pool.adjust(1_000_000));
+		Assert.assertEquals(0x100_000, pool.acquire().limit());
+		Assert.assertEquals(BUFF_SIZE_MIN, pool.adjust(1));
+		Assert.assertEquals(BUFF_SIZE_MIN, pool.acquire().capacity());
+	}
+
+	@Test
+	public void testForeignBuffersAreIgnored() {
+		final var pool = new DirectBufferPoolImpl(0x100_000);
+		final var buff = pool.acquire(0x4000);
+		pool.release(ByteBuffer.allocateDirect(0x3000));
+		pool.release(ByteBuffer.allocate(0x4000));
+		Assert.assertEquals(0x4000, pool.allocatedSize());
+		pool.release(buff);
+		Assert.assertSame(buff, pool.acquire(0x4000));
+		Assert.assertNotSame(buff, pool.acquire(0x4000));
+		Assert.assertEquals(0x8000, pool.allocatedSize());
+	}
+
+	@Test
+	public void testTrackedForeignBuffersAreIgnored() {
+		final var pool = new DirectBufferPoolImpl(0x100_000, true);
+		final var buff = pool.acquire(0x4000);
+		pool.release(ByteBuffer.allocateDirect(0x4000));
+		Assert.assertEquals(0x4000, pool.allocatedSize());
+		pool.release(buff);
+		// repeated release
+		pool.release(buff);
+		Assert.assertSame(buff, pool.acquire(0x4000));
+		Assert.assertNotSame(buff, pool.acquire(0x4000));
+		Assert.assertEquals(0x8000, pool.allocatedSize());
+	}
+
+	@Test
+	public void testInstanceUsesLargestSizeLimit() {
+		final var pool = DirectBufferPool.instance(1);
+		final var sizeLimit = pool.sizeLimit();
+		Assert.assertSame(pool, DirectBufferPool.instance(sizeLimit + 1));
+		Assert.assertEquals(sizeLimit + 1, pool.sizeLimit());
+		DirectBufferPool.instance(1);
+		Assert.assertEquals(sizeLimit + 1, pool.sizeLimit());
+	}
+
+	@Test
+	public void testAdjustTrimsMagazines() {
+		final var pool = new DirectBufferPoolImpl(0x1_000_000);
+		pool.adjust(0x100_000);
+		pool.release(pool.acquire(0x100_000));
+		Assert.assertEquals(0x100_000, pool.allocatedSize());
+		pool.adjust(BUFF_SIZE_MIN);
+		// the magazine is trimmed by its owner thread on the next access
+		pool.release(pool.acquire());
+		Assert.assertEquals(BUFF_SIZE_MIN, pool.allocatedSize());
+	}
+
+	@Test
+	public void testTerminatedThreadMagazineIsDrained() throws Exception {
+		final var pool = new DirectBufferPoolImpl(0x1_000_000);
+		final var buffs = new ByteBuffer[2];
+		final var thread = new Thread(
+						() -> {
+							buffs[0] = pool.acquire(0x10_000);
+							buffs[1] = pool.acquire(0x100_000);
+							pool.release(buffs[0]);
+							pool.release(buffs[1]);
+						});
+		thread.start();
+		thread.join();
+		Assert.assertEquals(0x110_000, pool.allocatedSize());
+		pool.adjust(0x10_000);
+		// the larger buffer is released, the preferred one is reused by the other thread
+		Assert.assertEquals(0x10_000, pool.allocatedSize());
+		Assert.assertSame(buffs[0], pool.acquire(0x10_000));
+	}
+}
@@ -0,0 +1,78 @@
+package com.emc.mongoose.base.storage.driver.mock;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.emc.mongoose.base.data.DataInput;
+import com.emc.mongoose.base.item.DataItemImpl;
+import com.emc.mongoose.base.item.op.OpType;
+import com.emc.mongoose.base.item.op.Operation;
+import com.emc.mongoose.base.item.op.data.DataOperationImpl;
+import com.github.akurilov.commons.io.Output;
+import com.github.akurilov.commons.system.SizeInBytes;
+import com.github.akurilov.confuse.Config;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DummyStorageDriverMockTest {
+
+	private static Config storageConfig(final int verifyThreadCount) {
+		final var limitConfig = mock(Config.class);
+		when(limitConfig.intVal("concurrency")).thenReturn(1);
+		when(limitConfig.val("memory")).thenReturn("1MB");
+		final var storageConfig = mock(Config.class);
+		when(storageConfig.configVal("driver-limit")).thenReturn(limitConfig);
+		when(storageConfig.intVal("driver-verify-threads")).thenReturn(verifyThreadCount);
+		return storageConfig;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Output<DataOperationImpl<DataItemImpl>> output(final BlockingQueue<DataOperationImpl<DataItemImpl>> q)
+					throws Exception {
+		final Output<DataOperationImpl<DataItemImpl>> output = mock(Output.class);
+		when(output.put(any(DataOperationImpl.class)))
+						.thenAnswer(invocation -> q.offer(invocation.getArgument(0)));
+		return output;
+	}
+
+	@Test
+	public void testReadContentIsVerifiedByThePool() throws Exception {
+		final var itemSize = 1_000_000;
+		try (final var dataInput = DataInput.instance(null, "7a42d9c483244167", new SizeInBytes("1MB"), 1, false);
+						final var driver = new DummyStorageDriverMock<DataItemImpl, DataOperationImpl<DataItemImpl>>(
+										"test", dataInput, storageConfig(2), true)) {
+			final BlockingQueue<DataOperationImpl<DataItemImpl>> completed = new ArrayBlockingQueue<>(1);
+			driver.operationResultOutput(output(completed));
+			driver.start();
+			final var op = new DataOperationImpl<>(
+							0, OpType.READ, new DataItemImpl("item,0," + itemSize + ",0/0"), null, null, null, null, 0);
+			Assert.assertTrue(driver.put(op));
+			Assert.assertSame(op, completed.poll(10, TimeUnit.SECONDS));
+			Assert.assertEquals(Operation.Status.SUCC, op.status());
+			Assert.assertEquals(itemSize, op.countBytesDone());
+			// 0x10_000 bytes per chunk
+			Assert.assertEquals((itemSize + 0xFFFF) / 0x10_000, driver.verifyCount());
+			Assert.assertTrue(driver.verifyTimeNanos() > 0);
+		}
+	}
+
+	@Test
+	public void testNoVerificationPool() throws Exception {
+		try (final var dataInput = DataInput.instance(null, "7a42d9c483244167", new SizeInBytes("1MB"), 1, false);
+						final var driver = new DummyStorageDriverMock<DataItemImpl, DataOperationImpl<DataItemImpl>>(
+										"test", dataInput, storageConfig(0), true)) {
+			final BlockingQueue<DataOperationImpl<DataItemImpl>> completed = new ArrayBlockingQueue<>(1);
+			driver.operationResultOutput(output(completed));
+			driver.start();
+			final var op = new DataOperationImpl<>(
+							0, OpType.READ, new DataItemImpl("item,0,1000,0/0"), null, null, null, null, 0);
+			Assert.assertTrue(driver.put(op));
+			Assert.assertSame(op, completed.poll());
+			Assert.assertEquals(0, driver.verifyCount());
+		}
+	}
+}
@@ -0,0 +1,249 @@
+package com.emc.mongoose.base.svc.nio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.emc.mongoose.base.svc.Service;
+import com.emc.mongoose.base.svc.ServiceBase;
+import com.emc.mongoose.base.svc.ServiceTransport;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.rmi.ConnectException;
+import java.rmi.NotBoundException;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NioServiceUtilTest {
+
+	public interface TestCallback extends Remote {
+
+		void accept(final int i) throws RemoteException;
+	}
+
+	public interface TestService extends Service {
+
+		String SVC_NAME = "test/service";
+
+		String echo(final String s) throws RemoteException;
+
+		long sum(final long a, final int b, final TimeUnit unit) throws RemoteException;
+
+		byte[] bytes(final int size) throws RemoteException;
+
+		List<Object> list(final List<Object> list) throws RemoteException;
+
+		void fail(final String msg) throws IOException;
+
+		void sleep(final long millis) throws InterruptedException, RemoteException;
+
+		void callback(final TestCallback callback, final int count) throws RemoteException;
+
+		TestService self() throws RemoteException;
+
+		int portOf(final TestService other) throws RemoteException;
+	}
+
+	private static final class TestServiceImpl extends ServiceBase implements TestService {
+
+		private TestServiceImpl(final int port) {
+			super(port, ServiceTransport.NIO);
+		}
+
+		@Override
+		public final String name() {
+			return SVC_NAME;
+		}
+
+		@Override
+		public final String echo(final String s) {
+			return s;
+		}
+
+		@Override
+		public final long sum(final long a, final int b, final TimeUnit unit) {
+			return unit.toMillis(a + b);
+		}
+
+		@Override
+		public final byte[] bytes(final int size) {
+			final var bytes = new byte[size];
+			for (var i = 0; i < size; i++) {
+				bytes[i] = (byte) i;
+			}
+			return bytes;
+		}
+
+		@Override
+		public final List<Object> list(final List<Object> list) {
+			final List<Object> result = new ArrayList<>(list);
+			result.add(list.size());
+			return result;
+		}
+
+		@Override
+		public final void fail(final String msg) throws IOException {
+			if (null == msg) {
+				throw new IllegalStateException();
+			}
+			throw new IOException(msg);
+		}
+
+		@Override
+		public final void sleep(final long millis) throws InterruptedException {
+			Thread.sleep(millis);
+		}
+
+		@Override
+		public final void callback(final TestCallback callback, final int count) throws RemoteException {
+			for (var i = 0; i < count; i++) {
+				callback.accept(i);
+			}
+		}
+
+		@Override
+		public final TestService self() {
+			return this;
+		}
+
+		@Override
+		public final int portOf(final TestService other) throws RemoteException {
+			return other.registryPort();
+		}
+
+		@Override
+		protected final void doClose() {}
+	}
+
+	private int port;
+	private TestServiceImpl svc;
+
+	@Before
+	public void setUp() throws Exception {
+		try (final var socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		svc = new TestServiceImpl(port);
+		svc.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		svc.stop();
+		NioServiceUtil.shutdown();
+	}
+
+	private TestService resolve() throws Exception {
+		return NioServiceUtil.resolve("127.0.0.1:" + port, TestService.SVC_NAME, TestService.class);
+	}
+
+	@Test
+	public void testValues() throws Exception {
+		final var proxy = resolve();
+		assertTrue(NioServiceUtil.isProxy(proxy));
+		assertEquals(TestService.SVC_NAME, proxy.name());
+		assertEquals(port, proxy.registryPort());
+		assertEquals("\u0442\u0435\u0441\u0442", proxy.echo("\u0442\u0435\u0441\u0442"));
+		assertEquals("", proxy.echo(""));
+		assertNull(proxy.echo(null));
+		assertEquals(3_000, proxy.sum(1, 2, TimeUnit.SECONDS));
+		assertEquals(Long.MIN_VALUE, proxy.sum(Long.MIN_VALUE, 0, TimeUnit.MILLISECONDS));
+		final var bytes = proxy.bytes(0x10_0000);
+		assertEquals(0x10_0000, bytes.length);
+		assertArrayEquals(svc.bytes(0x10_0000), bytes);
+		assertEquals(List.of("a", 1L, true, 2.5, List.of(), 5), proxy.list(List.of("a", 1L, true, 2.5, List.of())));
+		assertSame(proxy, proxy.self());
+	}
+
+	@Test
+	public void testExceptions() throws Exception {
+		final var proxy = resolve();
+		try {
+			proxy.fail("expected failure");
+			fail();
+		} catch (final IOException e) {
+			assertEquals("expected failure", e.getMessage());
+		}
+		try {
+			proxy.fail(null);
+			fail();
+		} catch (final IllegalStateException expected) {}
+	}
+
+	@Test(expected = NotBoundException.class)
+	public void testNotBound() throws Exception {
+		NioServiceUtil.resolve("127.0.0.1:" + port, "no/such/service", TestService.class);
+	}
+
+	@Test(expected = ConnectException.class)
+	public void testConnectionRefused() throws Exception {
+		svc.stop();
+		NioServiceUtil.shutdown();
+		resolve();
+	}
+
+	@Test
+	public void testCallback() throws Exception {
+		final var proxy = resolve();
+		final List<Integer> values = new CopyOnWriteArrayList<>();
+		final TestCallback callback = values::add;
+		proxy.callback(callback, 100);
+		assertEquals(100, values.size());
+		for (var i = 0; i < 100; i++) {
+			assertEquals(i, (int) values.get(i));
+		}
+	}
+
+	@Test
+	public void testOtherNodeProxyArg() throws Exception {
+		final int otherPort;
+		try (final var socket = new ServerSocket(0)) {
+			otherPort = socket.getLocalPort();
+		}
+		final var otherSvc = new TestServiceImpl(otherPort);
+		otherSvc.start();
+		try {
+			final var proxy = resolve();
+			final var otherProxy = NioServiceUtil.resolve(
+							"127.0.0.1:" + otherPort, TestService.SVC_NAME, TestService.class);
+			// the service with the same name at the other node is not confused with the local one
+			assertEquals(otherPort, proxy.portOf(otherProxy));
+			assertEquals(port, proxy.portOf(proxy));
+		} finally {
+			otherSvc.stop();
+		}
+	}
+
+	@Test
+	public void testConcurrentCalls() throws Exception {
+		final var proxy = resolve();
+		final var slowCall = CompletableFuture.runAsync(
+						() -> {
+							try {
+								proxy.sleep(1_000);
+							} catch (final InterruptedException | RemoteException e) {
+								throw new AssertionError(e);
+							}
+						});
+		Thread.sleep(100);
+		final var t = System.nanoTime();
+		for (var i = 0; i < 1_000; i++) {
+			assertEquals(Integer.toString(i), proxy.echo(Integer.toString(i)));
+		}
+		// the fast calls are not blocked by the slow one in progress
+		assertTrue(System.nanoTime() - t < TimeUnit.MILLISECONDS.toNanos(900));
+		assertTrue(!slowCall.isDone());
+		slowCall.get();
+	}
+}
@@ -137,6 +137,8 @@ public class ExposedMetricsTest {
 		//testTimingMetric(result, MARK_DUR, METRIC_NAME_DUR);
 		//testTimingMetric(result, MARK_LAT, METRIC_NAME_LAT);
 		testConcurrencyMetric(result, 1, METRIC_NAME_CONC);
+		testHistogramMetric(result, MARK_DUR, METRIC_NAME_DUR);
+		testHistogramMetric(result, MARK_LAT, METRIC_NAME_LAT);
 		//
 		testRateMetric(result, ITEM_DATA_SIZE.get(), METRIC_NAME_BYTE);
 		testRateMetric(result, 1, METRIC_NAME_FAIL);
@@ -205,6 +207,24 @@ public class ExposedMetricsTest {
 		testMetric(stdOut, name, expectedValues, accuracy);
 	}
 
+	private void testHistogramMetric(final String stdOut, final double markValue, final String name) {
+		final var bucketName = String.format(METRIC_FORMAT, name + "_histogram") + "_bucket";
+		final var p = Pattern.compile(bucketName + "\\{.*le=\"([^\"]+)\",?\\} (.+)");
+		final var m = p.matcher(stdOut);
+		var bucketCount = 0;
+		while (m.find()) {
+			bucketCount++;
+			final var le = "+Inf".equals(m.group(1)) ? Double.POSITIVE_INFINITY : Double.parseDouble(m.group(1));
+			final var expectedCount = le * Constants.M < markValue ? 0 : ITERATION_COUNT;
+			Assert.assertEquals(bucketName + " le=" + le, expectedCount, Double.parseDouble(m.group(2)), 0);
+		}
+		Assert.assertTrue(bucketCount > 1);
+		final Map<String, Double> expectedValues = new HashMap<>();
+		expectedValues.put("count", (double) ITERATION_COUNT);
+		expectedValues.put("sum", ITERATION_COUNT * markValue / Constants.M);
+		testMetric(stdOut, name + "_histogram", expectedValues, TIMING_ACCURACY);
+	}
+
 	private void testRateMetric(final String stdOut, final double markValue, final String name) {
 		final Map<String, Double> expectedValues = new HashMap<>();
 		double count = ITERATION_COUNT;
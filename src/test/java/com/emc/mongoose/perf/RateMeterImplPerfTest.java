@@ -0,0 +1,64 @@
+package com.emc.mongoose.perf;
+
+import com.emc.mongoose.base.metrics.snapshot.RateMetricSnapshotHolder;
+import com.emc.mongoose.base.metrics.type.RateMeterImpl;
+import java.time.Clock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** The rate meter update contention benchmark, the snapshots are taken concurrently like the metrics manager does */
+public class RateMeterImplPerfTest {
+
+	private static final int[] THREAD_COUNTS = { 1, 8, 64 };
+	private static final int TIME_LIMIT = 10;
+
+	@Test
+	public final void testUpdateContention() throws Exception {
+		for (final var threadCount : THREAD_COUNTS) {
+			final var meter = new RateMeterImpl(Clock.systemUTC(), "perf");
+			final var opCounter = new LongAdder();
+			final var startLatch = new CountDownLatch(1);
+			final var deadline = new long[1];
+			final var updaters = new Thread[threadCount];
+			for (var i = 0; i < threadCount; i++) {
+				updaters[i] = new Thread(() -> {
+					try {
+						startLatch.await();
+					} catch (final InterruptedException e) {
+						return;
+					}
+					final var endNanos = deadline[0];
+					long n = 0;
+					while (true) {
+						for (var j = 0; j < 0x400; j++) {
+							meter.update(1);
+						}
+						n += 0x400;
+						if (System.nanoTime() > endNanos) {
+							break;
+						}
+					}
+					opCounter.add(n);
+				});
+				updaters[i].start();
+			}
+			final var holder = new RateMetricSnapshotHolder("perf");
+			deadline[0] = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIME_LIMIT);
+			startLatch.countDown();
+			while (System.nanoTime() < deadline[0]) {
+				meter.snapshot(holder);
+				TimeUnit.MILLISECONDS.sleep(1);
+			}
+			for (final var updater : updaters) {
+				updater.join();
+			}
+			meter.snapshot(holder);
+			Assert.assertEquals(opCounter.sum(), holder.count());
+			System.out.println(
+							"Rate meter updates rate w/ " + threadCount + " threads: " + opCounter.sum() / TIME_LIMIT + " op/s");
+		}
+	}
+}